@@ -4,10 +4,14 @@ package graphql;
 import graphql.language.BooleanValue;
 import graphql.language.Description;
 import graphql.language.DirectiveDefinition;
+import graphql.language.IntValue;
 import graphql.language.StringValue;
 import graphql.schema.GraphQLDirective;
 
+import java.math.BigInteger;
+
 import static graphql.Scalars.GraphQLBoolean;
+import static graphql.Scalars.GraphQLInt;
 import static graphql.Scalars.GraphQLString;
 import static graphql.introspection.Introspection.DirectiveLocation.ARGUMENT_DEFINITION;
 import static graphql.introspection.Introspection.DirectiveLocation.ENUM_VALUE;
@@ -35,6 +39,7 @@ public class Directives {
     private static final String DEPRECATED = "deprecated";
     private static final String ONE_OF = "oneOf";
     private static final String DEFER = "defer";
+    private static final String STREAM = "stream";
 
     public static final String NO_LONGER_SUPPORTED = "No longer supported";
     public static final DirectiveDefinition DEPRECATED_DIRECTIVE_DEFINITION;
@@ -106,6 +111,38 @@ public class Directives {
             )
             .build();
 
+    /**
+     * The @stream directive can be used on list fields to send the first items of the list in the initial result and the
+     * remaining items later, one by one, as the subscriber to the incremental results asks for them.
+     * This is an opt-in directive that is not available unless it is explicitly put into the schema.
+     * <p>
+     * This implementation is based on the same state of the <a href="https://github.com/graphql/graphql-spec/pull/742">Defer/Stream PR</a>
+     * as {@link #DeferDirective}
+     */
+    @ExperimentalApi
+    public static final GraphQLDirective StreamDirective = GraphQLDirective.newDirective()
+            .name(STREAM)
+            .description("This directive allows the items of a list to be streamed during execution")
+            .validLocations(FIELD)
+            .argument(newArgument()
+                    .name("if")
+                    .type(nonNull(GraphQLBoolean))
+                    .description("Streamed behaviour is controlled by this argument")
+                    .defaultValueLiteral(BooleanValue.newBooleanValue(true).build())
+            )
+            .argument(newArgument()
+                    .name("label")
+                    .type(GraphQLString)
+                    .description("A unique label that represents the list being streamed")
+            )
+            .argument(newArgument()
+                    .name("initialCount")
+                    .type(GraphQLInt)
+                    .description("The number of list items to return in the initial result")
+                    .defaultValueLiteral(IntValue.newIntValue(BigInteger.ZERO).build())
+            )
+            .build();
+
     public static final GraphQLDirective IncludeDirective = GraphQLDirective.newDirective()
             .name("include")
             .description("Directs the executor to include this field or fragment only when the `if` argument is true")
@@ -8,6 +8,8 @@ import graphql.execution.DataFetcherExceptionHandler;
 import graphql.execution.Execution;
 import graphql.execution.ExecutionId;
 import graphql.execution.ExecutionIdProvider;
+import graphql.execution.ExecutionPlan;
+import graphql.execution.ExecutionPlanCache;
 import graphql.execution.ExecutionStrategy;
 import graphql.execution.SimpleDataFetcherExceptionHandler;
 import graphql.execution.SubscriptionExecutionStrategy;
@@ -26,6 +28,7 @@ import graphql.execution.preparsed.PreparsedDocumentProvider;
 import graphql.language.Document;
 import graphql.schema.GraphQLSchema;
 import graphql.validation.ValidationError;
+import graphql.validation.ValidationResultCache;
 
 import java.util.List;
 import java.util.Locale;
@@ -93,7 +96,7 @@ public class GraphQL {
     private final PreparsedDocumentProvider preparsedDocumentProvider;
     private final ValueUnboxer valueUnboxer;
     private final boolean doNotAutomaticallyDispatchDataLoader;
-
+    private final ValidationResultCache validationResultCache;
 
     private GraphQL(Builder builder) {
         this.graphQLSchema = assertNotNull(builder.graphQLSchema, () -> "graphQLSchema must be non null");
@@ -105,6 +108,7 @@ public class GraphQL {
         this.preparsedDocumentProvider = assertNotNull(builder.preparsedDocumentProvider, () -> "preparsedDocumentProvider must be non null");
         this.valueUnboxer = assertNotNull(builder.valueUnboxer, () -> "valueUnboxer must not be null");
         this.doNotAutomaticallyDispatchDataLoader = builder.doNotAutomaticallyDispatchDataLoader;
+        this.validationResultCache = builder.validationResultCache;
     }
 
     /**
@@ -160,6 +164,13 @@ public class GraphQL {
         return preparsedDocumentProvider;
     }
 
+    /**
+     * @return the ValidationResultCache for this {@link GraphQL} instance, if any
+     */
+    public ValidationResultCache getValidationResultCache() {
+        return validationResultCache;
+    }
+
     /**
      * @return the ValueUnboxer for this {@link GraphQL} instance
      */
@@ -195,6 +206,9 @@ public class GraphQL {
                 .executionIdProvider(Optional.ofNullable(this.idProvider).orElse(builder.idProvider))
                 .instrumentation(Optional.ofNullable(this.instrumentation).orElse(builder.instrumentation))
                 .preparsedDocumentProvider(Optional.ofNullable(this.preparsedDocumentProvider).orElse(builder.preparsedDocumentProvider));
+        if (this.validationResultCache != null) {
+            builder.validationResultCache(this.validationResultCache);
+        }
 
         builderConsumer.accept(builder);
 
@@ -213,6 +227,7 @@ public class GraphQL {
         private PreparsedDocumentProvider preparsedDocumentProvider = NoOpPreparsedDocumentProvider.INSTANCE;
         private boolean doNotAutomaticallyDispatchDataLoader = false;
         private ValueUnboxer valueUnboxer = ValueUnboxer.DEFAULT;
+        private ValidationResultCache validationResultCache = null;
 
 
         public Builder(GraphQLSchema graphQLSchema) {
@@ -262,6 +277,21 @@ public class GraphQL {
             return this;
         }
 
+        /**
+         * A validation result cache lets documents that have already been validated against the schema skip validation,
+         * which is mostly useful when a {@link PreparsedDocumentProvider} is not used or its entries get evicted.
+         *
+         * @param validationResultCache the cache to use
+         *
+         * @return this builder
+         *
+         * @see graphql.validation.InMemoryValidationResultCache
+         */
+        public Builder validationResultCache(ValidationResultCache validationResultCache) {
+            this.validationResultCache = assertNotNull(validationResultCache, () -> "ValidationResultCache must be non null");
+            return this;
+        }
+
         public Builder executionIdProvider(ExecutionIdProvider executionIdProvider) {
             this.idProvider = assertNotNull(executionIdProvider, () -> "ExecutionIdProvider must be non null");
             return this;
@@ -473,7 +503,7 @@ public class GraphQL {
                 return CompletableFuture.completedFuture(new ExecutionResultImpl(preparsedDocumentEntry.getErrors()));
             }
             try {
-                return execute(executionInputRef.get(), preparsedDocumentEntry.getDocument(), graphQLSchema, instrumentationState);
+                return execute(executionInputRef.get(), preparsedDocumentEntry, graphQLSchema, instrumentationState);
             } catch (AbortExecutionException e) {
                 return CompletableFuture.completedFuture(e.toExecutionResult());
             }
@@ -489,12 +519,16 @@ public class GraphQL {
         if (parseResult.isFailure()) {
             return new PreparsedDocumentEntry(parseResult.getSyntaxException().toInvalidSyntaxError());
         } else {
-            final Document document = parseResult.getDocument();
+            InstrumentationExecutionParameters parameters = new InstrumentationExecutionParameters(executionInput, graphQLSchema);
+            final DocumentAndVariables documentAndVariables = instrumentation.instrumentDocumentAndVariables(parseResult.getDocumentAndVariables(), parameters, instrumentationState);
+            final Document document = documentAndVariables.getDocument();
+            // the query text only stands for the document if instrumentation has not replaced it
+            final String validatedQuery = document == parseResult.getDocument() ? query : null;
             // they may have changed the document and the variables via instrumentation so update the reference to it
-            executionInput = executionInput.transform(builder -> builder.variables(parseResult.getVariables()));
+            executionInput = executionInput.transform(builder -> builder.variables(documentAndVariables.getVariables()));
             executionInputRef.set(executionInput);
 
-            final List<ValidationError> errors = validate(executionInput, document, graphQLSchema, instrumentationState);
+            final List<ValidationError> errors = validate(executionInput, validatedQuery, document, graphQLSchema, instrumentationState);
             if (!errors.isEmpty()) {
                 return new PreparsedDocumentEntry(document, errors);
             }
@@ -514,28 +548,30 @@ public class GraphQL {
             return parseResult;
         } else {
             parseInstrumentationCtx.onCompleted(parseResult.getDocument(), null);
-
-            DocumentAndVariables documentAndVariables = parseResult.getDocumentAndVariables();
-            documentAndVariables = instrumentation.instrumentDocumentAndVariables(documentAndVariables, parameters, instrumentationState);
-            return ParseAndValidateResult.newResult()
-                    .document(documentAndVariables.getDocument()).variables(documentAndVariables.getVariables()).build();
+            return parseResult;
         }
     }
 
-    private List<ValidationError> validate(ExecutionInput executionInput, Document document, GraphQLSchema graphQLSchema, InstrumentationState instrumentationState) {
+    private List<ValidationError> validate(ExecutionInput executionInput, String query, Document document, GraphQLSchema graphQLSchema, InstrumentationState instrumentationState) {
         InstrumentationContext<List<ValidationError>> validationCtx = nonNullCtx(instrumentation.beginValidation(new InstrumentationValidationParameters(executionInput, document, graphQLSchema), instrumentationState));
         validationCtx.onDispatched();
 
         Predicate<Class<?>> validationRulePredicate = executionInput.getGraphQLContext().getOrDefault(ParseAndValidate.INTERNAL_VALIDATION_PREDICATE_HINT, r -> true);
         Locale locale = executionInput.getLocale() != null ? executionInput.getLocale() : Locale.getDefault();
-        List<ValidationError> validationErrors = ParseAndValidate.validate(graphQLSchema, document, validationRulePredicate, locale);
+        List<ValidationError> validationErrors;
+        if (validationResultCache != null) {
+            validationErrors = validationResultCache.getValidationErrors(graphQLSchema, query, document, validationRulePredicate, locale,
+                    () -> ParseAndValidate.validate(graphQLSchema, document, validationRulePredicate, locale));
+        } else {
+            validationErrors = ParseAndValidate.validate(graphQLSchema, document, validationRulePredicate, locale);
+        }
 
         validationCtx.onCompleted(validationErrors, null);
         return validationErrors;
     }
 
     private CompletableFuture<ExecutionResult> execute(ExecutionInput executionInput,
-                                                       Document document,
+                                                       PreparsedDocumentEntry preparsedDocumentEntry,
                                                        GraphQLSchema graphQLSchema,
                                                        InstrumentationState instrumentationState
     ) {
@@ -543,7 +579,12 @@ public class GraphQL {
         Execution execution = new Execution(queryStrategy, mutationStrategy, subscriptionStrategy, instrumentation, valueUnboxer, doNotAutomaticallyDispatchDataLoader);
         ExecutionId executionId = executionInput.getExecutionId();
 
-        return execution.execute(document, graphQLSchema, executionId, executionInput, instrumentationState);
+        // the plan cache is only created on demand so that we don't pay for it unless it's asked for
+        ExecutionPlanCache executionPlanCache = null;
+        if (executionInput.getGraphQLContext().getBoolean(ExecutionPlan.ENABLE_EXECUTION_PLANS)) {
+            executionPlanCache = preparsedDocumentEntry.getExecutionPlanCache();
+        }
+        return execution.execute(preparsedDocumentEntry.getDocument(), graphQLSchema, executionId, executionInput, instrumentationState, executionPlanCache);
     }
 
 }
@@ -1,6 +1,7 @@
 package graphql.analysis;
 
 import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
 import graphql.PublicApi;
 import graphql.execution.AbortExecutionException;
 import graphql.execution.ExecutionContext;
@@ -27,12 +28,18 @@ import static graphql.execution.instrumentation.SimpleInstrumentationContext.noO
  * <p>
  * Use the {@code Function<QueryComplexityInfo, Boolean>} parameter to supply a function to perform a custom action when the max complexity
  * is exceeded. If the function returns {@code true} a {@link AbortExecutionException} is thrown.
+ * <p>
+ * When made with a {@link QueryCostAnalyzer} the complexity is that of its {@link QueryCostAnalysis}, which can be shared
+ * with other instrumentations such as {@link MaxQueryDepthInstrumentation} and is cached with the
+ * {@link graphql.execution.ExecutionPlan} when plans are enabled, rather than that of a {@link QueryComplexityCalculator}
+ * traversal of the document for every execution.
  */
 @PublicApi
 public class MaxQueryComplexityInstrumentation extends SimplePerformantInstrumentation {
 
     private final int maxComplexity;
     private final FieldComplexityCalculator fieldComplexityCalculator;
+    private final QueryCostAnalyzer queryCostAnalyzer;
     private final Function<QueryComplexityInfo, Boolean> maxQueryComplexityExceededFunction;
 
     /**
@@ -75,6 +82,34 @@ public class MaxQueryComplexityInstrumentation extends SimplePerformantInstrumen
                                              Function<QueryComplexityInfo, Boolean> maxQueryComplexityExceededFunction) {
         this.maxComplexity = maxComplexity;
         this.fieldComplexityCalculator = assertNotNull(fieldComplexityCalculator, () -> "calculator can't be null");
+        this.queryCostAnalyzer = null;
+        this.maxQueryComplexityExceededFunction = maxQueryComplexityExceededFunction;
+    }
+
+    /**
+     * new Instrumentation that uses the complexity of a {@link QueryCostAnalysis}
+     *
+     * @param maxComplexity     max allowed complexity, otherwise execution will be aborted
+     * @param queryCostAnalyzer the analyzer of the operation
+     */
+    @ExperimentalApi
+    public MaxQueryComplexityInstrumentation(int maxComplexity, QueryCostAnalyzer queryCostAnalyzer) {
+        this(maxComplexity, queryCostAnalyzer, (queryComplexityInfo) -> true);
+    }
+
+    /**
+     * new Instrumentation that uses the complexity of a {@link QueryCostAnalysis}
+     *
+     * @param maxComplexity                      max allowed complexity, otherwise execution will be aborted
+     * @param queryCostAnalyzer                  the analyzer of the operation
+     * @param maxQueryComplexityExceededFunction the function to perform when the max complexity is exceeded
+     */
+    @ExperimentalApi
+    public MaxQueryComplexityInstrumentation(int maxComplexity, QueryCostAnalyzer queryCostAnalyzer,
+                                             Function<QueryComplexityInfo, Boolean> maxQueryComplexityExceededFunction) {
+        this.maxComplexity = maxComplexity;
+        this.fieldComplexityCalculator = null;
+        this.queryCostAnalyzer = assertNotNull(queryCostAnalyzer, () -> "analyzer can't be null");
         this.maxQueryComplexityExceededFunction = maxQueryComplexityExceededFunction;
     }
 
@@ -94,8 +129,13 @@ public class MaxQueryComplexityInstrumentation extends SimplePerformantInstrumen
     @Override
     public @Nullable InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters instrumentationExecuteOperationParameters, InstrumentationState rawState) {
         State state = ofState(rawState);
-        QueryComplexityCalculator queryComplexityCalculator = newQueryComplexityCalculator(instrumentationExecuteOperationParameters.getExecutionContext());
-        int totalComplexity = queryComplexityCalculator.calculate();
+        ExecutionContext executionContext = instrumentationExecuteOperationParameters.getExecutionContext();
+        int totalComplexity;
+        if (queryCostAnalyzer != null) {
+            totalComplexity = executionContext.getQueryCostAnalysis(queryCostAnalyzer).getComplexity();
+        } else {
+            totalComplexity = newQueryComplexityCalculator(executionContext).calculate();
+        }
         if (totalComplexity > maxComplexity) {
             QueryComplexityInfo queryComplexityInfo = QueryComplexityInfo.newQueryComplexityInfo()
                     .complexity(totalComplexity)
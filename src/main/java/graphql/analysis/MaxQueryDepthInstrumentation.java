@@ -1,6 +1,7 @@
 package graphql.analysis;
 
 import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
 import graphql.PublicApi;
 import graphql.execution.AbortExecutionException;
 import graphql.execution.ExecutionContext;
@@ -14,6 +15,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.function.Function;
 
+import static graphql.Assert.assertNotNull;
 import static graphql.execution.instrumentation.SimpleInstrumentationContext.noOp;
 
 /**
@@ -21,6 +23,9 @@ import static graphql.execution.instrumentation.SimpleInstrumentationContext.noO
  * <p>
  * Use the {@code Function<QueryDepthInfo, Boolean>} parameter to supply a function to perform a custom action when the max depth is
  * exceeded. If the function returns {@code true} a {@link AbortExecutionException} is thrown.
+ * <p>
+ * When made with a {@link QueryCostAnalyzer} the depth is that of its {@link QueryCostAnalysis}, so an analyzer shared
+ * with a {@link MaxQueryComplexityInstrumentation} checks both limits from the one analysis.
  */
 @PublicApi
 public class MaxQueryDepthInstrumentation extends SimplePerformantInstrumentation {
@@ -28,6 +33,7 @@ public class MaxQueryDepthInstrumentation extends SimplePerformantInstrumentatio
     private static final Logger log = LoggerFactory.getLogger(MaxQueryDepthInstrumentation.class);
 
     private final int maxDepth;
+    private final QueryCostAnalyzer queryCostAnalyzer;
     private final Function<QueryDepthInfo, Boolean> maxQueryDepthExceededFunction;
 
     /**
@@ -47,13 +53,44 @@ public class MaxQueryDepthInstrumentation extends SimplePerformantInstrumentatio
      */
     public MaxQueryDepthInstrumentation(int maxDepth, Function<QueryDepthInfo, Boolean> maxQueryDepthExceededFunction) {
         this.maxDepth = maxDepth;
+        this.queryCostAnalyzer = null;
+        this.maxQueryDepthExceededFunction = maxQueryDepthExceededFunction;
+    }
+
+    /**
+     * Creates a new instrumentation that uses the depth of a {@link QueryCostAnalysis}.
+     *
+     * @param maxDepth          max allowed depth, otherwise execution will be aborted
+     * @param queryCostAnalyzer the analyzer of the operation
+     */
+    @ExperimentalApi
+    public MaxQueryDepthInstrumentation(int maxDepth, QueryCostAnalyzer queryCostAnalyzer) {
+        this(maxDepth, queryCostAnalyzer, (queryDepthInfo) -> true);
+    }
+
+    /**
+     * Creates a new instrumentation that uses the depth of a {@link QueryCostAnalysis}.
+     *
+     * @param maxDepth                      max allowed depth, otherwise execution will be aborted
+     * @param queryCostAnalyzer             the analyzer of the operation
+     * @param maxQueryDepthExceededFunction the function to perform when the max depth is exceeded
+     */
+    @ExperimentalApi
+    public MaxQueryDepthInstrumentation(int maxDepth, QueryCostAnalyzer queryCostAnalyzer, Function<QueryDepthInfo, Boolean> maxQueryDepthExceededFunction) {
+        this.maxDepth = maxDepth;
+        this.queryCostAnalyzer = assertNotNull(queryCostAnalyzer, () -> "analyzer can't be null");
         this.maxQueryDepthExceededFunction = maxQueryDepthExceededFunction;
     }
 
     @Override
     public @Nullable InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
-        QueryTraverser queryTraverser = newQueryTraverser(parameters.getExecutionContext());
-        int depth = queryTraverser.reducePreOrder((env, acc) -> Math.max(getPathLength(env.getParentEnvironment()), acc), 0);
+        int depth;
+        if (queryCostAnalyzer != null) {
+            depth = parameters.getExecutionContext().getQueryCostAnalysis(queryCostAnalyzer).getDepth();
+        } else {
+            QueryTraverser queryTraverser = newQueryTraverser(parameters.getExecutionContext());
+            depth = queryTraverser.reducePreOrder((env, acc) -> Math.max(getPathLength(env.getParentEnvironment()), acc), 0);
+        }
         if (log.isDebugEnabled()) {
             log.debug("Query depth info: {}", depth);
         }
@@ -0,0 +1,69 @@
+package graphql.analysis;
+
+import graphql.ExperimentalApi;
+import graphql.schema.FieldCoordinates;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The cost of an operation as worked out by a {@link QueryCostAnalyzer}.  Everything in here comes from the same single
+ * pass over the {@link graphql.normalized.ExecutableNormalizedOperation} of the operation.
+ */
+@ExperimentalApi
+public class QueryCostAnalysis {
+
+    private final int depth;
+    private final int fieldCount;
+    private final int complexity;
+    private final Map<FieldCoordinates, Integer> complexityByCoordinates;
+
+    QueryCostAnalysis(int depth, int fieldCount, int complexity, Map<FieldCoordinates, Integer> complexityByCoordinates) {
+        this.depth = depth;
+        this.fieldCount = fieldCount;
+        this.complexity = complexity;
+        this.complexityByCoordinates = Collections.unmodifiableMap(complexityByCoordinates);
+    }
+
+    /**
+     * @return the depth of the operation, where the top level fields are at depth 1, in the same way as
+     * {@link MaxQueryDepthInstrumentation} counts it
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the number of {@link graphql.normalized.ExecutableNormalizedField}s in the operation
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return the total complexity of the operation, which is the sum of the complexity of its top level fields
+     */
+    public int getComplexity() {
+        return complexity;
+    }
+
+    /**
+     * The complexity of each field of the operation, including that of its sub selection, summed up by the schema
+     * coordinates of the field.  Fields that apply to more than one object type are counted once, against the type
+     * they were selected on.
+     *
+     * @return a map of schema coordinates to complexity, in the order the fields appear in the operation
+     */
+    public Map<FieldCoordinates, Integer> getComplexityByCoordinates() {
+        return complexityByCoordinates;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCostAnalysis{" +
+                "depth=" + depth +
+                ", fieldCount=" + fieldCount +
+                ", complexity=" + complexity +
+                '}';
+    }
+}
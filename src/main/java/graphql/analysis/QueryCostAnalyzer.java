@@ -0,0 +1,192 @@
+package graphql.analysis;
+
+import com.google.common.collect.ImmutableSet;
+import graphql.ExperimentalApi;
+import graphql.ThreadSafe;
+import graphql.normalized.ExecutableNormalizedField;
+import graphql.normalized.ExecutableNormalizedOperation;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLCompositeType;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeUtil;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+
+/**
+ * This works out the depth, the field count and the complexity of an operation in a single pass over its
+ * {@link ExecutableNormalizedOperation}, giving a {@link QueryCostAnalysis}.
+ * <p>
+ * The complexity of each field is given by the {@link FieldComplexityCalculator}, in the same way as for
+ * {@link QueryComplexityCalculator}, except that the complexity of the sub selection of a field is first multiplied by
+ * the size of the list the field asks for.  That size is the largest value of the field's list size arguments, which
+ * are {@code first} and {@code last} by default, and otherwise {@link Builder#defaultListSize(int)} for fields of a list
+ * type.  So with the default calculator {@code users(first: 10) { name }} has a complexity of {@code 1 + 10 * 1}.
+ * <p>
+ * The analysis only ever looks at the normalized operation, so it shares whatever work has gone into making it.  Use
+ * {@link graphql.execution.ExecutionContext#getQueryCostAnalysis(QueryCostAnalyzer)} during execution, which analyses
+ * the operation once per execution for each analyzer and, when {@link graphql.execution.ExecutionPlan}s are enabled,
+ * caches the analysis with the plan so that repeated operations are not analysed again.  Analyzers are used as cache
+ * keys and so should be made once and shared, for example between a {@link MaxQueryDepthInstrumentation} and a
+ * {@link MaxQueryComplexityInstrumentation}.
+ */
+@ExperimentalApi
+@ThreadSafe
+public class QueryCostAnalyzer {
+
+    private final FieldComplexityCalculator fieldComplexityCalculator;
+    private final Set<String> listSizeArguments;
+    private final int defaultListSize;
+
+    private QueryCostAnalyzer(Builder builder) {
+        this.fieldComplexityCalculator = builder.fieldComplexityCalculator;
+        this.listSizeArguments = builder.listSizeArguments;
+        this.defaultListSize = builder.defaultListSize;
+    }
+
+    /**
+     * Analyses the given operation
+     *
+     * @param graphQLSchema the schema of the operation
+     * @param operation     the normalized operation
+     *
+     * @return the cost analysis of the operation
+     */
+    public QueryCostAnalysis analyze(GraphQLSchema graphQLSchema, ExecutableNormalizedOperation operation) {
+        assertNotNull(graphQLSchema, () -> "graphQLSchema can't be null");
+        assertNotNull(operation, () -> "operation can't be null");
+        Analysis analysis = new Analysis(graphQLSchema, operation);
+        int complexity = 0;
+        for (ExecutableNormalizedField topLevelField : operation.getTopLevelFields()) {
+            complexity = add(complexity, analysis.analyze(topLevelField, null));
+        }
+        return new QueryCostAnalysis(analysis.depth, analysis.fieldCount, complexity, analysis.complexityByCoordinates);
+    }
+
+    private class Analysis {
+        private final GraphQLSchema graphQLSchema;
+        private final ExecutableNormalizedOperation operation;
+        private final Map<FieldCoordinates, Integer> complexityByCoordinates = new LinkedHashMap<>();
+        private int depth;
+        private int fieldCount;
+
+        Analysis(GraphQLSchema graphQLSchema, ExecutableNormalizedOperation operation) {
+            this.graphQLSchema = graphQLSchema;
+            this.operation = operation;
+        }
+
+        private int analyze(ExecutableNormalizedField field, FieldComplexityEnvironment parentEnvironment) {
+            fieldCount++;
+            depth = Math.max(depth, field.getLevel());
+            if (field.getName().equals(graphQLSchema.getIntrospectionTypenameFieldDefinition().getName())) {
+                return 0;
+            }
+
+            GraphQLFieldDefinition fieldDefinition = field.getFieldDefinitions(graphQLSchema).get(0);
+            GraphQLCompositeType parentType = parentType(field);
+            FieldComplexityEnvironment environment = new FieldComplexityEnvironment(
+                    operation.getMergedField(field).getSingleField(),
+                    fieldDefinition,
+                    parentType,
+                    field.getResolvedArguments(),
+                    parentEnvironment);
+
+            int childComplexity = 0;
+            for (ExecutableNormalizedField child : field.getChildren()) {
+                childComplexity = add(childComplexity, analyze(child, environment));
+            }
+            int listSize = listSize(field, fieldDefinition);
+            int value = fieldComplexityCalculator.calculate(environment, (int) Math.min((long) childComplexity * listSize, Integer.MAX_VALUE));
+
+            FieldCoordinates coordinates = FieldCoordinates.coordinates(parentType.getName(), field.getName());
+            complexityByCoordinates.merge(coordinates, value, QueryCostAnalyzer::add);
+            return value;
+        }
+
+        private GraphQLCompositeType parentType(ExecutableNormalizedField field) {
+            Set<String> objectTypeNames = field.getObjectTypeNames();
+            if (objectTypeNames.size() == 1) {
+                return graphQLSchema.getObjectType(objectTypeNames.iterator().next());
+            }
+            // a field of many object types is selected on an interface or union, which is the type of its parent field
+            GraphQLFieldDefinition parentDefinition = field.getParent().getFieldDefinitions(graphQLSchema).get(0);
+            return (GraphQLCompositeType) GraphQLTypeUtil.unwrapAll(parentDefinition.getType());
+        }
+    }
+
+    private int listSize(ExecutableNormalizedField field, GraphQLFieldDefinition fieldDefinition) {
+        long listSize = -1;
+        Map<String, Object> arguments = field.getResolvedArguments();
+        for (String listSizeArgument : listSizeArguments) {
+            Object value = arguments.get(listSizeArgument);
+            if (value instanceof Number) {
+                listSize = Math.max(listSize, Math.max(((Number) value).longValue(), 0));
+            }
+        }
+        if (listSize >= 0) {
+            return (int) Math.min(listSize, Integer.MAX_VALUE);
+        }
+        return GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(fieldDefinition.getType())) ? defaultListSize : 1;
+    }
+
+    private static int add(int a, int b) {
+        // complexity saturates rather than overflowing, so that huge operations are still seen as too complex
+        return (int) Math.min((long) a + b, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return a new {@link QueryCostAnalyzer} builder
+     */
+    public static Builder newQueryCostAnalyzer() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private FieldComplexityCalculator fieldComplexityCalculator = (env, childComplexity) -> 1 + childComplexity;
+        private Set<String> listSizeArguments = ImmutableSet.of("first", "last");
+        private int defaultListSize = 1;
+
+        /**
+         * @param fieldComplexityCalculator the calculator of the complexity of each field.  This is
+         *                                  {@code 1 + childComplexity} by default
+         *
+         * @return this builder
+         */
+        public Builder fieldComplexityCalculator(FieldComplexityCalculator fieldComplexityCalculator) {
+            this.fieldComplexityCalculator = assertNotNull(fieldComplexityCalculator, () -> "fieldComplexityCalculator can't be null");
+            return this;
+        }
+
+        /**
+         * @param listSizeArguments the names of the arguments that give how many items a field returns.  These are
+         *                          {@code first} and {@code last} by default
+         *
+         * @return this builder
+         */
+        public Builder listSizeArguments(Set<String> listSizeArguments) {
+            this.listSizeArguments = ImmutableSet.copyOf(assertNotNull(listSizeArguments, () -> "listSizeArguments can't be null"));
+            return this;
+        }
+
+        /**
+         * @param defaultListSize the number of items assumed for fields of a list type that have no list size
+         *                        argument.  This is 1 by default
+         *
+         * @return this builder
+         */
+        public Builder defaultListSize(int defaultListSize) {
+            assertTrue(defaultListSize >= 0, () -> "defaultListSize can't be negative");
+            this.defaultListSize = defaultListSize;
+            return this;
+        }
+
+        public QueryCostAnalyzer build() {
+            return new QueryCostAnalyzer(this);
+        }
+    }
+}
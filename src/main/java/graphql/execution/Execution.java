@@ -8,11 +8,14 @@ import graphql.ExperimentalApi;
 import graphql.GraphQLContext;
 import graphql.GraphQLError;
 import graphql.Internal;
+import graphql.execution.conditional.ConditionalNodeDecision;
 import graphql.execution.incremental.IncrementalCallState;
 import graphql.execution.instrumentation.Instrumentation;
 import graphql.execution.instrumentation.InstrumentationContext;
 import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatchingContextKeys;
 import graphql.execution.instrumentation.dataloader.FallbackDataLoaderDispatchStrategy;
+import graphql.execution.instrumentation.dataloader.LockFreePerLevelDataLoaderDispatchStrategy;
 import graphql.execution.instrumentation.dataloader.PerLevelDataLoaderDispatchStrategy;
 import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
@@ -34,6 +37,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 import static graphql.execution.ExecutionContextBuilder.newExecutionContextBuilder;
 import static graphql.execution.ExecutionStepInfo.newExecutionStepInfo;
@@ -67,6 +72,10 @@ public class Execution {
     }
 
     public CompletableFuture<ExecutionResult> execute(Document document, GraphQLSchema graphQLSchema, ExecutionId executionId, ExecutionInput executionInput, InstrumentationState instrumentationState) {
+        return execute(document, graphQLSchema, executionId, executionInput, instrumentationState, null);
+    }
+
+    public CompletableFuture<ExecutionResult> execute(Document document, GraphQLSchema graphQLSchema, ExecutionId executionId, ExecutionInput executionInput, InstrumentationState instrumentationState, ExecutionPlanCache executionPlanCache) {
 
         NodeUtil.GetOperationResult getOperationResult = NodeUtil.getOperation(document, executionInput.getOperationName());
         Map<String, FragmentDefinition> fragmentsByName = getOperationResult.fragmentsByName;
@@ -85,6 +94,11 @@ public class Execution {
             throw rte;
         }
 
+        ExecutionPlan executionPlan = null;
+        if (executionPlanCache != null && canUseExecutionPlan(executionInput.getGraphQLContext())) {
+            executionPlan = executionPlanCache.getPlan(graphQLSchema, operationDefinition, coercedVariables);
+        }
+
         ExecutionContext executionContext = newExecutionContextBuilder()
                 .instrumentation(instrumentation)
                 .instrumentationState(instrumentationState)
@@ -105,6 +119,7 @@ public class Execution {
                 .locale(executionInput.getLocale())
                 .valueUnboxer(valueUnboxer)
                 .executionInput(executionInput)
+                .executionPlan(executionPlan)
                 .build();
 
         executionContext.getGraphQLContext().put(ResultNodesInfo.RESULT_NODES_INFO, executionContext.getResultNodesInfo());
@@ -113,10 +128,34 @@ public class Execution {
                 executionInput, graphQLSchema
         );
         executionContext = instrumentation.instrumentExecutionContext(executionContext, parameters, instrumentationState);
-        return executeOperation(executionContext, executionInput.getRoot(), executionContext.getOperationDefinition());
+
+        CompletableFuture<Void> operationAllowed = instrumentation.awaitExecuteOperation(new InstrumentationExecuteOperationParameters(executionContext), instrumentationState);
+        if (operationAllowed == null) {
+            return executeOperation(executionContext, executionInput.getRoot(), executionContext.getOperationDefinition());
+        }
+        ExecutionContext allowedExecutionContext = executionContext;
+        return operationAllowed.handle((ignored, throwable) -> {
+            if (throwable == null) {
+                return executeOperation(allowedExecutionContext, executionInput.getRoot(), allowedExecutionContext.getOperationDefinition());
+            }
+            Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+            if (cause instanceof AbortExecutionException) {
+                return completedFuture(((AbortExecutionException) cause).toExecutionResult());
+            }
+            return Async.<ExecutionResult>exceptionallyCompletedFuture(cause);
+        }).thenCompose(Function.identity());
     }
 
 
+    /*
+     * Plans capture the outcome of field collection and hence can't be used when something other than the
+     * conditional variable values (which are part of the plan key) can change that outcome.
+     */
+    private static boolean canUseExecutionPlan(GraphQLContext graphQLContext) {
+        return !graphQLContext.getBoolean(ExperimentalApi.ENABLE_INCREMENTAL_SUPPORT)
+                && !graphQLContext.hasKey(ConditionalNodeDecision.class);
+    }
+
     private CompletableFuture<ExecutionResult> executeOperation(ExecutionContext executionContext, Object root, OperationDefinition operationDefinition) {
 
         GraphQLContext graphQLContext = executionContext.getGraphQLContext();
@@ -142,21 +181,28 @@ public class Execution {
             throw rte;
         }
 
-        FieldCollectorParameters collectorParameters = FieldCollectorParameters.newParameters()
-                .schema(executionContext.getGraphQLSchema())
-                .objectType(operationRootType)
-                .fragments(executionContext.getFragmentsByName())
-                .variables(executionContext.getCoercedVariables().toMap())
-                .graphQLContext(graphQLContext)
-                .build();
-
-        MergedSelectionSet fields = fieldCollector.collectFields(
-                collectorParameters,
-                operationDefinition.getSelectionSet(),
-                Optional.ofNullable(executionContext.getGraphQLContext())
-                        .map(graphqlContext -> graphqlContext.getBoolean(ExperimentalApi.ENABLE_INCREMENTAL_SUPPORT))
-                        .orElse(false)
-        );
+        ExecutionPlan executionPlan = executionContext.getExecutionPlan();
+        MergedSelectionSet fields = executionPlan != null ? executionPlan.getRootFields() : null;
+        if (fields == null) {
+            FieldCollectorParameters collectorParameters = FieldCollectorParameters.newParameters()
+                    .schema(executionContext.getGraphQLSchema())
+                    .objectType(operationRootType)
+                    .fragments(executionContext.getFragmentsByName())
+                    .variables(executionContext.getCoercedVariables().toMap())
+                    .graphQLContext(graphQLContext)
+                    .build();
+
+            fields = fieldCollector.collectFields(
+                    collectorParameters,
+                    operationDefinition.getSelectionSet(),
+                    Optional.ofNullable(executionContext.getGraphQLContext())
+                            .map(graphqlContext -> graphqlContext.getBoolean(ExperimentalApi.ENABLE_INCREMENTAL_SUPPORT))
+                            .orElse(false)
+            );
+            if (executionPlan != null) {
+                fields = executionPlan.addRootFields(operationRootType, fields);
+            }
+        }
 
         ResultPath path = ResultPath.rootPath();
         ExecutionStepInfo executionStepInfo = newExecutionStepInfo().type(operationRootType).path(path).build();
@@ -228,6 +274,9 @@ public class Execution {
             return DataLoaderDispatchStrategy.NO_OP;
         }
         if (executionStrategy instanceof AsyncExecutionStrategy) {
+            if (executionContext.getGraphQLContext().getBoolean(DataLoaderDispatchingContextKeys.ENABLE_LOCK_FREE_PER_LEVEL_DISPATCH)) {
+                return new LockFreePerLevelDataLoaderDispatchStrategy(executionContext);
+            }
             return new PerLevelDataLoaderDispatchStrategy(executionContext);
         } else {
             return new FallbackDataLoaderDispatchStrategy(executionContext);
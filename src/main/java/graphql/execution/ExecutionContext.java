@@ -4,10 +4,13 @@ package graphql.execution;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import graphql.ExecutionInput;
+import graphql.ExperimentalApi;
 import graphql.GraphQLContext;
 import graphql.GraphQLError;
 import graphql.Internal;
 import graphql.PublicApi;
+import graphql.analysis.QueryCostAnalysis;
+import graphql.analysis.QueryCostAnalyzer;
 import graphql.collect.ImmutableKit;
 import graphql.execution.incremental.IncrementalCallState;
 import graphql.execution.instrumentation.Instrumentation;
@@ -27,6 +30,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -59,11 +64,14 @@ public class ExecutionContext {
     private final ValueUnboxer valueUnboxer;
     private final ExecutionInput executionInput;
     private final Supplier<ExecutableNormalizedOperation> queryTree;
+    private final ExecutionPlan executionPlan;
+    private final Map<QueryCostAnalyzer, QueryCostAnalysis> queryCostAnalyses = new ConcurrentHashMap<>(2);
 
     // this is modified after creation so it needs to be volatile to ensure visibility across Threads
     private volatile DataLoaderDispatchStrategy dataLoaderDispatcherStrategy = DataLoaderDispatchStrategy.NO_OP;
 
     private final ResultNodesInfo resultNodesInfo = new ResultNodesInfo();
+    private final AtomicInteger dataLoaderDispatchCount = new AtomicInteger();
 
     ExecutionContext(ExecutionContextBuilder builder) {
         this.graphQLSchema = builder.graphQLSchema;
@@ -86,7 +94,8 @@ public class ExecutionContext {
         this.errors.set(builder.errors);
         this.localContext = builder.localContext;
         this.executionInput = builder.executionInput;
-        this.queryTree = FpKit.interThreadMemoize(() -> ExecutableNormalizedOperationFactory.createExecutableNormalizedOperation(graphQLSchema, operationDefinition, fragmentsByName, coercedVariables));
+        this.executionPlan = builder.executionPlan;
+        this.queryTree = FpKit.interThreadMemoize(this::createNormalizedOperation);
     }
 
 
@@ -273,6 +282,46 @@ public class ExecutionContext {
         return queryTree;
     }
 
+    private ExecutableNormalizedOperation createNormalizedOperation() {
+        ExecutionPlan executionPlan = getExecutionPlan();
+        if (executionPlan != null) {
+            return executionPlan.getNormalizedOperation(operationDefinition, fragmentsByName, coercedVariables);
+        }
+        return ExecutableNormalizedOperationFactory.createExecutableNormalizedOperation(graphQLSchema, operationDefinition, fragmentsByName, coercedVariables);
+    }
+
+    /**
+     * Gives the cost analysis of the {@link #getNormalizedQueryTree() normalized operation} of this execution.  It is
+     * worked out once per execution for each analyzer, and cached with the {@link ExecutionPlan} when plans are enabled.
+     *
+     * @param queryCostAnalyzer the analyzer to use
+     *
+     * @return the cost analysis of the operation
+     */
+    @ExperimentalApi
+    public QueryCostAnalysis getQueryCostAnalysis(QueryCostAnalyzer queryCostAnalyzer) {
+        return queryCostAnalyses.computeIfAbsent(queryCostAnalyzer, analyzer -> {
+            ExecutableNormalizedOperation operation = queryTree.get();
+            ExecutionPlan executionPlan = getExecutionPlan();
+            if (executionPlan != null) {
+                return executionPlan.getCostAnalysis(analyzer, operation);
+            }
+            return analyzer.analyze(graphQLSchema, operation);
+        });
+    }
+
+    /**
+     * @return the compiled {@link ExecutionPlan} in play for this execution or null if plans are not enabled
+     */
+    @ExperimentalApi
+    public ExecutionPlan getExecutionPlan() {
+        // instrumentation is allowed to change the schema and plans are only valid for the schema they were made for
+        if (executionPlan != null && executionPlan.getGraphQLSchema() != graphQLSchema) {
+            return null;
+        }
+        return executionPlan;
+    }
+
     @Internal
     public void setDataLoaderDispatcherStrategy(DataLoaderDispatchStrategy dataLoaderDispatcherStrategy) {
         this.dataLoaderDispatcherStrategy = dataLoaderDispatcherStrategy;
@@ -300,4 +349,16 @@ public class ExecutionContext {
     public ResultNodesInfo getResultNodesInfo() {
         return resultNodesInfo;
     }
+
+    /**
+     * @return the number of times the data loaders have been dispatched by the data loader dispatch strategy during this execution
+     */
+    public int getDataLoaderDispatchCount() {
+        return dataLoaderDispatchCount.get();
+    }
+
+    @Internal
+    public void incrementDataLoaderDispatchCount() {
+        dataLoaderDispatchCount.incrementAndGet();
+    }
 }
@@ -3,6 +3,7 @@ package graphql.execution;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import graphql.ExecutionInput;
+import graphql.ExperimentalApi;
 import graphql.GraphQLContext;
 import graphql.GraphQLError;
 import graphql.Internal;
@@ -45,6 +46,7 @@ public class ExecutionContextBuilder {
     ValueUnboxer valueUnboxer;
     Object localContext;
     ExecutionInput executionInput;
+    ExecutionPlan executionPlan;
 
     /**
      * @return a new builder of {@link graphql.execution.ExecutionContext}s
@@ -90,6 +92,7 @@ public class ExecutionContextBuilder {
         errors = ImmutableList.copyOf(other.getErrors());
         valueUnboxer = other.getValueUnboxer();
         executionInput = other.getExecutionInput();
+        executionPlan = other.getExecutionPlan();
     }
 
     public ExecutionContextBuilder instrumentation(Instrumentation instrumentation) {
@@ -203,6 +206,12 @@ public class ExecutionContextBuilder {
         return this;
     }
 
+    @ExperimentalApi
+    public ExecutionContextBuilder executionPlan(ExecutionPlan executionPlan) {
+        this.executionPlan = executionPlan;
+        return this;
+    }
+
     public ExecutionContextBuilder resetErrors() {
         this.errors = emptyList();
         return this;
@@ -0,0 +1,231 @@
+package graphql.execution;
+
+import graphql.ExperimentalApi;
+import graphql.Internal;
+import graphql.ThreadSafe;
+import graphql.analysis.QueryCostAnalysis;
+import graphql.analysis.QueryCostAnalyzer;
+import graphql.language.FragmentDefinition;
+import graphql.language.OperationDefinition;
+import graphql.normalized.ExecutableNormalizedOperation;
+import graphql.normalized.ExecutableNormalizedOperationFactory;
+import graphql.normalized.ExecutableNormalizedOperationTemplate;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An execution plan is the compiled form of an operation for a specific {@link GraphQLSchema} and a specific set of
+ * {@code @skip} / {@code @include} variable values.  It remembers the results of field collection (the {@link MergedSelectionSet}
+ * of each object type reached), the {@link GraphQLFieldDefinition} of each collected field and the {@link DataFetcher}
+ * resolved from the {@link graphql.schema.GraphQLCodeRegistry}, so that repeated executions of the same operation shape
+ * do not have to recompute them for every object of every request.  It also holds the
+ * {@link ExecutableNormalizedOperationTemplate} of the operation, so that {@link ExecutionContext#getNormalizedQueryTree()}
+ * only has to rebind the arguments of the fields to the variables of each request, and the {@link QueryCostAnalysis}
+ * of that normalized operation for each {@link QueryCostAnalyzer} in use, so that repeated operations are admitted or
+ * rejected without being analysed again.
+ * <p>
+ * Plans are filled in lazily as execution reaches new parts of the operation and are cached per document via
+ * {@link ExecutionPlanCache}, which in turn lives alongside the {@link graphql.execution.preparsed.PreparsedDocumentEntry}.
+ * <p>
+ * Plans are only used if the {@link #ENABLE_EXECUTION_PLANS} key is set to true in the {@link graphql.GraphQLContext}.
+ * Note that {@link graphql.schema.DataFetcherFactory}s are consulted once per plan rather than once per field fetch.
+ */
+@ExperimentalApi
+@ThreadSafe
+public class ExecutionPlan {
+
+    /**
+     * The key that should be associated with a boolean value in the {@link graphql.GraphQLContext} which indicates
+     * whether compiled execution plans are used for this execution.
+     */
+    public static final String ENABLE_EXECUTION_PLANS = "ENABLE_EXECUTION_PLANS";
+
+    /**
+     * There is usually a single analyzer, so only a few analyses are kept per plan
+     */
+    static final int MAX_COST_ANALYSES_PER_PLAN = 8;
+
+    private final GraphQLSchema graphQLSchema;
+    // keyed by identity since the same AST fields can be collected into equal but different merged fields under different
+    // object types.  Fields are only added while a plan is first filled in, so lookups read a copy without locking
+    private volatile Map<MergedField, PlannedField> plannedFields = new IdentityHashMap<>();
+    private volatile MergedSelectionSet rootFields;
+    private volatile ExecutableNormalizedOperationTemplate normalizedOperationTemplate;
+    private final ConcurrentMap<QueryCostAnalyzer, CostAnalysis> costAnalyses = new ConcurrentHashMap<>(2);
+
+    ExecutionPlan(GraphQLSchema graphQLSchema) {
+        this.graphQLSchema = graphQLSchema;
+    }
+
+    public GraphQLSchema getGraphQLSchema() {
+        return graphQLSchema;
+    }
+
+    /**
+     * @return the number of fields that have been planned so far
+     */
+    public int getPlannedFieldCount() {
+        return plannedFields.size();
+    }
+
+    /**
+     * Gives the normalized operation for the given variables, from the template of this plan.  The template is made on
+     * first use, and made again if the default {@link ExecutableNormalizedOperationFactory.Options} have changed since.
+     *
+     * @param operationDefinition the operation of this plan
+     * @param fragments           the fragments of the document
+     * @param coercedVariables    the coerced variables of this execution
+     *
+     * @return the normalized operation
+     */
+    @Internal
+    ExecutableNormalizedOperation getNormalizedOperation(OperationDefinition operationDefinition, Map<String, FragmentDefinition> fragments, CoercedVariables coercedVariables) {
+        ExecutableNormalizedOperationFactory.Options options = ExecutableNormalizedOperationFactory.Options.defaultOptions();
+        ExecutableNormalizedOperationTemplate template = normalizedOperationTemplate;
+        if (template == null || template.getOptions() != options) {
+            // racing threads may both make a template but they will make the same one
+            template = ExecutableNormalizedOperationFactory.createExecutableNormalizedOperationTemplate(graphQLSchema, operationDefinition, fragments, coercedVariables, options);
+            normalizedOperationTemplate = template;
+        }
+        return template.rebind(coercedVariables);
+    }
+
+    /**
+     * Gives the cost analysis of the given normalized operation, which is only worked out again when the operation is not
+     * the one that was analysed last.  Operations from the same template are the very same object as long as the
+     * variables used by the arguments of the fields do not change.
+     *
+     * @param queryCostAnalyzer the analyzer
+     * @param operation         the normalized operation of this plan
+     *
+     * @return the cost analysis
+     */
+    @Internal
+    QueryCostAnalysis getCostAnalysis(QueryCostAnalyzer queryCostAnalyzer, ExecutableNormalizedOperation operation) {
+        CostAnalysis costAnalysis = costAnalyses.get(queryCostAnalyzer);
+        if (costAnalysis != null && costAnalysis.operation == operation) {
+            return costAnalysis.analysis;
+        }
+        QueryCostAnalysis analysis = queryCostAnalyzer.analyze(graphQLSchema, operation);
+        if (costAnalysis != null || costAnalyses.size() < MAX_COST_ANALYSES_PER_PLAN) {
+            costAnalyses.put(queryCostAnalyzer, new CostAnalysis(operation, analysis));
+        }
+        return analysis;
+    }
+
+    @Internal
+    MergedSelectionSet getRootFields() {
+        return rootFields;
+    }
+
+    @Internal
+    MergedSelectionSet addRootFields(GraphQLObjectType rootType, MergedSelectionSet fields) {
+        planFields(rootType, fields);
+        rootFields = fields;
+        return fields;
+    }
+
+    /**
+     * Returns the previously planned sub selection of a field for the given resolved object type
+     *
+     * @param parentField the field whose sub selection is wanted
+     * @param objectType  the resolved object type
+     *
+     * @return the planned sub selection or null if it has not been planned (yet)
+     */
+    @Internal
+    MergedSelectionSet getSubFields(MergedField parentField, GraphQLObjectType objectType) {
+        PlannedField plannedField = getPlannedField(parentField);
+        if (plannedField == null) {
+            return null;
+        }
+        return plannedField.subSelections.get(objectType);
+    }
+
+    @Internal
+    MergedSelectionSet addSubFields(MergedField parentField, GraphQLObjectType objectType, MergedSelectionSet fields) {
+        PlannedField plannedField = getPlannedField(parentField);
+        if (plannedField == null) {
+            // the field did not come from this plan, so we cannot safely associate anything with it
+            return fields;
+        }
+        MergedSelectionSet existing = plannedField.subSelections.putIfAbsent(objectType, fields);
+        if (existing != null) {
+            return existing;
+        }
+        planFields(objectType, fields);
+        return fields;
+    }
+
+    /**
+     * @param mergedField the field to look up
+     *
+     * @return the planned field or null if this field was not produced by this plan
+     */
+    @Internal
+    PlannedField getPlannedField(MergedField mergedField) {
+        return plannedFields.get(mergedField);
+    }
+
+    private synchronized void planFields(GraphQLObjectType parentType, MergedSelectionSet fields) {
+        Map<MergedField, PlannedField> copy = new IdentityHashMap<>(plannedFields);
+        for (MergedField subField : fields.getSubFieldsList()) {
+            copy.putIfAbsent(subField, new PlannedField(parentType));
+        }
+        plannedFields = copy;
+    }
+
+    /**
+     * The planned information about a single collected field.  The field definition and data fetcher are filled
+     * in on first use since how they are obtained can be overridden by the {@link ExecutionStrategy}.  Racing
+     * threads may compute them more than once but will always compute the same values.
+     */
+    @Internal
+    static class PlannedField {
+        private final GraphQLObjectType parentType;
+        private final ConcurrentMap<GraphQLObjectType, MergedSelectionSet> subSelections = new ConcurrentHashMap<>(2);
+        private volatile GraphQLFieldDefinition fieldDefinition;
+        private volatile DataFetcher<?> dataFetcher;
+
+        PlannedField(GraphQLObjectType parentType) {
+            this.parentType = parentType;
+        }
+
+        GraphQLObjectType getParentType() {
+            return parentType;
+        }
+
+        GraphQLFieldDefinition getFieldDefinition() {
+            return fieldDefinition;
+        }
+
+        void setFieldDefinition(GraphQLFieldDefinition fieldDefinition) {
+            this.fieldDefinition = fieldDefinition;
+        }
+
+        DataFetcher<?> getDataFetcher() {
+            return dataFetcher;
+        }
+
+        void setDataFetcher(DataFetcher<?> dataFetcher) {
+            this.dataFetcher = dataFetcher;
+        }
+    }
+
+    private static class CostAnalysis {
+        private final ExecutableNormalizedOperation operation;
+        private final QueryCostAnalysis analysis;
+
+        CostAnalysis(ExecutableNormalizedOperation operation, QueryCostAnalysis analysis) {
+            this.operation = operation;
+            this.analysis = analysis;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package graphql.execution;
+
+import graphql.ExperimentalApi;
+import graphql.ThreadSafe;
+import graphql.language.Argument;
+import graphql.language.Definition;
+import graphql.language.Directive;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.VariableReference;
+import graphql.schema.GraphQLSchema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Directives.IncludeDirective;
+import static graphql.Directives.SkipDirective;
+
+/**
+ * This holds the {@link ExecutionPlan}s of a single {@link Document}.  A plan is keyed by the operation being executed
+ * and the values of the variables that are used in {@code @skip} and {@code @include} directives since those are the
+ * only runtime inputs that change which fields are collected.
+ * <p>
+ * Plans are only held for the schema the document was last executed against.  When it is executed against another
+ * schema, say because the schema has been reloaded, the plans of the previous schema are dropped so that it is not
+ * kept alive by a cached document.
+ * <p>
+ * An instance of this is held by {@link graphql.execution.preparsed.PreparsedDocumentEntry} and hence if you cache preparsed
+ * documents then you also cache their execution plans.
+ */
+@ExperimentalApi
+@ThreadSafe
+public class ExecutionPlanCache {
+
+    /**
+     * The number of plans per document is bounded since each combination of conditional variable values gets its own plan
+     */
+    static final int MAX_PLANS_PER_DOCUMENT = 64;
+
+    private final List<String> conditionalVariableNames;
+    private volatile SchemaPlans schemaPlans;
+
+    public ExecutionPlanCache(Document document) {
+        assertNotNull(document);
+        this.conditionalVariableNames = new ArrayList<>(findConditionalVariableNames(document));
+    }
+
+    /**
+     * Gets (or creates) the execution plan for the given operation shape
+     *
+     * @param graphQLSchema       the schema in play
+     * @param operationDefinition the operation being executed
+     * @param coercedVariables    the coerced variables of this execution
+     *
+     * @return an execution plan, never null
+     */
+    public ExecutionPlan getPlan(GraphQLSchema graphQLSchema, OperationDefinition operationDefinition, CoercedVariables coercedVariables) {
+        Object[] conditionalValues = new Object[conditionalVariableNames.size()];
+        for (int i = 0; i < conditionalValues.length; i++) {
+            conditionalValues[i] = coercedVariables.get(conditionalVariableNames.get(i));
+        }
+        PlanKey planKey = new PlanKey(operationDefinition, conditionalValues);
+        ConcurrentMap<PlanKey, ExecutionPlan> plans = getPlans(graphQLSchema);
+        ExecutionPlan plan = plans.get(planKey);
+        if (plan != null) {
+            return plan;
+        }
+        if (plans.size() >= MAX_PLANS_PER_DOCUMENT) {
+            // still useful within this execution but we don't hold onto it
+            return new ExecutionPlan(graphQLSchema);
+        }
+        return plans.computeIfAbsent(planKey, key -> new ExecutionPlan(graphQLSchema));
+    }
+
+    private ConcurrentMap<PlanKey, ExecutionPlan> getPlans(GraphQLSchema graphQLSchema) {
+        SchemaPlans current = schemaPlans;
+        if (current == null || current.graphQLSchema != graphQLSchema) {
+            // racing executions against different schemas may replace each other's plans, which only costs a re-plan
+            current = new SchemaPlans(graphQLSchema);
+            schemaPlans = current;
+        }
+        return current.plans;
+    }
+
+    /**
+     * @return the names of the variables that are used in {@code @skip} and {@code @include} directives
+     */
+    public List<String> getConditionalVariableNames() {
+        return conditionalVariableNames;
+    }
+
+    /**
+     * @return the number of plans currently held
+     */
+    public int size() {
+        SchemaPlans current = schemaPlans;
+        return current == null ? 0 : current.plans.size();
+    }
+
+    private static Set<String> findConditionalVariableNames(Document document) {
+        Set<String> names = new LinkedHashSet<>();
+        for (Definition<?> definition : document.getDefinitions()) {
+            if (definition instanceof OperationDefinition) {
+                collectNames(((OperationDefinition) definition).getSelectionSet(), names);
+            } else if (definition instanceof FragmentDefinition) {
+                FragmentDefinition fragmentDefinition = (FragmentDefinition) definition;
+                collectNames(fragmentDefinition.getDirectives(), names);
+                collectNames(fragmentDefinition.getSelectionSet(), names);
+            }
+        }
+        return names;
+    }
+
+    private static void collectNames(SelectionSet selectionSet, Set<String> names) {
+        if (selectionSet == null) {
+            return;
+        }
+        for (Selection<?> selection : selectionSet.getSelections()) {
+            if (selection instanceof Field) {
+                Field field = (Field) selection;
+                collectNames(field.getDirectives(), names);
+                collectNames(field.getSelectionSet(), names);
+            } else if (selection instanceof InlineFragment) {
+                InlineFragment inlineFragment = (InlineFragment) selection;
+                collectNames(inlineFragment.getDirectives(), names);
+                collectNames(inlineFragment.getSelectionSet(), names);
+            } else if (selection instanceof FragmentSpread) {
+                collectNames(((FragmentSpread) selection).getDirectives(), names);
+            }
+        }
+    }
+
+    private static void collectNames(List<Directive> directives, Set<String> names) {
+        for (Directive directive : directives) {
+            String name = directive.getName();
+            if (!name.equals(SkipDirective.getName()) && !name.equals(IncludeDirective.getName())) {
+                continue;
+            }
+            Argument ifArgument = directive.getArgument("if");
+            if (ifArgument != null && ifArgument.getValue() instanceof VariableReference) {
+                names.add(((VariableReference) ifArgument.getValue()).getName());
+            }
+        }
+    }
+
+    private static class SchemaPlans {
+        private final GraphQLSchema graphQLSchema;
+        private final ConcurrentMap<PlanKey, ExecutionPlan> plans = new ConcurrentHashMap<>();
+
+        SchemaPlans(GraphQLSchema graphQLSchema) {
+            this.graphQLSchema = graphQLSchema;
+        }
+    }
+
+    private static class PlanKey {
+        private final OperationDefinition operationDefinition;
+        private final Object[] conditionalValues;
+        private final int hashCode;
+
+        PlanKey(OperationDefinition operationDefinition, Object[] conditionalValues) {
+            this.operationDefinition = operationDefinition;
+            this.conditionalValues = conditionalValues;
+            this.hashCode = 31 * System.identityHashCode(operationDefinition) + Arrays.hashCode(conditionalValues);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PlanKey that = (PlanKey) o;
+            return operationDefinition == that.operationDefinition
+                    && Arrays.equals(conditionalValues, that.conditionalValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -16,6 +16,9 @@ import graphql.collect.ImmutableMapWithNullValues;
 import graphql.execution.directives.QueryDirectives;
 import graphql.execution.directives.QueryDirectivesImpl;
 import graphql.execution.incremental.DeferredExecutionSupport;
+import graphql.execution.incremental.IncrementalUtils;
+import graphql.execution.incremental.StreamedCall;
+import graphql.execution.incremental.StreamedExecution;
 import graphql.execution.instrumentation.ExecuteObjectInstrumentationContext;
 import graphql.execution.instrumentation.FieldFetchingInstrumentationContext;
 import graphql.execution.instrumentation.Instrumentation;
@@ -50,12 +53,15 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -386,7 +392,7 @@ public abstract class ExecutionStrategy {
     @SuppressWarnings("unchecked")
     protected Object /* CompletableFuture<FieldValueInfo> | FieldValueInfo */
     resolveFieldWithInfo(ExecutionContext executionContext, ExecutionStrategyParameters parameters) {
-        GraphQLFieldDefinition fieldDef = getFieldDef(executionContext, parameters, parameters.getField().getSingleField());
+        GraphQLFieldDefinition fieldDef = getPlannedFieldDef(executionContext, parameters);
         Supplier<ExecutionStepInfo> executionStepInfo = FpKit.intraThreadMemoize(() -> createExecutionStepInfo(executionContext, parameters, fieldDef, null));
 
         Instrumentation instrumentation = executionContext.getInstrumentation();
@@ -482,20 +488,26 @@ public abstract class ExecutionStrategy {
                     .build();
         });
 
-        GraphQLCodeRegistry codeRegistry = executionContext.getGraphQLSchema().getCodeRegistry();
-        DataFetcher<?> dataFetcher = codeRegistry.getDataFetcher(parentType, fieldDef);
+        DataFetcher<?> dataFetcher = getPlannedDataFetcher(executionContext, parameters, parentType, fieldDef);
 
         Instrumentation instrumentation = executionContext.getInstrumentation();
 
-        InstrumentationFieldFetchParameters instrumentationFieldFetchParams = new InstrumentationFieldFetchParameters(executionContext, dataFetchingEnvironment, parameters, dataFetcher instanceof TrivialDataFetcher);
+        boolean trivialDataFetcher = dataFetcher instanceof TrivialDataFetcher;
+        InstrumentationFieldFetchParameters instrumentationFieldFetchParams = new InstrumentationFieldFetchParameters(executionContext, dataFetchingEnvironment, parameters, trivialDataFetcher);
         FieldFetchingInstrumentationContext fetchCtx = FieldFetchingInstrumentationContext.nonNullCtx(instrumentation.beginFieldFetching(instrumentationFieldFetchParams,
                 executionContext.getInstrumentationState())
         );
 
         dataFetcher = instrumentation.instrumentDataFetcher(dataFetcher, instrumentationFieldFetchParams, executionContext.getInstrumentationState());
         dataFetcher = executionContext.getDataLoaderDispatcherStrategy().modifyDataFetcher(dataFetcher);
-        Object fetchedObject = invokeDataFetcher(executionContext, parameters, fieldDef, dataFetchingEnvironment, dataFetcher);
-        executionContext.getDataLoaderDispatcherStrategy().fieldFetched(executionContext, parameters, dataFetcher, fetchedObject);
+        Object fetchedObject;
+        Executor dataFetcherExecutor = trivialDataFetcher ? null : getDataFetcherExecutor();
+        if (dataFetcherExecutor != null) {
+            fetchedObject = invokeDataFetcherOnExecutor(dataFetcherExecutor, executionContext, parameters, fieldDef, dataFetchingEnvironment, dataFetcher);
+        } else {
+            fetchedObject = invokeDataFetcher(executionContext, parameters, fieldDef, dataFetchingEnvironment, dataFetcher);
+            executionContext.getDataLoaderDispatcherStrategy().fieldFetched(executionContext, parameters, dataFetcher, fetchedObject);
+        }
         fetchCtx.onDispatched();
         fetchCtx.onFetchedValue(fetchedObject);
         if (fetchedObject instanceof CompletableFuture) {
@@ -519,6 +531,41 @@ public abstract class ExecutionStrategy {
         }
     }
 
+    private GraphQLFieldDefinition getPlannedFieldDef(ExecutionContext executionContext, ExecutionStrategyParameters parameters) {
+        ExecutionPlan.PlannedField plannedField = getPlannedField(executionContext, parameters);
+        if (plannedField == null) {
+            return getFieldDef(executionContext, parameters, parameters.getField().getSingleField());
+        }
+        GraphQLFieldDefinition fieldDef = plannedField.getFieldDefinition();
+        if (fieldDef == null) {
+            fieldDef = getFieldDef(executionContext, parameters, parameters.getField().getSingleField());
+            plannedField.setFieldDefinition(fieldDef);
+        }
+        return fieldDef;
+    }
+
+    private DataFetcher<?> getPlannedDataFetcher(ExecutionContext executionContext, ExecutionStrategyParameters parameters, GraphQLObjectType parentType, GraphQLFieldDefinition fieldDef) {
+        GraphQLCodeRegistry codeRegistry = executionContext.getGraphQLSchema().getCodeRegistry();
+        ExecutionPlan.PlannedField plannedField = getPlannedField(executionContext, parameters);
+        if (plannedField == null) {
+            return codeRegistry.getDataFetcher(parentType, fieldDef);
+        }
+        DataFetcher<?> dataFetcher = plannedField.getDataFetcher();
+        if (dataFetcher == null) {
+            dataFetcher = codeRegistry.getDataFetcher(parentType, fieldDef);
+            plannedField.setDataFetcher(dataFetcher);
+        }
+        return dataFetcher;
+    }
+
+    private static ExecutionPlan.PlannedField getPlannedField(ExecutionContext executionContext, ExecutionStrategyParameters parameters) {
+        ExecutionPlan executionPlan = executionContext.getExecutionPlan();
+        if (executionPlan == null) {
+            return null;
+        }
+        return executionPlan.getPlannedField(parameters.getField());
+    }
+
     /*
      * ExecutionContext is not used in the method, but the java agent uses it, so it needs to be present
      */
@@ -539,6 +586,61 @@ public abstract class ExecutionStrategy {
         return fetchedValue;
     }
 
+    /**
+     * The executor that data fetchers are invoked on, which by default is none and they are invoked on the calling thread.
+     * <p>
+     * {@link TrivialDataFetcher}s are always invoked on the calling thread.
+     *
+     * @return the executor to invoke data fetchers on or null to invoke them on the calling thread
+     */
+    protected Executor getDataFetcherExecutor() {
+        return null;
+    }
+
+    /*
+     * The data loader dispatch strategy is told the field has been fetched once the data fetcher has returned on the executor
+     * thread, rather than when it has been handed off, so any data loader calls it makes are in place before its level
+     * is dispatched
+     */
+    private Object invokeDataFetcherOnExecutor(Executor executor, ExecutionContext executionContext, ExecutionStrategyParameters parameters, GraphQLFieldDefinition fieldDef, Supplier<DataFetchingEnvironment> dataFetchingEnvironment, DataFetcher<?> dataFetcher) {
+        // the environment is memoized per thread, so it is built here rather than on the executor thread, unless the
+        // data fetcher is a LightDataFetcher which might not need it at all, in which case it is memoized across threads
+        Supplier<DataFetchingEnvironment> environmentSupplier;
+        if (dataFetcher instanceof LightDataFetcher) {
+            environmentSupplier = FpKit.interThreadMemoize(dataFetchingEnvironment);
+        } else {
+            DataFetchingEnvironment environment = dataFetchingEnvironment.get();
+            environmentSupplier = () -> environment;
+        }
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        Runnable fetch = () -> {
+            try {
+                Object fetchedValue = invokeDataFetcher(executionContext, parameters, fieldDef, environmentSupplier, dataFetcher);
+                executionContext.getDataLoaderDispatcherStrategy().fieldFetched(executionContext, parameters, dataFetcher, fetchedValue);
+                if (fetchedValue instanceof CompletableFuture) {
+                    ((CompletableFuture<?>) fetchedValue).whenComplete((value, throwable) -> {
+                        if (throwable != null) {
+                            result.completeExceptionally(throwable);
+                        } else {
+                            result.complete(value);
+                        }
+                    });
+                } else {
+                    result.complete(fetchedValue);
+                }
+            } catch (Throwable t) {
+                // otherwise nothing would ever complete the result and the request would hang
+                result.completeExceptionally(t);
+            }
+        };
+        try {
+            executor.execute(fetch);
+        } catch (RejectedExecutionException e) {
+            fetch.run();
+        }
+        return result;
+    }
+
     protected Supplier<ExecutableNormalizedField> getNormalizedField(ExecutionContext executionContext, ExecutionStrategyParameters parameters, Supplier<ExecutionStepInfo> executionStepInfo) {
         Supplier<ExecutableNormalizedOperation> normalizedQuery = executionContext.getNormalizedQueryTree();
         return () -> normalizedQuery.get().getNormalizedField(parameters.getField(), executionStepInfo.get().getObjectType(), executionStepInfo.get().getPath());
@@ -796,29 +898,22 @@ public abstract class ExecutionStrategy {
                 instrumentationParams, executionContext.getInstrumentationState()
         ));
 
+        StreamedExecution streamedExecution = getStreamedExecution(executionContext, parameters);
+
         List<FieldValueInfo> fieldValueInfos = new ArrayList<>(size.orElse(1));
         int index = 0;
-        for (Object item : iterableValues) {
+        Iterator<Object> iterator = iterableValues.iterator();
+        while (iterator.hasNext()) {
+            if (streamedExecution != null && index >= streamedExecution.getInitialCount()) {
+                enqueueStreamedCall(executionContext, parameters, streamedExecution, iterator, index);
+                break;
+            }
+            Object item = iterator.next();
             if (incrementAndCheckMaxNodesExceeded(executionContext)) {
                 return new FieldValueInfo(NULL, null, fieldValueInfos);
             }
 
-            ResultPath indexedPath = parameters.getPath().segment(index);
-
-            ExecutionStepInfo stepInfoForListElement = executionStepInfoFactory.newExecutionStepInfoForListElement(executionStepInfo, indexedPath);
-
-            NonNullableFieldValidator nonNullableFieldValidator = new NonNullableFieldValidator(executionContext, stepInfoForListElement);
-
-            FetchedValue value = unboxPossibleDataFetcherResult(executionContext, parameters, item);
-
-            ExecutionStrategyParameters newParameters = parameters.transform(builder ->
-                    builder.executionStepInfo(stepInfoForListElement)
-                            .nonNullFieldValidator(nonNullableFieldValidator)
-                            .localContext(value.getLocalContext())
-                            .path(indexedPath)
-                            .source(value.getFetchedValue())
-            );
-            fieldValueInfos.add(completeValue(executionContext, newParameters));
+            fieldValueInfos.add(completeListItem(executionContext, parameters, item, index));
             index++;
         }
 
@@ -848,6 +943,56 @@ public abstract class ExecutionStrategy {
         return new FieldValueInfo(LIST, listOrPromiseToList, fieldValueInfos);
     }
 
+    private FieldValueInfo completeListItem(ExecutionContext executionContext, ExecutionStrategyParameters parameters, Object item, int index) {
+        ResultPath indexedPath = parameters.getPath().segment(index);
+
+        ExecutionStepInfo stepInfoForListElement = executionStepInfoFactory.newExecutionStepInfoForListElement(parameters.getExecutionStepInfo(), indexedPath);
+
+        NonNullableFieldValidator nonNullableFieldValidator = new NonNullableFieldValidator(executionContext, stepInfoForListElement);
+
+        FetchedValue value = unboxPossibleDataFetcherResult(executionContext, parameters, item);
+
+        ExecutionStrategyParameters newParameters = parameters.transform(builder ->
+                builder.executionStepInfo(stepInfoForListElement)
+                        .nonNullFieldValidator(nonNullableFieldValidator)
+                        .localContext(value.getLocalContext())
+                        .path(indexedPath)
+                        .source(value.getFetchedValue())
+        );
+        return completeValue(executionContext, newParameters);
+    }
+
+    private StreamedExecution getStreamedExecution(ExecutionContext executionContext, ExecutionStrategyParameters parameters) {
+        boolean incrementalSupport = executionContext.getGraphQLContext() != null
+                && executionContext.getGraphQLContext().getBoolean(ExperimentalApi.ENABLE_INCREMENTAL_SUPPORT);
+        if (!incrementalSupport || parameters.getField() == null) {
+            return null;
+        }
+        // only the list of the field itself is streamed, not the inner lists of a list of lists
+        if (parameters.getPath().isListSegment()) {
+            return null;
+        }
+        return IncrementalUtils.createStreamedExecution(
+                executionContext.getCoercedVariables().toMap(),
+                parameters.getField().getSingleField().getDirectives()
+        );
+    }
+
+    private void enqueueStreamedCall(ExecutionContext executionContext, ExecutionStrategyParameters parameters, StreamedExecution streamedExecution, Iterator<Object> remainingItems, int nextIndex) {
+        executionContext.getDataLoaderDispatcherStrategy().deferredField(executionContext, parameters.getField());
+
+        StreamedCall.ItemCompleter itemCompleter = (item, itemPath, deferredCallContext) -> {
+            if (incrementAndCheckMaxNodesExceeded(executionContext)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            ExecutionStrategyParameters itemParameters = parameters.transform(builder -> builder.deferredCallContext(deferredCallContext));
+            FieldValueInfo fieldValueInfo = completeListItem(executionContext, itemParameters, item, itemPath.getSegmentIndex());
+            return fieldValueInfo.getFieldValueFuture();
+        };
+        StreamedCall streamedCall = new StreamedCall(streamedExecution.getLabel(), parameters.getPath(), remainingItems, nextIndex, itemCompleter);
+        executionContext.getIncrementalCallState().enqueue(streamedCall);
+    }
+
     protected <T> void handleValueException(CompletableFuture<T> overallResult, Throwable e, ExecutionContext executionContext) {
         Throwable underlyingException = e;
         if (e instanceof CompletionException) {
@@ -938,6 +1083,31 @@ public abstract class ExecutionStrategy {
     completeValueForObject(ExecutionContext executionContext, ExecutionStrategyParameters parameters, GraphQLObjectType resolvedObjectType, Object result) {
         ExecutionStepInfo executionStepInfo = parameters.getExecutionStepInfo();
 
+        MergedSelectionSet subFields = collectSubFields(executionContext, parameters, resolvedObjectType);
+
+        ExecutionStepInfo newExecutionStepInfo = executionStepInfo.changeTypeWithPreservedNonNull(resolvedObjectType);
+        NonNullableFieldValidator nonNullableFieldValidator = new NonNullableFieldValidator(executionContext, newExecutionStepInfo);
+
+        ExecutionStrategyParameters newParameters = parameters.transform(builder ->
+                builder.executionStepInfo(newExecutionStepInfo)
+                        .fields(subFields)
+                        .nonNullFieldValidator(nonNullableFieldValidator)
+                        .source(result)
+        );
+
+        // Calling this from the executionContext to ensure we shift back from mutation strategy to the query strategy.
+        return executionContext.getQueryStrategy().executeObject(executionContext, newParameters);
+    }
+
+    private MergedSelectionSet collectSubFields(ExecutionContext executionContext, ExecutionStrategyParameters parameters, GraphQLObjectType resolvedObjectType) {
+        ExecutionPlan executionPlan = executionContext.getExecutionPlan();
+        if (executionPlan != null) {
+            MergedSelectionSet plannedSubFields = executionPlan.getSubFields(parameters.getField(), resolvedObjectType);
+            if (plannedSubFields != null) {
+                return plannedSubFields;
+            }
+        }
+
         FieldCollectorParameters collectorParameters = newParameters()
                 .schema(executionContext.getGraphQLSchema())
                 .objectType(resolvedObjectType)
@@ -953,19 +1123,10 @@ public abstract class ExecutionStrategy {
                         .map(graphqlContext -> graphqlContext.getBoolean(ExperimentalApi.ENABLE_INCREMENTAL_SUPPORT))
                         .orElse(false)
         );
-
-        ExecutionStepInfo newExecutionStepInfo = executionStepInfo.changeTypeWithPreservedNonNull(resolvedObjectType);
-        NonNullableFieldValidator nonNullableFieldValidator = new NonNullableFieldValidator(executionContext, newExecutionStepInfo);
-
-        ExecutionStrategyParameters newParameters = parameters.transform(builder ->
-                builder.executionStepInfo(newExecutionStepInfo)
-                        .fields(subFields)
-                        .nonNullFieldValidator(nonNullableFieldValidator)
-                        .source(result)
-        );
-
-        // Calling this from the executionContext to ensure we shift back from mutation strategy to the query strategy.
-        return executionContext.getQueryStrategy().executeObject(executionContext, newParameters);
+        if (executionPlan != null) {
+            subFields = executionPlan.addSubFields(parameters.getField(), resolvedObjectType, subFields);
+        }
+        return subFields;
     }
 
     @SuppressWarnings("SameReturnValue")
@@ -8,7 +8,6 @@ import graphql.collect.ImmutableKit;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Objects;
 import java.util.StringTokenizer;
 
 import static graphql.Assert.assertNotNull;
@@ -34,43 +33,49 @@ public class ResultPath {
     }
 
     private final ResultPath parent;
-    private final Object segment;
+    // the name of a named segment or null for a list segment
+    private final String name;
+    // the index of a list segment or, for a named segment, its level
+    private final int value;
 
     // hash is effective immutable but lazily initialized similar to the hash code of java.lang.String
     private int hash;
 
     private ResultPath() {
         parent = null;
-        segment = null;
+        name = null;
+        value = 0;
     }
 
     private ResultPath(ResultPath parent, String segment) {
         this.parent = assertNotNull(parent, () -> "Must provide a parent path");
-        this.segment = assertNotNull(segment, () -> "Must provide a sub path");
+        this.name = assertNotNull(segment, () -> "Must provide a sub path");
+        this.value = parent.getLevel() + 1;
     }
 
     private ResultPath(ResultPath parent, int segment) {
         this.parent = assertNotNull(parent, () -> "Must provide a parent path");
-        this.segment = segment;
+        this.name = null;
+        this.value = segment;
     }
 
     public int getLevel() {
-        int counter = 0;
         ResultPath currentPath = this;
-        while (currentPath != null) {
-            if (currentPath.segment instanceof String) {
-                counter++;
+        // only list segments need to look up their nearest named segment
+        while (currentPath.name == null) {
+            if (currentPath.parent == null) {
+                return 0;
             }
             currentPath = currentPath.parent;
         }
-        return counter;
+        return currentPath.value;
     }
 
     public ResultPath getPathWithoutListEnd() {
         if (ROOT_PATH.equals(this)) {
             return ROOT_PATH;
         }
-        if (segment instanceof String) {
+        if (name != null) {
             return this;
         }
         return parent;
@@ -80,27 +85,31 @@ public class ResultPath {
      * @return true if the end of the path has a list style segment eg 'a/b[2]'
      */
     public boolean isListSegment() {
-        return segment instanceof Integer;
+        return parent != null && name == null;
     }
 
     /**
      * @return true if the end of the path has a named style segment eg 'a/b[2]/c'
      */
     public boolean isNamedSegment() {
-        return segment instanceof String;
+        return name != null;
     }
 
 
     public String getSegmentName() {
-        return (String) segment;
+        return name;
     }
 
     public int getSegmentIndex() {
-        return (int) segment;
+        assertTrue(isListSegment(), () -> "The path does not end with a list segment");
+        return value;
     }
 
     public Object getSegmentValue() {
-        return segment;
+        if (parent == null) {
+            return null;
+        }
+        return name != null ? name : (Object) value;
     }
 
     public ResultPath getParent() {
@@ -259,13 +268,12 @@ public class ResultPath {
         if (parent == null) {
             return ImmutableKit.emptyList();
         }
-        LinkedList<Object> list = new LinkedList<>();
-        ResultPath p = this;
-        while (p.segment != null) {
-            list.addFirst(p.segment);
-            p = p.parent;
+        Object[] segments = new Object[getDepth()];
+        int i = segments.length;
+        for (ResultPath p = this; p.parent != null; p = p.parent) {
+            segments[--i] = p.getSegmentValue();
         }
-        return ImmutableList.copyOf(list);
+        return ImmutableList.copyOf(segments);
     }
 
     /**
@@ -277,15 +285,23 @@ public class ResultPath {
         }
         LinkedList<String> list = new LinkedList<>();
         ResultPath p = this;
-        while (p.segment != null) {
-            if (p.segment instanceof String) {
-                list.addFirst((String) p.segment);
+        while (p.parent != null) {
+            if (p.name != null) {
+                list.addFirst(p.name);
             }
             p = p.parent;
         }
         return list;
     }
 
+    private int getDepth() {
+        int depth = 0;
+        for (ResultPath p = this; p.parent != null; p = p.parent) {
+            depth++;
+        }
+        return depth;
+    }
+
 
     /**
      * @return the path as a string which represents the call hierarchy
@@ -295,19 +311,27 @@ public class ResultPath {
         if (parent == null) {
             return "";
         }
-
-        if (ROOT_PATH.equals(parent)) {
-            return segmentToString();
+        ResultPath[] segments = new ResultPath[getDepth()];
+        int i = segments.length;
+        for (ResultPath p = this; p.parent != null; p = p.parent) {
+            segments[--i] = p;
         }
-
-        return parent.toString() + segmentToString();
+        StringBuilder sb = new StringBuilder(segments.length * 8);
+        for (ResultPath segment : segments) {
+            segment.appendSegment(sb);
+        }
+        return sb.toString();
     }
 
     public String segmentToString() {
-        if (segment instanceof String) {
-            return "/" + segment;
+        return appendSegment(new StringBuilder()).toString();
+    }
+
+    private StringBuilder appendSegment(StringBuilder sb) {
+        if (name != null) {
+            return sb.append('/').append(name);
         } else {
-            return "[" + segment + "]";
+            return sb.append('[').append(value).append(']');
         }
     }
 
@@ -322,8 +346,11 @@ public class ResultPath {
 
         ResultPath self = this;
         ResultPath that = (ResultPath) o;
-        while (self.segment != null && that.segment != null) {
-            if (!Objects.equals(self.segment, that.segment)) {
+        while (self.parent != null && that.parent != null) {
+            if (self == that) {
+                return true;
+            }
+            if (self.name != null ? !self.name.equals(that.name) : (that.name != null || self.value != that.value)) {
                 return false;
             }
             self = self.parent;
@@ -338,12 +365,11 @@ public class ResultPath {
         int h = hash;
         if (h == 0) {
             h = 1;
-            ResultPath self = this;
-            while (self != null) {
-                Object value = self.segment;
-                h = 31 * h + (value == null ? 0 : value.hashCode());
-                self = self.parent;
+            for (ResultPath self = this; self.parent != null; self = self.parent) {
+                h = 31 * h + (self.name != null ? self.name.hashCode() : self.value);
             }
+            // the root path contributes a zero, as a null segment always has
+            h = 31 * h;
             hash = h;
         }
         return h;
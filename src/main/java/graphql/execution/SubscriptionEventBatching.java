@@ -0,0 +1,125 @@
+package graphql.execution;
+
+import graphql.ExperimentalApi;
+
+import java.time.Duration;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+
+/**
+ * Options that make a {@link SubscriptionExecutionStrategy} execute subscription events in batches rather than one at a
+ * time.
+ * <p>
+ * Events that arrive within {@link #getMaxBatchDelay()} of the first event of a batch, up to {@link #getMaxBatchSize()}
+ * events, are executed in one pass, and the data loaders of the execution are dispatched once for all of them, so the
+ * loads of all the events in a batch are batched together.  At most {@link #getMaxConcurrentBatches()} batches are
+ * executed at the same time, and events that arrive while that many are in flight are added to the next batch.
+ * <p>
+ * Each event still produces its own {@link graphql.ExecutionResult} on the subscription stream.
+ */
+@ExperimentalApi
+public class SubscriptionEventBatching {
+
+    private final int maxBatchSize;
+    private final Duration maxBatchDelay;
+    private final int maxConcurrentBatches;
+    private final boolean ordered;
+
+    private SubscriptionEventBatching(Builder builder) {
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxBatchDelay = builder.maxBatchDelay;
+        this.maxConcurrentBatches = builder.maxConcurrentBatches;
+        this.ordered = builder.ordered;
+    }
+
+    /**
+     * @return the most events that are executed in one batch
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * @return how long the first event of a batch waits for more events before the batch is executed
+     */
+    public Duration getMaxBatchDelay() {
+        return maxBatchDelay;
+    }
+
+    /**
+     * @return the most batches that are executed at the same time
+     */
+    public int getMaxConcurrentBatches() {
+        return maxConcurrentBatches;
+    }
+
+    /**
+     * @return true if the results are published in the order of the events, even if a later batch finishes first
+     */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    public static Builder newSubscriptionEventBatching() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private int maxBatchSize = 100;
+        private Duration maxBatchDelay = Duration.ZERO;
+        private int maxConcurrentBatches = 1;
+        private boolean ordered = true;
+
+        /**
+         * @param maxBatchSize the most events that are executed in one batch.  This is 100 by default
+         *
+         * @return this builder
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            assertTrue(maxBatchSize > 0, () -> "maxBatchSize must be greater than zero");
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * @param maxBatchDelay how long the first event of a batch waits for more events before the batch is executed.
+         *                      This is zero by default, in which case events are only batched together while other
+         *                      batches are in flight
+         *
+         * @return this builder
+         */
+        public Builder maxBatchDelay(Duration maxBatchDelay) {
+            assertNotNull(maxBatchDelay, () -> "maxBatchDelay must not be null");
+            assertTrue(!maxBatchDelay.isNegative(), () -> "maxBatchDelay must not be negative");
+            this.maxBatchDelay = maxBatchDelay;
+            return this;
+        }
+
+        /**
+         * @param maxConcurrentBatches the most batches that are executed at the same time.  This is 1 by default
+         *
+         * @return this builder
+         */
+        public Builder maxConcurrentBatches(int maxConcurrentBatches) {
+            assertTrue(maxConcurrentBatches > 0, () -> "maxConcurrentBatches must be greater than zero");
+            this.maxConcurrentBatches = maxConcurrentBatches;
+            return this;
+        }
+
+        /**
+         * @param ordered if true the results are published in the order of the events, otherwise the results of a
+         *                batch are published as soon as it finishes.  This is true by default
+         *
+         * @return this builder
+         */
+        public Builder ordered(boolean ordered) {
+            this.ordered = ordered;
+            return this;
+        }
+
+        public SubscriptionEventBatching build() {
+            return new SubscriptionEventBatching(this);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package graphql.execution;
 
 import graphql.ExecutionResult;
 import graphql.ExecutionResultImpl;
+import graphql.ExperimentalApi;
 import graphql.PublicApi;
 import graphql.execution.instrumentation.ExecutionStrategyInstrumentationContext;
 import graphql.execution.instrumentation.Instrumentation;
@@ -9,16 +10,23 @@ import graphql.execution.instrumentation.InstrumentationContext;
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionStrategyParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationFieldParameters;
+import graphql.execution.reactive.SingleSubscriberPublisher;
 import graphql.execution.reactive.SubscriptionPublisher;
 import graphql.language.Field;
 import graphql.schema.GraphQLFieldDefinition;
 import graphql.schema.GraphQLObjectType;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
 import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 
+import static graphql.Assert.assertNotNull;
 import static graphql.Assert.assertTrue;
 import static graphql.execution.instrumentation.SimpleInstrumentationContext.nonNullCtx;
 import static java.util.Collections.singletonMap;
@@ -33,16 +41,53 @@ import static java.util.Collections.singletonMap;
  * See <a href="https://spec.graphql.org/draft/#sec-Subscription">https://spec.graphql.org/draft/#sec-Subscription</a>
  * <p>
  * See <a href="https://www.reactive-streams.org/">https://www.reactive-streams.org/</a>
+ * <p>
+ * By default each event is executed on its own as it arrives.  With {@link SubscriptionEventBatching} the events are
+ * executed in batches, which lets the data loaders batch the loads of many events together, and with a
+ * {@link SubscriptionMultiplexer} identical subscriptions share one execution.
  */
 @PublicApi
 public class SubscriptionExecutionStrategy extends ExecutionStrategy {
 
+    private final SubscriptionEventBatching eventBatching;
+    private final SubscriptionMultiplexer multiplexer;
+
     public SubscriptionExecutionStrategy() {
         super();
+        this.eventBatching = null;
+        this.multiplexer = null;
     }
 
     public SubscriptionExecutionStrategy(DataFetcherExceptionHandler dataFetcherExceptionHandler) {
         super(dataFetcherExceptionHandler);
+        this.eventBatching = null;
+        this.multiplexer = null;
+    }
+
+    /**
+     * Creates a strategy that executes the subscription events in batches
+     *
+     * @param dataFetcherExceptionHandler the exception handler to use
+     * @param eventBatching               how the events are batched
+     */
+    @ExperimentalApi
+    public SubscriptionExecutionStrategy(DataFetcherExceptionHandler dataFetcherExceptionHandler, SubscriptionEventBatching eventBatching) {
+        this(dataFetcherExceptionHandler, assertNotNull(eventBatching, () -> "eventBatching must not be null"), null);
+    }
+
+    /**
+     * Creates a strategy that can execute the subscription events in batches and can share the execution of identical
+     * subscriptions
+     *
+     * @param dataFetcherExceptionHandler the exception handler to use
+     * @param eventBatching               how the events are batched, or null to execute each event on its own
+     * @param multiplexer                 the multiplexer that shares identical subscriptions, or null to never share them
+     */
+    @ExperimentalApi
+    public SubscriptionExecutionStrategy(DataFetcherExceptionHandler dataFetcherExceptionHandler, SubscriptionEventBatching eventBatching, SubscriptionMultiplexer multiplexer) {
+        super(dataFetcherExceptionHandler);
+        this.eventBatching = eventBatching;
+        this.multiplexer = multiplexer;
     }
 
     @Override
@@ -55,6 +100,18 @@ public class SubscriptionExecutionStrategy extends ExecutionStrategy {
                 executionContext.getInstrumentationState()
         ));
 
+        if (multiplexer != null) {
+            // the source event stream is only created when the request subscribes, and only when it is the request to
+            // start the shared stream, so there is nothing to wait for here
+            Object sharedSubscriptionKey = multiplexer.sharedSubscriptionKey(executionContext);
+            Publisher<ExecutionResult> resultStream = subscriber -> subscribeToResultStream(executionContext, parameters, subscriber);
+            Publisher<ExecutionResult> sharedSubscription = multiplexer.sharedSubscription(sharedSubscriptionKey, resultStream);
+            CompletableFuture<ExecutionResult> overallResult = CompletableFuture.completedFuture(new ExecutionResultImpl(sharedSubscription, executionContext.getErrors()));
+            executionStrategyCtx.onDispatched();
+            overallResult.whenComplete(executionStrategyCtx::onCompleted);
+            return overallResult;
+        }
+
         CompletableFuture<Publisher<Object>> sourceEventStream = createSourceEventStream(executionContext, parameters);
 
         //
@@ -63,9 +120,7 @@ public class SubscriptionExecutionStrategy extends ExecutionStrategy {
             if (publisher == null) {
                 return new ExecutionResultImpl(null, executionContext.getErrors());
             }
-            Function<Object, CompletionStage<ExecutionResult>> mapperFunction = eventPayload -> executeSubscriptionEvent(executionContext, parameters, eventPayload);
-            SubscriptionPublisher mapSourceToResponse = new SubscriptionPublisher(publisher, mapperFunction);
-            return new ExecutionResultImpl(mapSourceToResponse, executionContext.getErrors());
+            return new ExecutionResultImpl(mapSourceToResponse(executionContext, parameters, publisher), executionContext.getErrors());
         });
 
         // dispatched the subscription query
@@ -75,6 +130,45 @@ public class SubscriptionExecutionStrategy extends ExecutionStrategy {
         return overallResult;
     }
 
+    private SubscriptionPublisher mapSourceToResponse(ExecutionContext executionContext, ExecutionStrategyParameters parameters, Publisher<Object> publisher) {
+        if (eventBatching != null) {
+            Function<List<Object>, CompletionStage<List<ExecutionResult>>> batchMapperFunction = eventPayloads -> executeSubscriptionEvents(executionContext, parameters, eventPayloads);
+            return new SubscriptionPublisher(publisher, batchMapperFunction, eventBatching);
+        }
+        Function<Object, CompletionStage<ExecutionResult>> mapperFunction = eventPayload -> executeSubscriptionEvent(executionContext, parameters, eventPayload);
+        return new SubscriptionPublisher(publisher, mapperFunction);
+    }
+
+    /**
+     * Creates a new source event stream and subscribes the subscriber to its results.  This is what a shared
+     * subscription does each time it starts, so the errors of creating the stream, which can no longer be in the result
+     * of the request, are given to the subscriber as the only result of the stream instead.
+     */
+    private void subscribeToResultStream(ExecutionContext executionContext, ExecutionStrategyParameters parameters, Subscriber<? super ExecutionResult> subscriber) {
+        // a shared stream can be started again from the same request, so each start has errors of its own
+        ExecutionContext streamExecutionContext = executionContext.transform(builder -> builder.resetErrors());
+        CompletableFuture<Publisher<Object>> sourceEventStream;
+        try {
+            sourceEventStream = createSourceEventStream(streamExecutionContext, parameters);
+        } catch (RuntimeException e) {
+            sourceEventStream = Async.exceptionallyCompletedFuture(e);
+        }
+        sourceEventStream.whenComplete((publisher, throwable) -> {
+            if (throwable != null) {
+                SingleSubscriberPublisher<ExecutionResult> failed = new SingleSubscriberPublisher<>();
+                failed.offerError(throwable);
+                failed.subscribe(subscriber);
+            } else if (publisher == null || !streamExecutionContext.getErrors().isEmpty()) {
+                SingleSubscriberPublisher<ExecutionResult> errors = new SingleSubscriberPublisher<>();
+                errors.offer(new ExecutionResultImpl(null, streamExecutionContext.getErrors()));
+                errors.noMoreData();
+                errors.subscribe(subscriber);
+            } else {
+                mapSourceToResponse(streamExecutionContext, parameters, publisher).subscribe(subscriber);
+            }
+        });
+    }
+
 
     /*
         https://github.com/facebook/graphql/blob/master/spec/Section%206%20--%20Execution.md
@@ -151,6 +245,35 @@ public class SubscriptionExecutionStrategy extends ExecutionStrategy {
         return overallResult;
     }
 
+    private CompletableFuture<List<ExecutionResult>> executeSubscriptionEvents(ExecutionContext executionContext, ExecutionStrategyParameters parameters, List<Object> eventPayloads) {
+        // every event is started before the data loaders are dispatched, so the loads of all the events are batched together
+        Async.CombinedBuilder<ExecutionResult> results = Async.ofExpectedSize(eventPayloads.size());
+        for (Object eventPayload : eventPayloads) {
+            results.add(executeSubscriptionEvent(executionContext, parameters, eventPayload));
+        }
+        CompletableFuture<List<ExecutionResult>> overallResult = results.await();
+        if (executionContext.getDataLoaderDispatcherStrategy() != DataLoaderDispatchStrategy.NO_OP) {
+            dispatchUntilComplete(executionContext, overallResult);
+        }
+        return overallResult;
+    }
+
+    private void dispatchUntilComplete(ExecutionContext executionContext, CompletableFuture<?> overallResult) {
+        DataLoaderRegistry dataLoaderRegistry = executionContext.getDataLoaderRegistry();
+        if (overallResult.isDone() || dataLoaderRegistry.dispatchDepth() == 0) {
+            return;
+        }
+        List<DataLoader<?, ?>> dataLoaders = dataLoaderRegistry.getDataLoaders();
+        List<CompletableFuture<?>> dispatched = new ArrayList<>(dataLoaders.size());
+        for (DataLoader<?, ?> dataLoader : dataLoaders) {
+            dispatched.add(dataLoader.dispatch());
+        }
+        executionContext.incrementDataLoaderDispatchCount();
+        // the loads that depend on the values just loaded have been made by the time these complete, so dispatch again
+        CompletableFuture.allOf(dispatched.toArray(new CompletableFuture[0]))
+                .whenComplete((ignored, throwable) -> dispatchUntilComplete(executionContext, overallResult));
+    }
+
     private ExecutionResult wrapWithRootFieldName(ExecutionStrategyParameters parameters, ExecutionResult executionResult) {
         String rootFieldName = getRootFieldName(parameters);
         return new ExecutionResultImpl(
@@ -0,0 +1,205 @@
+package graphql.execution;
+
+import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
+import graphql.execution.reactive.FanOutPublisher;
+import graphql.language.AstPrinter;
+import graphql.language.AstSignature;
+import graphql.schema.GraphQLSchema;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+
+/**
+ * When given to a {@link SubscriptionExecutionStrategy} this shares one execution of a subscription between all the
+ * requests that subscribe with the same document, variables and partition key against the same schema.
+ * <p>
+ * The stream of {@link ExecutionResult}s given to each such request only starts when it is subscribed to.  The first
+ * request to subscribe creates the source event stream and executes the selection set for each event as usual, and the
+ * requests that subscribe while that stream is going join it rather than starting a stream of their own, so the data
+ * fetches of each event happen once however many subscribers there are.  Documents are compared in their
+ * {@link AstSignature#canonicalQuery(graphql.language.Document) canonical} form and variables after coercion.
+ * <p>
+ * Anything else that changes the results of a subscription, such as who the requester is, must be part of the partition
+ * key, which is taken from each request's {@link ExecutionContext}.  The events are executed with the context of the
+ * request that started the stream, including its instrumentation.  As the source event stream is only created on
+ * subscription, any errors creating it are given to the subscribers as a single result rather than in the result of
+ * the request.
+ * <p>
+ * Each subscriber has its own buffer of results it has not requested yet, of {@link Builder#bufferSize(int)} results,
+ * and the {@link OverflowPolicy} decides what happens when a slow subscriber's buffer is full.  A shared stream ends, and
+ * is no longer shared, when its source ends or when all of its subscribers have cancelled, and the next request to
+ * subscribe starts a new one.
+ */
+@ExperimentalApi
+public class SubscriptionMultiplexer {
+
+    /**
+     * What happens when a subscriber has not requested the results that are waiting for it and its buffer is full
+     */
+    public enum OverflowPolicy {
+        /**
+         * keep buffering, without bound
+         */
+        BUFFER,
+        /**
+         * drop the oldest result in the buffer to make room
+         */
+        DROP_OLDEST,
+        /**
+         * drop the new result
+         */
+        DROP_LATEST,
+        /**
+         * end the subscriber's stream with an error
+         */
+        ERROR
+    }
+
+    private final Function<ExecutionContext, Object> partitionKeyFunction;
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+    private final Map<SharedSubscriptionKey, FanOutPublisher<ExecutionResult>> sharedSubscriptions = new ConcurrentHashMap<>();
+
+    private SubscriptionMultiplexer(Builder builder) {
+        this.partitionKeyFunction = builder.partitionKeyFunction;
+        this.bufferSize = builder.bufferSize;
+        this.overflowPolicy = builder.overflowPolicy;
+    }
+
+    /**
+     * @return the number of shared streams that currently have subscribers
+     */
+    public int getSharedSubscriptionCount() {
+        return sharedSubscriptions.size();
+    }
+
+    Object sharedSubscriptionKey(ExecutionContext executionContext) {
+        String document = AstPrinter.printAstCompact(new AstSignature().canonicalQuery(executionContext.getDocument()));
+        return new SharedSubscriptionKey(executionContext.getGraphQLSchema(),
+                document,
+                executionContext.getOperationDefinition().getName(),
+                executionContext.getCoercedVariables().toMap(),
+                partitionKeyFunction.apply(executionContext));
+    }
+
+    /**
+     * Gives a request the shared stream of its key
+     *
+     * @param key          the key from {@link #sharedSubscriptionKey(ExecutionContext)}
+     * @param resultStream the stream of the request, which creates its source event stream when subscribed to, and is
+     *                     only subscribed to when the request is the one to start the shared stream
+     *
+     * @return the stream to give to the request
+     */
+    Publisher<ExecutionResult> sharedSubscription(Object key, Publisher<ExecutionResult> resultStream) {
+        SharedSubscriptionKey sharedSubscriptionKey = (SharedSubscriptionKey) key;
+        return subscriber -> join(sharedSubscriptionKey, resultStream, subscriber);
+    }
+
+    private void join(SharedSubscriptionKey key, Publisher<ExecutionResult> resultStream, Subscriber<? super ExecutionResult> subscriber) {
+        // the shared stream is only created by a subscriber, so there is never one in the map that nobody subscribes to
+        FanOutPublisher<ExecutionResult> sharedSubscription = sharedSubscriptions.computeIfAbsent(key, k ->
+                new FanOutPublisher<>(resultStream, bufferSize, overflowPolicy,
+                        // it removes itself once it is over, so that the next subscriber starts a new stream
+                        finished -> sharedSubscriptions.remove(k, finished),
+                        // and subscribers that got to it just as it ended join or start the next one instead
+                        lateSubscriber -> join(k, resultStream, lateSubscriber)));
+        sharedSubscription.subscribe(subscriber);
+    }
+
+    /**
+     * @param partitionKeyFunction gives the part of the key of a subscription that comes from the request, such as
+     *                             the identity of the requester.  Requests are only ever shared when this gives equal
+     *                             values for them, so it must cover everything that changes what the subscription
+     *                             returns.  Return a constant if the results are the same for everyone
+     *
+     * @return a new builder
+     */
+    public static Builder newSubscriptionMultiplexer(Function<ExecutionContext, Object> partitionKeyFunction) {
+        return new Builder(partitionKeyFunction);
+    }
+
+    public static class Builder {
+        private final Function<ExecutionContext, Object> partitionKeyFunction;
+        private int bufferSize = 256;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+        private Builder(Function<ExecutionContext, Object> partitionKeyFunction) {
+            this.partitionKeyFunction = assertNotNull(partitionKeyFunction, () -> "partitionKeyFunction must not be null");
+        }
+
+        /**
+         * @param bufferSize how many results are buffered for each subscriber before the overflow policy applies.  This
+         *                   is 256 by default
+         *
+         * @return this builder
+         */
+        public Builder bufferSize(int bufferSize) {
+            assertTrue(bufferSize > 0, () -> "bufferSize must be greater than zero");
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * @param overflowPolicy what happens when the buffer of a subscriber is full.  This is
+         *                       {@link OverflowPolicy#DROP_OLDEST} by default
+         *
+         * @return this builder
+         */
+        public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = assertNotNull(overflowPolicy, () -> "overflowPolicy must not be null");
+            return this;
+        }
+
+        public SubscriptionMultiplexer build() {
+            return new SubscriptionMultiplexer(this);
+        }
+    }
+
+    private static class SharedSubscriptionKey {
+        private final GraphQLSchema schema;
+        private final String document;
+        private final String operationName;
+        private final Map<String, Object> variables;
+        private final Object partitionKey;
+        private final int hashCode;
+
+        SharedSubscriptionKey(GraphQLSchema schema, String document, String operationName, Map<String, Object> variables, Object partitionKey) {
+            this.schema = schema;
+            this.document = document;
+            this.operationName = operationName;
+            this.variables = variables;
+            this.partitionKey = partitionKey;
+            this.hashCode = Objects.hash(System.identityHashCode(schema), document, operationName, variables, partitionKey);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SharedSubscriptionKey)) {
+                return false;
+            }
+            SharedSubscriptionKey that = (SharedSubscriptionKey) o;
+            return schema == that.schema
+                    && document.equals(that.document)
+                    && Objects.equals(operationName, that.operationName)
+                    && variables.equals(that.variables)
+                    && Objects.equals(partitionKey, that.partitionKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package graphql.execution;
+
+import graphql.ExperimentalApi;
+import graphql.TrivialDataFetcher;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * An {@link AsyncExecutionStrategy} that invokes data fetchers on virtual threads, so that data fetchers that block, say on
+ * JDBC calls, can be written synchronously without capping the number of fields that are fetched at once the way a
+ * bounded thread pool would.
+ * <p>
+ * {@link TrivialDataFetcher}s, such as the default property data fetchers, are still invoked on the calling thread since
+ * they never block.
+ * <p>
+ * Virtual threads need Java 21 or later.  On earlier versions this strategy falls back to the executor it was given or,
+ * if it was not given one, to invoking data fetchers on the calling thread exactly as {@link AsyncExecutionStrategy} does.
+ * <p>
+ * Data loader batching keeps working since a field only counts as fetched, for the purposes of deciding when to dispatch
+ * the data loaders, once its data fetcher has returned on its virtual thread.
+ */
+@ExperimentalApi
+public class VirtualThreadExecutionStrategy extends AsyncExecutionStrategy {
+
+    private static final Executor VIRTUAL_THREAD_EXECUTOR = createVirtualThreadExecutor();
+
+    private final Executor dataFetcherExecutor;
+
+    /**
+     * Creates an execution strategy that invokes data fetchers on virtual threads, if they are available
+     */
+    public VirtualThreadExecutionStrategy() {
+        this(new SimpleDataFetcherExceptionHandler());
+    }
+
+    /**
+     * Creates an execution strategy that invokes data fetchers on virtual threads, if they are available
+     *
+     * @param exceptionHandler the exception handler to use
+     */
+    public VirtualThreadExecutionStrategy(DataFetcherExceptionHandler exceptionHandler) {
+        this(exceptionHandler, null);
+    }
+
+    /**
+     * Creates an execution strategy that invokes data fetchers on virtual threads, if they are available, and otherwise
+     * on the fallback executor
+     *
+     * @param exceptionHandler the exception handler to use
+     * @param fallbackExecutor the executor to invoke data fetchers on when virtual threads are not available, or null to
+     *                         invoke them on the calling thread
+     */
+    public VirtualThreadExecutionStrategy(DataFetcherExceptionHandler exceptionHandler, Executor fallbackExecutor) {
+        super(exceptionHandler);
+        this.dataFetcherExecutor = VIRTUAL_THREAD_EXECUTOR != null ? VIRTUAL_THREAD_EXECUTOR : fallbackExecutor;
+    }
+
+    /**
+     * @return true if this JVM supports virtual threads
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    @Override
+    protected Executor getDataFetcherExecutor() {
+        return dataFetcherExecutor;
+    }
+
+    /*
+     * This code is compiled for Java 11 so the Java 21 executor is looked up reflectively.  A virtual thread per task
+     * executor holds no threads of its own, so one is shared and never shut down.
+     */
+    private static Executor createVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) method.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
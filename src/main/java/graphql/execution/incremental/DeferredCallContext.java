@@ -10,13 +10,13 @@ import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * Contains data relevant to the execution of a {@link DeferredFragmentCall}.
+ * Contains data relevant to the execution of a {@link DeferredFragmentCall} or of a single item of a {@link StreamedCall}.
  * <p>
  * The responsibilities of this class are similar to {@link graphql.execution.ExecutionContext}, but restricted to the
  * execution of a deferred call (instead of the whole GraphQL execution like {@link graphql.execution.ExecutionContext}).
  * <p>
  * Some behaviours, like error capturing, need to be scoped to a single {@link DeferredFragmentCall}, because each defer payload
- * contains its own distinct list of errors.
+ * contains its own distinct list of errors.  The same goes for each stream payload.
  */
 @Internal
 public class DeferredCallContext {
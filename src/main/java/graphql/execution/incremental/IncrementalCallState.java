@@ -13,62 +13,132 @@ import java.util.Deque;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static graphql.incremental.DelayedIncrementalPartialResultImpl.newIncrementalExecutionResult;
 
 /**
- * This provides support for @defer directives on fields that mean that results will be sent AFTER
+ * This provides support for @defer and @stream directives on fields that mean that results will be sent AFTER
  * the main result is sent via a Publisher stream.
+ * <p>
+ * Deferred fragments are executed as soon as the main result is ready.  Streamed list items are only executed when
+ * the subscriber has demand for them, so a slow subscriber holds back the execution of the rest of a streamed list
+ * rather than causing it to be buffered.
  */
 @Internal
 public class IncrementalCallState {
     private final AtomicBoolean incrementalCallsDetected = new AtomicBoolean(false);
     private final Deque<IncrementalCall<? extends IncrementalPayload>> incrementalCalls = new ConcurrentLinkedDeque<>();
-    private final SingleSubscriberPublisher<DelayedIncrementalPartialResult> publisher = new SingleSubscriberPublisher<>();
+    private final Deque<StreamedCall> streamedCallsAwaitingDemand = new ConcurrentLinkedDeque<>();
+    private final SingleSubscriberPublisher<DelayedIncrementalPartialResult> publisher = new SingleSubscriberPublisher<>(() -> {
+    }, this::onRequest);
+    // how many more payloads the subscriber has asked for, less those delivered or being produced
+    private final AtomicLong demand = new AtomicLong();
     private final AtomicInteger pendingCalls = new AtomicInteger();
     private final LockKit.ReentrantLock publisherLock = new LockKit.ReentrantLock();
 
-    @SuppressWarnings("FutureReturnValueIgnored")
+    // how many times the queues were signalled while being drained, so that only one thread drains at a time
+    private final AtomicInteger drainSignals = new AtomicInteger();
+
     private void drainIncrementalCalls() {
-        IncrementalCall<? extends IncrementalPayload> incrementalCall = incrementalCalls.poll();
-
-        while (incrementalCall != null) {
-            incrementalCall.invoke()
-                    .whenComplete((payload, exception) -> {
-                        if (exception != null) {
-                            publisher.offerError(exception);
-                            return;
-                        }
+        // calls that complete synchronously signal again from within the drain, which just makes the draining thread go
+        // round once more rather than recursing, so a long streamed list does not grow the stack
+        if (drainSignals.getAndIncrement() != 0) {
+            return;
+        }
+        int signals = 1;
+        do {
+            drainQueuedCalls();
+            signals = drainSignals.addAndGet(-signals);
+        } while (signals != 0);
+    }
 
-                        // The assigment of `remainingCalls` and `publisher.offer` need to be synchronized to ensure
-                        // `hasNext` is `false` precisely on the last event offered to the publisher.
-                        publisherLock.lock();
-                        final int remainingCalls;
+    private void drainQueuedCalls() {
+        while (true) {
+            IncrementalCall<? extends IncrementalPayload> incrementalCall = incrementalCalls.poll();
+            if (incrementalCall == null && demand.get() > 0) {
+                incrementalCall = streamedCallsAwaitingDemand.poll();
+            }
+            if (incrementalCall == null) {
+                return;
+            }
+            if (incrementalCall instanceof StreamedCall && !tryAcquireDemand()) {
+                // this is re-checked on the next turn of the loop, so demand that arrives in between is never missed
+                streamedCallsAwaitingDemand.offer((StreamedCall) incrementalCall);
+                continue;
+            }
+            invokeIncrementalCall(incrementalCall);
+        }
+    }
 
-                        try {
-                            remainingCalls = pendingCalls.decrementAndGet();
+    @SuppressWarnings("FutureReturnValueIgnored")
+    private void invokeIncrementalCall(IncrementalCall<? extends IncrementalPayload> incrementalCall) {
+        incrementalCall.invoke()
+                .whenComplete((payload, exception) -> {
+                    if (exception != null) {
+                        publisher.offerError(exception);
+                        return;
+                    }
 
-                            DelayedIncrementalPartialResult executionResult = newIncrementalExecutionResult()
-                                    .incrementalItems(Collections.singletonList(payload))
-                                    .hasNext(remainingCalls != 0)
-                                    .build();
+                    // a streamed call stays pending until its last item has been delivered
+                    boolean moreItems = incrementalCall instanceof StreamedCall && ((StreamedCall) incrementalCall).hasMoreItems();
 
-                            publisher.offer(executionResult);
-                        } finally {
-                            publisherLock.unlock();
-                        }
+                    // The assigment of `remainingCalls` and `publisher.offer` need to be synchronized to ensure
+                    // `hasNext` is `false` precisely on the last event offered to the publisher.
+                    publisherLock.lock();
+                    final int remainingCalls;
+
+                    try {
+                        remainingCalls = moreItems ? pendingCalls.get() : pendingCalls.decrementAndGet();
 
-                        if (remainingCalls == 0) {
-                            publisher.noMoreData();
-                        } else {
-                            // Nested calls were added, let's try to drain the queue again.
-                            drainIncrementalCalls();
+                        DelayedIncrementalPartialResult executionResult = newIncrementalExecutionResult()
+                                .incrementalItems(Collections.singletonList(payload))
+                                .hasNext(remainingCalls != 0)
+                                .build();
+
+                        publisher.offer(executionResult);
+                    } finally {
+                        publisherLock.unlock();
+                    }
+
+                    if (!(incrementalCall instanceof StreamedCall)) {
+                        // streamed calls acquired their demand up front
+                        demand.decrementAndGet();
+                    }
+
+                    if (remainingCalls == 0) {
+                        publisher.noMoreData();
+                    } else {
+                        if (moreItems) {
+                            incrementalCalls.offer(incrementalCall);
                         }
-                    });
-            incrementalCall = incrementalCalls.poll();
+                        // Nested calls were added, let's try to drain the queue again, or have the drainer do so.
+                        drainIncrementalCalls();
+                    }
+                });
+    }
+
+    private boolean tryAcquireDemand() {
+        while (true) {
+            long current = demand.get();
+            if (current <= 0) {
+                return false;
+            }
+            if (demand.compareAndSet(current, current - 1)) {
+                return true;
+            }
         }
     }
 
+    private void onRequest(long n) {
+        demand.accumulateAndGet(n, (current, requested) -> {
+            long sum = current + requested;
+            // overflow protection, as unbounded demand is signalled with Long.MAX_VALUE
+            return sum < current ? Long.MAX_VALUE : sum;
+        });
+        drainIncrementalCalls();
+    }
+
     public void enqueue(IncrementalCall<? extends IncrementalPayload> incrementalCall) {
         publisherLock.runLocked(() -> {
             incrementalCallsDetected.set(true);
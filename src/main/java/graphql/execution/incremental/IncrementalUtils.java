@@ -14,6 +14,7 @@ import java.util.Map;
 import java.util.function.Function;
 
 import static graphql.Directives.DeferDirective;
+import static graphql.Directives.StreamDirective;
 
 @Internal
 public class IncrementalUtils {
@@ -50,4 +51,32 @@ public class IncrementalUtils {
 
         return null;
     }
+
+    public static StreamedExecution createStreamedExecution(
+            Map<String, Object> variables,
+            List<Directive> directives
+    ) {
+        Directive streamDirective = NodeUtil.findNodeByName(directives, StreamDirective.getName());
+
+        if (streamDirective != null) {
+            Map<String, Object> argumentValues = ValuesResolver.getArgumentValues(StreamDirective.getArguments(), streamDirective.getArguments(), CoercedVariables.of(variables), GraphQLContext.getDefault(), Locale.getDefault());
+
+            Object flag = argumentValues.get("if");
+            Assert.assertTrue(flag instanceof Boolean, "The '%s' directive MUST have a value for the 'if' argument", StreamDirective.getName());
+
+            if (!((Boolean) flag)) {
+                return null;
+            }
+
+            Object initialCount = argumentValues.get("initialCount");
+            Assert.assertTrue(initialCount instanceof Integer && (Integer) initialCount >= 0, "The 'initialCount' argument from the '%s' directive MUST be a non negative Int", StreamDirective.getName());
+
+            Object label = argumentValues.get("label");
+            Assert.assertTrue(label == null || label instanceof String, "The 'label' argument from the '%s' directive MUST contain a String value", StreamDirective.getName());
+
+            return new StreamedExecution((String) label, (Integer) initialCount);
+        }
+
+        return null;
+    }
 }
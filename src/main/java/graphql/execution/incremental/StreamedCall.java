@@ -1,19 +1,118 @@
 package graphql.execution.incremental;
 
+import graphql.GraphQLError;
 import graphql.Internal;
+import graphql.execution.NonNullableFieldWasNullError;
+import graphql.execution.NonNullableFieldWasNullException;
+import graphql.execution.ResultPath;
 import graphql.incremental.StreamPayload;
 
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Represents a call that fetches data that was streamed, via the @stream directive.
  * <p>
- * This is a placeholder class, created to showcase the proposed structure that accommodates both @defer and @stream execution.
+ * A streamed call covers the items of a list that were not returned in the initial result.  Each invocation completes
+ * the next item of the list and resolves to a {@link StreamPayload} that holds just that item, so the call is invoked
+ * repeatedly, in order, while {@link #hasMoreItems()} is true.
+ * <p>
+ * Items are only taken from the underlying iterator when the call is invoked, which {@link IncrementalCallState} only
+ * does when the subscriber to the incremental results has asked for more.  This means a lazy {@link Iterable} is never
+ * read ahead of the subscriber.
  */
 @Internal
 public class StreamedCall implements IncrementalCall<StreamPayload> {
+    private final String label;
+    private final ResultPath path;
+    private final Iterator<Object> items;
+    private final ItemCompleter itemCompleter;
+    private int nextIndex;
+
+    /**
+     * Completes a single list item
+     */
+    public interface ItemCompleter {
+        /**
+         * @param item                the raw list item
+         * @param itemPath            the path of the list item
+         * @param deferredCallContext the context that collects the errors of this item
+         *
+         * @return a promise to the completed item
+         */
+        CompletableFuture<Object> completeItem(Object item, ResultPath itemPath, DeferredCallContext deferredCallContext);
+    }
+
+    public StreamedCall(
+            String label,
+            ResultPath path,
+            Iterator<Object> items,
+            int nextIndex,
+            ItemCompleter itemCompleter
+    ) {
+        this.label = label;
+        this.path = path;
+        this.items = items;
+        this.nextIndex = nextIndex;
+        this.itemCompleter = itemCompleter;
+    }
+
+    public ResultPath getPath() {
+        return path;
+    }
+
+    /**
+     * This must only be called once the previous invocation has completed
+     *
+     * @return true if there are more items to stream
+     */
+    public boolean hasMoreItems() {
+        return items.hasNext();
+    }
+
     @Override
     public CompletableFuture<StreamPayload> invoke() {
-        throw new UnsupportedOperationException("Not implemented yet.");
+        ResultPath itemPath = path.segment(nextIndex++);
+        DeferredCallContext deferredCallContext = new DeferredCallContext();
+        CompletableFuture<Object> itemCF;
+        try {
+            itemCF = itemCompleter.completeItem(items.next(), itemPath, deferredCallContext);
+        } catch (RuntimeException e) {
+            itemCF = new CompletableFuture<>();
+            itemCF.completeExceptionally(e);
+        }
+        return itemCF
+                .thenApply(item -> StreamPayload.newStreamedItem()
+                        .items(Collections.singletonList(item))
+                        .errors(deferredCallContext.getErrors())
+                        .path(itemPath)
+                        .label(label)
+                        .build())
+                .handle((payload, throwable) -> handleNonNullableFieldError(payload, throwable, itemPath));
+    }
+
+    /**
+     * If a non-null item resolves to null then, like a non-null error in a deferred fragment, the
+     * whole payload becomes null and it carries the details of the error.
+     */
+    private StreamPayload handleNonNullableFieldError(StreamPayload result, Throwable throwable, ResultPath itemPath) {
+        if (throwable != null) {
+            Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+            if (cause instanceof NonNullableFieldWasNullException) {
+                GraphQLError error = new NonNullableFieldWasNullError((NonNullableFieldWasNullException) cause);
+                return StreamPayload.newStreamedItem()
+                        .errors(Collections.singletonList(error))
+                        .label(label)
+                        .path(itemPath)
+                        .build();
+            }
+            if (cause instanceof CompletionException) {
+                throw (CompletionException) cause;
+            }
+            throw new CompletionException(cause);
+        }
+        return result;
     }
 }
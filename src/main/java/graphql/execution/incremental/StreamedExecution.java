@@ -0,0 +1,31 @@
+package graphql.execution.incremental;
+
+import graphql.ExperimentalApi;
+
+import javax.annotation.Nullable;
+
+/**
+ * Represents details about the stream execution of a list field, as requested via the @stream directive.
+ */
+@ExperimentalApi
+public class StreamedExecution {
+    private final String label;
+    private final int initialCount;
+
+    public StreamedExecution(String label, int initialCount) {
+        this.label = label;
+        this.initialCount = initialCount;
+    }
+
+    @Nullable
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return the number of list items that are returned in the initial result
+     */
+    public int getInitialCount() {
+        return initialCount;
+    }
+}
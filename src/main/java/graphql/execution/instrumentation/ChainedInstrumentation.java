@@ -31,14 +31,39 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import static graphql.Assert.assertNotNull;
+import static graphql.execution.instrumentation.InstrumentationHookTable.AWAIT_EXECUTE_OPERATION;
+import static graphql.execution.instrumentation.InstrumentationHookTable.BEGIN_DEFERRED_FIELD;
+import static graphql.execution.instrumentation.InstrumentationHookTable.BEGIN_EXECUTE_OBJECT;
+import static graphql.execution.instrumentation.InstrumentationHookTable.BEGIN_EXECUTE_OPERATION;
+import static graphql.execution.instrumentation.InstrumentationHookTable.BEGIN_EXECUTION;
+import static graphql.execution.instrumentation.InstrumentationHookTable.BEGIN_EXECUTION_STRATEGY;
+import static graphql.execution.instrumentation.InstrumentationHookTable.BEGIN_FIELD_COMPLETION;
+import static graphql.execution.instrumentation.InstrumentationHookTable.BEGIN_FIELD_EXECUTION;
+import static graphql.execution.instrumentation.InstrumentationHookTable.BEGIN_FIELD_FETCH;
+import static graphql.execution.instrumentation.InstrumentationHookTable.BEGIN_FIELD_FETCHING;
+import static graphql.execution.instrumentation.InstrumentationHookTable.BEGIN_FIELD_LIST_COMPLETION;
+import static graphql.execution.instrumentation.InstrumentationHookTable.BEGIN_PARSE;
+import static graphql.execution.instrumentation.InstrumentationHookTable.BEGIN_SUBSCRIBED_FIELD_EVENT;
+import static graphql.execution.instrumentation.InstrumentationHookTable.BEGIN_VALIDATION;
+import static graphql.execution.instrumentation.InstrumentationHookTable.INSTRUMENT_DATA_FETCHER;
+import static graphql.execution.instrumentation.InstrumentationHookTable.INSTRUMENT_DOCUMENT_AND_VARIABLES;
+import static graphql.execution.instrumentation.InstrumentationHookTable.INSTRUMENT_EXECUTION_CONTEXT;
+import static graphql.execution.instrumentation.InstrumentationHookTable.INSTRUMENT_EXECUTION_INPUT;
+import static graphql.execution.instrumentation.InstrumentationHookTable.INSTRUMENT_EXECUTION_RESULT;
+import static graphql.execution.instrumentation.InstrumentationHookTable.INSTRUMENT_SCHEMA;
 
 /**
  * This allows you to chain together a number of {@link graphql.execution.instrumentation.Instrumentation} implementations
  * and run them in sequence.  The list order of instrumentation objects is always guaranteed to be followed and
  * the {@link graphql.execution.instrumentation.InstrumentationState} objects they create will be passed back to the originating
  * implementation.
+ * <p>
+ * Which of the hook methods each instrumentation overrides is worked out when the chain is created, and only those
+ * instrumentations are called for a hook.  A hook that no instrumentation overrides returns a no-op context without
+ * allocating anything.
  *
  * @see graphql.execution.instrumentation.Instrumentation
  */
@@ -48,9 +73,11 @@ public class ChainedInstrumentation implements Instrumentation {
     // This class is inspired from https://github.com/leangen/graphql-spqr/blob/master/src/main/java/io/leangen/graphql/GraphQLRuntime.java#L80
 
     protected final ImmutableList<Instrumentation> instrumentations;
+    private final InstrumentationHookTable hookTable;
 
     public ChainedInstrumentation(List<Instrumentation> instrumentations) {
         this.instrumentations = ImmutableList.copyOf(assertNotNull(instrumentations));
+        this.hookTable = new InstrumentationHookTable(this.instrumentations);
     }
 
     public ChainedInstrumentation(Instrumentation... instrumentations) {
@@ -64,29 +91,51 @@ public class ChainedInstrumentation implements Instrumentation {
         return instrumentations;
     }
 
-    private <T> InstrumentationContext<T> chainedCtx(InstrumentationState state, BiFunction<Instrumentation, InstrumentationState, InstrumentationContext<T>> mapper) {
-        // if we have zero or 1 instrumentations (and 1 is the most common), then we can avoid an object allocation
-        // of the ChainedInstrumentationContext since it won't be needed
-        if (instrumentations.isEmpty()) {
-            return SimpleInstrumentationContext.noOp();
-        }
+    private <C> C chainedCtx(int[] indexes, InstrumentationState state, BiFunction<Instrumentation, InstrumentationState, C> mapper, C noOp, Function<ImmutableList<C>, C> chainer) {
+        // the callers have already returned a no-op context if no instrumentation overrides the hook, and if only 1 does
+        // (and 1 is the most common) then we can avoid the object allocations of the chained context since it won't be needed
         ChainedInstrumentationState chainedInstrumentationState = (ChainedInstrumentationState) state;
-        if (instrumentations.size() == 1) {
-            return mapper.apply(instrumentations.get(0), chainedInstrumentationState.getState(0));
+        if (indexes.length == 1) {
+            int index = indexes[0];
+            return mapper.apply(instrumentations.get(index), chainedInstrumentationState.getState(index));
+        }
+        ImmutableList<C> contexts = chainedMapAndDropNulls(indexes, chainedInstrumentationState, mapper);
+        if (contexts.isEmpty()) {
+            return noOp;
+        }
+        if (contexts.size() == 1) {
+            return contexts.get(0);
         }
-        return new ChainedInstrumentationContext<>(chainedMapAndDropNulls(chainedInstrumentationState, mapper));
+        return chainer.apply(contexts);
     }
 
-    private <T> T chainedInstrument(InstrumentationState state, T input, ChainedInstrumentationFunction<Instrumentation, InstrumentationState, T, T> mapper) {
+    private <T> InstrumentationContext<T> chainedCtx(int[] indexes, InstrumentationState state, BiFunction<Instrumentation, InstrumentationState, InstrumentationContext<T>> mapper) {
+        return chainedCtx(indexes, state, mapper, SimpleInstrumentationContext.noOp(), ChainedInstrumentationContext::new);
+    }
+
+    private <T> T chainedInstrument(int[] indexes, InstrumentationState state, T input, ChainedInstrumentationFunction<Instrumentation, InstrumentationState, T, T> mapper) {
         ChainedInstrumentationState chainedInstrumentationState = (ChainedInstrumentationState) state;
-        for (int i = 0; i < instrumentations.size(); i++) {
-            Instrumentation instrumentation = instrumentations.get(i);
-            InstrumentationState specificState = chainedInstrumentationState.getState(i);
+        for (int index : indexes) {
+            Instrumentation instrumentation = instrumentations.get(index);
+            InstrumentationState specificState = chainedInstrumentationState.getState(index);
             input = mapper.apply(instrumentation, specificState, input);
         }
         return input;
     }
 
+    private <T> ImmutableList<T> chainedMapAndDropNulls(int[] indexes, ChainedInstrumentationState chainedInstrumentationState, BiFunction<Instrumentation, InstrumentationState, T> mapper) {
+        ImmutableList.Builder<T> result = ImmutableList.builderWithExpectedSize(indexes.length);
+        for (int index : indexes) {
+            Instrumentation instrumentation = instrumentations.get(index);
+            InstrumentationState specificState = chainedInstrumentationState.getState(index);
+            T value = mapper.apply(instrumentation, specificState);
+            if (value != null) {
+                result.add(value);
+            }
+        }
+        return result.build();
+    }
+
     protected <T> ImmutableList<T> chainedMapAndDropNulls(InstrumentationState state, BiFunction<Instrumentation, InstrumentationState, T> mapper) {
         ChainedInstrumentationState chainedInstrumentationState = (ChainedInstrumentationState) state;
         ImmutableList.Builder<T> result = ImmutableList.builderWithExpectedSize(instrumentations.size());
@@ -110,6 +159,25 @@ public class ChainedInstrumentation implements Instrumentation {
         }
     }
 
+    /**
+     * Like {@link #chainedConsume(InstrumentationState, BiConsumer)} but only for the instrumentations that override the
+     * given hook
+     *
+     * @param hook          one of the {@link InstrumentationHookTable} hook constants
+     * @param state         the chained instrumentation state
+     * @param stateConsumer the consumer to call
+     */
+    void chainedConsume(int hook, InstrumentationState state, BiConsumer<Instrumentation, InstrumentationState> stateConsumer) {
+        int[] indexes = hookTable.indexes(hook);
+        if (indexes.length == 0) {
+            return;
+        }
+        ChainedInstrumentationState chainedInstrumentationState = (ChainedInstrumentationState) state;
+        for (int index : indexes) {
+            stateConsumer.accept(instrumentations.get(index), chainedInstrumentationState.getState(index));
+        }
+    }
+
     @Override
     public @NotNull CompletableFuture<InstrumentationState> createStateAsync(InstrumentationCreateStateParameters parameters) {
         return ChainedInstrumentationState.combineAll(instrumentations, parameters);
@@ -117,139 +185,215 @@ public class ChainedInstrumentation implements Instrumentation {
 
     @Override
     public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters, InstrumentationState state) {
-        return chainedCtx(state, (instrumentation, specificState) -> instrumentation.beginExecution(parameters, specificState));
+        int[] indexes = hookTable.indexes(BEGIN_EXECUTION);
+        if (indexes.length == 0) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        return chainedCtx(indexes, state, (instrumentation, specificState) -> instrumentation.beginExecution(parameters, specificState));
     }
 
 
     @Override
     public InstrumentationContext<Document> beginParse(InstrumentationExecutionParameters parameters, InstrumentationState state) {
-        return chainedCtx(state, (instrumentation, specificState) -> instrumentation.beginParse(parameters, specificState));
+        int[] indexes = hookTable.indexes(BEGIN_PARSE);
+        if (indexes.length == 0) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        return chainedCtx(indexes, state, (instrumentation, specificState) -> instrumentation.beginParse(parameters, specificState));
     }
 
 
     @Override
     public InstrumentationContext<List<ValidationError>> beginValidation(InstrumentationValidationParameters parameters, InstrumentationState state) {
-        return chainedCtx(state, (instrumentation, specificState) -> instrumentation.beginValidation(parameters, specificState));
+        int[] indexes = hookTable.indexes(BEGIN_VALIDATION);
+        if (indexes.length == 0) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        return chainedCtx(indexes, state, (instrumentation, specificState) -> instrumentation.beginValidation(parameters, specificState));
     }
 
     @Override
     public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
-        return chainedCtx(state, (instrumentation, specificState) -> instrumentation.beginExecuteOperation(parameters, specificState));
+        int[] indexes = hookTable.indexes(BEGIN_EXECUTE_OPERATION);
+        if (indexes.length == 0) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        return chainedCtx(indexes, state, (instrumentation, specificState) -> instrumentation.beginExecuteOperation(parameters, specificState));
+    }
+
+    @Override
+    public @Nullable CompletableFuture<Void> awaitExecuteOperation(InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        int[] indexes = hookTable.indexes(AWAIT_EXECUTE_OPERATION);
+        if (indexes.length == 0) {
+            return null;
+        }
+        // each instrumentation is only asked once the ones before it have let the operation go
+        ChainedInstrumentationState chainedInstrumentationState = (ChainedInstrumentationState) state;
+        CompletableFuture<Void> result = null;
+        for (int index : indexes) {
+            Instrumentation instrumentation = instrumentations.get(index);
+            InstrumentationState specificState = chainedInstrumentationState.getState(index);
+            if (result == null) {
+                result = instrumentation.awaitExecuteOperation(parameters, specificState);
+            } else {
+                result = result.thenCompose(ignored -> Async.orNullCompletedFuture(instrumentation.awaitExecuteOperation(parameters, specificState)));
+            }
+        }
+        return result;
     }
 
 
     @Override
     public ExecutionStrategyInstrumentationContext beginExecutionStrategy(InstrumentationExecutionStrategyParameters parameters, InstrumentationState state) {
-        if (instrumentations.isEmpty()) {
+        int[] indexes = hookTable.indexes(BEGIN_EXECUTION_STRATEGY);
+        if (indexes.length == 0) {
             return ExecutionStrategyInstrumentationContext.NOOP;
         }
-        BiFunction<Instrumentation, InstrumentationState, ExecutionStrategyInstrumentationContext> mapper = (instrumentation, specificState) -> instrumentation.beginExecutionStrategy(parameters, specificState);
-        ChainedInstrumentationState chainedInstrumentationState = (ChainedInstrumentationState) state;
-        if (instrumentations.size() == 1) {
-            return mapper.apply(instrumentations.get(0), chainedInstrumentationState.getState(0));
-        }
-        return new ChainedExecutionStrategyInstrumentationContext(chainedMapAndDropNulls(chainedInstrumentationState, mapper));
+        return chainedCtx(indexes, state, (instrumentation, specificState) -> instrumentation.beginExecutionStrategy(parameters, specificState),
+                ExecutionStrategyInstrumentationContext.NOOP, ChainedExecutionStrategyInstrumentationContext::new);
     }
 
     @Override
     public @Nullable ExecuteObjectInstrumentationContext beginExecuteObject(InstrumentationExecutionStrategyParameters parameters, InstrumentationState state) {
-        if (instrumentations.isEmpty()) {
+        int[] indexes = hookTable.indexes(BEGIN_EXECUTE_OBJECT);
+        if (indexes.length == 0) {
             return ExecuteObjectInstrumentationContext.NOOP;
         }
-        BiFunction<Instrumentation, InstrumentationState, ExecuteObjectInstrumentationContext> mapper = (instrumentation, specificState) -> instrumentation.beginExecuteObject(parameters, specificState);
-        ChainedInstrumentationState chainedInstrumentationState = (ChainedInstrumentationState) state;
-        if (instrumentations.size() == 1) {
-            return mapper.apply(instrumentations.get(0), chainedInstrumentationState.getState(0));
-        }
-        return new ChainedExecuteObjectInstrumentationContext(chainedMapAndDropNulls(chainedInstrumentationState, mapper));
+        return chainedCtx(indexes, state, (instrumentation, specificState) -> instrumentation.beginExecuteObject(parameters, specificState),
+                ExecuteObjectInstrumentationContext.NOOP, ChainedExecuteObjectInstrumentationContext::new);
     }
 
     @ExperimentalApi
     @Override
     public InstrumentationContext<Object> beginDeferredField(InstrumentationState instrumentationState) {
-        return new ChainedDeferredExecutionStrategyInstrumentationContext(chainedMapAndDropNulls(instrumentationState, Instrumentation::beginDeferredField));
+        int[] indexes = hookTable.indexes(BEGIN_DEFERRED_FIELD);
+        if (indexes.length == 0) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        return chainedCtx(indexes, instrumentationState, Instrumentation::beginDeferredField,
+                SimpleInstrumentationContext.noOp(), ChainedDeferredExecutionStrategyInstrumentationContext::new);
     }
 
 
     @Override
     public InstrumentationContext<ExecutionResult> beginSubscribedFieldEvent(InstrumentationFieldParameters parameters, InstrumentationState state) {
-        return chainedCtx(state, (instrumentation, specificState) -> instrumentation.beginSubscribedFieldEvent(parameters, specificState));
+        int[] indexes = hookTable.indexes(BEGIN_SUBSCRIBED_FIELD_EVENT);
+        if (indexes.length == 0) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        return chainedCtx(indexes, state, (instrumentation, specificState) -> instrumentation.beginSubscribedFieldEvent(parameters, specificState));
     }
 
     @Override
     public @Nullable InstrumentationContext<Object> beginFieldExecution(InstrumentationFieldParameters parameters, InstrumentationState state) {
-        return chainedCtx(state, (instrumentation, specificState) -> instrumentation.beginFieldExecution(parameters, specificState));
+        int[] indexes = hookTable.indexes(BEGIN_FIELD_EXECUTION);
+        if (indexes.length == 0) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        return chainedCtx(indexes, state, (instrumentation, specificState) -> instrumentation.beginFieldExecution(parameters, specificState));
     }
 
     @SuppressWarnings("deprecation")
     @Override
     public InstrumentationContext<Object> beginFieldFetch(InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
-        return chainedCtx(state, (instrumentation, specificState) -> instrumentation.beginFieldFetch(parameters, specificState));
+        int[] indexes = hookTable.indexes(BEGIN_FIELD_FETCH);
+        if (indexes.length == 0) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        return chainedCtx(indexes, state, (instrumentation, specificState) -> instrumentation.beginFieldFetch(parameters, specificState));
     }
 
     @Override
     public FieldFetchingInstrumentationContext beginFieldFetching(InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
-        if (instrumentations.isEmpty()) {
+        int[] indexes = hookTable.indexes(BEGIN_FIELD_FETCHING);
+        if (indexes.length == 0) {
             return FieldFetchingInstrumentationContext.NOOP;
         }
-        BiFunction<Instrumentation, InstrumentationState, FieldFetchingInstrumentationContext> mapper = (instrumentation, specificState) -> instrumentation.beginFieldFetching(parameters, specificState);
-        ChainedInstrumentationState chainedInstrumentationState = (ChainedInstrumentationState) state;
-        if (instrumentations.size() == 1) {
-            return mapper.apply(instrumentations.get(0), chainedInstrumentationState.getState(0));
-        }
-        ImmutableList<FieldFetchingInstrumentationContext> objects = chainedMapAndDropNulls(chainedInstrumentationState, mapper);
-        return new ChainedFieldFetchingInstrumentationContext(objects);
+        return chainedCtx(indexes, state, (instrumentation, specificState) -> instrumentation.beginFieldFetching(parameters, specificState),
+                FieldFetchingInstrumentationContext.NOOP, ChainedFieldFetchingInstrumentationContext::new);
     }
 
     @Override
     public @Nullable InstrumentationContext<Object> beginFieldCompletion(InstrumentationFieldCompleteParameters parameters, InstrumentationState state) {
-        return chainedCtx(state, (instrumentation, specificState) -> instrumentation.beginFieldCompletion(parameters, specificState));
+        int[] indexes = hookTable.indexes(BEGIN_FIELD_COMPLETION);
+        if (indexes.length == 0) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        return chainedCtx(indexes, state, (instrumentation, specificState) -> instrumentation.beginFieldCompletion(parameters, specificState));
     }
 
 
     @Override
     public @Nullable InstrumentationContext<Object> beginFieldListCompletion(InstrumentationFieldCompleteParameters parameters, InstrumentationState state) {
-        return chainedCtx(state, (instrumentation, specificState) -> instrumentation.beginFieldListCompletion(parameters, specificState));
+        int[] indexes = hookTable.indexes(BEGIN_FIELD_LIST_COMPLETION);
+        if (indexes.length == 0) {
+            return SimpleInstrumentationContext.noOp();
+        }
+        return chainedCtx(indexes, state, (instrumentation, specificState) -> instrumentation.beginFieldListCompletion(parameters, specificState));
     }
 
     @NotNull
     @Override
     public ExecutionInput instrumentExecutionInput(ExecutionInput executionInput, InstrumentationExecutionParameters parameters, InstrumentationState state) {
-        return chainedInstrument(state, executionInput, (instrumentation, specificState, accumulator) -> instrumentation.instrumentExecutionInput(accumulator, parameters, specificState));
+        int[] indexes = hookTable.indexes(INSTRUMENT_EXECUTION_INPUT);
+        if (indexes.length == 0) {
+            return executionInput;
+        }
+        return chainedInstrument(indexes, state, executionInput, (instrumentation, specificState, accumulator) -> instrumentation.instrumentExecutionInput(accumulator, parameters, specificState));
     }
 
     @NotNull
     @Override
     public DocumentAndVariables instrumentDocumentAndVariables(DocumentAndVariables documentAndVariables, InstrumentationExecutionParameters parameters, InstrumentationState state) {
-        return chainedInstrument(state, documentAndVariables, (instrumentation, specificState, accumulator) ->
+        int[] indexes = hookTable.indexes(INSTRUMENT_DOCUMENT_AND_VARIABLES);
+        if (indexes.length == 0) {
+            return documentAndVariables;
+        }
+        return chainedInstrument(indexes, state, documentAndVariables, (instrumentation, specificState, accumulator) ->
                 instrumentation.instrumentDocumentAndVariables(accumulator, parameters, specificState));
     }
 
     @NotNull
     @Override
     public GraphQLSchema instrumentSchema(GraphQLSchema schema, InstrumentationExecutionParameters parameters, InstrumentationState state) {
-        return chainedInstrument(state, schema, (instrumentation, specificState, accumulator) ->
+        int[] indexes = hookTable.indexes(INSTRUMENT_SCHEMA);
+        if (indexes.length == 0) {
+            return schema;
+        }
+        return chainedInstrument(indexes, state, schema, (instrumentation, specificState, accumulator) ->
                 instrumentation.instrumentSchema(accumulator, parameters, specificState));
     }
 
     @NotNull
     @Override
     public ExecutionContext instrumentExecutionContext(ExecutionContext executionContext, InstrumentationExecutionParameters parameters, InstrumentationState state) {
-        return chainedInstrument(state, executionContext, (instrumentation, specificState, accumulator) ->
+        int[] indexes = hookTable.indexes(INSTRUMENT_EXECUTION_CONTEXT);
+        if (indexes.length == 0) {
+            return executionContext;
+        }
+        return chainedInstrument(indexes, state, executionContext, (instrumentation, specificState, accumulator) ->
                 instrumentation.instrumentExecutionContext(accumulator, parameters, specificState));
     }
 
     @NotNull
     @Override
     public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher, InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
-        return chainedInstrument(state, dataFetcher, (Instrumentation instrumentation, InstrumentationState specificState, DataFetcher<?> accumulator) ->
+        int[] indexes = hookTable.indexes(INSTRUMENT_DATA_FETCHER);
+        if (indexes.length == 0) {
+            return dataFetcher;
+        }
+        return chainedInstrument(indexes, state, dataFetcher, (Instrumentation instrumentation, InstrumentationState specificState, DataFetcher<?> accumulator) ->
                 instrumentation.instrumentDataFetcher(accumulator, parameters, specificState));
     }
 
     @NotNull
     @Override
     public CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult, InstrumentationExecutionParameters parameters, InstrumentationState state) {
-        ImmutableList<Map.Entry<Instrumentation, InstrumentationState>> entries = chainedMapAndDropNulls(state, AbstractMap.SimpleEntry::new);
+        int[] indexes = hookTable.indexes(INSTRUMENT_EXECUTION_RESULT);
+        if (indexes.length == 0) {
+            return CompletableFuture.completedFuture(executionResult);
+        }
+        ImmutableList<Map.Entry<Instrumentation, InstrumentationState>> entries = chainedMapAndDropNulls(indexes, (ChainedInstrumentationState) state, AbstractMap.SimpleEntry::new);
         CompletableFuture<List<ExecutionResult>> resultsFuture = Async.eachSequentially(entries, (entry, prevResults) -> {
             Instrumentation instrumentation = entry.getKey();
             InstrumentationState specificState = entry.getValue();
@@ -0,0 +1,66 @@
+package graphql.execution.instrumentation;
+
+import graphql.Internal;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread safe histogram of durations in power of two buckets of nanoseconds, where bucket i counts the durations in
+ * [2^(i-1), 2^i) and the last bucket also counts all longer durations.  This is what both
+ * {@link graphql.execution.instrumentation.metrics.ExecutionMetricsInstrumentation} and
+ * {@link graphql.execution.instrumentation.tracing.SamplingTracingSupport} keep per field coordinate, so that their
+ * buckets mean the same thing.
+ */
+@Internal
+public class DurationHistogram {
+
+    /**
+     * The number of buckets
+     */
+    public static final int BUCKETS = 40;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    public DurationHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param durationNanos the duration to count, where negative durations count as 0
+     */
+    public void record(long durationNanos) {
+        counts[bucket(durationNanos)].increment();
+    }
+
+    /**
+     * @return the counts of each bucket
+     */
+    public long[] getCounts() {
+        long[] result = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            result[i] = counts[i].sum();
+        }
+        return result;
+    }
+
+    /**
+     * @param durationNanos a duration
+     *
+     * @return the index of the bucket that counts the duration
+     */
+    public static int bucket(long durationNanos) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0, durationNanos)));
+    }
+
+    /**
+     * @param bucket the index of a bucket
+     *
+     * @return the exclusive upper bound in nanoseconds of the durations counted in the bucket, which is
+     * {@link Long#MAX_VALUE} for the last bucket
+     */
+    public static long bucketUpperBoundNanos(int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+}
@@ -120,6 +120,24 @@ public interface Instrumentation {
         return noOp();
     }
 
+    /**
+     * This is called just before the execution of the query operation is started, and lets an instrumentation hold it
+     * back, for example until there is capacity to execute it, without holding the thread that is executing the
+     * request.  The operation is executed once the returned future completes.  If the future completes with an
+     * {@link graphql.execution.AbortExecutionException} then the operation is not executed, and the errors of the
+     * exception are the result instead.
+     *
+     * @param parameters the parameters to this step
+     * @param state      the state created during the call to {@link #createStateAsync(InstrumentationCreateStateParameters)}
+     *
+     * @return a nullable future that completes when the operation can be executed, where null means straight away
+     */
+    @ExperimentalApi
+    @Nullable
+    default CompletableFuture<Void> awaitExecuteOperation(InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        return null;
+    }
+
     /**
      * This is called each time an {@link graphql.execution.ExecutionStrategy} is invoked, which may be multiple times
      * per query as the engine recursively descends over the query.
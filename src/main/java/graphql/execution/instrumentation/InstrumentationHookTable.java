@@ -0,0 +1,136 @@
+package graphql.execution.instrumentation;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.Internal;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionStrategyParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldCompleteParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLSchema;
+
+import java.util.List;
+
+/**
+ * For each of the hook methods of {@link Instrumentation} this holds the indexes of only the instrumentations that
+ * override it, so that {@link ChainedInstrumentation} does not call, and allocate contexts for, instrumentations that
+ * would do nothing.  The default methods of {@link Instrumentation} and the methods of {@link SimplePerformantInstrumentation}
+ * do nothing, so only methods declared elsewhere count.  Which methods an instrumentation class overrides is worked out
+ * once per class.
+ */
+@Internal
+final class InstrumentationHookTable {
+
+    static final int BEGIN_EXECUTION = 0;
+    static final int BEGIN_PARSE = 1;
+    static final int BEGIN_VALIDATION = 2;
+    static final int BEGIN_EXECUTE_OPERATION = 3;
+    static final int BEGIN_EXECUTION_STRATEGY = 4;
+    static final int BEGIN_EXECUTE_OBJECT = 5;
+    static final int BEGIN_DEFERRED_FIELD = 6;
+    static final int BEGIN_SUBSCRIBED_FIELD_EVENT = 7;
+    static final int BEGIN_FIELD_EXECUTION = 8;
+    static final int BEGIN_FIELD_FETCH = 9;
+    static final int BEGIN_FIELD_FETCHING = 10;
+    static final int BEGIN_FIELD_COMPLETION = 11;
+    static final int BEGIN_FIELD_LIST_COMPLETION = 12;
+    static final int INSTRUMENT_EXECUTION_INPUT = 13;
+    static final int INSTRUMENT_DOCUMENT_AND_VARIABLES = 14;
+    static final int INSTRUMENT_SCHEMA = 15;
+    static final int INSTRUMENT_EXECUTION_CONTEXT = 16;
+    static final int INSTRUMENT_DATA_FETCHER = 17;
+    static final int INSTRUMENT_EXECUTION_RESULT = 18;
+    static final int AWAIT_EXECUTE_OPERATION = 19;
+
+    private static final int HOOK_COUNT = 20;
+
+    private static final int[] NONE = new int[0];
+
+    private static final ClassValue<Integer> OVERRIDDEN_HOOKS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> instrumentationClass) {
+            return overriddenHooks(instrumentationClass);
+        }
+    };
+
+    private final int[][] indexesByHook;
+
+    InstrumentationHookTable(List<Instrumentation> instrumentations) {
+        int[] hooksByIndex = new int[instrumentations.size()];
+        for (int i = 0; i < hooksByIndex.length; i++) {
+            hooksByIndex[i] = OVERRIDDEN_HOOKS.get(instrumentations.get(i).getClass());
+        }
+        this.indexesByHook = new int[HOOK_COUNT][];
+        for (int hook = 0; hook < HOOK_COUNT; hook++) {
+            int count = 0;
+            for (int hooks : hooksByIndex) {
+                if ((hooks & (1 << hook)) != 0) {
+                    count++;
+                }
+            }
+            int[] indexes = count == 0 ? NONE : new int[count];
+            count = 0;
+            for (int i = 0; i < hooksByIndex.length; i++) {
+                if ((hooksByIndex[i] & (1 << hook)) != 0) {
+                    indexes[count++] = i;
+                }
+            }
+            this.indexesByHook[hook] = indexes;
+        }
+    }
+
+    /**
+     * @param hook one of the hook constants
+     *
+     * @return the indexes of the instrumentations that override the hook method, in the order they were given.  The
+     * array is shared and must not be changed
+     */
+    int[] indexes(int hook) {
+        return indexesByHook[hook];
+    }
+
+    private static int overriddenHooks(Class<?> instrumentationClass) {
+        int hooks = 0;
+        hooks |= overrides(instrumentationClass, BEGIN_EXECUTION, "beginExecution", InstrumentationExecutionParameters.class, InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, BEGIN_PARSE, "beginParse", InstrumentationExecutionParameters.class, InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, BEGIN_VALIDATION, "beginValidation", InstrumentationValidationParameters.class, InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, BEGIN_EXECUTE_OPERATION, "beginExecuteOperation", InstrumentationExecuteOperationParameters.class, InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, AWAIT_EXECUTE_OPERATION, "awaitExecuteOperation", InstrumentationExecuteOperationParameters.class, InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, BEGIN_EXECUTION_STRATEGY, "beginExecutionStrategy", InstrumentationExecutionStrategyParameters.class, InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, BEGIN_EXECUTE_OBJECT, "beginExecuteObject", InstrumentationExecutionStrategyParameters.class, InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, BEGIN_DEFERRED_FIELD, "beginDeferredField", InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, BEGIN_SUBSCRIBED_FIELD_EVENT, "beginSubscribedFieldEvent", InstrumentationFieldParameters.class, InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, BEGIN_FIELD_EXECUTION, "beginFieldExecution", InstrumentationFieldParameters.class, InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, BEGIN_FIELD_FETCH, "beginFieldFetch", InstrumentationFieldFetchParameters.class, InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, BEGIN_FIELD_FETCHING, "beginFieldFetching", InstrumentationFieldFetchParameters.class, InstrumentationState.class);
+        // the default beginFieldFetching() calls back to the deprecated beginFieldFetch() so overriding either counts
+        if ((hooks & (1 << BEGIN_FIELD_FETCH)) != 0) {
+            hooks |= 1 << BEGIN_FIELD_FETCHING;
+        }
+        hooks |= overrides(instrumentationClass, BEGIN_FIELD_COMPLETION, "beginFieldCompletion", InstrumentationFieldCompleteParameters.class, InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, BEGIN_FIELD_LIST_COMPLETION, "beginFieldListCompletion", InstrumentationFieldCompleteParameters.class, InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, INSTRUMENT_EXECUTION_INPUT, "instrumentExecutionInput", ExecutionInput.class, InstrumentationExecutionParameters.class, InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, INSTRUMENT_DOCUMENT_AND_VARIABLES, "instrumentDocumentAndVariables", DocumentAndVariables.class, InstrumentationExecutionParameters.class, InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, INSTRUMENT_SCHEMA, "instrumentSchema", GraphQLSchema.class, InstrumentationExecutionParameters.class, InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, INSTRUMENT_EXECUTION_CONTEXT, "instrumentExecutionContext", ExecutionContext.class, InstrumentationExecutionParameters.class, InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, INSTRUMENT_DATA_FETCHER, "instrumentDataFetcher", DataFetcher.class, InstrumentationFieldFetchParameters.class, InstrumentationState.class);
+        hooks |= overrides(instrumentationClass, INSTRUMENT_EXECUTION_RESULT, "instrumentExecutionResult", ExecutionResult.class, InstrumentationExecutionParameters.class, InstrumentationState.class);
+        return hooks;
+    }
+
+    private static int overrides(Class<?> instrumentationClass, int hook, String methodName, Class<?>... parameterTypes) {
+        try {
+            Class<?> declaringClass = instrumentationClass.getMethod(methodName, parameterTypes).getDeclaringClass();
+            boolean overridden = declaringClass != Instrumentation.class && declaringClass != SimplePerformantInstrumentation.class;
+            return overridden ? 1 << hook : 0;
+        } catch (NoSuchMethodException | SecurityException e) {
+            // if we can't tell then the instrumentation is always called
+            return 1 << hook;
+        }
+    }
+}
@@ -48,69 +48,69 @@ public class NoContextChainedInstrumentation extends ChainedInstrumentation {
         super(instrumentations);
     }
 
-    private <T> T runAll(InstrumentationState state, BiConsumer<Instrumentation, InstrumentationState> stateConsumer) {
-        chainedConsume(state, stateConsumer);
+    private <T> T runAll(int hook, InstrumentationState state, BiConsumer<Instrumentation, InstrumentationState> stateConsumer) {
+        chainedConsume(hook, state, stateConsumer);
         return null;
     }
 
     @Override
     public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters, InstrumentationState state) {
-        return runAll(state, (instrumentation, specificState) -> instrumentation.beginExecution(parameters, specificState));
+        return runAll(InstrumentationHookTable.BEGIN_EXECUTION, state, (instrumentation, specificState) -> instrumentation.beginExecution(parameters, specificState));
     }
 
     @Override
     public InstrumentationContext<Document> beginParse(InstrumentationExecutionParameters parameters, InstrumentationState state) {
-        return runAll(state, (instrumentation, specificState) -> instrumentation.beginParse(parameters, specificState));
+        return runAll(InstrumentationHookTable.BEGIN_PARSE, state, (instrumentation, specificState) -> instrumentation.beginParse(parameters, specificState));
     }
 
     @Override
     public InstrumentationContext<List<ValidationError>> beginValidation(InstrumentationValidationParameters parameters, InstrumentationState state) {
-        return runAll(state, (instrumentation, specificState) -> instrumentation.beginValidation(parameters, specificState));
+        return runAll(InstrumentationHookTable.BEGIN_VALIDATION, state, (instrumentation, specificState) -> instrumentation.beginValidation(parameters, specificState));
     }
 
     @Override
     public InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
-        return runAll(state, (instrumentation, specificState) -> instrumentation.beginExecuteOperation(parameters, specificState));
+        return runAll(InstrumentationHookTable.BEGIN_EXECUTE_OPERATION, state, (instrumentation, specificState) -> instrumentation.beginExecuteOperation(parameters, specificState));
     }
 
     @Override
     public ExecutionStrategyInstrumentationContext beginExecutionStrategy(InstrumentationExecutionStrategyParameters parameters, InstrumentationState state) {
-        return runAll(state, (instrumentation, specificState) -> instrumentation.beginExecutionStrategy(parameters, specificState));
+        return runAll(InstrumentationHookTable.BEGIN_EXECUTION_STRATEGY, state, (instrumentation, specificState) -> instrumentation.beginExecutionStrategy(parameters, specificState));
     }
 
     @Override
     public @Nullable ExecuteObjectInstrumentationContext beginExecuteObject(InstrumentationExecutionStrategyParameters parameters, InstrumentationState state) {
-        return runAll(state, (instrumentation, specificState) -> instrumentation.beginExecuteObject(parameters, specificState));
+        return runAll(InstrumentationHookTable.BEGIN_EXECUTE_OBJECT, state, (instrumentation, specificState) -> instrumentation.beginExecuteObject(parameters, specificState));
     }
 
     @Override
     public InstrumentationContext<ExecutionResult> beginSubscribedFieldEvent(InstrumentationFieldParameters parameters, InstrumentationState state) {
-        return runAll(state, (instrumentation, specificState) -> instrumentation.beginSubscribedFieldEvent(parameters, specificState));
+        return runAll(InstrumentationHookTable.BEGIN_SUBSCRIBED_FIELD_EVENT, state, (instrumentation, specificState) -> instrumentation.beginSubscribedFieldEvent(parameters, specificState));
     }
 
     @Override
     public @Nullable InstrumentationContext<Object> beginFieldExecution(InstrumentationFieldParameters parameters, InstrumentationState state) {
-        return runAll(state, (instrumentation, specificState) -> instrumentation.beginFieldExecution(parameters, specificState));
+        return runAll(InstrumentationHookTable.BEGIN_FIELD_EXECUTION, state, (instrumentation, specificState) -> instrumentation.beginFieldExecution(parameters, specificState));
     }
 
     @Override
     public InstrumentationContext<Object> beginFieldFetch(InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
-        return runAll(state, (instrumentation, specificState) -> instrumentation.beginFieldFetch(parameters, specificState));
+        return runAll(InstrumentationHookTable.BEGIN_FIELD_FETCH, state, (instrumentation, specificState) -> instrumentation.beginFieldFetch(parameters, specificState));
     }
 
     @Override
     public FieldFetchingInstrumentationContext beginFieldFetching(InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
-        return runAll(state, (instrumentation, specificState) -> instrumentation.beginFieldFetching(parameters, specificState));
+        return runAll(InstrumentationHookTable.BEGIN_FIELD_FETCHING, state, (instrumentation, specificState) -> instrumentation.beginFieldFetching(parameters, specificState));
     }
 
     @Override
     public @Nullable InstrumentationContext<Object> beginFieldCompletion(InstrumentationFieldCompleteParameters parameters, InstrumentationState state) {
-        return runAll(state, (instrumentation, specificState) -> instrumentation.beginFieldCompletion(parameters, specificState));
+        return runAll(InstrumentationHookTable.BEGIN_FIELD_COMPLETION, state, (instrumentation, specificState) -> instrumentation.beginFieldCompletion(parameters, specificState));
     }
 
     @Override
     public @Nullable InstrumentationContext<Object> beginFieldListCompletion(InstrumentationFieldCompleteParameters parameters, InstrumentationState state) {
-        return runAll(state, (instrumentation, specificState) -> instrumentation.beginFieldListCompletion(parameters, specificState));
+        return runAll(InstrumentationHookTable.BEGIN_FIELD_LIST_COMPLETION, state, (instrumentation, specificState) -> instrumentation.beginFieldListCompletion(parameters, specificState));
     }
 
     // relies on the other methods from ChainedInstrumentation which this does not change
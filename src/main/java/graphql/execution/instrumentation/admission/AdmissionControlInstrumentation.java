@@ -0,0 +1,609 @@
+package graphql.execution.instrumentation.admission;
+
+import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
+import graphql.GraphQLContext;
+import graphql.GraphQLError;
+import graphql.ThreadSafe;
+import graphql.analysis.QueryCostAnalyzer;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.Async;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.FieldFetchingInstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+import static graphql.execution.instrumentation.InstrumentationState.ofState;
+import static graphql.execution.instrumentation.SimpleInstrumentationContext.whenCompleted;
+
+/**
+ * This {@link graphql.execution.instrumentation.Instrumentation} decides whether to execute each request based on what
+ * it costs and how loaded the server is, rather than on a fixed threshold like
+ * {@link graphql.analysis.MaxQueryComplexityInstrumentation}.
+ * <p>
+ * The cost of a request is the complexity of its {@link graphql.analysis.QueryCostAnalysis}, from the
+ * {@link QueryCostAnalyzer} it is given, which is worked out before execution starts.  The costs of the requests that
+ * have been admitted and have not finished yet are added up, and a request is admitted if that in flight cost plus its
+ * own fits into the capacity, which is {@link Builder#maxInFlightCost(long)}.  When the server is idle any request that
+ * costs no more than that is admitted.
+ * <p>
+ * If a {@link Builder#targetFetchLatency(Duration) target fetch latency} is given then the duration of every field fetch
+ * is kept in a sliding window, and while the average fetch latency over the window is above the target the capacity is
+ * scaled down in proportion, so that a slow backend sheds load before it falls over.
+ * <p>
+ * A request that does not fit waits for capacity to free up, for up to {@link Builder#maxQueueTime(Duration)}, if
+ * fewer than {@link Builder#maxQueueLength(int)} requests are already waiting.  Waiting requests do not hold a thread,
+ * as their execution is only started once they are admitted, via
+ * {@link graphql.execution.instrumentation.Instrumentation#awaitExecuteOperation}.  They are admitted in the order they
+ * arrived, so a request that fits never goes ahead of one that is already waiting, and they are looked at again
+ * whenever a request completes and, while the capacity is scaled down, whenever the fetch latency changes.  An admitted
+ * request is started on the {@link Builder#admissionExecutor(Executor)}, rather than on the thread of whatever made room
+ * for it.  Requests
+ * that cannot be admitted are aborted before execution with an {@link AdmissionRejectedError}.
+ * <p>
+ * Clients can also be given budgets, which bound how much of the in flight cost each of them can hold.  The client of a
+ * request is found in its {@link GraphQLContext} via {@link Builder#clientIdFunction(Function)}, and a client that is
+ * over its budget is rejected straight away rather than queued.
+ */
+@ExperimentalApi
+@ThreadSafe
+public class AdmissionControlInstrumentation extends SimplePerformantInstrumentation {
+
+    private final QueryCostAnalyzer queryCostAnalyzer;
+    private final long maxInFlightCost;
+    private final long targetFetchLatencyNanos;
+    private final int maxQueueLength;
+    private final long maxQueueTimeNanos;
+    private final Function<GraphQLContext, Object> clientIdFunction;
+    private final long defaultClientBudget;
+    private final Map<Object, Long> clientBudgets;
+    private final LongSupplier nanoTime;
+    private final LatencyWindow latencyWindow;
+    private final Executor admissionExecutor;
+
+    private final Executor queueTimeoutExecutor;
+    private final Executor latencyRecheckExecutor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // everything below is only changed under the lock
+    private volatile long inFlightCost;
+    private volatile int queueLength;
+    private final Map<Object, Long> clientInFlightCosts = new HashMap<>();
+    private final Deque<QueuedRequest> queue = new ArrayDeque<>();
+    private boolean latencyRecheckScheduled;
+
+    private AdmissionControlInstrumentation(Builder builder) {
+        this.queryCostAnalyzer = builder.queryCostAnalyzer;
+        this.maxInFlightCost = builder.maxInFlightCost;
+        this.targetFetchLatencyNanos = builder.targetFetchLatency == null ? 0 : builder.targetFetchLatency.toNanos();
+        this.maxQueueLength = builder.maxQueueLength;
+        this.maxQueueTimeNanos = builder.maxQueueTime.toNanos();
+        this.clientIdFunction = builder.clientIdFunction;
+        this.defaultClientBudget = builder.defaultClientBudget;
+        this.clientBudgets = new LinkedHashMap<>(builder.clientBudgets);
+        this.nanoTime = builder.nanoTime;
+        this.latencyWindow = new LatencyWindow(builder.latencyWindow.toNanos(), LatencyWindow.BUCKETS);
+        this.admissionExecutor = builder.admissionExecutor;
+        this.queueTimeoutExecutor = CompletableFuture.delayedExecutor(maxQueueTimeNanos, TimeUnit.NANOSECONDS);
+        // the average latency can only change with time when the oldest bucket drops out of the window
+        this.latencyRecheckExecutor = CompletableFuture.delayedExecutor(latencyWindow.bucketNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the total estimated cost of the requests that are executing
+     */
+    public long getInFlightCost() {
+        return inFlightCost;
+    }
+
+    /**
+     * @param clientId the client
+     *
+     * @return the total estimated cost of the requests of the given client that are executing
+     */
+    public long getInFlightCost(Object clientId) {
+        lock.lock();
+        try {
+            return clientInFlightCosts.getOrDefault(clientId, 0L);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of requests waiting to be admitted
+     */
+    public int getQueueLength() {
+        return queueLength;
+    }
+
+    /**
+     * @return the average duration of the field fetches in the sliding window, which is zero unless a target fetch
+     * latency is set
+     */
+    public Duration getAverageFetchLatency() {
+        return Duration.ofNanos(latencyWindow.averageNanos(nanoTime.getAsLong()));
+    }
+
+    /**
+     * @return the in flight cost that is currently allowed, given the fetch latency
+     */
+    public long getCapacity() {
+        return capacity(nanoTime.getAsLong());
+    }
+
+    @Override
+    public @Nullable InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new AdmissionState();
+    }
+
+    @Override
+    public @Nullable InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters, InstrumentationState state) {
+        AdmissionState admissionState = ofState(state);
+        // the whole request is over here, whether it completed or failed
+        return whenCompleted((result, throwable) -> release(admissionState));
+    }
+
+    @Override
+    public @Nullable CompletableFuture<Void> awaitExecuteOperation(InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        AdmissionState admissionState = ofState(state);
+        ExecutionContext executionContext = parameters.getExecutionContext();
+        long cost = executionContext.getQueryCostAnalysis(queryCostAnalyzer).getComplexity();
+        Object clientId = clientIdFunction == null ? null : clientIdFunction.apply(executionContext.getGraphQLContext());
+        return admit(new QueuedRequest(admissionState, cost, clientId));
+    }
+
+    @Override
+    public @Nullable FieldFetchingInstrumentationContext beginFieldFetching(InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+        if (targetFetchLatencyNanos <= 0) {
+            return null;
+        }
+        return new FetchTimer(nanoTime.getAsLong());
+    }
+
+    private CompletableFuture<Void> admit(QueuedRequest request) {
+        long cost = request.cost;
+        if (cost > maxInFlightCost) {
+            return Async.exceptionallyCompletedFuture(reject(AdmissionRejectedError.Reason.OPERATION_TOO_COSTLY, cost, request.clientId,
+                    "The operation cost " + cost + " is more than the " + maxInFlightCost + " allowed"));
+        }
+        lock.lock();
+        try {
+            if (!withinClientBudget(request)) {
+                return Async.exceptionallyCompletedFuture(clientBudgetExceeded(request));
+            }
+            // nothing goes ahead of the requests that are already waiting, however little it costs
+            if (queue.isEmpty() && fits(cost)) {
+                admitted(request);
+                return null;
+            }
+            if (queue.size() >= maxQueueLength || maxQueueTimeNanos <= 0) {
+                return Async.exceptionallyCompletedFuture(overloaded(request));
+            }
+            queue.addLast(request);
+            queueLength = queue.size();
+            scheduleLatencyRecheck();
+        } finally {
+            lock.unlock();
+        }
+        queueTimeoutExecutor.execute(() -> timeOut(request));
+        return request.admission;
+    }
+
+    private void admitted(QueuedRequest request) {
+        inFlightCost += request.cost;
+        if (request.clientId != null) {
+            clientInFlightCosts.merge(request.clientId, request.cost, Long::sum);
+        }
+        request.admissionState.admitted(request.cost, request.clientId);
+    }
+
+    private boolean withinClientBudget(QueuedRequest request) {
+        return request.clientId == null || clientInFlightCosts.getOrDefault(request.clientId, 0L) + request.cost <= clientBudget(request.clientId);
+    }
+
+    private long clientBudget(Object clientId) {
+        return clientBudgets.getOrDefault(clientId, defaultClientBudget);
+    }
+
+    /*
+     * Admits the waiting requests from the front of the queue for as long as they fit.  Their executions are started by
+     * completing their futures, which is done outside the lock.
+     */
+    private void admitQueued() {
+        if (queueLength == 0) {
+            return;
+        }
+        List<QueuedRequest> admittedRequests = new ArrayList<>();
+        List<QueuedRequest> rejectedRequests = new ArrayList<>();
+        lock.lock();
+        try {
+            QueuedRequest request;
+            while ((request = queue.peekFirst()) != null) {
+                if (!withinClientBudget(request)) {
+                    // the client was admitted other requests while this one waited
+                    rejectedRequests.add(queue.removeFirst());
+                } else if (fits(request.cost)) {
+                    admitted(queue.removeFirst());
+                    admittedRequests.add(request);
+                } else {
+                    break;
+                }
+            }
+            queueLength = queue.size();
+        } finally {
+            lock.unlock();
+        }
+        for (QueuedRequest request : rejectedRequests) {
+            request.admission.completeExceptionally(clientBudgetExceeded(request));
+        }
+        for (QueuedRequest request : admittedRequests) {
+            // the execution of the request runs on from here, so it must not run on the stack of the request or timer
+            // that made room for it, nor admit the next one from within itself
+            request.admission.completeAsync(() -> null, admissionExecutor);
+        }
+    }
+
+    private void timeOut(QueuedRequest request) {
+        boolean wasQueued;
+        lock.lock();
+        try {
+            wasQueued = queue.remove(request);
+            queueLength = queue.size();
+        } finally {
+            lock.unlock();
+        }
+        if (wasQueued) {
+            request.admission.completeExceptionally(overloaded(request));
+            // the requests behind it may fit where it did not
+            admitQueued();
+        }
+    }
+
+    /*
+     * While the capacity is scaled down it can recover without any request completing, as slow fetches drop out of the
+     * latency window, so the queue is looked at again each time the window moves on for as long as anything waits.
+     */
+    private void scheduleLatencyRecheck() {
+        if (targetFetchLatencyNanos <= 0 || latencyRecheckScheduled) {
+            return;
+        }
+        latencyRecheckScheduled = true;
+        latencyRecheckExecutor.execute(this::latencyRecheck);
+    }
+
+    private void latencyRecheck() {
+        lock.lock();
+        try {
+            latencyRecheckScheduled = false;
+        } finally {
+            lock.unlock();
+        }
+        admitQueued();
+        lock.lock();
+        try {
+            if (!queue.isEmpty()) {
+                scheduleLatencyRecheck();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean fits(long cost) {
+        return inFlightCost == 0 || inFlightCost + cost <= capacity(nanoTime.getAsLong());
+    }
+
+    private long capacity(long now) {
+        if (targetFetchLatencyNanos <= 0) {
+            return maxInFlightCost;
+        }
+        long averageNanos = latencyWindow.averageNanos(now);
+        if (averageNanos <= targetFetchLatencyNanos) {
+            return maxInFlightCost;
+        }
+        return Math.max(1, (long) (maxInFlightCost * ((double) targetFetchLatencyNanos / averageNanos)));
+    }
+
+    private void release(AdmissionState admissionState) {
+        if (!admissionState.released.compareAndSet(false, true) || !admissionState.admitted) {
+            return;
+        }
+        lock.lock();
+        try {
+            inFlightCost -= admissionState.cost;
+            if (admissionState.clientId != null) {
+                // clients with nothing in flight are forgotten so that the map only holds active clients
+                clientInFlightCosts.computeIfPresent(admissionState.clientId, (clientId, clientCost) -> clientCost == admissionState.cost ? null : clientCost - admissionState.cost);
+            }
+        } finally {
+            lock.unlock();
+        }
+        admitQueued();
+    }
+
+    private AbortExecutionException clientBudgetExceeded(QueuedRequest request) {
+        return reject(AdmissionRejectedError.Reason.CLIENT_BUDGET_EXCEEDED, request.cost, request.clientId,
+                "The operation cost " + request.cost + " does not fit into the budget of " + clientBudget(request.clientId) + " for client " + request.clientId);
+    }
+
+    private AbortExecutionException overloaded(QueuedRequest request) {
+        return reject(AdmissionRejectedError.Reason.OVERLOADED, request.cost, request.clientId,
+                "The server is overloaded and the operation cost " + request.cost + " could not be admitted");
+    }
+
+    private static AbortExecutionException reject(AdmissionRejectedError.Reason reason, long cost, Object clientId, String message) {
+        return new AbortExecutionException(Collections.<GraphQLError>singletonList(new AdmissionRejectedError(reason, cost, clientId, message)));
+    }
+
+    private static class AdmissionState implements InstrumentationState {
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean admitted;
+        private long cost;
+        private Object clientId;
+
+        void admitted(long cost, Object clientId) {
+            this.cost = cost;
+            this.clientId = clientId;
+            this.admitted = true;
+        }
+    }
+
+    private static class QueuedRequest {
+        private final AdmissionState admissionState;
+        private final long cost;
+        private final Object clientId;
+        private final CompletableFuture<Void> admission = new CompletableFuture<>();
+
+        QueuedRequest(AdmissionState admissionState, long cost, Object clientId) {
+            this.admissionState = admissionState;
+            this.cost = cost;
+            this.clientId = clientId;
+        }
+    }
+
+    private class FetchTimer implements FieldFetchingInstrumentationContext {
+        private final long startNanos;
+
+        FetchTimer(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void onDispatched() {
+        }
+
+        @Override
+        public void onCompleted(Object result, Throwable t) {
+            long now = nanoTime.getAsLong();
+            latencyWindow.record(now, now - startNanos);
+            // a faster fetch can make room for the requests that are waiting
+            admitQueued();
+        }
+    }
+
+    /*
+     * The durations of the field fetches over a sliding window, kept in a ring of buckets that each cover a slice of
+     * the window.  A bucket is reset when time comes round to it again, and a fetch recorded while another thread
+     * resets its bucket may be lost, which is fine for an average.
+     */
+    static class LatencyWindow {
+        static final int BUCKETS = 10;
+
+        private final long bucketNanos;
+        private final Bucket[] buckets;
+
+        LatencyWindow(long windowNanos, int bucketCount) {
+            this.bucketNanos = Math.max(1, windowNanos / bucketCount);
+            this.buckets = new Bucket[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                buckets[i] = new Bucket();
+            }
+        }
+
+        void record(long now, long durationNanos) {
+            long slice = Math.floorDiv(now, bucketNanos);
+            Bucket bucket = buckets[(int) Math.floorMod(slice, (long) buckets.length)];
+            long bucketSlice = bucket.slice.get();
+            if (bucketSlice != slice && bucket.slice.compareAndSet(bucketSlice, slice)) {
+                bucket.count.reset();
+                bucket.totalNanos.reset();
+            }
+            bucket.count.increment();
+            bucket.totalNanos.add(durationNanos);
+        }
+
+        long averageNanos(long now) {
+            long slice = Math.floorDiv(now, bucketNanos);
+            long count = 0;
+            long totalNanos = 0;
+            for (Bucket bucket : buckets) {
+                long bucketSlice = bucket.slice.get();
+                if (bucketSlice > slice - buckets.length && bucketSlice <= slice) {
+                    count += bucket.count.sum();
+                    totalNanos += bucket.totalNanos.sum();
+                }
+            }
+            return count == 0 ? 0 : totalNanos / count;
+        }
+
+        private static class Bucket {
+            private final AtomicLong slice = new AtomicLong(Long.MIN_VALUE);
+            private final LongAdder count = new LongAdder();
+            private final LongAdder totalNanos = new LongAdder();
+        }
+    }
+
+    public static Builder newAdmissionControlInstrumentation() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private QueryCostAnalyzer queryCostAnalyzer = QueryCostAnalyzer.newQueryCostAnalyzer().build();
+        private long maxInFlightCost = Long.MAX_VALUE;
+        private Duration targetFetchLatency;
+        private Duration latencyWindow = Duration.ofSeconds(10);
+        private int maxQueueLength;
+        private Duration maxQueueTime = Duration.ZERO;
+        private Function<GraphQLContext, Object> clientIdFunction;
+        private long defaultClientBudget = Long.MAX_VALUE;
+        private final Map<Object, Long> clientBudgets = new LinkedHashMap<>();
+        private Executor admissionExecutor = ForkJoinPool.commonPool();
+        private LongSupplier nanoTime = System::nanoTime;
+
+        /**
+         * @param queryCostAnalyzer the analyzer that estimates the cost of each request.  Share it with other
+         *                          instrumentations so that they all use the one analysis
+         *
+         * @return this builder
+         */
+        public Builder queryCostAnalyzer(QueryCostAnalyzer queryCostAnalyzer) {
+            this.queryCostAnalyzer = assertNotNull(queryCostAnalyzer, () -> "queryCostAnalyzer can't be null");
+            return this;
+        }
+
+        /**
+         * @param maxInFlightCost the total cost of the requests that can execute at the same time, which is unbounded
+         *                        by default
+         *
+         * @return this builder
+         */
+        public Builder maxInFlightCost(long maxInFlightCost) {
+            assertTrue(maxInFlightCost > 0, () -> "maxInFlightCost must be greater than zero");
+            this.maxInFlightCost = maxInFlightCost;
+            return this;
+        }
+
+        /**
+         * @param targetFetchLatency the average field fetch latency above which the server is seen as overloaded and
+         *                           the capacity is scaled down.  Fetches are not timed unless this is set
+         *
+         * @return this builder
+         */
+        public Builder targetFetchLatency(Duration targetFetchLatency) {
+            assertNotNull(targetFetchLatency, () -> "targetFetchLatency can't be null");
+            assertTrue(!targetFetchLatency.isNegative() && !targetFetchLatency.isZero(), () -> "targetFetchLatency must be positive");
+            this.targetFetchLatency = targetFetchLatency;
+            return this;
+        }
+
+        /**
+         * @param latencyWindow how far back the fetch latency is averaged over, which is 10 seconds by default
+         *
+         * @return this builder
+         */
+        public Builder latencyWindow(Duration latencyWindow) {
+            assertNotNull(latencyWindow, () -> "latencyWindow can't be null");
+            assertTrue(!latencyWindow.isNegative() && !latencyWindow.isZero(), () -> "latencyWindow must be positive");
+            this.latencyWindow = latencyWindow;
+            return this;
+        }
+
+        /**
+         * @param maxQueueLength how many requests can wait for capacity at the same time, which is none by default
+         *
+         * @return this builder
+         */
+        public Builder maxQueueLength(int maxQueueLength) {
+            assertTrue(maxQueueLength >= 0, () -> "maxQueueLength can't be negative");
+            this.maxQueueLength = maxQueueLength;
+            return this;
+        }
+
+        /**
+         * @param maxQueueTime how long a request waits for capacity before it is rejected
+         *
+         * @return this builder
+         */
+        public Builder maxQueueTime(Duration maxQueueTime) {
+            assertNotNull(maxQueueTime, () -> "maxQueueTime can't be null");
+            assertTrue(!maxQueueTime.isNegative(), () -> "maxQueueTime can't be negative");
+            this.maxQueueTime = maxQueueTime;
+            return this;
+        }
+
+        /**
+         * @param clientIdFunction gives the client of a request from its context, or null if it has none.  Client
+         *                         budgets only apply when this is set
+         *
+         * @return this builder
+         */
+        public Builder clientIdFunction(Function<GraphQLContext, Object> clientIdFunction) {
+            this.clientIdFunction = assertNotNull(clientIdFunction, () -> "clientIdFunction can't be null");
+            return this;
+        }
+
+        /**
+         * @param defaultClientBudget the in flight cost each client can hold, unless it has a budget of its own.  This
+         *                            is unbounded by default
+         *
+         * @return this builder
+         */
+        public Builder defaultClientBudget(long defaultClientBudget) {
+            assertTrue(defaultClientBudget > 0, () -> "defaultClientBudget must be greater than zero");
+            this.defaultClientBudget = defaultClientBudget;
+            return this;
+        }
+
+        /**
+         * @param clientId     the client, as given by the client id function
+         * @param clientBudget the in flight cost the client can hold
+         *
+         * @return this builder
+         */
+        public Builder clientBudget(Object clientId, long clientBudget) {
+            assertNotNull(clientId, () -> "clientId can't be null");
+            assertTrue(clientBudget > 0, () -> "clientBudget must be greater than zero");
+            this.clientBudgets.put(clientId, clientBudget);
+            return this;
+        }
+
+        /**
+         * @param admissionExecutor the executor that queued requests are started on once they are admitted, which is
+         *                          the {@link ForkJoinPool#commonPool()} by default
+         *
+         * @return this builder
+         */
+        public Builder admissionExecutor(Executor admissionExecutor) {
+            this.admissionExecutor = assertNotNull(admissionExecutor, () -> "admissionExecutor can't be null");
+            return this;
+        }
+
+        Builder nanoTime(LongSupplier nanoTime) {
+            this.nanoTime = assertNotNull(nanoTime);
+            return this;
+        }
+
+        public AdmissionControlInstrumentation build() {
+            return new AdmissionControlInstrumentation(this);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package graphql.execution.instrumentation.admission;
+
+import graphql.ErrorClassification;
+import graphql.ExperimentalApi;
+import graphql.GraphQLError;
+import graphql.language.SourceLocation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The error given to a request that {@link AdmissionControlInstrumentation} did not admit.  Its extensions say why, via
+ * {@link Reason}, along with the estimated cost of the request and, when known, the client it was made for, so that
+ * clients can tell being shed from being wrong.
+ */
+@ExperimentalApi
+public class AdmissionRejectedError implements GraphQLError {
+
+    /**
+     * Why a request was not admitted
+     */
+    public enum Reason {
+        /**
+         * the request costs more than is ever allowed in flight, so it will never be admitted
+         */
+        OPERATION_TOO_COSTLY,
+        /**
+         * the client already has as much in flight as its budget allows
+         */
+        CLIENT_BUDGET_EXCEEDED,
+        /**
+         * the server is overloaded and the request could not be queued, or was queued for too long
+         */
+        OVERLOADED
+    }
+
+    private final Reason reason;
+    private final long cost;
+    private final Object clientId;
+    private final String message;
+
+    AdmissionRejectedError(Reason reason, long cost, Object clientId, String message) {
+        this.reason = reason;
+        this.cost = cost;
+        this.clientId = clientId;
+        this.message = message;
+    }
+
+    /**
+     * @return why the request was not admitted
+     */
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * @return the estimated cost of the request
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    /**
+     * @return the client the request was made for, which can be null
+     */
+    public Object getClientId() {
+        return clientId;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public List<SourceLocation> getLocations() {
+        return null;
+    }
+
+    @Override
+    public ErrorClassification getErrorType() {
+        return ErrorClassification.errorClassification("AdmissionRejected");
+    }
+
+    @Override
+    public Map<String, Object> getExtensions() {
+        Map<String, Object> extensions = new LinkedHashMap<>();
+        extensions.put("reason", reason.name());
+        extensions.put("cost", cost);
+        if (clientId != null) {
+            extensions.put("client", String.valueOf(clientId));
+        }
+        return extensions;
+    }
+
+    @Override
+    public String toString() {
+        return "AdmissionRejectedError{" +
+                "reason=" + reason +
+                ", cost=" + cost +
+                ", clientId=" + clientId +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
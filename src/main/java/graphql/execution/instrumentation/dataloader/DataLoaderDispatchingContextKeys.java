@@ -0,0 +1,20 @@
+package graphql.execution.instrumentation.dataloader;
+
+import graphql.ExperimentalApi;
+
+/**
+ * GraphQLContext keys that control how {@link org.dataloader.DataLoader}s are dispatched during execution.
+ */
+@ExperimentalApi
+public final class DataLoaderDispatchingContextKeys {
+
+    private DataLoaderDispatchingContextKeys() {
+    }
+
+    /**
+     * The key that should be associated with a boolean value which indicates whether the per level dispatch strategy should
+     * track its call counts with atomic counters rather than under a lock.  This reduces contention when many fields are
+     * fetched concurrently.  It only applies when the execution strategy is an {@link graphql.execution.AsyncExecutionStrategy}.
+     */
+    public static final String ENABLE_LOCK_FREE_PER_LEVEL_DISPATCH = "ENABLE_LOCK_FREE_PER_LEVEL_DISPATCH";
+}
@@ -23,6 +23,7 @@ public class FallbackDataLoaderDispatchStrategy implements DataLoaderDispatchStr
     public DataFetcher<?> modifyDataFetcher(DataFetcher<?> dataFetcher) {
         return (DataFetcher<Object>) environment -> {
             Object obj = dataFetcher.get(environment);
+            executionContext.incrementDataLoaderDispatchCount();
             executionContext.getDataLoaderRegistry().dispatchAll();
             return obj;
         };
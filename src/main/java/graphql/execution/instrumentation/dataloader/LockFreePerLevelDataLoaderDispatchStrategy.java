@@ -0,0 +1,223 @@
+package graphql.execution.instrumentation.dataloader;
+
+import graphql.Internal;
+import graphql.execution.DataLoaderDispatchStrategy;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionStrategyParameters;
+import graphql.execution.FieldValueInfo;
+import graphql.execution.MergedField;
+import graphql.schema.DataFetcher;
+import org.dataloader.DataLoaderRegistry;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This is the same dispatch algorithm as {@link PerLevelDataLoaderDispatchStrategy} but the call counts are tracked in per level
+ * atomic counters rather than under a single lock, and each level has a compare-and-set "dispatched" flag so only one
+ * thread dispatches it.
+ * <p>
+ * Without a lock there is no consistent snapshot of all the counters, so correctness relies on the order in which they are
+ * written and read.  Every counter only ever increases and an "expected" count is always increased before the "happened"
+ * count that finalises it is, eg a field value info call adds the expected strategy calls of the next level before it counts
+ * itself as having happened.  The readiness check then reads the "happened" count that finalises a value before the value
+ * itself, so once it sees a level as complete that level really is complete.  The thread that makes the last increment for
+ * a level is guaranteed to see all the others and hence a ready level is never missed.
+ * <p>
+ * This is selected via {@link DataLoaderDispatchingContextKeys#ENABLE_LOCK_FREE_PER_LEVEL_DISPATCH}
+ */
+@Internal
+public class LockFreePerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStrategy {
+
+    private static final int INITIAL_LEVELS = 16;
+
+    private final ExecutionContext executionContext;
+    private final AtomicReference<LevelCounts[]> levels;
+
+    static class LevelCounts {
+        private static final AtomicIntegerFieldUpdater<LevelCounts> EXPECTED_FETCH_COUNT = AtomicIntegerFieldUpdater.newUpdater(LevelCounts.class, "expectedFetchCount");
+        private static final AtomicIntegerFieldUpdater<LevelCounts> FETCH_COUNT = AtomicIntegerFieldUpdater.newUpdater(LevelCounts.class, "fetchCount");
+        private static final AtomicIntegerFieldUpdater<LevelCounts> EXPECTED_STRATEGY_CALLS = AtomicIntegerFieldUpdater.newUpdater(LevelCounts.class, "expectedStrategyCalls");
+        private static final AtomicIntegerFieldUpdater<LevelCounts> HAPPENED_STRATEGY_CALLS = AtomicIntegerFieldUpdater.newUpdater(LevelCounts.class, "happenedStrategyCalls");
+        private static final AtomicIntegerFieldUpdater<LevelCounts> HAPPENED_ON_FIELD_VALUE_CALLS = AtomicIntegerFieldUpdater.newUpdater(LevelCounts.class, "happenedOnFieldValueCalls");
+        private static final AtomicIntegerFieldUpdater<LevelCounts> DISPATCHED = AtomicIntegerFieldUpdater.newUpdater(LevelCounts.class, "dispatched");
+
+        volatile int expectedFetchCount;
+        volatile int fetchCount;
+        volatile int expectedStrategyCalls;
+        volatile int happenedStrategyCalls;
+        volatile int happenedOnFieldValueCalls;
+        volatile int dispatched;
+
+        boolean dispatchIfNotDispatchedBefore() {
+            return DISPATCHED.compareAndSet(this, 0, 1);
+        }
+
+        @Override
+        public String toString() {
+            return "LevelCounts{" +
+                    "expectedFetchCount=" + expectedFetchCount +
+                    ", fetchCount=" + fetchCount +
+                    ", expectedStrategyCalls=" + expectedStrategyCalls +
+                    ", happenedStrategyCalls=" + happenedStrategyCalls +
+                    ", happenedOnFieldValueCalls=" + happenedOnFieldValueCalls +
+                    ", dispatched=" + dispatched +
+                    '}';
+        }
+    }
+
+    public LockFreePerLevelDataLoaderDispatchStrategy(ExecutionContext executionContext) {
+        this.executionContext = executionContext;
+        this.levels = new AtomicReference<>(newLevels(new LevelCounts[0], INITIAL_LEVELS));
+        LevelCounts.EXPECTED_STRATEGY_CALLS.set(level(1), 1);
+    }
+
+    private static LevelCounts[] newLevels(LevelCounts[] existing, int size) {
+        LevelCounts[] newLevels = new LevelCounts[size];
+        System.arraycopy(existing, 0, newLevels, 0, existing.length);
+        for (int i = existing.length; i < size; i++) {
+            newLevels[i] = new LevelCounts();
+        }
+        return newLevels;
+    }
+
+    /*
+     * Every slot in a levels array is filled before the array is published and the existing LevelCounts objects are carried
+     * over when it grows, so a racing grow never loses counts - the loser simply retries against the winner's array
+     */
+    LevelCounts level(int level) {
+        while (true) {
+            LevelCounts[] current = levels.get();
+            if (level < current.length) {
+                return current[level];
+            }
+            levels.compareAndSet(current, newLevels(current, Math.max(level + 1, current.length * 2)));
+        }
+    }
+
+    @Override
+    public void deferredField(ExecutionContext executionContext, MergedField currentField) {
+        throw new UnsupportedOperationException("Data Loaders cannot be used to resolve deferred fields");
+    }
+
+    @Override
+    public void executionStrategy(ExecutionContext executionContext, ExecutionStrategyParameters parameters) {
+        int curLevel = parameters.getExecutionStepInfo().getPath().getLevel() + 1;
+        increaseCallCounts(curLevel, parameters);
+    }
+
+    @Override
+    public void executionStrategyOnFieldValuesInfo(List<FieldValueInfo> fieldValueInfoList, ExecutionStrategyParameters parameters) {
+        int curLevel = parameters.getPath().getLevel() + 1;
+        onFieldValuesInfoDispatchIfNeeded(fieldValueInfoList, curLevel);
+    }
+
+    @Override
+    public void executionStrategyOnFieldValuesException(Throwable t, ExecutionStrategyParameters parameters) {
+        int curLevel = parameters.getPath().getLevel() + 1;
+        LevelCounts.HAPPENED_ON_FIELD_VALUE_CALLS.incrementAndGet(level(curLevel));
+    }
+
+    @Override
+    public void executeObject(ExecutionContext executionContext, ExecutionStrategyParameters parameters) {
+        int curLevel = parameters.getExecutionStepInfo().getPath().getLevel() + 1;
+        increaseCallCounts(curLevel, parameters);
+    }
+
+    @Override
+    public void executeObjectOnFieldValuesInfo(List<FieldValueInfo> fieldValueInfoList, ExecutionStrategyParameters parameters) {
+        int curLevel = parameters.getPath().getLevel() + 1;
+        onFieldValuesInfoDispatchIfNeeded(fieldValueInfoList, curLevel);
+    }
+
+    @Override
+    public void executeObjectOnFieldValuesException(Throwable t, ExecutionStrategyParameters parameters) {
+        int curLevel = parameters.getPath().getLevel() + 1;
+        LevelCounts.HAPPENED_ON_FIELD_VALUE_CALLS.incrementAndGet(level(curLevel));
+    }
+
+    private void increaseCallCounts(int curLevel, ExecutionStrategyParameters parameters) {
+        int fieldCount = parameters.getFields().size();
+        LevelCounts levelCounts = level(curLevel);
+        // expected fetches before the strategy call that finalises them
+        LevelCounts.EXPECTED_FETCH_COUNT.addAndGet(levelCounts, fieldCount);
+        LevelCounts.HAPPENED_STRATEGY_CALLS.incrementAndGet(levelCounts);
+    }
+
+    private void onFieldValuesInfoDispatchIfNeeded(List<FieldValueInfo> fieldValueInfoList, int curLevel) {
+        int expectedStrategyCalls = getCountForList(fieldValueInfoList);
+        // expected strategy calls of the next level before the field value call that finalises them
+        LevelCounts.EXPECTED_STRATEGY_CALLS.addAndGet(level(curLevel + 1), expectedStrategyCalls);
+        LevelCounts.HAPPENED_ON_FIELD_VALUE_CALLS.incrementAndGet(level(curLevel));
+        if (dispatchIfNeeded(curLevel + 1)) {
+            dispatch(curLevel + 1);
+        }
+    }
+
+    private int getCountForList(List<FieldValueInfo> fieldValueInfos) {
+        int result = 0;
+        for (FieldValueInfo fieldValueInfo : fieldValueInfos) {
+            if (fieldValueInfo.getCompleteValueType() == FieldValueInfo.CompleteValueType.OBJECT) {
+                result += 1;
+            } else if (fieldValueInfo.getCompleteValueType() == FieldValueInfo.CompleteValueType.LIST) {
+                result += getCountForList(fieldValueInfo.getFieldValueInfos());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void fieldFetched(ExecutionContext executionContext,
+                             ExecutionStrategyParameters executionStrategyParameters,
+                             DataFetcher<?> dataFetcher,
+                             Object fetchedValue) {
+        int level = executionStrategyParameters.getPath().getLevel();
+        LevelCounts.FETCH_COUNT.incrementAndGet(level(level));
+        if (dispatchIfNeeded(level)) {
+            dispatch(level);
+        }
+    }
+
+    private boolean dispatchIfNeeded(int level) {
+        if (levelReady(level)) {
+            return level(level).dispatchIfNotDispatchedBefore();
+        }
+        return false;
+    }
+
+    /*
+     * The reads in here are ordered so that the count which finalises a value is always read before the value itself
+     */
+    private boolean levelReady(int level) {
+        LevelCounts levelCounts = level(level);
+        if (level == 1) {
+            // level 1 is special: there is only one strategy call and that's it
+            return allStrategyCallsAndFetchesHappened(levelCounts);
+        }
+        if (!levelReady(level - 1)) {
+            return false;
+        }
+        LevelCounts parentCounts = level(level - 1);
+        int happenedOnFieldValueCalls = parentCounts.happenedOnFieldValueCalls;
+        if (happenedOnFieldValueCalls != parentCounts.expectedStrategyCalls) {
+            return false;
+        }
+        return allStrategyCallsAndFetchesHappened(levelCounts);
+    }
+
+    private static boolean allStrategyCallsAndFetchesHappened(LevelCounts levelCounts) {
+        int expectedStrategyCalls = levelCounts.expectedStrategyCalls;
+        if (levelCounts.happenedStrategyCalls != expectedStrategyCalls) {
+            return false;
+        }
+        int fetchCount = levelCounts.fetchCount;
+        return fetchCount == levelCounts.expectedFetchCount;
+    }
+
+    void dispatch(int level) {
+        DataLoaderRegistry dataLoaderRegistry = executionContext.getDataLoaderRegistry();
+        executionContext.incrementDataLoaderDispatchCount();
+        dataLoaderRegistry.dispatchAll();
+    }
+}
@@ -230,6 +230,7 @@ public class PerLevelDataLoaderDispatchStrategy implements DataLoaderDispatchStr
 
     void dispatch(int level) {
         DataLoaderRegistry dataLoaderRegistry = executionContext.getDataLoaderRegistry();
+        executionContext.incrementDataLoaderDispatchCount();
         dataLoaderRegistry.dispatchAll();
     }
 
@@ -0,0 +1,127 @@
+package graphql.execution.instrumentation.metrics;
+
+import graphql.ExperimentalApi;
+
+/**
+ * An immutable snapshot of the counters kept by {@link ExecutionMetricsInstrumentation}, either for a single request or
+ * aggregated over all the requests it has seen.
+ */
+@ExperimentalApi
+public class ExecutionMetrics {
+
+    private final long requestCount;
+    private final long fieldFetchCount;
+    private final long trivialFieldFetchCount;
+    private final long listCount;
+    private final long listItemCount;
+    private final long maxListSize;
+    private final long maxDepth;
+    private final long resultNodeCount;
+    private final long dataLoaderDispatchCount;
+
+    ExecutionMetrics(long requestCount,
+                     long fieldFetchCount,
+                     long trivialFieldFetchCount,
+                     long listCount,
+                     long listItemCount,
+                     long maxListSize,
+                     long maxDepth,
+                     long resultNodeCount,
+                     long dataLoaderDispatchCount) {
+        this.requestCount = requestCount;
+        this.fieldFetchCount = fieldFetchCount;
+        this.trivialFieldFetchCount = trivialFieldFetchCount;
+        this.listCount = listCount;
+        this.listItemCount = listItemCount;
+        this.maxListSize = maxListSize;
+        this.maxDepth = maxDepth;
+        this.resultNodeCount = resultNodeCount;
+        this.dataLoaderDispatchCount = dataLoaderDispatchCount;
+    }
+
+    /**
+     * @return the number of requests these metrics cover
+     */
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * @return the number of fields whose data fetcher was invoked
+     */
+    public long getFieldFetchCount() {
+        return fieldFetchCount;
+    }
+
+    /**
+     * @return the number of fields whose data fetcher was a {@link graphql.TrivialDataFetcher}
+     */
+    public long getTrivialFieldFetchCount() {
+        return trivialFieldFetchCount;
+    }
+
+    /**
+     * @return the number of fields whose data fetcher was not a {@link graphql.TrivialDataFetcher}
+     */
+    public long getNonTrivialFieldFetchCount() {
+        return fieldFetchCount - trivialFieldFetchCount;
+    }
+
+    /**
+     * @return the number of list values that were completed
+     */
+    public long getListCount() {
+        return listCount;
+    }
+
+    /**
+     * @return the total number of items in the list values that were completed, where only lists that are
+     * {@link java.util.Collection}s are counted since other iterables are only iterated once
+     */
+    public long getListItemCount() {
+        return listItemCount;
+    }
+
+    /**
+     * @return the size of the largest list that was completed
+     */
+    public long getMaxListSize() {
+        return maxListSize;
+    }
+
+    /**
+     * @return the deepest level of field that was fetched, where the top level fields are at level 1
+     */
+    public long getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @return the number of result nodes, as counted by {@link graphql.execution.ResultNodesInfo}
+     */
+    public long getResultNodeCount() {
+        return resultNodeCount;
+    }
+
+    /**
+     * @return the number of times the data loaders were dispatched
+     */
+    public long getDataLoaderDispatchCount() {
+        return dataLoaderDispatchCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionMetrics{" +
+                "requestCount=" + requestCount +
+                ", fieldFetchCount=" + fieldFetchCount +
+                ", trivialFieldFetchCount=" + trivialFieldFetchCount +
+                ", listCount=" + listCount +
+                ", listItemCount=" + listItemCount +
+                ", maxListSize=" + maxListSize +
+                ", maxDepth=" + maxDepth +
+                ", resultNodeCount=" + resultNodeCount +
+                ", dataLoaderDispatchCount=" + dataLoaderDispatchCount +
+                '}';
+    }
+}
@@ -0,0 +1,275 @@
+package graphql.execution.instrumentation.metrics;
+
+import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
+import graphql.ThreadSafe;
+import graphql.execution.ExecutionContext;
+import graphql.execution.ExecutionStrategyParameters;
+import graphql.execution.instrumentation.DurationHistogram;
+import graphql.execution.instrumentation.FieldFetchingInstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldCompleteParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLTypeUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.execution.instrumentation.InstrumentationState.ofState;
+
+/**
+ * This {@link graphql.execution.instrumentation.Instrumentation} counts what each request did: the fields it fetched, how
+ * many of those had trivial data fetchers, the lists it completed and their sizes, the deepest field it reached, the
+ * number of result nodes and the number of times the data loaders were dispatched.
+ * <p>
+ * The counts of all requests are aggregated into {@link LongAdder}s so that concurrent requests do not contend on them, and
+ * can be pulled at any time via {@link #getExecutionMetrics()}, say by a Prometheus collector.  The counts of each request
+ * can also be pushed to a listener as each request completes.
+ * <p>
+ * Optionally the fetch count, error count and a histogram of fetch durations can be kept per field coordinate, which are
+ * pulled via {@link #getFieldMetrics()}.  This costs a timer per field fetch so it is off by default.
+ */
+@ExperimentalApi
+@ThreadSafe
+public class ExecutionMetricsInstrumentation extends SimplePerformantInstrumentation {
+
+    static final int HISTOGRAM_BUCKETS = DurationHistogram.BUCKETS;
+
+    private final boolean fieldCoordinateMetrics;
+    private final Consumer<ExecutionMetrics> requestMetricsListener;
+
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder fieldFetchCount = new LongAdder();
+    private final LongAdder trivialFieldFetchCount = new LongAdder();
+    private final LongAdder listCount = new LongAdder();
+    private final LongAdder listItemCount = new LongAdder();
+    private final LongAccumulator maxListSize = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+    private final LongAdder resultNodeCount = new LongAdder();
+    private final LongAdder dataLoaderDispatchCount = new LongAdder();
+
+    // keyed by type name and then field name so that looking up a field's metrics does not allocate
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, FieldMetricsRecorder>> fieldMetrics = new ConcurrentHashMap<>();
+
+    private ExecutionMetricsInstrumentation(Builder builder) {
+        this.fieldCoordinateMetrics = builder.fieldCoordinateMetrics;
+        this.requestMetricsListener = builder.requestMetricsListener;
+    }
+
+    /**
+     * @return a snapshot of the metrics aggregated over all the requests so far
+     */
+    public ExecutionMetrics getExecutionMetrics() {
+        return new ExecutionMetrics(
+                requestCount.sum(),
+                fieldFetchCount.sum(),
+                trivialFieldFetchCount.sum(),
+                listCount.sum(),
+                listItemCount.sum(),
+                maxListSize.get(),
+                maxDepth.get(),
+                resultNodeCount.sum(),
+                dataLoaderDispatchCount.sum());
+    }
+
+    /**
+     * @return a snapshot of the metrics of each field coordinate that has been fetched so far, which is empty unless
+     * field coordinate metrics are enabled
+     */
+    public List<FieldMetrics> getFieldMetrics() {
+        List<FieldMetrics> result = new ArrayList<>();
+        fieldMetrics.forEach((typeName, byFieldName) ->
+                byFieldName.forEach((fieldName, recorder) -> result.add(recorder.snapshot(FieldCoordinates.coordinates(typeName, fieldName)))));
+        return result;
+    }
+
+    @Override
+    public @Nullable InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new RequestMetrics();
+    }
+
+    @Override
+    public @NotNull ExecutionContext instrumentExecutionContext(ExecutionContext executionContext, InstrumentationExecutionParameters parameters, InstrumentationState state) {
+        RequestMetrics requestMetrics = ofState(state);
+        requestMetrics.executionContext = executionContext;
+        return executionContext;
+    }
+
+    @Override
+    public @Nullable FieldFetchingInstrumentationContext beginFieldFetching(InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+        RequestMetrics requestMetrics = ofState(state);
+        ExecutionStrategyParameters strategyParameters = parameters.getExecutionStrategyParameters();
+        requestMetrics.fieldFetchCount.incrementAndGet();
+        if (parameters.isTrivialDataFetcher()) {
+            requestMetrics.trivialFieldFetchCount.incrementAndGet();
+        }
+        requestMetrics.maxDepth.accumulateAndGet(strategyParameters.getPath().getLevel(), Math::max);
+        if (!fieldCoordinateMetrics) {
+            return null;
+        }
+        String parentTypeName = GraphQLTypeUtil.unwrapAll(strategyParameters.getExecutionStepInfo().getType()).getName();
+        return new FieldTimer(fieldMetricsRecorder(parentTypeName, strategyParameters.getField().getName()));
+    }
+
+    private FieldMetricsRecorder fieldMetricsRecorder(String typeName, String fieldName) {
+        ConcurrentHashMap<String, FieldMetricsRecorder> byFieldName = fieldMetrics.get(typeName);
+        if (byFieldName == null) {
+            byFieldName = fieldMetrics.computeIfAbsent(typeName, k -> new ConcurrentHashMap<>());
+        }
+        FieldMetricsRecorder recorder = byFieldName.get(fieldName);
+        if (recorder == null) {
+            recorder = byFieldName.computeIfAbsent(fieldName, k -> new FieldMetricsRecorder());
+        }
+        return recorder;
+    }
+
+    @Override
+    public @Nullable InstrumentationContext<Object> beginFieldListCompletion(InstrumentationFieldCompleteParameters parameters, InstrumentationState state) {
+        RequestMetrics requestMetrics = ofState(state);
+        requestMetrics.listCount.incrementAndGet();
+        Object list = parameters.getFetchedValue();
+        if (list instanceof Collection) {
+            int size = ((Collection<?>) list).size();
+            requestMetrics.listItemCount.addAndGet(size);
+            requestMetrics.maxListSize.accumulateAndGet(size, Math::max);
+        }
+        return null;
+    }
+
+    @Override
+    public @NotNull CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult, InstrumentationExecutionParameters parameters, InstrumentationState state) {
+        RequestMetrics requestMetrics = ofState(state);
+        ExecutionMetrics metrics = requestMetrics.snapshot();
+
+        requestCount.increment();
+        fieldFetchCount.add(metrics.getFieldFetchCount());
+        trivialFieldFetchCount.add(metrics.getTrivialFieldFetchCount());
+        listCount.add(metrics.getListCount());
+        listItemCount.add(metrics.getListItemCount());
+        maxListSize.accumulate(metrics.getMaxListSize());
+        maxDepth.accumulate(metrics.getMaxDepth());
+        resultNodeCount.add(metrics.getResultNodeCount());
+        dataLoaderDispatchCount.add(metrics.getDataLoaderDispatchCount());
+
+        if (requestMetricsListener != null) {
+            requestMetricsListener.accept(metrics);
+        }
+        return CompletableFuture.completedFuture(executionResult);
+    }
+
+    /*
+     * The counts of a single request, which are only contended by the threads working on that request
+     */
+    private static class RequestMetrics implements InstrumentationState {
+        private final AtomicLong fieldFetchCount = new AtomicLong();
+        private final AtomicLong trivialFieldFetchCount = new AtomicLong();
+        private final AtomicLong listCount = new AtomicLong();
+        private final AtomicLong listItemCount = new AtomicLong();
+        private final AtomicLong maxListSize = new AtomicLong();
+        private final AtomicLong maxDepth = new AtomicLong();
+        private volatile ExecutionContext executionContext;
+
+        ExecutionMetrics snapshot() {
+            ExecutionContext executionContext = this.executionContext;
+            // the execution context is not there if the request failed before execution, eg on validation
+            long resultNodes = executionContext == null ? 0 : executionContext.getResultNodesInfo().getResultNodesCount();
+            long dispatches = executionContext == null ? 0 : executionContext.getDataLoaderDispatchCount();
+            return new ExecutionMetrics(1,
+                    fieldFetchCount.get(),
+                    trivialFieldFetchCount.get(),
+                    listCount.get(),
+                    listItemCount.get(),
+                    maxListSize.get(),
+                    maxDepth.get(),
+                    resultNodes,
+                    dispatches);
+        }
+    }
+
+    private static class FieldMetricsRecorder {
+        private final LongAdder fetchCount = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder totalFetchDurationNanos = new LongAdder();
+        private final DurationHistogram fetchDurationHistogram = new DurationHistogram();
+
+        void record(long durationNanos, boolean error) {
+            fetchCount.increment();
+            if (error) {
+                errorCount.increment();
+            }
+            totalFetchDurationNanos.add(durationNanos);
+            fetchDurationHistogram.record(durationNanos);
+        }
+
+        FieldMetrics snapshot(FieldCoordinates coordinates) {
+            return new FieldMetrics(coordinates, fetchCount.sum(), errorCount.sum(), totalFetchDurationNanos.sum(), fetchDurationHistogram.getCounts());
+        }
+    }
+
+    private static class FieldTimer implements FieldFetchingInstrumentationContext {
+        private final FieldMetricsRecorder recorder;
+        private final long startNanos;
+
+        FieldTimer(FieldMetricsRecorder recorder) {
+            this.recorder = recorder;
+            this.startNanos = System.nanoTime();
+        }
+
+        @Override
+        public void onDispatched() {
+        }
+
+        @Override
+        public void onCompleted(Object result, Throwable t) {
+            recorder.record(System.nanoTime() - startNanos, t != null);
+        }
+    }
+
+    public static Builder newExecutionMetricsInstrumentation() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private boolean fieldCoordinateMetrics;
+        private Consumer<ExecutionMetrics> requestMetricsListener;
+
+        /**
+         * @param fieldCoordinateMetrics whether to keep fetch metrics per field coordinate, which is off by default
+         *
+         * @return this builder
+         */
+        public Builder fieldCoordinateMetrics(boolean fieldCoordinateMetrics) {
+            this.fieldCoordinateMetrics = fieldCoordinateMetrics;
+            return this;
+        }
+
+        /**
+         * @param requestMetricsListener a listener that is given the metrics of each request as it completes
+         *
+         * @return this builder
+         */
+        public Builder requestMetricsListener(Consumer<ExecutionMetrics> requestMetricsListener) {
+            this.requestMetricsListener = assertNotNull(requestMetricsListener);
+            return this;
+        }
+
+        public ExecutionMetricsInstrumentation build() {
+            return new ExecutionMetricsInstrumentation(this);
+        }
+    }
+}
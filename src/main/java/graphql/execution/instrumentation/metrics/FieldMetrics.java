@@ -0,0 +1,86 @@
+package graphql.execution.instrumentation.metrics;
+
+import graphql.ExperimentalApi;
+import graphql.execution.instrumentation.DurationHistogram;
+import graphql.schema.FieldCoordinates;
+
+import java.util.Arrays;
+
+/**
+ * An immutable snapshot of the fetch metrics of one field coordinate, aggregated over all the requests that
+ * {@link ExecutionMetricsInstrumentation} has seen.
+ * <p>
+ * Fetch durations are kept in a histogram of power of two buckets, where bucket i counts the durations in nanoseconds
+ * in the range [2^(i-1), 2^i), which maps directly onto the cumulative buckets of metric systems such as Prometheus.
+ * The last bucket also counts all longer durations.
+ */
+@ExperimentalApi
+public class FieldMetrics {
+
+    private final FieldCoordinates coordinates;
+    private final long fetchCount;
+    private final long errorCount;
+    private final long totalFetchDurationNanos;
+    private final long[] fetchDurationHistogram;
+
+    FieldMetrics(FieldCoordinates coordinates, long fetchCount, long errorCount, long totalFetchDurationNanos, long[] fetchDurationHistogram) {
+        this.coordinates = coordinates;
+        this.fetchCount = fetchCount;
+        this.errorCount = errorCount;
+        this.totalFetchDurationNanos = totalFetchDurationNanos;
+        this.fetchDurationHistogram = fetchDurationHistogram;
+    }
+
+    public FieldCoordinates getCoordinates() {
+        return coordinates;
+    }
+
+    /**
+     * @return the number of times the field was fetched
+     */
+    public long getFetchCount() {
+        return fetchCount;
+    }
+
+    /**
+     * @return the number of times fetching the field failed
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * @return the total time spent fetching the field, from invoking its data fetcher to its value being available
+     */
+    public long getTotalFetchDurationNanos() {
+        return totalFetchDurationNanos;
+    }
+
+    /**
+     * @return the counts of fetch durations per power of two bucket of nanoseconds
+     */
+    public long[] getFetchDurationHistogram() {
+        return fetchDurationHistogram.clone();
+    }
+
+    /**
+     * @param bucket the index of a histogram bucket
+     *
+     * @return the exclusive upper bound in nanoseconds of the durations counted in the bucket.  The last bucket counts
+     * all the durations that are longer than the others can hold, so its bound is {@link Long#MAX_VALUE}
+     */
+    public static long getBucketUpperBoundNanos(int bucket) {
+        return DurationHistogram.bucketUpperBoundNanos(bucket);
+    }
+
+    @Override
+    public String toString() {
+        return "FieldMetrics{" +
+                "coordinates=" + coordinates +
+                ", fetchCount=" + fetchCount +
+                ", errorCount=" + errorCount +
+                ", totalFetchDurationNanos=" + totalFetchDurationNanos +
+                ", fetchDurationHistogram=" + Arrays.toString(fetchDurationHistogram) +
+                '}';
+    }
+}
@@ -29,6 +29,10 @@ public class InstrumentationFieldFetchParameters extends InstrumentationFieldPar
         return environment.get();
     }
 
+    public ExecutionStrategyParameters getExecutionStrategyParameters() {
+        return executionStrategyParameters;
+    }
+
     public boolean isTrivialDataFetcher() {
         return trivialDataFetcher;
     }
@@ -0,0 +1,208 @@
+package graphql.execution.instrumentation.tracing;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.ExperimentalApi;
+import graphql.collect.ImmutableKit;
+import graphql.execution.instrumentation.FieldFetchingInstrumentationContext;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters;
+import graphql.language.Document;
+import graphql.validation.ValidationError;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToDoubleFunction;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+import static graphql.execution.instrumentation.InstrumentationState.ofState;
+import static graphql.execution.instrumentation.SimpleInstrumentationContext.whenCompleted;
+
+/**
+ * This {@link Instrumentation} implementation uses {@link SamplingTracingSupport} to capture tracing information for
+ * a sample of requests and puts it into the {@link ExecutionResult}.
+ * <p>
+ * It produces the same tracing extension as {@link TracingInstrumentation} but is cheap enough to leave on in production:
+ * only the sampled requests are traced at all, the field timings are recorded into preallocated primitive arrays, or
+ * optionally aggregated per field coordinate, and the tracing map is only built when the extension is read, for
+ * example when the result is serialised.
+ */
+@ExperimentalApi
+public class SamplingTracingInstrumentation extends SimplePerformantInstrumentation {
+
+    public static class Options {
+        private final boolean includeTrivialDataFetchers;
+        private final boolean aggregateByFieldCoordinates;
+        private final int maximumTracedFields;
+        private final ToDoubleFunction<ExecutionInput> sampleRate;
+
+        private Options(boolean includeTrivialDataFetchers, boolean aggregateByFieldCoordinates, int maximumTracedFields, ToDoubleFunction<ExecutionInput> sampleRate) {
+            this.includeTrivialDataFetchers = includeTrivialDataFetchers;
+            this.aggregateByFieldCoordinates = aggregateByFieldCoordinates;
+            this.maximumTracedFields = maximumTracedFields;
+            this.sampleRate = sampleRate;
+        }
+
+        public boolean isIncludeTrivialDataFetchers() {
+            return includeTrivialDataFetchers;
+        }
+
+        public boolean isAggregateByFieldCoordinates() {
+            return aggregateByFieldCoordinates;
+        }
+
+        public int getMaximumTracedFields() {
+            return maximumTracedFields;
+        }
+
+        public ToDoubleFunction<ExecutionInput> getSampleRate() {
+            return sampleRate;
+        }
+
+        /**
+         * By default trivial data fetchers (those that simple pull data from an object into field) are included
+         * in tracing but you can control this behavior.
+         *
+         * @param flag the flag on whether to trace trivial data fetchers
+         *
+         * @return a new options object
+         */
+        public Options includeTrivialDataFetchers(boolean flag) {
+            return new Options(flag, aggregateByFieldCoordinates, maximumTracedFields, sampleRate);
+        }
+
+        /**
+         * By default each field is traced individually, but the timings can instead be aggregated per field coordinate
+         * into a histogram so that the tracing data does not grow with the size of the result.
+         *
+         * @param flag the flag on whether to aggregate the field timings per field coordinate
+         *
+         * @return a new options object
+         */
+        public Options aggregateByFieldCoordinates(boolean flag) {
+            return new Options(includeTrivialDataFetchers, flag, maximumTracedFields, sampleRate);
+        }
+
+        /**
+         * The maximum number of fields that are traced individually per request, beyond which fields are not traced
+         *
+         * @param maximumTracedFields the maximum number of traced fields
+         *
+         * @return a new options object
+         */
+        public Options maximumTracedFields(int maximumTracedFields) {
+            assertTrue(maximumTracedFields > 0, () -> "maximumTracedFields must be greater than zero");
+            return new Options(includeTrivialDataFetchers, aggregateByFieldCoordinates, maximumTracedFields, sampleRate);
+        }
+
+        /**
+         * The fraction of requests that are traced, between 0 and 1
+         *
+         * @param sampleRate the rate at which requests are sampled
+         *
+         * @return a new options object
+         */
+        public Options sampleRate(double sampleRate) {
+            assertTrue(sampleRate >= 0 && sampleRate <= 1, () -> "sampleRate must be between 0 and 1");
+            return sampleRate(executionInput -> sampleRate);
+        }
+
+        /**
+         * A function that gives the fraction of requests like this one that are traced, between 0 and 1, which allows
+         * for example some operations to be sampled more often than others or a request to ask to always be traced
+         *
+         * @param sampleRate the function giving the rate at which a request is sampled
+         *
+         * @return a new options object
+         */
+        public Options sampleRate(ToDoubleFunction<ExecutionInput> sampleRate) {
+            return new Options(includeTrivialDataFetchers, aggregateByFieldCoordinates, maximumTracedFields, assertNotNull(sampleRate));
+        }
+
+        public static Options newOptions() {
+            return new Options(true, false, 10_000, executionInput -> 1.0d);
+        }
+    }
+
+    public SamplingTracingInstrumentation() {
+        this(Options.newOptions());
+    }
+
+    public SamplingTracingInstrumentation(Options options) {
+        this.options = options;
+    }
+
+    private final Options options;
+
+    @Override
+    public @Nullable InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        if (!isSampled(parameters.getExecutionInput())) {
+            return null;
+        }
+        return new SamplingTracingSupport(options.includeTrivialDataFetchers, options.aggregateByFieldCoordinates, options.maximumTracedFields);
+    }
+
+    private boolean isSampled(ExecutionInput executionInput) {
+        double sampleRate = options.sampleRate.applyAsDouble(executionInput);
+        if (sampleRate >= 1) {
+            return true;
+        }
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    @Override
+    public @NotNull CompletableFuture<ExecutionResult> instrumentExecutionResult(ExecutionResult executionResult, InstrumentationExecutionParameters parameters, InstrumentationState rawState) {
+        if (rawState == null) {
+            return CompletableFuture.completedFuture(executionResult);
+        }
+        Map<Object, Object> currentExt = executionResult.getExtensions();
+
+        SamplingTracingSupport tracingSupport = ofState(rawState);
+        Map<Object, Object> withTracingExt = new LinkedHashMap<>(currentExt == null ? ImmutableKit.emptyMap() : currentExt);
+        withTracingExt.put("tracing", tracingSupport.lazySnapshotTracingData());
+
+        return CompletableFuture.completedFuture(new ExecutionResultImpl(executionResult.getData(), executionResult.getErrors(), withTracingExt));
+    }
+
+    @Override
+    public @Nullable FieldFetchingInstrumentationContext beginFieldFetching(InstrumentationFieldFetchParameters parameters, InstrumentationState rawState) {
+        if (rawState == null) {
+            return null;
+        }
+        SamplingTracingSupport tracingSupport = ofState(rawState);
+        return tracingSupport.beginField(parameters.getExecutionStepInfo(), parameters.isTrivialDataFetcher());
+    }
+
+    @Override
+    public @Nullable InstrumentationContext<Document> beginParse(InstrumentationExecutionParameters parameters, InstrumentationState rawState) {
+        if (rawState == null) {
+            return null;
+        }
+        SamplingTracingSupport tracingSupport = ofState(rawState);
+        TracingSupport.TracingContext ctx = tracingSupport.beginParse();
+        return whenCompleted((result, t) -> ctx.onEnd());
+    }
+
+    @Override
+    public @Nullable InstrumentationContext<List<ValidationError>> beginValidation(InstrumentationValidationParameters parameters, InstrumentationState rawState) {
+        if (rawState == null) {
+            return null;
+        }
+        SamplingTracingSupport tracingSupport = ofState(rawState);
+        TracingSupport.TracingContext ctx = tracingSupport.beginValidation();
+        return whenCompleted((result, t) -> ctx.onEnd());
+    }
+}
@@ -0,0 +1,363 @@
+package graphql.execution.instrumentation.tracing;
+
+import graphql.ExperimentalApi;
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.instrumentation.DurationHistogram;
+import graphql.execution.instrumentation.FieldFetchingInstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.schema.GraphQLObjectType;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static graphql.schema.GraphQLTypeUtil.simplePrint;
+
+/**
+ * This records the same timings as {@link TracingSupport} but without building a map per field.
+ * <p>
+ * Each traced field claims a slot in preallocated chunks of primitive arrays, holding its start offset and duration
+ * along side a reference to its {@link ExecutionStepInfo}, from which its path and types are only worked out when the
+ * tracing data is actually built.  The number of traced fields per request is bounded and fields past that bound
+ * are counted but not traced.
+ * <p>
+ * Alternatively the timings can be aggregated per field coordinate, eg `Query.hero`, into a count, total, min, max and
+ * a power of two histogram of durations, so that the size of the tracing data does not grow with the size of the result.
+ * <p>
+ * The field timings are written by whatever threads complete the fields and are read once the execution result is
+ * complete, which happens after all of them.
+ */
+@ExperimentalApi
+public class SamplingTracingSupport implements InstrumentationState {
+
+    private static final int CHUNK_SHIFT = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * The number of histogram buckets, where bucket i counts the durations in nanoseconds in [2^(i-1), 2^i) and the
+     * last bucket also counts all longer durations
+     */
+    public static final int HISTOGRAM_BUCKETS = DurationHistogram.BUCKETS;
+
+    private final Instant startRequestTime;
+    private final long startRequestNanos;
+    private final boolean includeTrivialDataFetchers;
+    private final boolean aggregateByFieldCoordinates;
+    private final int maximumTracedFields;
+
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final AtomicReference<Chunk[]> chunks = new AtomicReference<>(new Chunk[0]);
+    private final ConcurrentHashMap<GraphQLObjectType, ConcurrentHashMap<String, FieldHistogram>> histograms = new ConcurrentHashMap<>();
+
+    private long parseStartOffset = -1;
+    private long parseDuration = -1;
+    private long validationStartOffset = -1;
+    private long validationDuration = -1;
+
+    /**
+     * The timer starts as soon as you create this object
+     *
+     * @param includeTrivialDataFetchers  whether to trace trivial data fetchers
+     * @param aggregateByFieldCoordinates whether to aggregate the field timings per field coordinate rather than per field
+     * @param maximumTracedFields         the maximum number of fields that are traced individually
+     */
+    public SamplingTracingSupport(boolean includeTrivialDataFetchers, boolean aggregateByFieldCoordinates, int maximumTracedFields) {
+        this.includeTrivialDataFetchers = includeTrivialDataFetchers;
+        this.aggregateByFieldCoordinates = aggregateByFieldCoordinates;
+        this.maximumTracedFields = maximumTracedFields;
+        this.startRequestNanos = System.nanoTime();
+        this.startRequestTime = Instant.now();
+    }
+
+    private static class Chunk {
+        final ExecutionStepInfo[] stepInfos = new ExecutionStepInfo[CHUNK_SIZE];
+        final long[] startOffsets = new long[CHUNK_SIZE];
+        final long[] durations = new long[CHUNK_SIZE];
+
+        Chunk() {
+            Arrays.fill(durations, -1);
+        }
+    }
+
+    private Chunk chunk(int chunkIndex) {
+        while (true) {
+            Chunk[] current = chunks.get();
+            if (chunkIndex < current.length) {
+                return current[chunkIndex];
+            }
+            Chunk[] grown = new Chunk[Math.max(chunkIndex + 1, current.length * 2)];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            for (int i = current.length; i < grown.length; i++) {
+                grown[i] = new Chunk();
+            }
+            chunks.compareAndSet(current, grown);
+        }
+    }
+
+    /**
+     * This should be called to start the trace of a field fetch
+     *
+     * @param executionStepInfo  the step info of the field being fetched
+     * @param trivialDataFetcher if the data fetcher is considered trivial
+     *
+     * @return a context that ends the trace when it is completed, or null if the field is not traced
+     */
+    public FieldFetchingInstrumentationContext beginField(ExecutionStepInfo executionStepInfo, boolean trivialDataFetcher) {
+        if (!includeTrivialDataFetchers && trivialDataFetcher) {
+            return null;
+        }
+        long startFieldFetch = System.nanoTime();
+        if (aggregateByFieldCoordinates) {
+            return new FieldTimer(startFieldFetch, histogram(executionStepInfo), -1);
+        }
+        int slot = nextSlot.getAndIncrement();
+        if (slot >= maximumTracedFields) {
+            return null;
+        }
+        Chunk chunk = chunk(slot >>> CHUNK_SHIFT);
+        int index = slot & CHUNK_MASK;
+        chunk.stepInfos[index] = executionStepInfo;
+        chunk.startOffsets[index] = startFieldFetch - startRequestNanos;
+        return new FieldTimer(startFieldFetch, null, slot);
+    }
+
+    private FieldHistogram histogram(ExecutionStepInfo executionStepInfo) {
+        ConcurrentHashMap<String, FieldHistogram> byFieldName = histograms.computeIfAbsent(executionStepInfo.getObjectType(), k -> new ConcurrentHashMap<>());
+        return byFieldName.computeIfAbsent(executionStepInfo.getFieldDefinition().getName(), k -> new FieldHistogram());
+    }
+
+    private class FieldTimer implements FieldFetchingInstrumentationContext {
+        private final long startNanos;
+        private final FieldHistogram histogram;
+        private final int slot;
+
+        FieldTimer(long startNanos, FieldHistogram histogram, int slot) {
+            this.startNanos = startNanos;
+            this.histogram = histogram;
+            this.slot = slot;
+        }
+
+        @Override
+        public void onDispatched() {
+        }
+
+        @Override
+        public void onCompleted(Object result, Throwable t) {
+            long duration = System.nanoTime() - startNanos;
+            if (histogram != null) {
+                histogram.record(duration);
+            } else {
+                chunk(slot >>> CHUNK_SHIFT).durations[slot & CHUNK_MASK] = duration;
+            }
+        }
+    }
+
+    /**
+     * The aggregated timings of one field coordinate
+     */
+    static class FieldHistogram {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalDuration = new AtomicLong();
+        private final AtomicLong minDuration = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong maxDuration = new AtomicLong();
+        private final DurationHistogram buckets = new DurationHistogram();
+
+        void record(long duration) {
+            count.incrementAndGet();
+            totalDuration.addAndGet(duration);
+            minDuration.accumulateAndGet(duration, Math::min);
+            maxDuration.accumulateAndGet(duration, Math::max);
+            buckets.record(duration);
+        }
+
+        Map<String, Object> toMap(String parentType, String fieldName) {
+            long[] counts = buckets.getCounts();
+            int highestBucket = counts.length - 1;
+            while (highestBucket > 0 && counts[highestBucket] == 0) {
+                highestBucket--;
+            }
+            List<Long> histogram = new ArrayList<>(highestBucket + 1);
+            for (int i = 0; i <= highestBucket; i++) {
+                histogram.add(counts[i]);
+            }
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("parentType", parentType);
+            map.put("fieldName", fieldName);
+            map.put("count", count.get());
+            map.put("duration", totalDuration.get());
+            map.put("minDuration", minDuration.get());
+            map.put("maxDuration", maxDuration.get());
+            map.put("histogram", histogram);
+            return map;
+        }
+    }
+
+    /**
+     * This should be called to start the trace of query parsing, with {@link TracingSupport.TracingContext#onEnd()} being called to
+     * end the call.
+     *
+     * @return a context to call end on
+     */
+    public TracingSupport.TracingContext beginParse() {
+        long start = System.nanoTime();
+        return () -> {
+            long now = System.nanoTime();
+            parseDuration = now - start;
+            parseStartOffset = now - startRequestNanos;
+        };
+    }
+
+    /**
+     * This should be called to start the trace of query validation, with {@link TracingSupport.TracingContext#onEnd()} being called to
+     * end the call.
+     *
+     * @return a context to call end on
+     */
+    public TracingSupport.TracingContext beginValidation() {
+        long start = System.nanoTime();
+        return () -> {
+            long now = System.nanoTime();
+            validationDuration = now - start;
+            validationStartOffset = now - startRequestNanos;
+        };
+    }
+
+    /**
+     * @return the number of fields that were not traced individually because there were more than the maximum number of traced fields
+     */
+    public int getDroppedFieldCount() {
+        return Math.max(0, nextSlot.get() - maximumTracedFields);
+    }
+
+    /**
+     * This will snapshot this tracing and return a map of the results
+     *
+     * @return a snapshot of the tracing data
+     */
+    public Map<String, Object> snapshotTracingData() {
+        return buildTracingData(Instant.now(), System.nanoTime());
+    }
+
+    /**
+     * This takes the end time of the tracing now but only builds the map of the results when it is first read, so
+     * the cost of building it is not paid if it is never serialised
+     *
+     * @return a lazily built snapshot of the tracing data
+     */
+    public Map<String, Object> lazySnapshotTracingData() {
+        Instant endTime = Instant.now();
+        long endNanos = System.nanoTime();
+        return new LazyMap(() -> buildTracingData(endTime, endNanos));
+    }
+
+    private Map<String, Object> buildTracingData(Instant endTime, long endNanos) {
+        Map<String, Object> traceMap = new LinkedHashMap<>();
+        traceMap.put("version", 1L);
+        traceMap.put("startTime", rfc3339(startRequestTime));
+        traceMap.put("endTime", rfc3339(endTime));
+        traceMap.put("duration", endNanos - startRequestNanos);
+        traceMap.put("parsing", timingMap(parseStartOffset, parseDuration));
+        traceMap.put("validation", timingMap(validationStartOffset, validationDuration));
+        traceMap.put("execution", aggregateByFieldCoordinates ? aggregatedExecutionData() : executionData());
+        return traceMap;
+    }
+
+    private static Map<String, Object> timingMap(long startOffset, long duration) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        if (duration >= 0) {
+            map.put("startOffset", startOffset);
+            map.put("duration", duration);
+        }
+        return map;
+    }
+
+    private Map<String, Object> executionData() {
+        int tracedFields = Math.min(nextSlot.get(), maximumTracedFields);
+        Chunk[] allChunks = chunks.get();
+        List<Map<String, Object>> resolvers = new ArrayList<>(tracedFields);
+        for (int slot = 0; slot < tracedFields; slot++) {
+            Chunk chunk = allChunks[slot >>> CHUNK_SHIFT];
+            int index = slot & CHUNK_MASK;
+            long duration = chunk.durations[index];
+            if (duration < 0) {
+                // the field has not completed
+                continue;
+            }
+            ExecutionStepInfo executionStepInfo = chunk.stepInfos[index];
+            Map<String, Object> fetchMap = new LinkedHashMap<>();
+            fetchMap.put("path", executionStepInfo.getPath().toList());
+            fetchMap.put("parentType", simplePrint(executionStepInfo.getParent().getUnwrappedNonNullType()));
+            fetchMap.put("returnType", executionStepInfo.simplePrint());
+            fetchMap.put("fieldName", executionStepInfo.getFieldDefinition().getName());
+            fetchMap.put("startOffset", chunk.startOffsets[index]);
+            fetchMap.put("duration", duration);
+            resolvers.add(fetchMap);
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("resolvers", resolvers);
+        return map;
+    }
+
+    private Map<String, Object> aggregatedExecutionData() {
+        List<Map<String, Object>> fields = new ArrayList<>();
+        histograms.forEach((objectType, byFieldName) ->
+                byFieldName.forEach((fieldName, histogram) -> fields.add(histogram.toMap(objectType.getName(), fieldName))));
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("fields", fields);
+        return map;
+    }
+
+    private String rfc3339(Instant time) {
+        return DateTimeFormatter.ISO_INSTANT.format(time);
+    }
+
+    private static class LazyMap extends AbstractMap<String, Object> {
+        private final Supplier<Map<String, Object>> supplier;
+        private volatile Map<String, Object> delegate;
+
+        LazyMap(Supplier<Map<String, Object>> supplier) {
+            this.supplier = supplier;
+        }
+
+        private Map<String, Object> delegate() {
+            Map<String, Object> map = delegate;
+            if (map == null) {
+                map = supplier.get();
+                delegate = map;
+            }
+            return map;
+        }
+
+        @Override
+        public Object get(Object key) {
+            return delegate().get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return delegate().containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return delegate().size();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return delegate().entrySet();
+        }
+    }
+}
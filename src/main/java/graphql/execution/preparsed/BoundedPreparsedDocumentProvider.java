@@ -0,0 +1,427 @@
+package graphql.execution.preparsed;
+
+import graphql.ExecutionInput;
+import graphql.PublicApi;
+import graphql.ThreadSafe;
+import graphql.language.Document;
+import graphql.language.Node;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+
+/**
+ * A {@link PreparsedDocumentProvider} that caches parsed and validated documents in memory, keyed by query text, with a
+ * bounded number of entries and a bounded total weight, where the weight of an entry is by default an estimate of the
+ * memory retained by its {@link Document}.
+ * <p>
+ * Eviction follows the W-TinyLFU policy: new entries go into a small LRU admission window and, when they leave it, they are
+ * only admitted to the main LRU region if they have been requested more often recently than the entry they would displace.
+ * This keeps a stream of one-off queries from flushing out the popular ones.
+ * <p>
+ * Concurrent requests for the same query that is not yet cached will result in only one of them parsing and validating it
+ * while the others wait on its result.
+ * <p>
+ * Note that cached entries are not tied to a schema, so use one provider per {@link graphql.schema.GraphQLSchema} or call
+ * {@link #invalidateAll()} when the schema changes.
+ */
+@PublicApi
+@ThreadSafe
+public class BoundedPreparsedDocumentProvider implements PreparsedDocumentProvider {
+
+    // a rough per node cost of an AST node, its source location and its child lists
+    private static final long ESTIMATED_BYTES_PER_NODE = 128;
+    private static final long ESTIMATED_BYTES_PER_ERROR = 256;
+
+    private final long maximumEntries;
+    private final long maximumWeight;
+    private final long windowMaximumEntries;
+    private final ToLongFunction<PreparsedDocumentEntry> weigher;
+
+    private final ConcurrentHashMap<String, CacheNode> data = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<PreparsedDocumentEntry>> inFlight = new ConcurrentHashMap<>();
+
+    // guards the eviction policy state below
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final AccessQueue window = new AccessQueue();
+    private final AccessQueue main = new AccessQueue();
+    private volatile long weightedSize;
+    // bumped by every invalidation, so that loads that started before it don't put what they loaded in place afterwards
+    private volatile long epoch;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTimeNanos = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder evictionWeight = new LongAdder();
+
+    private BoundedPreparsedDocumentProvider(Builder builder) {
+        this.maximumEntries = builder.maximumEntries;
+        this.maximumWeight = builder.maximumWeight;
+        this.weigher = builder.weigher;
+        this.windowMaximumEntries = Math.max(1, maximumEntries / 100);
+        this.sketch = new FrequencySketch(maximumEntries);
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        String key = executionInput.getQuery();
+        CacheNode node = data.get(key);
+        if (node != null) {
+            hitCount.increment();
+            afterRead(node);
+            return CompletableFuture.completedFuture(node.entry);
+        }
+        missCount.increment();
+
+        long loadEpoch = epoch;
+        CompletableFuture<PreparsedDocumentEntry> loading = new CompletableFuture<>();
+        CompletableFuture<PreparsedDocumentEntry> alreadyLoading = inFlight.putIfAbsent(key, loading);
+        if (alreadyLoading != null) {
+            return alreadyLoading;
+        }
+        try {
+            // it may have been loaded and put in place between our first look and claiming the load
+            node = data.get(key);
+            if (node != null) {
+                loading.complete(node.entry);
+                return loading;
+            }
+            PreparsedDocumentEntry entry = load(executionInput, parseAndValidateFunction);
+            put(key, entry, loadEpoch);
+            loading.complete(entry);
+            return loading;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, loading);
+        }
+    }
+
+    private PreparsedDocumentEntry load(ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        long startNanos = System.nanoTime();
+        try {
+            PreparsedDocumentEntry entry = assertNotNull(parseAndValidateFunction.apply(executionInput));
+            loadSuccessCount.increment();
+            return entry;
+        } catch (RuntimeException e) {
+            loadFailureCount.increment();
+            throw e;
+        } finally {
+            totalLoadTimeNanos.add(System.nanoTime() - startNanos);
+        }
+    }
+
+    private void afterRead(CacheNode node) {
+        // recording reads is best effort - if another thread is busy with the policy we skip it rather than contend
+        if (!policyLock.tryLock()) {
+            return;
+        }
+        try {
+            sketch.increment(node.key);
+            if (node.queue != null) {
+                node.queue.moveToTail(node);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private void put(String key, PreparsedDocumentEntry entry, long loadEpoch) {
+        long weight = Math.max(1, weigher.applyAsLong(entry));
+        if (weight > maximumWeight) {
+            // it can never fit so don't flush the whole cache trying
+            return;
+        }
+        CacheNode node = new CacheNode(key, entry, weight);
+        policyLock.lock();
+        try {
+            if (loadEpoch != epoch) {
+                // the cache was invalidated while this was loading, so what was loaded may be stale
+                return;
+            }
+            sketch.increment(key);
+            CacheNode previous = data.put(key, node);
+            if (previous != null) {
+                unlink(previous);
+            }
+            window.addLast(node);
+            weightedSize += weight;
+            evict();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private void evict() {
+        // entries that overflow the admission window become candidates at the tail of the main region
+        CacheNode candidate = null;
+        while (window.size > windowMaximumEntries) {
+            CacheNode overflow = window.removeFirst();
+            main.addLast(overflow);
+            if (candidate == null) {
+                candidate = overflow;
+            }
+        }
+
+        while (isOverCapacity()) {
+            CacheNode victim = main.head;
+            if (victim == null) {
+                // can only happen when the window alone is over the weight limit
+                remove(window.head);
+                continue;
+            }
+            if (candidate == null || victim == candidate) {
+                if (victim == candidate) {
+                    candidate = candidate.next;
+                }
+                remove(victim);
+                continue;
+            }
+            // the candidate only displaces the victim if it has been more popular recently
+            if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                remove(victim);
+            } else {
+                CacheNode evicted = candidate;
+                candidate = candidate.next;
+                remove(evicted);
+            }
+        }
+    }
+
+    private boolean isOverCapacity() {
+        return (window.size + main.size) > maximumEntries || weightedSize > maximumWeight;
+    }
+
+    private void remove(CacheNode node) {
+        data.remove(node.key, node);
+        unlink(node);
+        evictionCount.increment();
+        evictionWeight.add(node.weight);
+    }
+
+    private void unlink(CacheNode node) {
+        if (node.queue != null) {
+            node.queue.remove(node);
+            weightedSize -= node.weight;
+        }
+    }
+
+    /**
+     * Removes all entries from the cache.  Documents that are still being loaded when this is called are handed to the
+     * requests already waiting on them but are not cached, and later requests load them again.
+     */
+    public void invalidateAll() {
+        policyLock.lock();
+        try {
+            epoch++;
+            inFlight.clear();
+            data.clear();
+            window.clear();
+            main.clear();
+            weightedSize = 0;
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of cached entries
+     */
+    public long size() {
+        return data.size();
+    }
+
+    /**
+     * @return the sum of the weights of the cached entries
+     */
+    public long weightedSize() {
+        return weightedSize;
+    }
+
+    /**
+     * @return a snapshot of the statistics of this cache
+     */
+    public PreparsedDocumentCacheStats getStats() {
+        return new PreparsedDocumentCacheStats(
+                hitCount.sum(),
+                missCount.sum(),
+                loadSuccessCount.sum(),
+                loadFailureCount.sum(),
+                totalLoadTimeNanos.sum(),
+                evictionCount.sum(),
+                evictionWeight.sum(),
+                size(),
+                weightedSize());
+    }
+
+    /**
+     * The default weigher, which estimates the memory retained by an entry from the number of AST nodes in its document
+     *
+     * @param entry the entry to weigh
+     *
+     * @return the estimated size of the entry in bytes
+     */
+    public static long estimateRetainedSize(PreparsedDocumentEntry entry) {
+        long size = 0;
+        List<?> errors = entry.getErrors();
+        if (errors != null) {
+            size += errors.size() * ESTIMATED_BYTES_PER_ERROR;
+        }
+        Document document = entry.getDocument();
+        if (document == null) {
+            return size;
+        }
+        long nodeCount = 0;
+        Deque<Node<?>> stack = new ArrayDeque<>();
+        stack.push(document);
+        while (!stack.isEmpty()) {
+            Node<?> node = stack.pop();
+            nodeCount++;
+            for (Node<?> child : node.getChildren()) {
+                stack.push(child);
+            }
+        }
+        return size + nodeCount * ESTIMATED_BYTES_PER_NODE;
+    }
+
+    public static Builder newBoundedPreparsedDocumentProvider() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private long maximumEntries = 1_000;
+        private long maximumWeight = Long.MAX_VALUE;
+        private ToLongFunction<PreparsedDocumentEntry> weigher = BoundedPreparsedDocumentProvider::estimateRetainedSize;
+
+        /**
+         * @param maximumEntries the maximum number of documents to cache
+         *
+         * @return this builder
+         */
+        public Builder maximumEntries(long maximumEntries) {
+            assertTrue(maximumEntries > 0, () -> "maximumEntries must be greater than zero");
+            this.maximumEntries = maximumEntries;
+            return this;
+        }
+
+        /**
+         * @param maximumWeight the maximum sum of the weights of the cached entries, which by default are in estimated bytes
+         *
+         * @return this builder
+         */
+        public Builder maximumWeight(long maximumWeight) {
+            assertTrue(maximumWeight > 0, () -> "maximumWeight must be greater than zero");
+            this.maximumWeight = maximumWeight;
+            return this;
+        }
+
+        /**
+         * @param weigher the function that computes the weight of an entry, which defaults to {@link #estimateRetainedSize(PreparsedDocumentEntry)}
+         *
+         * @return this builder
+         */
+        public Builder weigher(ToLongFunction<PreparsedDocumentEntry> weigher) {
+            this.weigher = assertNotNull(weigher);
+            return this;
+        }
+
+        public BoundedPreparsedDocumentProvider build() {
+            return new BoundedPreparsedDocumentProvider(this);
+        }
+    }
+
+    private static class CacheNode {
+        final String key;
+        final PreparsedDocumentEntry entry;
+        final long weight;
+        AccessQueue queue;
+        CacheNode prev;
+        CacheNode next;
+
+        CacheNode(String key, PreparsedDocumentEntry entry, long weight) {
+            this.key = key;
+            this.entry = entry;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * An intrusive doubly linked list in access order, least recently used at the head
+     */
+    private static class AccessQueue {
+        CacheNode head;
+        CacheNode tail;
+        long size;
+
+        void addLast(CacheNode node) {
+            node.queue = this;
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        CacheNode removeFirst() {
+            CacheNode node = head;
+            remove(node);
+            return node;
+        }
+
+        void remove(CacheNode node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            node.queue = null;
+            size--;
+        }
+
+        void moveToTail(CacheNode node) {
+            if (tail != node) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void clear() {
+            CacheNode node = head;
+            while (node != null) {
+                CacheNode next = node.next;
+                node.prev = null;
+                node.next = null;
+                node.queue = null;
+                node = next;
+            }
+            head = null;
+            tail = null;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package graphql.execution.preparsed;
+
+import graphql.Internal;
+
+/**
+ * A count-min sketch of 4 bit counters used to estimate how often a key has been seen recently.  Counters
+ * are halved after a sample period so that the estimate favours recent popularity, as described in the
+ * TinyLFU paper.  This class is not thread safe and callers are expected to guard access to it.
+ */
+@Internal
+class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(long expectedEntries) {
+        int capacity = ceilingPowerOfTwo((int) Math.min(Math.max(expectedEntries, 16), 1 << 24));
+        this.table = new long[capacity];
+        this.tableMask = capacity - 1;
+        this.sampleSize = 10 * capacity;
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = Integer.MAX_VALUE;
+        for (int depth = 0; depth < SEEDS.length; depth++) {
+            long rowHash = rehash(hash, depth);
+            int index = (int) rowHash & tableMask;
+            int shift = nibbleShift(rowHash);
+            frequency = Math.min(frequency, (int) ((table[index] >>> shift) & 0xfL));
+        }
+        return frequency;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int depth = 0; depth < SEEDS.length; depth++) {
+            long rowHash = rehash(hash, depth);
+            int index = (int) rowHash & tableMask;
+            int shift = nibbleShift(rowHash);
+            if (((table[index] >>> shift) & 0xfL) != 0xfL) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions = additions >>> 1;
+    }
+
+    private static long rehash(int hash, int depth) {
+        long h = (hash + SEEDS[depth]) * SEEDS[depth];
+        return h ^ (h >>> 32);
+    }
+
+    private static int nibbleShift(long rowHash) {
+        return (int) ((rowHash >>> 40) & 0xfL) << 2;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+    private static int ceilingPowerOfTwo(int x) {
+        return 1 << -Integer.numberOfLeadingZeros(x - 1);
+    }
+}
@@ -0,0 +1,142 @@
+package graphql.execution.preparsed;
+
+import graphql.PublicApi;
+
+/**
+ * An immutable snapshot of the statistics of a {@link BoundedPreparsedDocumentProvider}
+ */
+@PublicApi
+public class PreparsedDocumentCacheStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final long totalLoadTimeNanos;
+    private final long evictionCount;
+    private final long evictionWeight;
+    private final long entryCount;
+    private final long weightedSize;
+
+    PreparsedDocumentCacheStats(long hitCount,
+                                long missCount,
+                                long loadSuccessCount,
+                                long loadFailureCount,
+                                long totalLoadTimeNanos,
+                                long evictionCount,
+                                long evictionWeight,
+                                long entryCount,
+                                long weightedSize) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTimeNanos = totalLoadTimeNanos;
+        this.evictionCount = evictionCount;
+        this.evictionWeight = evictionWeight;
+        this.entryCount = entryCount;
+        this.weightedSize = weightedSize;
+    }
+
+    /**
+     * @return the number of times a document was found in the cache
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of times a document was not found in the cache, including the times a caller waited on
+     * another caller that was already parsing and validating the same query
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of times a query was parsed and validated successfully
+     */
+    public long getLoadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    /**
+     * @return the number of times parsing and validation of a query threw an exception
+     */
+    public long getLoadFailureCount() {
+        return loadFailureCount;
+    }
+
+    /**
+     * @return the total time in nanoseconds spent parsing and validating queries
+     */
+    public long getTotalLoadTimeNanos() {
+        return totalLoadTimeNanos;
+    }
+
+    /**
+     * @return the number of entries that have been evicted
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the sum of the weights of the entries that have been evicted
+     */
+    public long getEvictionWeight() {
+        return evictionWeight;
+    }
+
+    /**
+     * @return the number of entries in the cache when this snapshot was taken
+     */
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return the sum of the weights of the entries in the cache when this snapshot was taken
+     */
+    public long getWeightedSize() {
+        return weightedSize;
+    }
+
+    /**
+     * @return the total number of lookups
+     */
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * @return the ratio of lookups that were hits or 1.0 if there have been no lookups
+     */
+    public double getHitRate() {
+        long requestCount = getRequestCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * @return the average time in nanoseconds spent parsing and validating a query
+     */
+    public double getAverageLoadPenaltyNanos() {
+        long loadCount = loadSuccessCount + loadFailureCount;
+        return loadCount == 0 ? 0.0 : (double) totalLoadTimeNanos / loadCount;
+    }
+
+    @Override
+    public String toString() {
+        return "PreparsedDocumentCacheStats{" +
+                "hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", loadSuccessCount=" + loadSuccessCount +
+                ", loadFailureCount=" + loadFailureCount +
+                ", totalLoadTimeNanos=" + totalLoadTimeNanos +
+                ", evictionCount=" + evictionCount +
+                ", evictionWeight=" + evictionWeight +
+                ", entryCount=" + entryCount +
+                ", weightedSize=" + weightedSize +
+                '}';
+    }
+}
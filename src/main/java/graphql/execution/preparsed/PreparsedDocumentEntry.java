@@ -1,11 +1,14 @@
 package graphql.execution.preparsed;
 
 import graphql.GraphQLError;
+import graphql.ExperimentalApi;
 import graphql.PublicApi;
+import graphql.execution.ExecutionPlanCache;
 import graphql.language.Document;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import static graphql.Assert.assertNotNull;
 import static java.util.Collections.singletonList;
@@ -24,6 +27,11 @@ import static java.util.Collections.singletonList;
 public class PreparsedDocumentEntry implements Serializable {
     private final Document document;
     private final List<? extends GraphQLError> errors;
+    // execution plans refer to schema objects and hence are never serialised - they are re-planned on demand
+    private transient volatile ExecutionPlanCache executionPlanCache;
+
+    private static final AtomicReferenceFieldUpdater<PreparsedDocumentEntry, ExecutionPlanCache> EXECUTION_PLAN_CACHE_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(PreparsedDocumentEntry.class, ExecutionPlanCache.class, "executionPlanCache");
 
     public PreparsedDocumentEntry(Document document,
                                   List<? extends GraphQLError> errors) {
@@ -60,4 +68,20 @@ public class PreparsedDocumentEntry implements Serializable {
     public boolean hasErrors() {
         return errors != null && !errors.isEmpty();
     }
+
+    /**
+     * @return the cache of {@link graphql.execution.ExecutionPlan}s for this document or null if there is no document
+     */
+    @ExperimentalApi
+    public ExecutionPlanCache getExecutionPlanCache() {
+        if (document == null) {
+            return null;
+        }
+        ExecutionPlanCache cache = executionPlanCache;
+        if (cache == null) {
+            EXECUTION_PLAN_CACHE_UPDATER.compareAndSet(this, null, new ExecutionPlanCache(document));
+            cache = executionPlanCache;
+        }
+        return cache;
+    }
 }
@@ -0,0 +1,186 @@
+package graphql.execution.preparsed.persisted;
+
+import graphql.ExecutionInput;
+import graphql.ExperimentalApi;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.language.AstBinaryEncoding;
+import graphql.language.Document;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static graphql.Assert.assertNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A PersistedQueryCache that keeps the parsed and validated documents of persisted queries in a directory, one file
+ * per query id holding the document in the form of {@link AstBinaryEncoding}, as well as in memory.
+ * <p>
+ * On a miss in memory the file of the query id is memory mapped and decoded, which is much cheaper than parsing and
+ * validating the query text again.  So after a restart, or on other JVMs that share the directory, the queries that have
+ * been seen before never go through the {@link graphql.parser.Parser}.
+ * <p>
+ * Only documents without errors are written, and they are written to a temporary file that is then moved into place
+ * so that concurrent readers never see a partial file.  The files are trusted to be valid against the schema, so the
+ * directory should be specific to a schema version.
+ */
+@ExperimentalApi
+public class MemoryMappedPersistedQueryCache implements PersistedQueryCache {
+
+    private static final String FILE_SUFFIX = ".gqlb";
+
+    private final Path directory;
+    private final Map<Object, String> knownQueries;
+    private final boolean includeSourceLocations;
+    private final Map<Object, PreparsedDocumentEntry> cache = new ConcurrentHashMap<>();
+
+    private MemoryMappedPersistedQueryCache(Builder builder) {
+        this.directory = builder.directory;
+        this.knownQueries = builder.knownQueries;
+        this.includeSourceLocations = builder.includeSourceLocations;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public Map<Object, String> getKnownQueries() {
+        return knownQueries;
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getPersistedQueryDocumentAsync(Object persistedQueryId, ExecutionInput executionInput, PersistedQueryCacheMiss onCacheMiss) throws PersistedQueryNotFound {
+        PreparsedDocumentEntry documentEntry = cache.compute(persistedQueryId, (k, v) -> {
+            if (v != null) {
+                return v;
+            }
+            Path file = queryFile(persistedQueryId);
+            Document document = readDocument(file);
+            if (document != null) {
+                return new PreparsedDocumentEntry(document);
+            }
+
+            //get the query from the execution input. Make sure it's not null, empty or the APQ marker.
+            // if it is, fallback to the known queries.
+            String queryText = executionInput.getQuery();
+            if (queryText == null || queryText.isEmpty() || queryText.equals(PersistedQuerySupport.PERSISTED_QUERY_MARKER)) {
+                queryText = knownQueries.get(persistedQueryId);
+            }
+
+            if (queryText == null) {
+                throw new PersistedQueryNotFound(persistedQueryId);
+            }
+            PreparsedDocumentEntry entry = onCacheMiss.apply(queryText);
+            if (!entry.hasErrors()) {
+                writeDocument(file, entry.getDocument());
+            }
+            return entry;
+        });
+        return CompletableFuture.completedFuture(documentEntry);
+    }
+
+    private Document readDocument(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return AstBinaryEncoding.decode(buffer);
+        } catch (IOException | RuntimeException e) {
+            // a missing, unreadable or corrupt file is treated as a miss, and written again once the query is parsed
+            return null;
+        }
+    }
+
+    private void writeDocument(Path file, Document document) {
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            Files.write(tempFile, AstBinaryEncoding.encode(document, includeSourceLocations));
+            try {
+                Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // the document is still cached in memory, so failing to write it only costs a parse elsewhere
+            deleteQuietly(tempFile);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private Path queryFile(Object persistedQueryId) {
+        // query ids can hold any characters, so the file is named by their hash
+        byte[] hash = sha256().digest(String.valueOf(persistedQueryId).getBytes(UTF_8));
+        StringBuilder fileName = new StringBuilder(hash.length * 2 + FILE_SUFFIX.length());
+        for (byte b : hash) {
+            fileName.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return directory.resolve(fileName.append(FILE_SUFFIX).toString());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static Builder newMemoryMappedPersistedQueryCache(Path directory) {
+        return new Builder(directory);
+    }
+
+    public static class Builder {
+        private final Path directory;
+        private final Map<Object, String> knownQueries = new HashMap<>();
+        private boolean includeSourceLocations = true;
+
+        private Builder(Path directory) {
+            this.directory = assertNotNull(directory);
+        }
+
+        public Builder addQuery(Object key, String queryText) {
+            knownQueries.put(key, queryText);
+            return this;
+        }
+
+        /**
+         * @param includeSourceLocations whether the source locations of the documents are written, which are used in
+         *                               error messages.  This is true by default
+         *
+         * @return this builder
+         */
+        public Builder includeSourceLocations(boolean includeSourceLocations) {
+            this.includeSourceLocations = includeSourceLocations;
+            return this;
+        }
+
+        public MemoryMappedPersistedQueryCache build() {
+            return new MemoryMappedPersistedQueryCache(this);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package graphql.execution.reactive;
+
+import graphql.Internal;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+
+/**
+ * A reactive Publisher that bridges over another Publisher of `U` and maps the results to type `D` like
+ * {@link CompletionStageMappingPublisher}, except that the upstream values are collected into batches which are
+ * mapped together, each batch into a CompletionStage of the list of mapped values.
+ * <p>
+ * A batch is mapped once it has the maximum number of values in it, or once the maximum delay has passed since its
+ * first value arrived, and at most a maximum number of batches are mapped at the same time.  Values that arrive while
+ * that many batches are in flight are added to the next batch.
+ * <p>
+ * Demand is passed straight through to the upstream publisher, since every upstream value is mapped to exactly one
+ * downstream value.  All the state is changed and all the downstream signals are sent under a {@link NonBlockingMutexExecutor}
+ * so the batches can finish on any thread.
+ *
+ * @param <D> the down stream type
+ * @param <U> the up stream type to be mapped to
+ */
+@SuppressWarnings("ReactiveStreamsPublisherImplementation")
+@Internal
+public class BatchingCompletionStageMappingPublisher<D, U> implements Publisher<D> {
+    private final Publisher<U> upstreamPublisher;
+    private final Function<List<U>, CompletionStage<List<D>>> mapper;
+    private final int maxBatchSize;
+    private final Duration maxBatchDelay;
+    private final int maxConcurrentBatches;
+    private final boolean ordered;
+
+    /**
+     * You need the following :
+     *
+     * @param upstreamPublisher    an upstream source of data
+     * @param mapper               a mapper function that turns a batch of upstream data into a promise of the mapped D downstream data, in the same order
+     * @param maxBatchSize         the most values in a batch
+     * @param maxBatchDelay        how long the first value of a batch waits for more values
+     * @param maxConcurrentBatches the most batches that are mapped at the same time
+     * @param ordered              whether the mapped values are published in the order of the upstream values
+     */
+    public BatchingCompletionStageMappingPublisher(Publisher<U> upstreamPublisher,
+                                                   Function<List<U>, CompletionStage<List<D>>> mapper,
+                                                   int maxBatchSize,
+                                                   Duration maxBatchDelay,
+                                                   int maxConcurrentBatches,
+                                                   boolean ordered) {
+        this.upstreamPublisher = assertNotNull(upstreamPublisher);
+        this.mapper = assertNotNull(mapper);
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchDelay = assertNotNull(maxBatchDelay);
+        this.maxConcurrentBatches = maxConcurrentBatches;
+        this.ordered = ordered;
+        assertTrue(maxBatchSize > 0 && maxConcurrentBatches > 0, () -> "maxBatchSize and maxConcurrentBatches must be greater than zero");
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super D> downstreamSubscriber) {
+        upstreamPublisher.subscribe(new BatchingSubscriber(downstreamSubscriber));
+    }
+
+    /**
+     * Get instance of an upstreamPublisher
+     *
+     * @return upstream instance of {@link Publisher}
+     */
+    public Publisher<U> getUpstreamPublisher() {
+        return upstreamPublisher;
+    }
+
+    private static class Batch<D> {
+        private final int size;
+        private List<D> results;
+
+        Batch(int size) {
+            this.size = size;
+        }
+    }
+
+    @SuppressWarnings("ReactiveStreamsSubscriberImplementation")
+    private class BatchingSubscriber implements Subscriber<U> {
+        private final Subscriber<? super D> downstreamSubscriber;
+        private final NonBlockingMutexExecutor mutex = new NonBlockingMutexExecutor();
+        private final Executor delayedExecutor;
+        private Subscription delegatingSubscription;
+
+        // everything below is only touched under the mutex
+        private List<U> buffer = new ArrayList<>();
+        private boolean bufferReady;
+        private long bufferGeneration;
+        private int inFlight;
+        private final Queue<Batch<D>> orderedBatches = new ArrayDeque<>();
+        private Runnable onCompleteOrErrorRun;
+        private boolean done;
+
+        BatchingSubscriber(Subscriber<? super D> downstreamSubscriber) {
+            this.downstreamSubscriber = downstreamSubscriber;
+            this.delayedExecutor = maxBatchDelay.isZero() ? null : CompletableFuture.delayedExecutor(maxBatchDelay.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            delegatingSubscription = new DelegatingSubscription(subscription) {
+                @Override
+                public void cancel() {
+                    mutex.execute(() -> {
+                        done = true;
+                        buffer.clear();
+                    });
+                    super.cancel();
+                }
+            };
+            downstreamSubscriber.onSubscribe(delegatingSubscription);
+        }
+
+        @Override
+        public void onNext(U u) {
+            mutex.execute(() -> {
+                // for safety - no more data after we have called done/error - we should not get this BUT belts and braces
+                if (done || onCompleteOrErrorRun != null) {
+                    return;
+                }
+                buffer.add(u);
+                if (buffer.size() >= maxBatchSize || delayedExecutor == null) {
+                    bufferReady = true;
+                } else if (buffer.size() == 1) {
+                    long generation = bufferGeneration;
+                    delayedExecutor.execute(() -> mutex.execute(() -> {
+                        // the timer is stale if the buffer it was started for has been mapped already
+                        if (generation == bufferGeneration) {
+                            bufferReady = true;
+                            mapReadyBatches();
+                        }
+                    }));
+                }
+                mapReadyBatches();
+            });
+        }
+
+        private void mapReadyBatches() {
+            while (!done && bufferReady && inFlight < maxConcurrentBatches && !buffer.isEmpty()) {
+                List<U> values;
+                if (buffer.size() <= maxBatchSize) {
+                    values = buffer;
+                    buffer = new ArrayList<>();
+                } else {
+                    List<U> head = buffer.subList(0, maxBatchSize);
+                    values = new ArrayList<>(head);
+                    head.clear();
+                }
+                if (buffer.isEmpty()) {
+                    bufferReady = false;
+                    bufferGeneration++;
+                }
+                mapBatch(values);
+            }
+        }
+
+        private void mapBatch(List<U> values) {
+            Batch<D> batch = new Batch<>(values.size());
+            if (ordered) {
+                orderedBatches.offer(batch);
+            }
+            inFlight++;
+            CompletionStage<List<D>> completionStage;
+            try {
+                completionStage = mapper.apply(values);
+            } catch (RuntimeException throwable) {
+                CompletableFuture<List<D>> failed = new CompletableFuture<>();
+                failed.completeExceptionally(throwable);
+                completionStage = failed;
+            }
+            completionStage.whenComplete((results, throwable) -> mutex.execute(() -> whenBatchFinished(batch, results, throwable)));
+        }
+
+        private void whenBatchFinished(Batch<D> batch, List<D> results, Throwable throwable) {
+            inFlight--;
+            if (done) {
+                return;
+            }
+            if (throwable == null && (results == null || results.size() != batch.size)) {
+                throwable = new IllegalStateException("The batch mapper must return one value for each value in the batch");
+            }
+            if (throwable != null) {
+                handleThrowable(throwable);
+                return;
+            }
+            batch.results = results;
+            if (ordered) {
+                while (!orderedBatches.isEmpty() && orderedBatches.peek().results != null) {
+                    publish(orderedBatches.poll().results);
+                }
+            } else {
+                publish(results);
+            }
+            mapReadyBatches();
+            runOnCompleteOrErrorIfDrained();
+        }
+
+        private void publish(List<D> results) {
+            for (D result : results) {
+                if (done) {
+                    return;
+                }
+                downstreamSubscriber.onNext(result);
+            }
+        }
+
+        private void handleThrowable(Throwable throwable) {
+            done = true;
+            buffer.clear();
+            orderedBatches.clear();
+            downstreamSubscriber.onError(throwable);
+            //
+            // as with CompletionStageMappingPublisher, an exception during the mapping
+            // means no more messages flow, so we cancel the upstream publisher
+            //
+            delegatingSubscription.cancel();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            onCompleteOrError(() -> downstreamSubscriber.onError(t));
+        }
+
+        @Override
+        public void onComplete() {
+            onCompleteOrError(downstreamSubscriber::onComplete);
+        }
+
+        private void onCompleteOrError(Runnable doneCodeToRun) {
+            mutex.execute(() -> {
+                if (done || onCompleteOrErrorRun != null) {
+                    return;
+                }
+                onCompleteOrErrorRun = doneCodeToRun;
+                // no more values are coming, so what is buffered does not need to wait
+                bufferReady = true;
+                mapReadyBatches();
+                runOnCompleteOrErrorIfDrained();
+            });
+        }
+
+        private void runOnCompleteOrErrorIfDrained() {
+            if (onCompleteOrErrorRun != null && !done && inFlight == 0 && buffer.isEmpty()) {
+                done = true;
+                onCompleteOrErrorRun.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package graphql.execution.reactive;
+
+import graphql.GraphQLException;
+import graphql.Internal;
+import graphql.execution.SubscriptionMultiplexer.OverflowPolicy;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+import static graphql.Assert.assertNotNull;
+
+/**
+ * A reactive Publisher that subscribes once to an upstream Publisher, when its first subscriber arrives, and
+ * delivers every upstream value to all of its subscribers.
+ * <p>
+ * The upstream is read as fast as it produces.  Each subscriber has its own buffer of values that it has not requested
+ * yet, and when that buffer is full the {@link OverflowPolicy} decides what happens for that subscriber alone, so a slow
+ * subscriber never holds back the others.
+ * <p>
+ * The upstream subscription is cancelled once the last subscriber cancels.  Subscribers that arrive after the upstream
+ * subscription is over are finished straight away, or, when there is an {@code onSubscribedAfterFinished} callback,
+ * given to it before they are subscribed to anything, so that they can be subscribed to a new stream instead.  All the
+ * state is changed and all the signals are sent under a {@link NonBlockingMutexExecutor}.
+ *
+ * @param <T> the type of values
+ */
+@SuppressWarnings("ReactiveStreamsPublisherImplementation")
+@Internal
+public class FanOutPublisher<T> implements Publisher<T> {
+
+    private final Publisher<T> upstreamPublisher;
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+    private final Consumer<FanOutPublisher<T>> onUpstreamFinished;
+    private final Consumer<Subscriber<? super T>> onSubscribedAfterFinished;
+    private final NonBlockingMutexExecutor mutex = new NonBlockingMutexExecutor();
+
+    // everything below is only touched under the mutex
+    private final List<FanOutSubscription> subscriptions = new ArrayList<>();
+    private Subscription upstreamSubscription;
+    private boolean connected;
+    private boolean finished;
+    private Throwable upstreamError;
+
+    /**
+     * You need the following :
+     *
+     * @param upstreamPublisher  the upstream source of data
+     * @param bufferSize         how many values are buffered per subscriber before the overflow policy applies
+     * @param overflowPolicy     what happens when the buffer of a subscriber is full
+     * @param onUpstreamFinished called once the upstream subscription is over, because the upstream finished or all subscribers cancelled
+     */
+    public FanOutPublisher(Publisher<T> upstreamPublisher, int bufferSize, OverflowPolicy overflowPolicy, Consumer<FanOutPublisher<T>> onUpstreamFinished) {
+        this(upstreamPublisher, bufferSize, overflowPolicy, onUpstreamFinished, null);
+    }
+
+    /**
+     * You need the following :
+     *
+     * @param upstreamPublisher         the upstream source of data
+     * @param bufferSize                how many values are buffered per subscriber before the overflow policy applies
+     * @param overflowPolicy            what happens when the buffer of a subscriber is full
+     * @param onUpstreamFinished        called once the upstream subscription is over, because the upstream finished or all subscribers cancelled
+     * @param onSubscribedAfterFinished given the subscribers that arrive after the upstream subscription is over, instead of
+     *                                  finishing them, or null to finish them
+     */
+    public FanOutPublisher(Publisher<T> upstreamPublisher,
+                           int bufferSize,
+                           OverflowPolicy overflowPolicy,
+                           Consumer<FanOutPublisher<T>> onUpstreamFinished,
+                           Consumer<Subscriber<? super T>> onSubscribedAfterFinished) {
+        this.upstreamPublisher = assertNotNull(upstreamPublisher);
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = assertNotNull(overflowPolicy);
+        this.onUpstreamFinished = assertNotNull(onUpstreamFinished);
+        this.onSubscribedAfterFinished = onSubscribedAfterFinished;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        assertNotNull(subscriber, () -> "Subscriber passed to subscribe must not be null");
+        // whether the subscriber joins is decided under the mutex, so that it is never joined to an upstream
+        // subscription that the last subscriber has just left
+        mutex.execute(() -> {
+            if (finished && onSubscribedAfterFinished != null) {
+                onSubscribedAfterFinished.accept(subscriber);
+                return;
+            }
+            FanOutSubscription subscription = new FanOutSubscription(subscriber);
+            // any request or cancel the subscriber makes here runs after this, as the mutex is not reentrant
+            subscriber.onSubscribe(subscription);
+            if (finished) {
+                subscription.upstreamDone = true;
+                subscription.drain();
+                return;
+            }
+            subscriptions.add(subscription);
+            if (!connected) {
+                connected = true;
+                upstreamPublisher.subscribe(new UpstreamSubscriber());
+            }
+        });
+    }
+
+    /**
+     * @return the number of subscribers currently receiving values
+     */
+    public int getSubscriberCount() {
+        // a racy read is fine for a count
+        return subscriptions.size();
+    }
+
+    private void finish(Throwable throwable) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        upstreamError = throwable;
+        onUpstreamFinished.accept(FanOutPublisher.this);
+        for (FanOutSubscription subscription : new ArrayList<>(subscriptions)) {
+            subscription.upstreamDone = true;
+            subscription.drain();
+        }
+    }
+
+    @SuppressWarnings("ReactiveStreamsSubscriberImplementation")
+    private class UpstreamSubscriber implements Subscriber<T> {
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            mutex.execute(() -> {
+                if (finished) {
+                    // everyone left before the upstream got going
+                    subscription.cancel();
+                    return;
+                }
+                upstreamSubscription = subscription;
+                subscription.request(Long.MAX_VALUE);
+            });
+        }
+
+        @Override
+        public void onNext(T value) {
+            mutex.execute(() -> {
+                if (finished) {
+                    return;
+                }
+                for (FanOutSubscription subscription : new ArrayList<>(subscriptions)) {
+                    subscription.offer(value);
+                }
+            });
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            mutex.execute(() -> finish(throwable));
+        }
+
+        @Override
+        public void onComplete() {
+            mutex.execute(() -> finish(null));
+        }
+    }
+
+    private class FanOutSubscription implements Subscription {
+        private final Subscriber<? super T> subscriber;
+        private final Queue<T> buffer = new ArrayDeque<>();
+        private long demand;
+        private boolean cancelled;
+        private boolean upstreamDone;
+
+        FanOutSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            mutex.execute(() -> {
+                if (cancelled) {
+                    return;
+                }
+                if (n <= 0) {
+                    leave();
+                    subscriber.onError(new IllegalArgumentException("Reactive streams 3.9 spec violation: non-positive subscription request"));
+                    return;
+                }
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                drain();
+            });
+        }
+
+        @Override
+        public void cancel() {
+            mutex.execute(this::leave);
+        }
+
+        private void offer(T value) {
+            if (cancelled) {
+                return;
+            }
+            if (demand == 0 && buffer.size() >= bufferSize) {
+                switch (overflowPolicy) {
+                    case DROP_OLDEST:
+                        buffer.poll();
+                        break;
+                    case DROP_LATEST:
+                        return;
+                    case ERROR:
+                        leave();
+                        subscriber.onError(new GraphQLException("The subscriber did not keep up with the shared subscription and more than " + bufferSize + " values were waiting for it"));
+                        return;
+                    default:
+                        // BUFFER keeps everything
+                        break;
+                }
+            }
+            buffer.offer(value);
+            drain();
+        }
+
+        private void drain() {
+            while (!cancelled && demand > 0 && !buffer.isEmpty()) {
+                if (demand != Long.MAX_VALUE) {
+                    demand--;
+                }
+                subscriber.onNext(buffer.poll());
+            }
+            if (!cancelled && upstreamDone && buffer.isEmpty()) {
+                leave();
+                if (upstreamError != null) {
+                    subscriber.onError(upstreamError);
+                } else {
+                    subscriber.onComplete();
+                }
+            }
+        }
+
+        private void leave() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            buffer.clear();
+            subscriptions.remove(this);
+            if (subscriptions.isEmpty() && connected && !finished) {
+                finished = true;
+                onUpstreamFinished.accept(FanOutPublisher.this);
+                if (upstreamSubscription != null) {
+                    upstreamSubscription.cancel();
+                }
+            }
+        }
+    }
+}
@@ -29,6 +29,7 @@ public class SingleSubscriberPublisher<T> implements Publisher<T> {
     private final Deque<T> dataQ = new ConcurrentLinkedDeque<>();
     private final NonBlockingMutexExecutor mutex = new NonBlockingMutexExecutor();
     private final OnSubscriptionCallback subscriptionCallback;
+    private final OnRequestCallback requestCallback;
 
     private Subscriber<? super T> subscriber;
     private Throwable pendingThrowable = null;
@@ -50,7 +51,20 @@ public class SingleSubscriberPublisher<T> implements Publisher<T> {
      * @param subscriptionCallback the callback when some ones
      */
     public SingleSubscriberPublisher(OnSubscriptionCallback subscriptionCallback) {
+        this(subscriptionCallback, n -> {
+        });
+    }
+
+    /**
+     * The producing code can provide callbacks to know when the subscriber attaches and when it asks for more data, which
+     * allows it to only produce data as fast as the subscriber consumes it
+     *
+     * @param subscriptionCallback the callback when some one subscribes
+     * @param requestCallback      the callback when the subscriber requests more data
+     */
+    public SingleSubscriberPublisher(OnSubscriptionCallback subscriptionCallback, OnRequestCallback requestCallback) {
         this.subscriptionCallback = assertNotNull(subscriptionCallback);
+        this.requestCallback = assertNotNull(requestCallback);
     }
 
 
@@ -168,6 +182,9 @@ public class SingleSubscriberPublisher<T> implements Publisher<T> {
                     }
                 }
             });
+            if (n > 0) {
+                requestCallback.onRequest(n);
+            }
         }
 
         @Override
@@ -191,4 +208,17 @@ public class SingleSubscriberPublisher<T> implements Publisher<T> {
          */
         void onSubscription();
     }
+
+    /**
+     * This is called when the subscriber requests more data
+     */
+    public interface OnRequestCallback {
+        /**
+         * The call back when the subscriber requests more data.  Its perhaps a good time to produce
+         * more of it
+         *
+         * @param n the number of extra items requested
+         */
+        void onRequest(long n);
+    }
 }
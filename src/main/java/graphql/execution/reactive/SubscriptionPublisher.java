@@ -3,9 +3,11 @@ package graphql.execution.reactive;
 import graphql.ExecutionResult;
 import graphql.Internal;
 import graphql.PublicApi;
+import graphql.execution.SubscriptionEventBatching;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 
+import java.util.List;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 
@@ -24,7 +26,8 @@ import java.util.function.Function;
 @PublicApi
 public class SubscriptionPublisher implements Publisher<ExecutionResult> {
 
-    private final CompletionStageMappingPublisher<ExecutionResult, Object> mappingPublisher;
+    private final Publisher<Object> upstreamPublisher;
+    private final Publisher<ExecutionResult> mappingPublisher;
 
     /**
      * Subscription consuming code is not expected to create instances of this class
@@ -34,7 +37,25 @@ public class SubscriptionPublisher implements Publisher<ExecutionResult> {
      */
     @Internal
     public  SubscriptionPublisher(Publisher<Object> upstreamPublisher, Function<Object, CompletionStage<ExecutionResult>> mapper) {
-        mappingPublisher = new CompletionStageMappingPublisher<>(upstreamPublisher, mapper);
+        this.upstreamPublisher = upstreamPublisher;
+        this.mappingPublisher = new CompletionStageMappingPublisher<>(upstreamPublisher, mapper);
+    }
+
+    /**
+     * Subscription consuming code is not expected to create instances of this class
+     *
+     * @param upstreamPublisher the original publisher of objects that then have a graphql selection set applied to them
+     * @param batchMapper       a mapper that turns batches of objects into promises to execution results, one for each object, which are then published on this stream
+     * @param eventBatching     how the objects are batched
+     */
+    @Internal
+    public SubscriptionPublisher(Publisher<Object> upstreamPublisher, Function<List<Object>, CompletionStage<List<ExecutionResult>>> batchMapper, SubscriptionEventBatching eventBatching) {
+        this.upstreamPublisher = upstreamPublisher;
+        this.mappingPublisher = new BatchingCompletionStageMappingPublisher<>(upstreamPublisher, batchMapper,
+                eventBatching.getMaxBatchSize(),
+                eventBatching.getMaxBatchDelay(),
+                eventBatching.getMaxConcurrentBatches(),
+                eventBatching.isOrdered());
     }
 
     /**
@@ -42,7 +63,7 @@ public class SubscriptionPublisher implements Publisher<ExecutionResult> {
      * to execution results
      */
     public Publisher<Object> getUpstreamPublisher() {
-        return mappingPublisher.getUpstreamPublisher();
+        return upstreamPublisher;
     }
 
     @Override
@@ -0,0 +1,50 @@
+package graphql.execution.serialization;
+
+import graphql.ExecutionResult;
+import graphql.PublicSpi;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An {@link ExecutionResultWriter} serializes an {@link ExecutionResult} straight to a character or byte stream.
+ * <p>
+ * Unlike serializing the map returned by {@link ExecutionResult#toSpecification()}, an implementation is expected to
+ * walk the result tree as it writes.  This saves allocating the specification map that wraps the result and the whole
+ * serialized response as a {@code String} or {@code byte[]} before it is sent, and lets the first bytes go out sooner.
+ * <p>
+ * The output must have the same shape as {@link ExecutionResult#toSpecification()}.
+ *
+ * @see JsonExecutionResultWriter
+ */
+@PublicSpi
+public interface ExecutionResultWriter {
+
+    /**
+     * Writes the execution result to the writer.  The writer is not flushed or closed.
+     *
+     * @param executionResult the result to write
+     * @param writer          the writer to write to
+     *
+     * @throws IOException if the writer fails
+     */
+    void write(ExecutionResult executionResult, Writer writer) throws IOException;
+
+    /**
+     * Writes the execution result to the output stream in UTF-8.  The output stream is flushed but not closed.
+     *
+     * @param executionResult the result to write
+     * @param outputStream    the output stream to write to
+     *
+     * @throws IOException if the output stream fails
+     */
+    default void write(ExecutionResult executionResult, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        write(executionResult, writer);
+        writer.flush();
+    }
+}
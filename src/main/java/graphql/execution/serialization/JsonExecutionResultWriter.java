@@ -0,0 +1,241 @@
+package graphql.execution.serialization;
+
+import graphql.ExecutionResult;
+import graphql.ExecutionResultImpl;
+import graphql.GraphQLError;
+import graphql.PublicApi;
+import graphql.execution.ResultPath;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An {@link ExecutionResultWriter} that writes JSON without needing any JSON library.
+ * <p>
+ * It writes maps as objects, in their iteration order, so fields come out in the order they were asked for.  It writes
+ * iterables and arrays as lists, numbers, booleans and nulls as themselves and everything else as a JSON string of
+ * its {@link Object#toString()} value.  Non finite floating point numbers are written as null because JSON cannot
+ * represent them.
+ * <p>
+ * Errors are written from their {@link GraphQLError#toSpecification()} map, so errors that override it are written
+ * the same way as in {@link ExecutionResult#toSpecification()}.
+ * <p>
+ * Results that are not plain {@link ExecutionResultImpl}s, such as incremental results, can carry extra top level entries.
+ * These are written from their {@link ExecutionResult#toSpecification()} map.
+ */
+@PublicApi
+public class JsonExecutionResultWriter implements ExecutionResultWriter {
+
+    /**
+     * A shared instance, the writer holds no state
+     */
+    public static final JsonExecutionResultWriter INSTANCE = new JsonExecutionResultWriter();
+
+    private static final String[] ESCAPES = new String[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = String.format("\\u%04x", c);
+        }
+        ESCAPES['"'] = "\\\"";
+        ESCAPES['\\'] = "\\\\";
+        ESCAPES['\b'] = "\\b";
+        ESCAPES['\f'] = "\\f";
+        ESCAPES['\n'] = "\\n";
+        ESCAPES['\r'] = "\\r";
+        ESCAPES['\t'] = "\\t";
+    }
+
+    @Override
+    public void write(ExecutionResult executionResult, Writer writer) throws IOException {
+        if (executionResult.getClass() != ExecutionResultImpl.class) {
+            writeValue(executionResult.toSpecification(), writer);
+            return;
+        }
+        writer.write('{');
+        boolean first = true;
+        List<GraphQLError> errors = executionResult.getErrors();
+        if (errors != null && !errors.isEmpty()) {
+            writeKey("errors", writer);
+            writeErrors(errors, writer);
+            first = false;
+        }
+        if (executionResult.isDataPresent()) {
+            if (!first) {
+                writer.write(',');
+            }
+            writeKey("data", writer);
+            writeValue(executionResult.getData(), writer);
+            first = false;
+        }
+        Map<Object, Object> extensions = executionResult.getExtensions();
+        if (extensions != null) {
+            if (!first) {
+                writer.write(',');
+            }
+            writeKey("extensions", writer);
+            writeValue(extensions, writer);
+        }
+        writer.write('}');
+    }
+
+    /**
+     * Convenience method that writes the execution result to a string
+     *
+     * @param executionResult the result to write
+     *
+     * @return the JSON string
+     */
+    public String writeToString(ExecutionResult executionResult) {
+        StringWriter writer = new StringWriter();
+        try {
+            write(executionResult, writer);
+        } catch (IOException e) {
+            // a StringWriter never throws
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    private void writeErrors(List<GraphQLError> errors, Writer writer) throws IOException {
+        writer.write('[');
+        for (int i = 0; i < errors.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeError(errors.get(i), writer);
+        }
+        writer.write(']');
+    }
+
+    private void writeError(GraphQLError error, Writer writer) throws IOException {
+        // errors can override their specification map, so it is always written from that
+        writeValue(error.toSpecification(), writer);
+    }
+
+    private void writeKey(Object key, Writer writer) throws IOException {
+        writeString(String.valueOf(key), writer);
+        writer.write(':');
+    }
+
+    /**
+     * Writes a value of the result tree as JSON
+     *
+     * @param value  the value to write
+     * @param writer the writer to write to
+     *
+     * @throws IOException if the writer fails
+     */
+    protected void writeValue(Object value, Writer writer) throws IOException {
+        if (value == null) {
+            writer.write("null");
+        } else if (value instanceof String) {
+            writeString((String) value, writer);
+        } else if (value instanceof Map) {
+            writeMap((Map<?, ?>) value, writer);
+        } else if (value instanceof Iterable) {
+            writeIterable((Iterable<?>) value, writer);
+        } else if (value instanceof Boolean) {
+            writer.write(((Boolean) value) ? "true" : "false");
+        } else if (value instanceof Number) {
+            writeNumber((Number) value, writer);
+        } else if (value instanceof GraphQLError) {
+            writeError((GraphQLError) value, writer);
+        } else if (value instanceof ResultPath) {
+            writeValue(((ResultPath) value).toList(), writer);
+        } else if (value.getClass().isArray()) {
+            writeArray(value, writer);
+        } else {
+            writeString(value.toString(), writer);
+        }
+    }
+
+    private void writeMap(Map<?, ?> map, Writer writer) throws IOException {
+        writer.write('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!first) {
+                writer.write(',');
+            }
+            writeKey(entry.getKey(), writer);
+            writeValue(entry.getValue(), writer);
+            first = false;
+        }
+        writer.write('}');
+    }
+
+    private void writeIterable(Iterable<?> iterable, Writer writer) throws IOException {
+        writer.write('[');
+        boolean first = true;
+        for (Object item : iterable) {
+            if (!first) {
+                writer.write(',');
+            }
+            writeValue(item, writer);
+            first = false;
+        }
+        writer.write(']');
+    }
+
+    private void writeArray(Object array, Writer writer) throws IOException {
+        writer.write('[');
+        int length = Array.getLength(array);
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeValue(Array.get(array, i), writer);
+        }
+        writer.write(']');
+    }
+
+    private void writeNumber(Number number, Writer writer) throws IOException {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte || number instanceof BigInteger) {
+            writer.write(number.toString());
+        } else if (number instanceof BigDecimal) {
+            writer.write(((BigDecimal) number).toString());
+        } else {
+            double d = number.doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                writer.write("null");
+            } else {
+                writer.write(number.toString());
+            }
+        }
+    }
+
+    private void writeString(String s, Writer writer) throws IOException {
+        writer.write('"');
+        int length = s.length();
+        int unescapedStart = 0;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            String escape;
+            if (c < 128) {
+                escape = ESCAPES[c];
+            } else if (c == '\u2028' || c == '\u2029') {
+                // valid JSON but not valid javascript, so escape them to be safe
+                escape = c == '\u2028' ? "\\u2028" : "\\u2029";
+            } else {
+                escape = null;
+            }
+            if (escape != null) {
+                if (i > unescapedStart) {
+                    writer.write(s, unescapedStart, i - unescapedStart);
+                }
+                writer.write(escape);
+                unescapedStart = i + 1;
+            }
+        }
+        if (length > unescapedStart) {
+            writer.write(s, unescapedStart, length - unescapedStart);
+        }
+        writer.write('"');
+    }
+}
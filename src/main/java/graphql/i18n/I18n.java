@@ -4,17 +4,38 @@ import graphql.Internal;
 import graphql.VisibleForTesting;
 
 import java.text.MessageFormat;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static graphql.Assert.assertNotNull;
 import static graphql.Assert.assertShouldNeverHappen;
 
+/**
+ * Gives the messages of a resource bundle in a locale.
+ * <p>
+ * Instances are shared per bundle type and locale, and the resource bundle is only loaded when the first message is
+ * asked for, so code that never produces a message, such as a request without errors, never touches resource bundles.
+ */
 @Internal
 public class I18n {
 
+    /**
+     * The locales usually come from requests, so at most this many are cached per bundle type
+     */
+    private static final int MAX_CACHED_LOCALES = 64;
+
+    private static final Map<BundleType, Map<Locale, I18n>> CACHE = new EnumMap<>(BundleType.class);
+
+    static {
+        for (BundleType bundleType : BundleType.values()) {
+            CACHE.put(bundleType, new ConcurrentHashMap<>());
+        }
+    }
 
     /**
      * This enum is a type safe way to control what resource bundle to load from
@@ -33,28 +54,48 @@ public class I18n {
         }
     }
 
-    private final ResourceBundle resourceBundle;
+    private final BundleType bundleType;
     private final Locale locale;
+    private volatile ResourceBundle resourceBundle;
 
     @VisibleForTesting
     protected I18n(BundleType bundleType, Locale locale) {
         assertNotNull(bundleType);
         assertNotNull(locale);
+        this.bundleType = bundleType;
         this.locale = locale;
-        // load the resource bundle with this classes class loader - to help avoid confusion in complicated worlds
-        // like OSGI
-        this.resourceBundle = ResourceBundle.getBundle(bundleType.baseName, locale, I18n.class.getClassLoader());    }
+    }
 
     public Locale getLocale() {
         return locale;
     }
 
     public ResourceBundle getResourceBundle() {
+        ResourceBundle resourceBundle = this.resourceBundle;
+        if (resourceBundle == null) {
+            // load the resource bundle with this classes class loader - to help avoid confusion in complicated worlds
+            // like OSGI.  Loading it twice in a race is harmless since the JDK caches bundles too
+            resourceBundle = ResourceBundle.getBundle(bundleType.baseName, locale, I18n.class.getClassLoader());
+            this.resourceBundle = resourceBundle;
+        }
         return resourceBundle;
     }
 
     public static I18n i18n(BundleType bundleType, Locale locale) {
-        return new I18n(bundleType, locale);
+        assertNotNull(bundleType);
+        assertNotNull(locale);
+        Map<Locale, I18n> cache = CACHE.get(bundleType);
+        I18n i18n = cache.get(locale);
+        if (i18n == null) {
+            i18n = new I18n(bundleType, locale);
+            if (cache.size() < MAX_CACHED_LOCALES) {
+                I18n existing = cache.putIfAbsent(locale, i18n);
+                if (existing != null) {
+                    i18n = existing;
+                }
+            }
+        }
+        return i18n;
     }
 
 
@@ -85,7 +126,7 @@ public class I18n {
     private String msgImpl(String msgKey, Object[] msgArgs) {
         String msgPattern = null;
         try {
-            msgPattern = resourceBundle.getString(msgKey);
+            msgPattern = getResourceBundle().getString(msgKey);
         } catch (MissingResourceException e) {
             assertShouldNeverHappen("There must be a resource bundle key called %s", msgKey);
         }
@@ -0,0 +1,565 @@
+package graphql.language;
+
+import graphql.Assert;
+import graphql.ExperimentalApi;
+import graphql.parser.ParserOptions;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static graphql.Assert.assertNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * This encodes executable {@link Document}s, that is operations and fragments, into a compact binary form and decodes
+ * them again, so that parsed documents can be stored and shared without going through the {@link graphql.parser.Parser}.
+ * <p>
+ * All the names and literal values of a document are written once to a string table and referred to by index, and the
+ * node kinds, indexes and list sizes are written as variable length integers.  Source locations are optional, and
+ * comments, ignored chars and additional data are not encoded.
+ * <p>
+ * A decoded document is equal to the encoded one as compared by {@link AstComparator}.
+ */
+@ExperimentalApi
+public class AstBinaryEncoding {
+
+    private static final byte[] MAGIC = {'G', 'Q', 'L', 'B'};
+    private static final int VERSION = 1;
+    private static final int FLAG_SOURCE_LOCATIONS = 1;
+
+    // node kinds, where 0 is a null node
+    private static final int NULL = 0;
+    private static final int DOCUMENT = 1;
+    private static final int OPERATION_DEFINITION = 2;
+    private static final int FRAGMENT_DEFINITION = 3;
+    private static final int SELECTION_SET = 4;
+    private static final int FIELD = 5;
+    private static final int FRAGMENT_SPREAD = 6;
+    private static final int INLINE_FRAGMENT = 7;
+    private static final int DIRECTIVE = 8;
+    private static final int ARGUMENT = 9;
+    private static final int VARIABLE_DEFINITION = 10;
+    private static final int TYPE_NAME = 11;
+    private static final int LIST_TYPE = 12;
+    private static final int NON_NULL_TYPE = 13;
+    private static final int INT_VALUE = 14;
+    private static final int FLOAT_VALUE = 15;
+    private static final int STRING_VALUE = 16;
+    private static final int BOOLEAN_VALUE = 17;
+    private static final int NULL_VALUE = 18;
+    private static final int ENUM_VALUE = 19;
+    private static final int ARRAY_VALUE = 20;
+    private static final int OBJECT_VALUE = 21;
+    private static final int OBJECT_FIELD = 22;
+    private static final int VARIABLE_REFERENCE = 23;
+
+    // source locations, which can be missing or empty as well
+    private static final int NO_LOCATION = 0;
+    private static final int EMPTY_LOCATION = 1;
+    private static final int LOCATION = 2;
+
+    private static final OperationDefinition.Operation[] OPERATIONS = OperationDefinition.Operation.values();
+
+    // the decoder is recursive, so how deeply nodes can nest is limited to keep corrupt bytes from overflowing the stack.
+    // A field and its selection set are two levels, and this is well past what the parser allows by default
+    private static final int MAX_NODE_DEPTH = 2 * ParserOptions.MAX_RULE_DEPTH;
+
+    /**
+     * Encodes a document including its source locations
+     *
+     * @param document the executable document to encode
+     *
+     * @return the encoded document
+     */
+    public static byte[] encode(Document document) {
+        return encode(document, true);
+    }
+
+    /**
+     * Encodes a document
+     *
+     * @param document               the executable document to encode
+     * @param includeSourceLocations whether to encode the source locations of the nodes
+     *
+     * @return the encoded document
+     */
+    public static byte[] encode(Document document, boolean includeSourceLocations) {
+        assertNotNull(document);
+        Encoder encoder = new Encoder(includeSourceLocations);
+        encoder.writeNode(document);
+        return encoder.toByteArray();
+    }
+
+    /**
+     * Decodes a document that was encoded by {@link #encode(Document, boolean)}
+     *
+     * @param bytes the encoded document
+     *
+     * @return the decoded document
+     *
+     * @throws IOException if the bytes are not an encoded document, say because they are truncated or corrupt or nest too deeply
+     */
+    public static Document decode(byte[] bytes) throws IOException {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Decodes a document that was encoded by {@link #encode(Document, boolean)} from the remaining bytes of a buffer, which
+     * can be say a memory mapped file.  The position of the buffer is not changed.
+     *
+     * @param buffer the buffer holding the encoded document
+     *
+     * @return the decoded document
+     *
+     * @throws IOException if the bytes are not an encoded document, say because they are truncated or corrupt or nest too deeply
+     */
+    public static Document decode(ByteBuffer buffer) throws IOException {
+        Decoder decoder = new Decoder(buffer.duplicate());
+        Node<?> node = decoder.readNode();
+        if (!(node instanceof Document)) {
+            throw new IOException("The encoded AST is not a document");
+        }
+        return (Document) node;
+    }
+
+    private static class Encoder {
+        private final boolean includeSourceLocations;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final List<String> stringTable = new ArrayList<>();
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        Encoder(boolean includeSourceLocations) {
+            this.includeSourceLocations = includeSourceLocations;
+        }
+
+        byte[] toByteArray() {
+            List<byte[]> encodedStrings = new ArrayList<>(stringTable.size());
+            int stringBytes = 0;
+            for (String string : stringTable) {
+                byte[] encodedString = string.getBytes(UTF_8);
+                encodedStrings.add(encodedString);
+                stringBytes += encodedString.length + 5;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(MAGIC.length + 2 + 5 + stringBytes + size);
+            buffer.put(MAGIC);
+            buffer.put((byte) VERSION);
+            buffer.put((byte) (includeSourceLocations ? FLAG_SOURCE_LOCATIONS : 0));
+            putVarInt(buffer, encodedStrings.size());
+            for (byte[] encodedString : encodedStrings) {
+                putVarInt(buffer, encodedString.length);
+                buffer.put(encodedString);
+            }
+            buffer.put(bytes, 0, size);
+            return Arrays.copyOf(buffer.array(), buffer.position());
+        }
+
+        void writeNode(Node<?> node) {
+            if (node == null) {
+                writeVarInt(NULL);
+                return;
+            }
+            if (node instanceof Document) {
+                Document document = (Document) node;
+                writeHeader(DOCUMENT, node);
+                writeNodes(document.getDefinitions());
+            } else if (node instanceof OperationDefinition) {
+                OperationDefinition operationDefinition = (OperationDefinition) node;
+                writeHeader(OPERATION_DEFINITION, node);
+                writeVarInt(operationDefinition.getOperation().ordinal());
+                writeNullableString(operationDefinition.getName());
+                writeNodes(operationDefinition.getVariableDefinitions());
+                writeNodes(operationDefinition.getDirectives());
+                writeNode(operationDefinition.getSelectionSet());
+            } else if (node instanceof FragmentDefinition) {
+                FragmentDefinition fragmentDefinition = (FragmentDefinition) node;
+                writeHeader(FRAGMENT_DEFINITION, node);
+                writeString(fragmentDefinition.getName());
+                writeNode(fragmentDefinition.getTypeCondition());
+                writeNodes(fragmentDefinition.getDirectives());
+                writeNode(fragmentDefinition.getSelectionSet());
+            } else if (node instanceof SelectionSet) {
+                writeHeader(SELECTION_SET, node);
+                writeNodes(((SelectionSet) node).getSelections());
+            } else if (node instanceof Field) {
+                Field field = (Field) node;
+                writeHeader(FIELD, node);
+                writeNullableString(field.getAlias());
+                writeString(field.getName());
+                writeNodes(field.getArguments());
+                writeNodes(field.getDirectives());
+                writeNode(field.getSelectionSet());
+            } else if (node instanceof FragmentSpread) {
+                FragmentSpread fragmentSpread = (FragmentSpread) node;
+                writeHeader(FRAGMENT_SPREAD, node);
+                writeString(fragmentSpread.getName());
+                writeNodes(fragmentSpread.getDirectives());
+            } else if (node instanceof InlineFragment) {
+                InlineFragment inlineFragment = (InlineFragment) node;
+                writeHeader(INLINE_FRAGMENT, node);
+                writeNode(inlineFragment.getTypeCondition());
+                writeNodes(inlineFragment.getDirectives());
+                writeNode(inlineFragment.getSelectionSet());
+            } else if (node instanceof Directive) {
+                Directive directive = (Directive) node;
+                writeHeader(DIRECTIVE, node);
+                writeString(directive.getName());
+                writeNodes(directive.getArguments());
+            } else if (node instanceof Argument) {
+                Argument argument = (Argument) node;
+                writeHeader(ARGUMENT, node);
+                writeString(argument.getName());
+                writeNode(argument.getValue());
+            } else if (node instanceof VariableDefinition) {
+                VariableDefinition variableDefinition = (VariableDefinition) node;
+                writeHeader(VARIABLE_DEFINITION, node);
+                writeString(variableDefinition.getName());
+                writeNode(variableDefinition.getType());
+                writeNode(variableDefinition.getDefaultValue());
+                writeNodes(variableDefinition.getDirectives());
+            } else if (node instanceof TypeName) {
+                writeHeader(TYPE_NAME, node);
+                writeString(((TypeName) node).getName());
+            } else if (node instanceof ListType) {
+                writeHeader(LIST_TYPE, node);
+                writeNode(((ListType) node).getType());
+            } else if (node instanceof NonNullType) {
+                writeHeader(NON_NULL_TYPE, node);
+                writeNode(((NonNullType) node).getType());
+            } else if (node instanceof IntValue) {
+                writeHeader(INT_VALUE, node);
+                writeString(((IntValue) node).getValue().toString());
+            } else if (node instanceof FloatValue) {
+                writeHeader(FLOAT_VALUE, node);
+                writeString(((FloatValue) node).getValue().toString());
+            } else if (node instanceof StringValue) {
+                writeHeader(STRING_VALUE, node);
+                writeString(((StringValue) node).getValue());
+            } else if (node instanceof BooleanValue) {
+                writeHeader(BOOLEAN_VALUE, node);
+                writeVarInt(((BooleanValue) node).isValue() ? 1 : 0);
+            } else if (node instanceof NullValue) {
+                writeHeader(NULL_VALUE, node);
+            } else if (node instanceof EnumValue) {
+                writeHeader(ENUM_VALUE, node);
+                writeString(((EnumValue) node).getName());
+            } else if (node instanceof ArrayValue) {
+                writeHeader(ARRAY_VALUE, node);
+                writeNodes(((ArrayValue) node).getValues());
+            } else if (node instanceof ObjectValue) {
+                writeHeader(OBJECT_VALUE, node);
+                writeNodes(((ObjectValue) node).getObjectFields());
+            } else if (node instanceof ObjectField) {
+                ObjectField objectField = (ObjectField) node;
+                writeHeader(OBJECT_FIELD, node);
+                writeString(objectField.getName());
+                writeNode(objectField.getValue());
+            } else if (node instanceof VariableReference) {
+                writeHeader(VARIABLE_REFERENCE, node);
+                writeString(((VariableReference) node).getName());
+            } else {
+                Assert.assertShouldNeverHappen("Only executable documents can be encoded but found a %s", node.getClass().getSimpleName());
+            }
+        }
+
+        private void writeHeader(int kind, Node<?> node) {
+            writeVarInt(kind);
+            if (!includeSourceLocations) {
+                return;
+            }
+            SourceLocation sourceLocation = node.getSourceLocation();
+            if (sourceLocation == null) {
+                writeVarInt(NO_LOCATION);
+            } else if (sourceLocation == SourceLocation.EMPTY) {
+                writeVarInt(EMPTY_LOCATION);
+            } else {
+                writeVarInt(LOCATION);
+                writeVarInt(sourceLocation.getLine());
+                writeVarInt(sourceLocation.getColumn());
+                writeNullableString(sourceLocation.getSourceName());
+            }
+        }
+
+        private void writeNodes(List<? extends Node> nodes) {
+            writeVarInt(nodes.size());
+            for (Node<?> node : nodes) {
+                writeNode(node);
+            }
+        }
+
+        private void writeString(String string) {
+            writeVarInt(stringIndex(string));
+        }
+
+        private void writeNullableString(String string) {
+            writeVarInt(string == null ? 0 : stringIndex(string) + 1);
+        }
+
+        private int stringIndex(String string) {
+            Integer index = strings.get(string);
+            if (index == null) {
+                index = stringTable.size();
+                strings.put(string, index);
+                stringTable.add(string);
+            }
+            return index;
+        }
+
+        private void writeVarInt(int value) {
+            if (size + 5 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private static void putVarInt(ByteBuffer buffer, int value) {
+            while ((value & ~0x7F) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+    }
+
+    private static class Decoder {
+        private final ByteBuffer buffer;
+        private final boolean includesSourceLocations;
+        private final String[] strings;
+        private int depth;
+
+        // the lengths in the bytes are checked against what is left before anything is allocated for them, so that
+        // truncated or corrupt bytes fail with an IOException rather than say an OutOfMemoryError
+        Decoder(ByteBuffer buffer) throws IOException {
+            this.buffer = buffer;
+            for (byte magic : MAGIC) {
+                if (readByte() != magic) {
+                    throw new IOException("The bytes are not an encoded AST");
+                }
+            }
+            int version = readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported encoded AST version " + version);
+            }
+            this.includesSourceLocations = (readByte() & FLAG_SOURCE_LOCATIONS) != 0;
+            // every string takes at least one byte for its length
+            this.strings = new String[readLength()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] encodedString = new byte[readLength()];
+                buffer.get(encodedString);
+                strings[i] = new String(encodedString, UTF_8);
+            }
+        }
+
+        Node<?> readNode() throws IOException {
+            if (depth == MAX_NODE_DEPTH) {
+                throw new IOException("Encoded AST nodes are nested more than " + MAX_NODE_DEPTH + " deep");
+            }
+            depth++;
+            try {
+                return readNodeOfKind(readVarInt());
+            } finally {
+                depth--;
+            }
+        }
+
+        private Node<?> readNodeOfKind(int kind) throws IOException {
+            if (kind == NULL) {
+                return null;
+            }
+            SourceLocation sourceLocation = readSourceLocation();
+            switch (kind) {
+                case DOCUMENT:
+                    return Document.newDocument()
+                            .definitions(readNodes())
+                            .sourceLocation(sourceLocation)
+                            .build();
+                case OPERATION_DEFINITION:
+                    return OperationDefinition.newOperationDefinition()
+                            .operation(readOperation())
+                            .name(readNullableString())
+                            .variableDefinitions(readNodes())
+                            .directives(readNodes())
+                            .selectionSet((SelectionSet) readNode())
+                            .sourceLocation(sourceLocation)
+                            .build();
+                case FRAGMENT_DEFINITION:
+                    return FragmentDefinition.newFragmentDefinition()
+                            .name(readString())
+                            .typeCondition((TypeName) readNode())
+                            .directives(readNodes())
+                            .selectionSet((SelectionSet) readNode())
+                            .sourceLocation(sourceLocation)
+                            .build();
+                case SELECTION_SET:
+                    return SelectionSet.newSelectionSet()
+                            .selections(readNodes())
+                            .sourceLocation(sourceLocation)
+                            .build();
+                case FIELD:
+                    return Field.newField()
+                            .alias(readNullableString())
+                            .name(readString())
+                            .arguments(readNodes())
+                            .directives(readNodes())
+                            .selectionSet((SelectionSet) readNode())
+                            .sourceLocation(sourceLocation)
+                            .build();
+                case FRAGMENT_SPREAD:
+                    return FragmentSpread.newFragmentSpread()
+                            .name(readString())
+                            .directives(readNodes())
+                            .sourceLocation(sourceLocation)
+                            .build();
+                case INLINE_FRAGMENT:
+                    return InlineFragment.newInlineFragment()
+                            .typeCondition((TypeName) readNode())
+                            .directives(readNodes())
+                            .selectionSet((SelectionSet) readNode())
+                            .sourceLocation(sourceLocation)
+                            .build();
+                case DIRECTIVE:
+                    return Directive.newDirective()
+                            .name(readString())
+                            .arguments(readNodes())
+                            .sourceLocation(sourceLocation)
+                            .build();
+                case ARGUMENT:
+                    return Argument.newArgument()
+                            .name(readString())
+                            .value((Value) readNode())
+                            .sourceLocation(sourceLocation)
+                            .build();
+                case VARIABLE_DEFINITION:
+                    return VariableDefinition.newVariableDefinition()
+                            .name(readString())
+                            .type((Type) readNode())
+                            .defaultValue((Value) readNode())
+                            .directives(readNodes())
+                            .sourceLocation(sourceLocation)
+                            .build();
+                case TYPE_NAME:
+                    return TypeName.newTypeName().name(readString()).sourceLocation(sourceLocation).build();
+                case LIST_TYPE:
+                    return ListType.newListType().type((Type) readNode()).sourceLocation(sourceLocation).build();
+                case NON_NULL_TYPE:
+                    return NonNullType.newNonNullType().type((Type) readNode()).sourceLocation(sourceLocation).build();
+                case INT_VALUE:
+                    return IntValue.newIntValue().value(new BigInteger(readString())).sourceLocation(sourceLocation).build();
+                case FLOAT_VALUE:
+                    return FloatValue.newFloatValue().value(new BigDecimal(readString())).sourceLocation(sourceLocation).build();
+                case STRING_VALUE:
+                    return StringValue.newStringValue().value(readString()).sourceLocation(sourceLocation).build();
+                case BOOLEAN_VALUE:
+                    return BooleanValue.newBooleanValue().value(readVarInt() == 1).sourceLocation(sourceLocation).build();
+                case NULL_VALUE:
+                    return NullValue.newNullValue().sourceLocation(sourceLocation).build();
+                case ENUM_VALUE:
+                    return EnumValue.newEnumValue().name(readString()).sourceLocation(sourceLocation).build();
+                case ARRAY_VALUE:
+                    return ArrayValue.newArrayValue().values(readNodes()).sourceLocation(sourceLocation).build();
+                case OBJECT_VALUE:
+                    return ObjectValue.newObjectValue().objectFields(readNodes()).sourceLocation(sourceLocation).build();
+                case OBJECT_FIELD:
+                    return ObjectField.newObjectField()
+                            .name(readString())
+                            .value((Value) readNode())
+                            .sourceLocation(sourceLocation)
+                            .build();
+                case VARIABLE_REFERENCE:
+                    return VariableReference.newVariableReference().name(readString()).sourceLocation(sourceLocation).build();
+                default:
+                    throw new IOException("Unknown encoded AST node kind " + kind);
+            }
+        }
+
+        private OperationDefinition.Operation readOperation() throws IOException {
+            int index = readVarInt();
+            if (index < 0 || index >= OPERATIONS.length) {
+                throw new IOException("Unknown encoded AST operation " + index);
+            }
+            return OPERATIONS[index];
+        }
+
+        private SourceLocation readSourceLocation() throws IOException {
+            if (!includesSourceLocations) {
+                // the same as the parser gives when it does not capture source locations
+                return SourceLocation.EMPTY;
+            }
+            switch (readVarInt()) {
+                case NO_LOCATION:
+                    return null;
+                case EMPTY_LOCATION:
+                    return SourceLocation.EMPTY;
+                default:
+                    int line = readVarInt();
+                    int column = readVarInt();
+                    return new SourceLocation(line, column, readNullableString());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> List<T> readNodes() throws IOException {
+            // every node takes at least one byte for its kind
+            int size = readLength();
+            List<T> nodes = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                nodes.add((T) readNode());
+            }
+            return nodes;
+        }
+
+        private String readString() throws IOException {
+            return string(readVarInt());
+        }
+
+        private String readNullableString() throws IOException {
+            int index = readVarInt();
+            return index == 0 ? null : string(index - 1);
+        }
+
+        private String string(int index) throws IOException {
+            if (index < 0 || index >= strings.length) {
+                throw new IOException("Encoded AST string index " + index + " is out of range");
+            }
+            return strings[index];
+        }
+
+        private int readLength() throws IOException {
+            int length = readVarInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IOException("Encoded AST length " + length + " is more than the " + buffer.remaining() + " bytes left");
+            }
+            return length;
+        }
+
+        private byte readByte() throws IOException {
+            if (!buffer.hasRemaining()) {
+                throw new IOException("The encoded AST is truncated");
+            }
+            return buffer.get();
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable length integer in encoded AST");
+        }
+    }
+}
@@ -66,6 +66,20 @@ public class AstSignature {
         );
     }
 
+    /**
+     * This produces a canonical AST that keeps every operation, field alias and literal value of the document but sorts
+     * its definitions, selections, arguments and directives.  Unlike a signature, two documents with the same canonical
+     * query are the same query in every respect other than their source locations, so say their validity against a
+     * schema can be shared.
+     *
+     * @param document the document to make a canonical query from
+     *
+     * @return the canonical query in document form
+     */
+    public Document canonicalQuery(Document document) {
+        return sortAST(document);
+    }
+
     private Document hideLiterals(boolean signatureMode, Document document) {
         final Map<String, String> variableRemapping = new HashMap<>();
         final AtomicInteger variableCount = new AtomicInteger();
@@ -53,6 +53,10 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -85,6 +89,7 @@ public class ExecutableNormalizedOperationFactory {
         private final int maxFieldsCount;
 
         private final boolean deferSupport;
+        private final ForkJoinPool forkJoinPool;
 
         /**
          * The default max fields count is 100,000.
@@ -96,18 +101,21 @@ public class ExecutableNormalizedOperationFactory {
                 Locale.getDefault(),
                 Integer.MAX_VALUE,
                 DEFAULT_MAX_FIELDS_COUNT,
-                false);
+                false,
+                null);
 
         private Options(GraphQLContext graphQLContext,
                         Locale locale,
                         int maxChildrenDepth,
                         int maxFieldsCount,
-                        boolean deferSupport) {
+                        boolean deferSupport,
+                        ForkJoinPool forkJoinPool) {
             this.graphQLContext = graphQLContext;
             this.locale = locale;
             this.maxChildrenDepth = maxChildrenDepth;
             this.deferSupport = deferSupport;
             this.maxFieldsCount = maxFieldsCount;
+            this.forkJoinPool = forkJoinPool;
         }
 
         /**
@@ -139,7 +147,7 @@ public class ExecutableNormalizedOperationFactory {
          * @return new options object to use
          */
         public Options locale(Locale locale) {
-            return new Options(this.graphQLContext, locale, this.maxChildrenDepth, this.maxFieldsCount, this.deferSupport);
+            return new Options(this.graphQLContext, locale, this.maxChildrenDepth, this.maxFieldsCount, this.deferSupport, this.forkJoinPool);
         }
 
         /**
@@ -152,7 +160,7 @@ public class ExecutableNormalizedOperationFactory {
          * @return new options object to use
          */
         public Options graphQLContext(GraphQLContext graphQLContext) {
-            return new Options(graphQLContext, this.locale, this.maxChildrenDepth, this.maxFieldsCount, this.deferSupport);
+            return new Options(graphQLContext, this.locale, this.maxChildrenDepth, this.maxFieldsCount, this.deferSupport, this.forkJoinPool);
         }
 
         /**
@@ -164,7 +172,7 @@ public class ExecutableNormalizedOperationFactory {
          * @return new options object to use
          */
         public Options maxChildrenDepth(int maxChildrenDepth) {
-            return new Options(this.graphQLContext, this.locale, maxChildrenDepth, this.maxFieldsCount, this.deferSupport);
+            return new Options(this.graphQLContext, this.locale, maxChildrenDepth, this.maxFieldsCount, this.deferSupport, this.forkJoinPool);
         }
 
         /**
@@ -176,7 +184,7 @@ public class ExecutableNormalizedOperationFactory {
          * @return new options object to use
          */
         public Options maxFieldsCount(int maxFieldsCount) {
-            return new Options(this.graphQLContext, this.locale, this.maxChildrenDepth, maxFieldsCount, this.deferSupport);
+            return new Options(this.graphQLContext, this.locale, this.maxChildrenDepth, maxFieldsCount, this.deferSupport, this.forkJoinPool);
         }
 
         /**
@@ -188,7 +196,23 @@ public class ExecutableNormalizedOperationFactory {
          */
         @ExperimentalApi
         public Options deferSupport(boolean deferSupport) {
-            return new Options(this.graphQLContext, this.locale, this.maxChildrenDepth, this.maxFieldsCount, deferSupport);
+            return new Options(this.graphQLContext, this.locale, this.maxChildrenDepth, this.maxFieldsCount, deferSupport, this.forkJoinPool);
+        }
+
+        /**
+         * Builds the fields under each of the top level fields of an operation as separate tasks in the given pool,
+         * which can make very large operations quicker to create.  The operation that is created is the same as
+         * when it is built on one thread, and the maximum field count and depth are enforced in the same way.
+         * Operations with a single top level field are always built on the calling thread.
+         *
+         * @param forkJoinPool the pool to build the fields in, or null to build them on the calling thread, which
+         *                     is the default
+         *
+         * @return new options object to use
+         */
+        @ExperimentalApi
+        public Options forkJoinPool(ForkJoinPool forkJoinPool) {
+            return new Options(this.graphQLContext, this.locale, this.maxChildrenDepth, this.maxFieldsCount, this.deferSupport, forkJoinPool);
         }
 
         /**
@@ -231,6 +255,16 @@ public class ExecutableNormalizedOperationFactory {
         public boolean getDeferSupport() {
             return deferSupport;
         }
+
+        /**
+         * @return the pool that fields are built in or null if they are built on the calling thread
+         *
+         * @see #forkJoinPool(ForkJoinPool)
+         */
+        @ExperimentalApi
+        public ForkJoinPool getForkJoinPool() {
+            return forkJoinPool;
+        }
     }
 
     private static final ConditionalNodes conditionalNodes = new ConditionalNodes();
@@ -344,6 +378,33 @@ public class ExecutableNormalizedOperationFactory {
         ).createNormalizedQueryImpl();
     }
 
+    /**
+     * This will create a reusable template of the runtime representation of the graphql operation, which can then be
+     * {@link ExecutableNormalizedOperationTemplate#rebind(CoercedVariables) rebound} to new variable values that have the
+     * same {@code @skip} and {@code @include} variable values.
+     *
+     * @param graphQLSchema         the schema to be used
+     * @param operationDefinition   the operation to be executed
+     * @param fragments             a set of fragments associated with the operation
+     * @param coercedVariableValues the coerced variables to use
+     * @param options               the options to use
+     *
+     * @return a template of the runtime representation of the graphql operation.
+     */
+    @ExperimentalApi
+    public static ExecutableNormalizedOperationTemplate createExecutableNormalizedOperationTemplate(GraphQLSchema graphQLSchema,
+                                                                                                    OperationDefinition operationDefinition,
+                                                                                                    Map<String, FragmentDefinition> fragments,
+                                                                                                    CoercedVariables coercedVariableValues,
+                                                                                                    Options options) {
+        ExecutableNormalizedOperation operation = createExecutableNormalizedOperation(graphQLSchema,
+                operationDefinition,
+                fragments,
+                coercedVariableValues,
+                options);
+        return new ExecutableNormalizedOperationTemplate(graphQLSchema, options, operation, coercedVariableValues);
+    }
+
     /**
      * This will create a runtime representation of the graphql operation that would be executed
      * in a runtime sense.
@@ -454,7 +515,8 @@ public class ExecutableNormalizedOperationFactory {
         private final ImmutableMap.Builder<ExecutableNormalizedField, MergedField> normalizedFieldToMergedField = ImmutableMap.builder();
         private final ImmutableMap.Builder<ExecutableNormalizedField, QueryDirectives> normalizedFieldToQueryDirectives = ImmutableMap.builder();
         private final ImmutableListMultimap.Builder<FieldCoordinates, ExecutableNormalizedField> coordinatesToNormalizedFields = ImmutableListMultimap.builder();
-        private int fieldCount = 0;
+        // shared with the builders of the other top level fields when they are built in parallel
+        private final AtomicInteger fieldCount;
         private int maxDepthSeen = 0;
 
         private ExecutableNormalizedOperationFactoryImpl(
@@ -471,6 +533,20 @@ public class ExecutableNormalizedOperationFactory {
             this.coercedVariableValues = coercedVariableValues;
             this.normalizedVariableValues = normalizedVariableValues;
             this.options = options;
+            this.fieldCount = new AtomicInteger();
+        }
+
+        /*
+         * A builder of the fields under one top level field, which shares the field count with the builder of the operation
+         */
+        private ExecutableNormalizedOperationFactoryImpl(ExecutableNormalizedOperationFactoryImpl operationImpl) {
+            this.graphQLSchema = operationImpl.graphQLSchema;
+            this.operationDefinition = operationImpl.operationDefinition;
+            this.fragments = operationImpl.fragments;
+            this.coercedVariableValues = operationImpl.coercedVariableValues;
+            this.normalizedVariableValues = operationImpl.normalizedVariableValues;
+            this.options = operationImpl.options;
+            this.fieldCount = operationImpl.fieldCount;
         }
 
         /**
@@ -481,20 +557,12 @@ public class ExecutableNormalizedOperationFactory {
 
             CollectNFResult collectFromOperationResult = collectFromOperation(rootType);
 
-            for (ExecutableNormalizedField topLevel : collectFromOperationResult.children) {
-                ImmutableList<FieldAndAstParent> fieldAndAstParents = collectFromOperationResult.normalizedFieldToAstFields.get(topLevel);
-                MergedField mergedField = newMergedField(fieldAndAstParents);
-
-                captureMergedField(topLevel, mergedField);
-
-                updateFieldToNFMap(topLevel, fieldAndAstParents);
-                updateCoordinatedToNFMap(topLevel);
-
-                int depthSeen = buildFieldWithChildren(
-                        topLevel,
-                        fieldAndAstParents,
-                        1);
-                maxDepthSeen = Math.max(maxDepthSeen, depthSeen);
+            if (options.getForkJoinPool() != null && collectFromOperationResult.children.size() > 1) {
+                buildTopLevelFieldsInParallel(collectFromOperationResult);
+            } else {
+                for (ExecutableNormalizedField topLevel : collectFromOperationResult.children) {
+                    buildTopLevelField(topLevel, collectFromOperationResult.normalizedFieldToAstFields.get(topLevel));
+                }
             }
             // getPossibleMergerList
             for (PossibleMerger possibleMerger : possibleMergerList) {
@@ -509,11 +577,73 @@ public class ExecutableNormalizedOperationFactory {
                     normalizedFieldToMergedField.build(),
                     normalizedFieldToQueryDirectives.build(),
                     coordinatesToNormalizedFields.build(),
-                    fieldCount,
+                    fieldCount.get(),
                     maxDepthSeen
             );
         }
 
+        private void buildTopLevelField(ExecutableNormalizedField topLevel, ImmutableList<FieldAndAstParent> fieldAndAstParents) {
+            MergedField mergedField = newMergedField(fieldAndAstParents);
+
+            captureMergedField(topLevel, mergedField);
+
+            updateFieldToNFMap(topLevel, fieldAndAstParents);
+            updateCoordinatedToNFMap(topLevel);
+
+            int depthSeen = buildFieldWithChildren(
+                    topLevel,
+                    fieldAndAstParents,
+                    1);
+            maxDepthSeen = Math.max(maxDepthSeen, depthSeen);
+        }
+
+        /*
+         * Each top level field is built by its own builder in the fork join pool, and their results are then added
+         * in the order of the top level fields, which is the order the serial build would have added them in
+         */
+        private void buildTopLevelFieldsInParallel(CollectNFResult collectFromOperationResult) {
+            List<ExecutableNormalizedField> topLevelFields = new ArrayList<>(collectFromOperationResult.children);
+            List<ExecutableNormalizedOperationFactoryImpl> topLevelImpls = new ArrayList<>(topLevelFields.size());
+            RuntimeException[] failures = new RuntimeException[topLevelFields.size()];
+            List<RecursiveAction> tasks = new ArrayList<>(topLevelFields.size());
+            for (int i = 0; i < topLevelFields.size(); i++) {
+                ExecutableNormalizedField topLevel = topLevelFields.get(i);
+                ExecutableNormalizedOperationFactoryImpl topLevelImpl = new ExecutableNormalizedOperationFactoryImpl(this);
+                topLevelImpls.add(topLevelImpl);
+                int index = i;
+                tasks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        try {
+                            topLevelImpl.buildTopLevelField(topLevel, collectFromOperationResult.normalizedFieldToAstFields.get(topLevel));
+                        } catch (RuntimeException e) {
+                            failures[index] = e;
+                        }
+                    }
+                });
+            }
+            options.getForkJoinPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(tasks);
+                }
+            });
+            // report the failure of the first field that failed, as the serial build would have
+            for (RuntimeException failure : failures) {
+                if (failure != null) {
+                    throw failure;
+                }
+            }
+            for (ExecutableNormalizedOperationFactoryImpl topLevelImpl : topLevelImpls) {
+                possibleMergerList.addAll(topLevelImpl.possibleMergerList);
+                fieldToNormalizedField.putAll(topLevelImpl.fieldToNormalizedField.build());
+                normalizedFieldToMergedField.putAll(topLevelImpl.normalizedFieldToMergedField.build());
+                normalizedFieldToQueryDirectives.putAll(topLevelImpl.normalizedFieldToQueryDirectives.build());
+                coordinatesToNormalizedFields.putAll(topLevelImpl.coordinatesToNormalizedFields.build());
+                maxDepthSeen = Math.max(maxDepthSeen, topLevelImpl.maxDepthSeen);
+            }
+        }
+
         private void captureMergedField(ExecutableNormalizedField enf, MergedField mergedFld) {
             // QueryDirectivesImpl is a lazy object and only computes itself when asked for
             QueryDirectives queryDirectives = new QueryDirectivesImpl(mergedFld, graphQLSchema, coercedVariableValues.toMap(), options.getGraphQLContext(), options.getLocale());
@@ -661,9 +791,10 @@ public class ExecutableNormalizedOperationFactory {
                                                    int level,
                                                    ExecutableNormalizedField parent) {
 
-            this.fieldCount++;
-            if (this.fieldCount > this.options.getMaxFieldsCount()) {
-                throw new AbortExecutionException("Maximum field count exceeded. " + this.fieldCount + " > " + this.options.getMaxFieldsCount());
+            if (this.fieldCount.incrementAndGet() > this.options.getMaxFieldsCount()) {
+                // in a parallel build other fields may have been counted past the limit as well, but the limit is
+                // always first exceeded by one field
+                throw new AbortExecutionException("Maximum field count exceeded. " + (this.options.getMaxFieldsCount() + 1) + " > " + this.options.getMaxFieldsCount());
             }
             Field field;
             Set<GraphQLObjectType> objectTypes = collectedFieldGroup.objectTypes;
@@ -0,0 +1,204 @@
+package graphql.normalized;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import graphql.ExperimentalApi;
+import graphql.ThreadSafe;
+import graphql.collect.ImmutableKit;
+import graphql.execution.CoercedVariables;
+import graphql.execution.MergedField;
+import graphql.execution.ValuesResolver;
+import graphql.execution.directives.QueryDirectives;
+import graphql.execution.directives.QueryDirectivesImpl;
+import graphql.introspection.Introspection;
+import graphql.language.Argument;
+import graphql.language.ArrayValue;
+import graphql.language.Directive;
+import graphql.language.Field;
+import graphql.language.ObjectField;
+import graphql.language.ObjectValue;
+import graphql.language.Value;
+import graphql.language.VariableReference;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLSchema;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static graphql.Assert.assertNotNull;
+
+/**
+ * A {@link ExecutableNormalizedOperation} template is the part of a normalized operation that does not depend on the
+ * values of its variables, other than those used in {@code @skip} and {@code @include} directives.  The fields, how they
+ * were merged and which object types they apply to are all worked out once, when the template is made, and
+ * {@link #rebind(CoercedVariables)} then gives the operation for new variable values by only resolving the arguments
+ * and directives of the fields again.
+ * <p>
+ * A template is only valid for the schema, the operation, the {@link ExecutableNormalizedOperationFactory.Options} and
+ * the {@code @skip} and {@code @include} variable values it was made with.  It is up to the caller to keep those the
+ * same, which is what {@link graphql.execution.ExecutionPlan} does when it caches templates alongside a
+ * {@link graphql.execution.preparsed.PreparsedDocumentEntry}.
+ * <p>
+ * When the variables used by the arguments and directives of the fields have the same values as those the template was
+ * made with, the very same operation is given back, so the operations from a template must not be changed.
+ */
+@ExperimentalApi
+@ThreadSafe
+public class ExecutableNormalizedOperationTemplate {
+
+    private final GraphQLSchema graphQLSchema;
+    private final ExecutableNormalizedOperationFactory.Options options;
+    private final ExecutableNormalizedOperation operation;
+    private final CoercedVariables coercedVariables;
+    // the variables that the arguments and directives of the fields refer to
+    private final Set<String> fieldVariableNames = new LinkedHashSet<>();
+    // the fields whose arguments refer to variables, and their definitions
+    private final Map<ExecutableNormalizedField, GraphQLFieldDefinition> fieldsWithVariableArguments = new IdentityHashMap<>();
+
+    ExecutableNormalizedOperationTemplate(GraphQLSchema graphQLSchema,
+                                          ExecutableNormalizedOperationFactory.Options options,
+                                          ExecutableNormalizedOperation operation,
+                                          CoercedVariables coercedVariables) {
+        this.graphQLSchema = assertNotNull(graphQLSchema);
+        this.options = assertNotNull(options);
+        this.operation = assertNotNull(operation);
+        this.coercedVariables = assertNotNull(coercedVariables);
+        for (ExecutableNormalizedField topLevelField : operation.getTopLevelFields()) {
+            topLevelField.traverseSubTree(this::findVariables);
+            findVariables(topLevelField);
+        }
+    }
+
+    private void findVariables(ExecutableNormalizedField field) {
+        Set<String> argumentVariableNames = new LinkedHashSet<>();
+        for (Argument argument : field.getAstArguments()) {
+            collectVariableNames(argument.getValue(), argumentVariableNames);
+        }
+        if (!argumentVariableNames.isEmpty()) {
+            fieldVariableNames.addAll(argumentVariableNames);
+            String objectTypeName = field.getObjectTypeNames().iterator().next();
+            fieldsWithVariableArguments.put(field, Introspection.getFieldDefinition(graphQLSchema, graphQLSchema.getObjectType(objectTypeName), field.getName()));
+        }
+        MergedField mergedField = operation.getMergedField(field);
+        if (mergedField != null) {
+            for (Field astField : mergedField.getFields()) {
+                for (Directive directive : astField.getDirectives()) {
+                    for (Argument argument : directive.getArguments()) {
+                        collectVariableNames(argument.getValue(), fieldVariableNames);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void collectVariableNames(Value<?> value, Set<String> names) {
+        if (value instanceof VariableReference) {
+            names.add(((VariableReference) value).getName());
+        } else if (value instanceof ArrayValue) {
+            for (Value<?> element : ((ArrayValue) value).getValues()) {
+                collectVariableNames(element, names);
+            }
+        } else if (value instanceof ObjectValue) {
+            for (ObjectField objectField : ((ObjectValue) value).getObjectFields()) {
+                collectVariableNames(objectField.getValue(), names);
+            }
+        }
+    }
+
+    /**
+     * @return the options the template was made with
+     */
+    public ExecutableNormalizedOperationFactory.Options getOptions() {
+        return options;
+    }
+
+    /**
+     * @return the names of the variables that the arguments and directives of the fields refer to
+     */
+    public Set<String> getFieldVariableNames() {
+        return fieldVariableNames;
+    }
+
+    /**
+     * Gives the operation for the given variable values, which must have the same {@code @skip} and {@code @include}
+     * variable values as those the template was made with
+     *
+     * @param coercedVariables the coerced variables of the operation
+     *
+     * @return the operation for these variables
+     */
+    public ExecutableNormalizedOperation rebind(CoercedVariables coercedVariables) {
+        if (sameFieldVariables(coercedVariables)) {
+            return operation;
+        }
+
+        // copy the fields, resolving the arguments that refer to variables again.  Fields that were merged into
+        // others are no longer in the tree, but are still in the maps of the operation, so they are kept as they are
+        Map<ExecutableNormalizedField, ExecutableNormalizedField> copies = new IdentityHashMap<>();
+        List<ExecutableNormalizedField> topLevelFields = new ArrayList<>();
+        for (ExecutableNormalizedField topLevelField : operation.getTopLevelFields()) {
+            topLevelFields.add(copy(topLevelField, null, coercedVariables, copies));
+        }
+
+        ImmutableListMultimap.Builder<Field, ExecutableNormalizedField> fieldToNormalizedField = ImmutableListMultimap.builder();
+        operation.getFieldToNormalizedField().forEach((field, normalizedField) -> fieldToNormalizedField.put(field, copies.getOrDefault(normalizedField, normalizedField)));
+        ImmutableListMultimap.Builder<FieldCoordinates, ExecutableNormalizedField> coordinatesToNormalizedFields = ImmutableListMultimap.builder();
+        operation.getCoordinatesToNormalizedFields().forEach((coordinates, normalizedField) -> coordinatesToNormalizedFields.put(coordinates, copies.getOrDefault(normalizedField, normalizedField)));
+        ImmutableMap.Builder<ExecutableNormalizedField, MergedField> normalizedFieldToMergedField = ImmutableMap.builder();
+        ImmutableMap.Builder<ExecutableNormalizedField, QueryDirectives> normalizedFieldToQueryDirectives = ImmutableMap.builder();
+        operation.getNormalizedFieldToMergedField().forEach((normalizedField, mergedField) -> {
+            ExecutableNormalizedField copy = copies.getOrDefault(normalizedField, normalizedField);
+            normalizedFieldToMergedField.put(copy, mergedField);
+            normalizedFieldToQueryDirectives.put(copy, new QueryDirectivesImpl(mergedField, graphQLSchema, coercedVariables.toMap(), options.getGraphQLContext(), options.getLocale()));
+        });
+
+        return new ExecutableNormalizedOperation(
+                operation.getOperation(),
+                operation.getOperationName(),
+                topLevelFields,
+                fieldToNormalizedField.build(),
+                normalizedFieldToMergedField.build(),
+                normalizedFieldToQueryDirectives.build(),
+                coordinatesToNormalizedFields.build(),
+                operation.getOperationFieldCount(),
+                operation.getOperationDepth());
+    }
+
+    private boolean sameFieldVariables(CoercedVariables coercedVariables) {
+        for (String name : fieldVariableNames) {
+            if (this.coercedVariables.containsKey(name) != coercedVariables.containsKey(name)
+                    || !Objects.equals(this.coercedVariables.get(name), coercedVariables.get(name))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ExecutableNormalizedField copy(ExecutableNormalizedField field,
+                                           ExecutableNormalizedField parent,
+                                           CoercedVariables coercedVariables,
+                                           Map<ExecutableNormalizedField, ExecutableNormalizedField> copies) {
+        GraphQLFieldDefinition fieldDefinition = fieldsWithVariableArguments.get(field);
+        ExecutableNormalizedField copy = field.transform(builder -> {
+            builder.parent(parent).children(ImmutableKit.emptyList());
+            if (fieldDefinition != null) {
+                builder.resolvedArguments(ValuesResolver.getArgumentValues(fieldDefinition.getArguments(),
+                        field.getAstArguments(),
+                        coercedVariables,
+                        options.getGraphQLContext(),
+                        options.getLocale()));
+            }
+        });
+        copies.put(field, copy);
+        for (ExecutableNormalizedField child : field.getChildren()) {
+            copy.addChild(copy(child, copy, coercedVariables, copies));
+        }
+        return copy;
+    }
+}
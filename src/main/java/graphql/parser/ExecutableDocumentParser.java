@@ -0,0 +1,756 @@
+package graphql.parser;
+
+import graphql.Internal;
+import graphql.i18n.I18n;
+import graphql.language.Argument;
+import graphql.language.ArrayValue;
+import graphql.language.BooleanValue;
+import graphql.language.Definition;
+import graphql.language.Directive;
+import graphql.language.Document;
+import graphql.language.EnumValue;
+import graphql.language.Field;
+import graphql.language.FloatValue;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.IntValue;
+import graphql.language.ListType;
+import graphql.language.NonNullType;
+import graphql.language.NullValue;
+import graphql.language.ObjectField;
+import graphql.language.ObjectValue;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.SourceLocation;
+import graphql.language.StringValue;
+import graphql.language.Type;
+import graphql.language.TypeName;
+import graphql.language.Value;
+import graphql.language.VariableDefinition;
+import graphql.language.VariableReference;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static graphql.collect.ImmutableKit.emptyList;
+import static graphql.parser.StringValueParsing.parseSingleQuotedString;
+import static graphql.parser.StringValueParsing.parseTripleQuotedString;
+
+/**
+ * A hand written recursive descent parser for executable documents, that is operations and fragments, which lexes and
+ * builds the AST in a single pass over the text.  It builds exactly the AST that {@link GraphqlAntlrToLanguage} builds
+ * for the same text, including the source locations.
+ * <p>
+ * It only handles documents that the ANTLR parser would parse without error.  For anything else, be it SDL, a syntax
+ * error or a document that comes close to the {@link ParserOptions} limits, it gives up and returns null so the
+ * {@link Parser} can hand the document to the ANTLR parser, which then decides what the result or error is.
+ */
+@Internal
+class ExecutableDocumentParser {
+
+    // the ANTLR rule depth is worked out as the document is parsed, and this leaves some room for where it is over counted
+    private static final int RULE_DEPTH_SLACK = 4;
+
+    private static final CannotParse CANNOT_PARSE = new CannotParse();
+
+    // the punctuator tokens use their character as their kind
+    private static final int EOF = -1;
+    private static final int NAME = -2;
+    private static final int INT = -3;
+    private static final int FLOAT = -4;
+    private static final int STRING = -5;
+    private static final int BLOCK_STRING = -6;
+    private static final int SPREAD = -7;
+
+    private final String text;
+    private final int length;
+    private final I18n i18n;
+    private final boolean captureSourceLocation;
+    private final boolean captureLineComments;
+    private final int maxTokens;
+    private final int maxWhitespaceTokens;
+    private final int maxRuleDepth;
+
+    private int pos;
+    private int line = 1;
+    private int lineStart;
+    // columns are counted in code points like ANTLR does, so supplementary characters count once
+    private int lineSupplementaryChars;
+
+    private int tokenKind;
+    private int tokenStart;
+    private int tokenEnd;
+    private int tokenLine;
+    private int tokenColumn;
+
+    private int grammarTokens;
+    private int whitespaceTokens;
+    private int commentTokens;
+
+    private ExecutableDocumentParser(String text, ParserOptions parserOptions, I18n i18n) {
+        this.text = text;
+        this.length = text.length();
+        this.i18n = i18n;
+        this.captureSourceLocation = parserOptions.isCaptureSourceLocation();
+        this.captureLineComments = parserOptions.isCaptureLineComments();
+        this.maxTokens = parserOptions.getMaxTokens();
+        this.maxWhitespaceTokens = parserOptions.getMaxWhitespaceTokens();
+        this.maxRuleDepth = parserOptions.getMaxRuleDepth() - RULE_DEPTH_SLACK;
+    }
+
+    /**
+     * Parses an executable document
+     *
+     * @param text          the document text
+     * @param parserOptions the parser options
+     * @param i18n          the i18n to produce string value errors with
+     *
+     * @return the document or null if it has to be parsed by the ANTLR parser
+     */
+    static Document parse(String text, ParserOptions parserOptions, I18n i18n) {
+        try {
+            return new ExecutableDocumentParser(text, parserOptions, i18n).parseDocument();
+        } catch (CannotParse | InvalidSyntaxException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Document parseDocument() {
+        next();
+        SourceLocation sourceLocation = location();
+        List<Definition> definitions = new ArrayList<>();
+        do {
+            definitions.add(parseDefinition(2));
+        } while (tokenKind != EOF);
+        return Document.newDocument().definitions(definitions).sourceLocation(sourceLocation).build();
+    }
+
+    private Definition parseDefinition(int depth) {
+        if (tokenKind == '{' || isKeyword("query") || isKeyword("mutation") || isKeyword("subscription")) {
+            return parseOperationDefinition(depth + 1);
+        }
+        if (isKeyword("fragment")) {
+            return parseFragmentDefinition(depth + 1);
+        }
+        // type system definitions and extensions are left to the ANTLR parser
+        throw CANNOT_PARSE;
+    }
+
+    private OperationDefinition parseOperationDefinition(int depth) {
+        SourceLocation sourceLocation = location();
+        OperationDefinition.Builder operationDefinition = OperationDefinition.newOperationDefinition().sourceLocation(sourceLocation);
+        if (tokenKind == '{') {
+            return operationDefinition.operation(OperationDefinition.Operation.QUERY)
+                    .variableDefinitions(emptyList())
+                    .directives(emptyList())
+                    .selectionSet(parseSelectionSet(depth + 1))
+                    .build();
+        }
+        operationDefinition.operation(parseOperation(name()));
+        if (tokenKind == NAME) {
+            checkDepth(depth + 2);
+            operationDefinition.name(name());
+        }
+        operationDefinition.variableDefinitions(parseVariableDefinitions(depth + 1));
+        operationDefinition.directives(parseDirectives(depth + 1));
+        operationDefinition.selectionSet(parseSelectionSet(depth + 1));
+        return operationDefinition.build();
+    }
+
+    private static OperationDefinition.Operation parseOperation(String operationType) {
+        switch (operationType) {
+            case "query":
+                return OperationDefinition.Operation.QUERY;
+            case "mutation":
+                return OperationDefinition.Operation.MUTATION;
+            default:
+                return OperationDefinition.Operation.SUBSCRIPTION;
+        }
+    }
+
+    private FragmentDefinition parseFragmentDefinition(int depth) {
+        SourceLocation sourceLocation = location();
+        next();
+        checkDepth(depth + 4);
+        // a fragment can't be called "on"
+        if (isKeyword("on")) {
+            throw CANNOT_PARSE;
+        }
+        String name = name();
+        if (!isKeyword("on")) {
+            throw CANNOT_PARSE;
+        }
+        next();
+        // like the ANTLR parser the type condition of a fragment definition has no source location
+        TypeName typeCondition = TypeName.newTypeName().name(name()).build();
+        List<Directive> directives = parseDirectives(depth + 1);
+        SelectionSet selectionSet = parseSelectionSet(depth + 1);
+        return FragmentDefinition.newFragmentDefinition()
+                .name(name)
+                .typeCondition(typeCondition)
+                .directives(directives)
+                .selectionSet(selectionSet)
+                .sourceLocation(sourceLocation)
+                .build();
+    }
+
+    private List<VariableDefinition> parseVariableDefinitions(int depth) {
+        if (tokenKind != '(') {
+            return emptyList();
+        }
+        next();
+        List<VariableDefinition> variableDefinitions = new ArrayList<>();
+        do {
+            variableDefinitions.add(parseVariableDefinition(depth + 1));
+        } while (tokenKind != ')');
+        next();
+        return variableDefinitions;
+    }
+
+    private VariableDefinition parseVariableDefinition(int depth) {
+        SourceLocation sourceLocation = location();
+        expect('$');
+        checkDepth(depth + 3);
+        VariableDefinition.Builder variableDefinition = VariableDefinition.newVariableDefinition()
+                .name(name())
+                .sourceLocation(sourceLocation);
+        expect(':');
+        variableDefinition.type(parseType(depth + 1));
+        if (tokenKind == '=') {
+            next();
+            variableDefinition.defaultValue(parseValue(depth + 2, false));
+        }
+        variableDefinition.directives(parseDirectives(depth + 1));
+        return variableDefinition.build();
+    }
+
+    private Type<?> parseType(int depth) {
+        checkDepth(depth);
+        SourceLocation sourceLocation = location();
+        Type<?> type;
+        if (tokenKind == '[') {
+            next();
+            // a non null list type is one rule deeper than a nullable one, so count that for all of them
+            Type<?> wrappedType = parseType(depth + 3);
+            expect(']');
+            type = ListType.newListType().type(wrappedType).sourceLocation(sourceLocation).build();
+        } else {
+            checkDepth(depth + 4);
+            type = TypeName.newTypeName().name(name()).sourceLocation(sourceLocation).build();
+        }
+        if (tokenKind == '!') {
+            next();
+            type = NonNullType.newNonNullType().type(type).sourceLocation(sourceLocation).build();
+        }
+        return type;
+    }
+
+    private SelectionSet parseSelectionSet(int depth) {
+        checkDepth(depth);
+        SourceLocation sourceLocation = location();
+        expect('{');
+        List<Selection> selections = new ArrayList<>();
+        do {
+            if (tokenKind == SPREAD) {
+                selections.add(parseFragment(depth + 2));
+            } else {
+                selections.add(parseField(depth + 2));
+            }
+        } while (tokenKind != '}');
+        next();
+        return SelectionSet.newSelectionSet().selections(selections).sourceLocation(sourceLocation).build();
+    }
+
+    private Field parseField(int depth) {
+        SourceLocation sourceLocation = location();
+        checkDepth(depth + 3);
+        String name = name();
+        String alias = null;
+        if (tokenKind == ':') {
+            next();
+            alias = name;
+            name = name();
+        }
+        List<Argument> arguments = parseArguments(depth + 1);
+        List<Directive> directives = parseDirectives(depth + 1);
+        SelectionSet selectionSet = tokenKind == '{' ? parseSelectionSet(depth + 1) : null;
+        return Field.newField()
+                .name(name)
+                .alias(alias)
+                .arguments(arguments)
+                .directives(directives)
+                .selectionSet(selectionSet)
+                .sourceLocation(sourceLocation)
+                .build();
+    }
+
+    private Selection<?> parseFragment(int depth) {
+        SourceLocation sourceLocation = location();
+        expect(SPREAD);
+        if (tokenKind == NAME && !isKeyword("on")) {
+            checkDepth(depth + 2);
+            String name = name();
+            return FragmentSpread.newFragmentSpread()
+                    .name(name)
+                    .directives(parseDirectives(depth + 1))
+                    .sourceLocation(sourceLocation)
+                    .build();
+        }
+        InlineFragment.Builder inlineFragment = InlineFragment.newInlineFragment().sourceLocation(sourceLocation);
+        if (isKeyword("on")) {
+            next();
+            checkDepth(depth + 4);
+            SourceLocation typeConditionLocation = location();
+            inlineFragment.typeCondition(TypeName.newTypeName().name(name()).sourceLocation(typeConditionLocation).build());
+        }
+        inlineFragment.directives(parseDirectives(depth + 1));
+        inlineFragment.selectionSet(parseSelectionSet(depth + 1));
+        return inlineFragment.build();
+    }
+
+    private List<Directive> parseDirectives(int depth) {
+        if (tokenKind != '@') {
+            return emptyList();
+        }
+        List<Directive> directives = new ArrayList<>();
+        do {
+            directives.add(parseDirective(depth + 1));
+        } while (tokenKind == '@');
+        return directives;
+    }
+
+    private Directive parseDirective(int depth) {
+        SourceLocation sourceLocation = location();
+        next();
+        checkDepth(depth + 2);
+        String name = name();
+        return Directive.newDirective()
+                .name(name)
+                .arguments(parseArguments(depth + 1))
+                .sourceLocation(sourceLocation)
+                .build();
+    }
+
+    private List<Argument> parseArguments(int depth) {
+        if (tokenKind != '(') {
+            return emptyList();
+        }
+        next();
+        List<Argument> arguments = new ArrayList<>();
+        do {
+            arguments.add(parseArgument(depth + 1));
+        } while (tokenKind != ')');
+        next();
+        return arguments;
+    }
+
+    private Argument parseArgument(int depth) {
+        SourceLocation sourceLocation = location();
+        checkDepth(depth + 2);
+        String name = name();
+        expect(':');
+        return Argument.newArgument()
+                .name(name)
+                .value(parseValue(depth + 1, true))
+                .sourceLocation(sourceLocation)
+                .build();
+    }
+
+    private Value<?> parseValue(int depth, boolean variablesAllowed) {
+        checkDepth(depth);
+        SourceLocation sourceLocation = location();
+        switch (tokenKind) {
+            case '$': {
+                if (!variablesAllowed) {
+                    throw CANNOT_PARSE;
+                }
+                next();
+                checkDepth(depth + 3);
+                return VariableReference.newVariableReference().name(name()).sourceLocation(sourceLocation).build();
+            }
+            case INT: {
+                String value = tokenText();
+                next();
+                return IntValue.newIntValue().value(new BigInteger(value)).sourceLocation(sourceLocation).build();
+            }
+            case FLOAT: {
+                String value = tokenText();
+                next();
+                return FloatValue.newFloatValue().value(new BigDecimal(value)).sourceLocation(sourceLocation).build();
+            }
+            case STRING: {
+                String value = parseSingleQuotedString(i18n, tokenText(), new SourceLocation(tokenLine, tokenColumn, null));
+                next();
+                return StringValue.newStringValue().value(value).sourceLocation(sourceLocation).build();
+            }
+            case BLOCK_STRING: {
+                String value = parseTripleQuotedString(tokenText());
+                next();
+                return StringValue.newStringValue().value(value).sourceLocation(sourceLocation).build();
+            }
+            case '[': {
+                next();
+                List<Value> values = new ArrayList<>();
+                while (tokenKind != ']') {
+                    values.add(parseValue(depth + 2, variablesAllowed));
+                }
+                next();
+                return ArrayValue.newArrayValue().values(values).sourceLocation(sourceLocation).build();
+            }
+            case '{': {
+                next();
+                List<ObjectField> objectFields = new ArrayList<>();
+                while (tokenKind != '}') {
+                    checkDepth(depth + 4);
+                    String name = name();
+                    expect(':');
+                    // like the ANTLR parser the object fields have no source location
+                    objectFields.add(ObjectField.newObjectField().name(name).value(parseValue(depth + 3, variablesAllowed)).build());
+                }
+                next();
+                return ObjectValue.newObjectValue().objectFields(objectFields).sourceLocation(sourceLocation).build();
+            }
+            case NAME: {
+                String name = tokenText();
+                next();
+                switch (name) {
+                    case "true":
+                    case "false":
+                        return BooleanValue.newBooleanValue().value(Boolean.parseBoolean(name)).sourceLocation(sourceLocation).build();
+                    case "null":
+                        return NullValue.newNullValue().sourceLocation(sourceLocation).build();
+                    default:
+                        checkDepth(depth + 3);
+                        return EnumValue.newEnumValue().name(name).sourceLocation(sourceLocation).build();
+                }
+            }
+            default:
+                throw CANNOT_PARSE;
+        }
+    }
+
+    private boolean isKeyword(String keyword) {
+        return tokenKind == NAME && tokenEnd - tokenStart == keyword.length() && text.startsWith(keyword, tokenStart);
+    }
+
+    private String name() {
+        if (tokenKind != NAME) {
+            throw CANNOT_PARSE;
+        }
+        String name = tokenText();
+        next();
+        return name;
+    }
+
+    private void expect(int kind) {
+        if (tokenKind != kind) {
+            throw CANNOT_PARSE;
+        }
+        next();
+    }
+
+    private String tokenText() {
+        return text.substring(tokenStart, tokenEnd);
+    }
+
+    private SourceLocation location() {
+        return captureSourceLocation ? new SourceLocation(tokenLine, tokenColumn, null) : SourceLocation.EMPTY;
+    }
+
+    private void checkDepth(int depth) {
+        if (depth > maxRuleDepth) {
+            throw CANNOT_PARSE;
+        }
+    }
+
+    //
+    // the lexer, which follows the token rules of the ANTLR grammar and counts tokens the way SafeTokenSource does
+    //
+
+    private void next() {
+        skipIgnored();
+        tokenStart = pos;
+        tokenLine = line;
+        tokenColumn = pos - lineStart - lineSupplementaryChars + 1;
+        // the EOF token is counted as well
+        if (++grammarTokens > maxTokens) {
+            throw CANNOT_PARSE;
+        }
+        if (pos >= length) {
+            tokenKind = EOF;
+            tokenEnd = pos;
+            return;
+        }
+        char c = text.charAt(pos);
+        switch (c) {
+            case '!':
+            case '$':
+            case '(':
+            case ')':
+            case ':':
+            case '=':
+            case '@':
+            case '[':
+            case ']':
+            case '{':
+            case '}':
+                pos++;
+                tokenKind = c;
+                break;
+            case '.':
+                if (!text.startsWith("...", pos)) {
+                    throw CANNOT_PARSE;
+                }
+                pos += 3;
+                tokenKind = SPREAD;
+                break;
+            case '"':
+                readString();
+                break;
+            default:
+                if (isNameStart(c)) {
+                    readName();
+                } else if (c == '-' || isDigit(c)) {
+                    readNumber();
+                } else {
+                    throw CANNOT_PARSE;
+                }
+        }
+        tokenEnd = pos;
+    }
+
+    private void skipIgnored() {
+        while (pos < length) {
+            char c = text.charAt(pos);
+            switch (c) {
+                case '\n':
+                    whitespaceTokens++;
+                    pos++;
+                    newLine();
+                    break;
+                case ' ':
+                case '\t':
+                case ',':
+                case '\r':
+                case '\u2028':
+                case '\u2029':
+                case '\ufeff':
+                    whitespaceTokens++;
+                    pos++;
+                    break;
+                case '#':
+                    skipComment();
+                    break;
+                default:
+                    checkWhitespaceTokens();
+                    return;
+            }
+        }
+        checkWhitespaceTokens();
+    }
+
+    private void checkWhitespaceTokens() {
+        if (whitespaceTokens > maxWhitespaceTokens) {
+            throw CANNOT_PARSE;
+        }
+    }
+
+    private void skipComment() {
+        // the comments have to be attached to the nodes after them, which is left to the ANTLR parser
+        if (captureLineComments || ++commentTokens > maxTokens) {
+            throw CANNOT_PARSE;
+        }
+        pos++;
+        while (pos < length) {
+            char c = text.charAt(pos);
+            if (c == '\n' || c == '\r') {
+                return;
+            }
+            skipSourceCharacter();
+        }
+    }
+
+    private void readName() {
+        pos++;
+        while (pos < length && isNameContinue(text.charAt(pos))) {
+            pos++;
+        }
+        tokenKind = NAME;
+    }
+
+    private void readNumber() {
+        if (text.charAt(pos) == '-') {
+            pos++;
+        }
+        if (pos >= length) {
+            throw CANNOT_PARSE;
+        }
+        char c = text.charAt(pos);
+        if (c == '0') {
+            pos++;
+        } else if (c >= '1' && c <= '9') {
+            skipDigits();
+        } else {
+            throw CANNOT_PARSE;
+        }
+        boolean isFloat = false;
+        if (pos < length && text.charAt(pos) == '.') {
+            pos++;
+            expectDigits();
+            isFloat = true;
+        }
+        if (pos < length && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+            pos++;
+            if (pos < length && (text.charAt(pos) == '+' || text.charAt(pos) == '-')) {
+                pos++;
+            }
+            expectDigits();
+            isFloat = true;
+        }
+        // a number can't be directly followed by these
+        if (pos < length) {
+            c = text.charAt(pos);
+            if (isDigit(c) || c == '.' || isNameStart(c)) {
+                throw CANNOT_PARSE;
+            }
+        }
+        tokenKind = isFloat ? FLOAT : INT;
+    }
+
+    private void expectDigits() {
+        if (pos >= length || !isDigit(text.charAt(pos))) {
+            throw CANNOT_PARSE;
+        }
+        skipDigits();
+    }
+
+    private void skipDigits() {
+        while (pos < length && isDigit(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private void readString() {
+        if (text.startsWith("\"\"\"", pos)) {
+            pos += 3;
+            while (true) {
+                if (pos >= length) {
+                    throw CANNOT_PARSE;
+                }
+                char c = text.charAt(pos);
+                if (c == '"' && text.startsWith("\"\"\"", pos)) {
+                    pos += 3;
+                    tokenKind = BLOCK_STRING;
+                    return;
+                }
+                // escaped triple quotes are rare enough to leave to the ANTLR lexer
+                if (c == '\\' && text.startsWith("\\\"\"\"", pos)) {
+                    throw CANNOT_PARSE;
+                }
+                skipSourceCharacter();
+            }
+        }
+        pos++;
+        while (true) {
+            if (pos >= length) {
+                throw CANNOT_PARSE;
+            }
+            char c = text.charAt(pos);
+            if (c == '"') {
+                pos++;
+                tokenKind = STRING;
+                return;
+            }
+            if (c == '\n' || c == '\r') {
+                throw CANNOT_PARSE;
+            }
+            if (c == '\\') {
+                skipEscape();
+            } else {
+                skipSourceCharacter();
+            }
+        }
+    }
+
+    private void skipEscape() {
+        pos++;
+        if (pos >= length) {
+            throw CANNOT_PARSE;
+        }
+        char c = text.charAt(pos++);
+        if (c == 'u') {
+            if (pos < length && text.charAt(pos) == '{') {
+                pos++;
+                int start = pos;
+                while (pos < length && isHexDigit(text.charAt(pos))) {
+                    pos++;
+                }
+                if (pos == start || pos >= length || text.charAt(pos) != '}') {
+                    throw CANNOT_PARSE;
+                }
+                pos++;
+            } else {
+                for (int i = 0; i < 4; i++) {
+                    if (pos >= length || !isHexDigit(text.charAt(pos))) {
+                        throw CANNOT_PARSE;
+                    }
+                    pos++;
+                }
+            }
+        } else if ("\"\\/bfnrt".indexOf(c) < 0) {
+            throw CANNOT_PARSE;
+        }
+    }
+
+    private void skipSourceCharacter() {
+        char c = text.charAt(pos);
+        if (Character.isSurrogate(c)) {
+            if (!Character.isHighSurrogate(c) || pos + 1 >= length || !Character.isLowSurrogate(text.charAt(pos + 1))) {
+                throw CANNOT_PARSE;
+            }
+            pos += 2;
+            lineSupplementaryChars++;
+        } else {
+            pos++;
+            if (c == '\n') {
+                newLine();
+            }
+        }
+    }
+
+    private void newLine() {
+        // like ANTLR only line feeds start a new line
+        line++;
+        lineStart = pos;
+        lineSupplementaryChars = 0;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isHexDigit(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static boolean isNameStart(char c) {
+        return c == '_' || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isNameContinue(char c) {
+        return isNameStart(c) || isDigit(c);
+    }
+
+    /*
+     * Thrown to give up on the document, which is a singleton without a stack trace as it is not an error
+     */
+    private static class CannotParse extends RuntimeException {
+        CannotParse() {
+            super(null, null, false, false);
+        }
+    }
+}
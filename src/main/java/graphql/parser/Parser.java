@@ -3,6 +3,7 @@ package graphql.parser;
 import com.google.common.collect.ImmutableList;
 import graphql.Internal;
 import graphql.PublicApi;
+import graphql.i18n.I18n;
 import graphql.language.Document;
 import graphql.language.Node;
 import graphql.language.SourceLocation;
@@ -29,8 +30,10 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
 import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -136,6 +139,15 @@ public class Parser {
      * @throws InvalidSyntaxException if the input is not valid graphql syntax
      */
     public Document parseDocument(String input) throws InvalidSyntaxException {
+        ParserEnvironment stringEnvironment = ParserEnvironment.newParserEnvironment()
+                .document(input)
+                .build();
+        ParserOptions parserOptions = ParserOptions.getDefaultParserOptions();
+        if (canParseExecutableDocument(stringEnvironment, parserOptions)) {
+            // a string is a single unnamed source, so it can go to the hand written parser without being read again
+            return parseExecutableDocument(stringEnvironment, parserOptions, checkMaxCharacters(stringEnvironment, parserOptions, input));
+        }
+
         MultiSourceReader multiSourceReader = MultiSourceReader.newMultiSourceReader()
                 .string(input, null)
                 .trackData(true)
@@ -164,6 +176,23 @@ public class Parser {
     }
 
     private Document parseDocumentImpl(ParserEnvironment environment) throws InvalidSyntaxException {
+        ParserOptions parserOptions = Optional.ofNullable(environment.getParserOptions()).orElse(ParserOptions.getDefaultParserOptions());
+        if (canParseExecutableDocument(environment, parserOptions)) {
+            return parseExecutableDocument(environment, parserOptions, readDocument(environment, parserOptions));
+        }
+        return parseAntlrDocument(environment);
+    }
+
+    private Document parseExecutableDocument(ParserEnvironment environment, ParserOptions parserOptions, String documentText) throws InvalidSyntaxException {
+        Document document = ExecutableDocumentParser.parse(documentText, parserOptions, environment.getI18N());
+        if (document != null) {
+            return document;
+        }
+        // the ANTLR parser decides what to make of everything else, be it SDL or an invalid document
+        return parseAntlrDocument(withDocument(environment, new StringReader(documentText)));
+    }
+
+    private Document parseAntlrDocument(ParserEnvironment environment) throws InvalidSyntaxException {
         BiFunction<GraphqlParser, GraphqlAntlrToLanguage, Object[]> nodeFunction = (parser, toLanguage) -> {
             GraphqlParser.DocumentContext documentContext = parser.document();
             Document doc = toLanguage.createDocument(documentContext);
@@ -201,6 +230,64 @@ public class Parser {
         return (Type<?>) parseImpl(parserEnvironment, nodeFunction);
     }
 
+    private boolean canParseExecutableDocument(ParserEnvironment environment, ParserOptions parserOptions) {
+        return parserOptions.isFastExecutableDocumentParsing()
+                // subclasses can change the AST that is built from the ANTLR parse tree
+                && getClass() == Parser.class
+                // multiple sources need their line numbers mapped, which the ANTLR path does
+                && !(environment.getDocument() instanceof MultiSourceReader)
+                && !parserOptions.isCaptureIgnoredChars()
+                && parserOptions.getParsingListener() == ParsingListener.NOOP;
+    }
+
+    private static String readDocument(ParserEnvironment environment, ParserOptions parserOptions) {
+        SafeTokenReader safeTokenReader = setupSafeTokenReader(environment, parserOptions, environment.getDocument());
+        StringBuilder documentText = new StringBuilder();
+        char[] buffer = new char[4096];
+        try {
+            int read;
+            while ((read = safeTokenReader.read(buffer, 0, buffer.length)) != -1) {
+                documentText.append(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return documentText.toString();
+    }
+
+    private static String checkMaxCharacters(ParserEnvironment environment, ParserOptions parserOptions, String documentText) {
+        // the same limit that is applied to the characters read from a reader
+        int maxCharacters = parserOptions.getMaxCharacters();
+        if (documentText.length() > maxCharacters) {
+            throw new ParseCancelledTooManyCharsException(environment.getI18N(), maxCharacters);
+        }
+        return documentText;
+    }
+
+    private static ParserEnvironment withDocument(ParserEnvironment environment, Reader document) {
+        return new ParserEnvironment() {
+            @Override
+            public Reader getDocument() {
+                return document;
+            }
+
+            @Override
+            public ParserOptions getParserOptions() {
+                return environment.getParserOptions();
+            }
+
+            @Override
+            public Locale getLocale() {
+                return environment.getLocale();
+            }
+
+            @Override
+            public I18n getI18N() {
+                return environment.getI18N();
+            }
+        };
+    }
+
     private Node<?> parseImpl(ParserEnvironment environment, BiFunction<GraphqlParser, GraphqlAntlrToLanguage, Object[]> nodeFunction) throws InvalidSyntaxException {
         // default in the parser options if they are not set
         ParserOptions parserOptions = environment.getParserOptions();
@@ -271,12 +358,12 @@ public class Parser {
     }
 
     @NotNull
-    private static SafeTokenReader setupSafeTokenReader(ParserEnvironment environment, ParserOptions parserOptions, MultiSourceReader multiSourceReader) {
+    private static SafeTokenReader setupSafeTokenReader(ParserEnvironment environment, ParserOptions parserOptions, Reader reader) {
         int maxCharacters = parserOptions.getMaxCharacters();
         Consumer<Integer> onTooManyCharacters = it -> {
             throw new ParseCancelledTooManyCharsException(environment.getI18N(), maxCharacters);
         };
-        return new SafeTokenReader(multiSourceReader, maxCharacters, onTooManyCharacters);
+        return new SafeTokenReader(reader, maxCharacters, onTooManyCharacters);
     }
 
     @NotNull
@@ -193,6 +193,7 @@ public class ParserOptions {
     private final int maxWhitespaceTokens;
     private final int maxRuleDepth;
     private final boolean redactTokenParserErrorMessages;
+    private final boolean fastExecutableDocumentParsing;
     private final ParsingListener parsingListener;
 
     private ParserOptions(Builder builder) {
@@ -205,6 +206,7 @@ public class ParserOptions {
         this.maxWhitespaceTokens = builder.maxWhitespaceTokens;
         this.maxRuleDepth = builder.maxRuleDepth;
         this.redactTokenParserErrorMessages = builder.redactTokenParserErrorMessages;
+        this.fastExecutableDocumentParsing = builder.fastExecutableDocumentParsing;
         this.parsingListener = builder.parsingListener;
     }
 
@@ -307,6 +309,23 @@ public class ParserOptions {
         return redactTokenParserErrorMessages;
     }
 
+    /**
+     * Executable documents, that is operations and fragments, can be parsed by a hand written parser that builds the AST
+     * in a single pass over the text rather than via the ANTLR token stream and parse tree.  Documents it does not handle,
+     * such as SDL, documents with syntax errors or documents close to the parser limits, are handed to the ANTLR parser so
+     * the resulting AST and errors are the same either way.
+     * <p>
+     * The ANTLR parser is always used when ignored chars are captured, line comments are captured and present, a
+     * {@link ParsingListener} is set or the document is read from a {@link MultiSourceReader}.  Documents given as a
+     * plain {@link String}, to {@link Parser#parse(String)} say, are a single source and are parsed by the hand written
+     * parser.
+     *
+     * @return true if executable documents should be parsed by the hand written parser
+     */
+    public boolean isFastExecutableDocumentParsing() {
+        return fastExecutableDocumentParsing;
+    }
+
     public ParsingListener getParsingListener() {
         return parsingListener;
     }
@@ -333,6 +352,7 @@ public class ParserOptions {
         private int maxWhitespaceTokens = MAX_WHITESPACE_TOKENS;
         private int maxRuleDepth = MAX_RULE_DEPTH;
         private boolean redactTokenParserErrorMessages = false;
+        private boolean fastExecutableDocumentParsing = false;
 
         Builder() {
         }
@@ -346,6 +366,7 @@ public class ParserOptions {
             this.maxWhitespaceTokens = parserOptions.maxWhitespaceTokens;
             this.maxRuleDepth = parserOptions.maxRuleDepth;
             this.redactTokenParserErrorMessages = parserOptions.redactTokenParserErrorMessages;
+            this.fastExecutableDocumentParsing = parserOptions.fastExecutableDocumentParsing;
             this.parsingListener = parserOptions.parsingListener;
         }
 
@@ -394,6 +415,11 @@ public class ParserOptions {
             return this;
         }
 
+        public Builder fastExecutableDocumentParsing(boolean fastExecutableDocumentParsing) {
+            this.fastExecutableDocumentParsing = fastExecutableDocumentParsing;
+            return this;
+        }
+
         public Builder parsingListener(ParsingListener parsingListener) {
             this.parsingListener = assertNotNull(parsingListener);
             return this;
@@ -7,16 +7,11 @@ import graphql.collect.ImmutableKit;
 import graphql.normalized.ExecutableNormalizedField;
 import graphql.util.LockKit;
 
-import java.io.File;
-import java.nio.file.FileSystems;
-import java.nio.file.Path;
-import java.nio.file.PathMatcher;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -33,7 +28,6 @@ import static graphql.util.FpKit.newList;
 public class DataFetchingFieldSelectionSetImpl implements DataFetchingFieldSelectionSet {
 
     private final static String SEP = "/";
-    private final static boolean UNIXY = SEP.equals(File.separator);
 
     private final static DataFetchingFieldSelectionSet NOOP = new DataFetchingFieldSelectionSet() {
 
@@ -96,7 +90,7 @@ public class DataFetchingFieldSelectionSetImpl implements DataFetchingFieldSelec
     // the caller.
     private Map<String, List<SelectedField>> normalisedSelectionSetFields;
     private List<SelectedField> immediateFields;
-    private Set<String> flattenedFieldsForGlobSearching;
+    private SelectedFieldGlob.Trie flattenedFieldsForGlobSearching;
     private final GraphQLSchema schema;
 
     private DataFetchingFieldSelectionSetImpl(Supplier<ExecutableNormalizedField> normalizedFieldSupplier, GraphQLSchema schema) {
@@ -110,24 +104,7 @@ public class DataFetchingFieldSelectionSetImpl implements DataFetchingFieldSelec
             return false;
         }
         computeValuesLazily();
-        fieldGlobPattern = removeLeadingSlash(fieldGlobPattern);
-        PathMatcher globMatcher = globMatcher(fieldGlobPattern);
-        for (String flattenedField : flattenedFieldsForGlobSearching) {
-            flattenedField = osAppropriate(flattenedField);
-            Path path = Paths.get(flattenedField);
-            if (globMatcher.matches(path)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private String osAppropriate(String flattenedField) {
-        if (UNIXY) {
-            return flattenedField;
-        } else {
-            return flattenedField.replace(SEP, "\\");
-        }
+        return globMatcher(fieldGlobPattern).matchesAny(flattenedFieldsForGlobSearching);
     }
 
     @Override
@@ -161,17 +138,21 @@ public class DataFetchingFieldSelectionSetImpl implements DataFetchingFieldSelec
         }
         computeValuesLazily();
 
+        Set<String> matchingNames = new HashSet<>();
+        for (String globPattern : mkIterable(fieldGlobPattern, fieldGlobPatterns)) {
+            globMatcher(globPattern).collectMatches(flattenedFieldsForGlobSearching, matchingNames);
+        }
+        if (matchingNames.isEmpty()) {
+            return emptyList();
+        }
+
+        // the fields are given back in the order they were selected in
         List<String> targetNames = new ArrayList<>();
-        for (String flattenedField : flattenedFieldsForGlobSearching) {
-            for (String globPattern : mkIterable(fieldGlobPattern, fieldGlobPatterns)) {
-                PathMatcher globMatcher = globMatcher(globPattern);
-                Path path = Paths.get(flattenedField);
-                if (globMatcher.matches(path)) {
-                    targetNames.add(flattenedField);
-                }
+        for (String flattenedField : flattenedFieldsForGlobSearching.getNames()) {
+            if (matchingNames.contains(flattenedField)) {
+                targetNames.add(flattenedField);
             }
         }
-
         return toSetSemanticsList(targetNames.stream()
                 .flatMap(name -> normalisedSelectionSetFields.getOrDefault(name, emptyList()).stream()));
     }
@@ -212,7 +193,7 @@ public class DataFetchingFieldSelectionSetImpl implements DataFetchingFieldSelec
         // if only to have only 1 lock in action at a time
         ExecutableNormalizedField currentNormalisedField = normalizedFieldSupplier.get();
         computedOnce.runOnce(() -> {
-            flattenedFieldsForGlobSearching = new LinkedHashSet<>();
+            flattenedFieldsForGlobSearching = new SelectedFieldGlob.Trie();
             normalisedSelectionSetFields = new LinkedHashMap<>();
             ImmutableList.Builder<SelectedField> immediateFieldsBuilder = ImmutableList.builder();
             traverseSubSelectedFields(currentNormalisedField, immediateFieldsBuilder, "", "", true);
@@ -263,8 +244,8 @@ public class DataFetchingFieldSelectionSetImpl implements DataFetchingFieldSelec
         return (!fieldPrefix.isEmpty() ? fieldPrefix + SEP : "") + fieldName;
     }
 
-    private static PathMatcher globMatcher(String fieldGlobPattern) {
-        return FileSystems.getDefault().getPathMatcher("glob:" + fieldGlobPattern);
+    private SelectedFieldGlob globMatcher(String fieldGlobPattern) {
+        return SelectedFieldGlob.compile(removeLeadingSlash(fieldGlobPattern));
     }
 
     private List<String> mkIterable(String fieldGlobPattern, String[] fieldGlobPatterns) {
@@ -279,7 +260,7 @@ public class DataFetchingFieldSelectionSetImpl implements DataFetchingFieldSelec
         if (!computedOnce.hasBeenComputed()) {
             return "notComputed";
         }
-        return String.join("\n", flattenedFieldsForGlobSearching);
+        return String.join("\n", flattenedFieldsForGlobSearching.getNames());
     }
 
     private static class SelectedFieldImpl implements SelectedField {
@@ -8,6 +8,7 @@ import graphql.schema.visibility.GraphqlFieldVisibility;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 import static graphql.Assert.assertNotNull;
@@ -95,6 +96,9 @@ public class GraphQLCodeRegistry {
                 dataFetcherFactory = defaultDataFetcherFactory;
             }
         }
+        if (dataFetcherFactory instanceof PropertyDataFetcherFactory) {
+            return ((PropertyDataFetcherFactory) dataFetcherFactory).get(coordinates);
+        }
         return dataFetcherFactory.get(newDataFetchingFactoryEnvironment()
                 .fieldDefinition(fieldDefinition)
                 .build());
@@ -184,12 +188,36 @@ public class GraphQLCodeRegistry {
         return new Builder(existingCodeRegistry);
     }
 
+    /*
+     * A default data fetcher is kept per field of each type rather than one being made per fetch.  This way the getters
+     * that a PropertyDataFetcher binds to the source classes it sees are kept between fetches, and as each one only
+     * sees the sources of one parent type, the few classes it can bind are not used up by fields of the same name in
+     * other types.
+     */
+    private static class PropertyDataFetcherFactory implements DataFetcherFactory<Object> {
+        private final ConcurrentHashMap<FieldCoordinates, PropertyDataFetcher<Object>> dataFetchers = new ConcurrentHashMap<>();
+
+        PropertyDataFetcher<Object> get(FieldCoordinates coordinates) {
+            PropertyDataFetcher<Object> dataFetcher = dataFetchers.get(coordinates);
+            if (dataFetcher == null) {
+                dataFetcher = dataFetchers.computeIfAbsent(coordinates, fieldCoordinates -> PropertyDataFetcher.fetching(fieldCoordinates.getFieldName()));
+            }
+            return dataFetcher;
+        }
+
+        @Override
+        public DataFetcher<Object> get(DataFetcherFactoryEnvironment environment) {
+            // without a parent type the data fetcher can't be shared safely
+            return PropertyDataFetcher.fetching(environment.getFieldDefinition().getName());
+        }
+    }
+
     public static class Builder {
         private final Map<FieldCoordinates, DataFetcherFactory<?>> dataFetcherMap = new LinkedHashMap<>();
         private final Map<String, DataFetcherFactory<?>> systemDataFetcherMap = new LinkedHashMap<>();
         private final Map<String, TypeResolver> typeResolverMap = new HashMap<>();
         private GraphqlFieldVisibility fieldVisibility = DEFAULT_FIELD_VISIBILITY;
-        private DataFetcherFactory<?> defaultDataFetcherFactory = env -> PropertyDataFetcher.fetching(env.getFieldDefinition().getName());
+        private DataFetcherFactory<?> defaultDataFetcherFactory = new PropertyDataFetcherFactory();
         private boolean changed = false;
 
         private Builder() {
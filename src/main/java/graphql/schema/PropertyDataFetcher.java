@@ -4,6 +4,8 @@ package graphql.schema;
 import graphql.Assert;
 import graphql.PublicApi;
 
+import java.util.Arrays;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -25,6 +27,11 @@ import java.util.function.Supplier;
  * <li>If this cant find anything, then null is returned</li>
  * </ul>
  * <p>
+ * Once a property has been resolved to a getter method for a source class, the getter is bound to this data fetcher as a
+ * {@link java.lang.invoke.LambdaMetafactory} generated function, so that later fetches from objects of that class invoke
+ * it directly rather than looking it up in the reflection caches.  Up to {@value #MAX_BOUND_CLASSES} source classes are
+ * bound per data fetcher.
+ * <p>
  * You can write your own data fetchers to get data from some other backing system
  * if you need highly customised behaviour.
  *
@@ -33,8 +40,11 @@ import java.util.function.Supplier;
 @PublicApi
 public class PropertyDataFetcher<T> implements LightDataFetcher<T> {
 
+    static final int MAX_BOUND_CLASSES = 4;
+
     private final String propertyName;
     private final Function<Object, Object> function;
+    private volatile BoundGetters boundGetters = BoundGetters.NONE;
 
     /**
      * This constructor will use the property name and examine the {@link DataFetchingEnvironment#getSource()}
@@ -128,7 +138,81 @@ public class PropertyDataFetcher<T> implements LightDataFetcher<T> {
             return (T) function.apply(source);
         }
 
-        return (T) PropertyDataFetcherHelper.getPropertyValue(propertyName, source, fieldDefinition, environmentSupplier);
+        if (source instanceof Map) {
+            return (T) ((Map<?, ?>) source).get(propertyName);
+        }
+
+        BoundGetters bound = this.boundGetters;
+        int index = bound.indexOf(source.getClass(), PropertyDataFetcherHelper.getCacheGeneration());
+        if (index >= 0) {
+            Function<Object, Object> getter = bound.getters[index];
+            if (getter != null) {
+                return (T) getter.apply(source);
+            }
+            return (T) PropertyDataFetcherHelper.getPropertyValue(propertyName, source, fieldDefinition, environmentSupplier);
+        }
+
+        Object value = PropertyDataFetcherHelper.getPropertyValue(propertyName, source, fieldDefinition, environmentSupplier);
+        bindGetter(bound, source);
+        return (T) value;
+    }
+
+    /*
+     * Called once the property has been fetched from the source the slow way, which leaves its getter, if it has one, in
+     * the reflection cache.  A class without a getter, say one fetched via a field, is bound to null so that it goes
+     * straight to the reflection caches from then on.  Racing threads may lose each other's bindings, which only means
+     * they are bound again on a later fetch.
+     */
+    private void bindGetter(BoundGetters bound, Object source) {
+        int generation = PropertyDataFetcherHelper.getCacheGeneration();
+        if (bound.generation != generation) {
+            bound = BoundGetters.NONE;
+        }
+        if (bound.classes.length >= MAX_BOUND_CLASSES || bound.indexOf(source.getClass(), generation) >= 0) {
+            return;
+        }
+        Function<Object, Object> getter = PropertyDataFetcherHelper.getResolvedLambdaGetter(propertyName, source);
+        this.boundGetters = bound.with(generation, source.getClass(), getter);
+    }
+
+    private static final class BoundGetters {
+        private static final BoundGetters NONE = new BoundGetters(-1, new Class<?>[0], newGetters(0));
+
+        private final int generation;
+        private final Class<?>[] classes;
+        private final Function<Object, Object>[] getters;
+
+        private BoundGetters(int generation, Class<?>[] classes, Function<Object, Object>[] getters) {
+            this.generation = generation;
+            this.classes = classes;
+            this.getters = getters;
+        }
+
+        int indexOf(Class<?> sourceClass, int currentGeneration) {
+            if (generation != currentGeneration) {
+                return -1;
+            }
+            for (int i = 0; i < classes.length; i++) {
+                if (classes[i] == sourceClass) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        BoundGetters with(int generation, Class<?> sourceClass, Function<Object, Object> getter) {
+            int length = classes.length;
+            Class<?>[] newClasses = Arrays.copyOf(classes, length + 1);
+            Function<Object, Object>[] newGetters = Arrays.copyOf(getters, length + 1);
+            newClasses[length] = sourceClass;
+            newGetters[length] = getter;
+            return new BoundGetters(generation, newClasses, newGetters);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Function<Object, Object>[] newGetters(int length) {
+            return (Function<Object, Object>[]) new Function<?, ?>[length];
+        }
     }
 
     /**
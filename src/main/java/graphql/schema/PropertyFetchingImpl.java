@@ -21,6 +21,7 @@ import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -43,6 +44,7 @@ public class PropertyFetchingImpl {
     private final ConcurrentMap<CacheKey, Field> FIELD_CACHE = new ConcurrentHashMap<>();
     private final ConcurrentMap<CacheKey, CacheKey> NEGATIVE_CACHE = new ConcurrentHashMap<>();
     private final Class<?> singleArgumentType;
+    private final AtomicInteger cacheGeneration = new AtomicInteger();
 
     public PropertyFetchingImpl(Class<?> singleArgumentType) {
         this.singleArgumentType = singleArgumentType;
@@ -170,6 +172,32 @@ public class PropertyFetchingImpl {
         return null;
     }
 
+    /**
+     * Returns the getter lambda that {@link #getPropertyValue} has already resolved, and successfully invoked, for the
+     * property on objects of the same class as the given object.  Callers can hold onto it and invoke it directly, as long
+     * as {@link #getCacheGeneration()} has not changed since.
+     *
+     * @param propertyName the name of the property
+     * @param object       an object whose property has been fetched via {@link #getPropertyValue} before
+     *
+     * @return the getter lambda or null if the property is not fetched via a getter lambda
+     */
+    public Function<Object, Object> getResolvedLambdaGetter(String propertyName, Object object) {
+        if (object instanceof Map || !USE_LAMBDA_FACTORY.get()) {
+            return null;
+        }
+        CachedLambdaFunction cachedFunction = LAMBDA_CACHE.get(mkCacheKey(object, propertyName));
+        return cachedFunction != null ? cachedFunction.getter : null;
+    }
+
+    /**
+     * @return a number that changes whenever the reflection cache is cleared or the way properties are resolved changes,
+     * which invalidates any getter lambdas that callers have held onto
+     */
+    public int getCacheGeneration() {
+        return cacheGeneration.get();
+    }
+
     private Optional<Function<Object, Object>> lambdaGetter(String propertyName, Object object) {
         if (USE_LAMBDA_FACTORY.get()) {
             return LambdaFetchingSupport.createGetter(object.getClass(), propertyName);
@@ -380,6 +408,7 @@ public class PropertyFetchingImpl {
         METHOD_CACHE.clear();
         FIELD_CACHE.clear();
         NEGATIVE_CACHE.clear();
+        cacheGeneration.incrementAndGet();
     }
 
     public boolean setUseSetAccessible(boolean flag) {
@@ -387,7 +416,9 @@ public class PropertyFetchingImpl {
     }
 
     public boolean setUseLambdaFactory(boolean flag) {
-        return USE_LAMBDA_FACTORY.getAndSet(flag);
+        boolean previous = USE_LAMBDA_FACTORY.getAndSet(flag);
+        cacheGeneration.incrementAndGet();
+        return previous;
     }
 
     public boolean setUseNegativeCache(boolean flag) {
@@ -0,0 +1,378 @@
+package graphql.schema;
+
+import graphql.Internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A compiled glob pattern over the flattened field names of a {@link DataFetchingFieldSelectionSet}, such as
+ * `friends/name` or `Invoice.payments/Payment.amount`.
+ * <p>
+ * The glob syntax and meaning are those of {@link java.nio.file.FileSystem#getPathMatcher} for unix style paths, with
+ * `/` as the separator on every platform.  The pattern is split into its `/` separated segments and matched one
+ * segment at a time against a {@link Trie} of the selected fields, so literal segments are a map lookup and only the
+ * children of the matching fields are ever looked at.  The rare patterns that cannot be split, because a group or a
+ * `**` inside a segment crosses the separator, are matched as a whole against each field name.
+ * <p>
+ * Fetchers tend to ask for the same few patterns over and over, so compiled globs are cached.
+ */
+@Internal
+final class SelectedFieldGlob {
+
+    private static final int MAX_CACHED_GLOBS = 1024;
+    private static final Map<String, SelectedFieldGlob> CACHE = new ConcurrentHashMap<>();
+
+    private static final String REGEX_META_CHARS = ".^$+{[]|()";
+    private static final String GLOB_META_CHARS = "\\*?[{";
+    private static final char EOL = 0;
+
+    private final Pattern wholePattern;
+    // null when the pattern has to be matched as a whole
+    private final Segment[] segments;
+
+    private SelectedFieldGlob(String glob) {
+        this.wholePattern = Pattern.compile(toRegex(glob));
+        this.segments = toSegments(glob);
+    }
+
+    /**
+     * @param glob the glob pattern, without any leading `/`
+     *
+     * @return the compiled glob
+     *
+     * @throws PatternSyntaxException if the glob is not valid
+     */
+    static SelectedFieldGlob compile(String glob) {
+        SelectedFieldGlob compiled = CACHE.get(glob);
+        if (compiled == null) {
+            compiled = new SelectedFieldGlob(glob);
+            // patterns usually come from code but they can come from anywhere, so the cache is bounded
+            if (CACHE.size() < MAX_CACHED_GLOBS) {
+                CACHE.putIfAbsent(glob, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * @param trie the selected fields
+     *
+     * @return true if any of the selected fields match
+     */
+    boolean matchesAny(Trie trie) {
+        if (segments == null) {
+            for (String name : trie.names) {
+                if (wholePattern.matcher(name).matches()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return matchSegments(trie.root, 0, null);
+    }
+
+    /**
+     * Adds the names of all the selected fields that match to the given set
+     *
+     * @param trie    the selected fields
+     * @param matches the set to add the matching names to
+     */
+    void collectMatches(Trie trie, Set<String> matches) {
+        if (segments == null) {
+            for (String name : trie.names) {
+                if (wholePattern.matcher(name).matches()) {
+                    matches.add(name);
+                }
+            }
+            return;
+        }
+        matchSegments(trie.root, 0, matches);
+    }
+
+    /*
+     * Matches the segments from the given index onwards against the fields under the node.  When matches is null this
+     * stops at the first match, otherwise it carries on and collects every matching field.
+     */
+    private boolean matchSegments(Trie.Node node, int index, Set<String> matches) {
+        if (index == segments.length) {
+            if (matches == null) {
+                return true;
+            }
+            matches.add(node.name);
+            return false;
+        }
+        Segment segment = segments[index];
+        if (segment.literal != null) {
+            Trie.Node child = node.children.get(segment.literal);
+            return child != null && matchSegments(child, index + 1, matches);
+        }
+        for (Trie.Node child : node.children.values()) {
+            if (segment.anySegments) {
+                // `**` on its own is one or more whole segments
+                if (matchSegments(child, index + 1, matches) || matchSegments(child, index, matches)) {
+                    return true;
+                }
+            } else if (segment.pattern == null || segment.pattern.matcher(child.segment).matches()) {
+                if (matchSegments(child, index + 1, matches)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Segment[] toSegments(String glob) {
+        List<Segment> segments = new ArrayList<>();
+        boolean inGroup = false;
+        int start = 0;
+        int i = 0;
+        while (i < glob.length()) {
+            char c = glob.charAt(i++);
+            switch (c) {
+                case '\\':
+                    if (glob.charAt(i) == '/') {
+                        // an escaped separator is part of a name
+                        return null;
+                    }
+                    i++;
+                    break;
+                case '[':
+                    // a class ends at the first ']' and toRegex has already made sure it has no separator in it
+                    i = glob.indexOf(']', i) + 1;
+                    break;
+                case '{':
+                    inGroup = true;
+                    break;
+                case '}':
+                    inGroup = false;
+                    break;
+                case '*':
+                    if (next(glob, i) == '*' && (i - 1 != start || (i + 1 < glob.length() && glob.charAt(i + 1) != '/') || inGroup)) {
+                        // `**` that is not a whole segment crosses segments
+                        return null;
+                    }
+                    break;
+                case '/':
+                    if (inGroup) {
+                        return null;
+                    }
+                    segments.add(toSegment(glob.substring(start, i - 1)));
+                    start = i;
+                    break;
+                default:
+                    break;
+            }
+        }
+        segments.add(toSegment(glob.substring(start)));
+        return segments.toArray(new Segment[0]);
+    }
+
+    private static Segment toSegment(String segmentGlob) {
+        if (segmentGlob.equals("**")) {
+            return new Segment(null, null, true);
+        }
+        if (segmentGlob.equals("*")) {
+            return new Segment(null, null, false);
+        }
+        for (int i = 0; i < segmentGlob.length(); i++) {
+            if (GLOB_META_CHARS.indexOf(segmentGlob.charAt(i)) >= 0) {
+                return new Segment(null, Pattern.compile(toRegex(segmentGlob)), false);
+            }
+        }
+        return new Segment(segmentGlob, null, false);
+    }
+
+    /*
+     * This is the unix glob to regex translation of the JDK, so that the patterns mean exactly what they used to
+     * when they were matched with a java.nio.file.PathMatcher
+     */
+    private static String toRegex(String glob) {
+        boolean inGroup = false;
+        StringBuilder regex = new StringBuilder("^");
+        int i = 0;
+        while (i < glob.length()) {
+            char c = glob.charAt(i++);
+            switch (c) {
+                case '\\':
+                    if (i == glob.length()) {
+                        throw new PatternSyntaxException("No character to escape", glob, i - 1);
+                    }
+                    char next = glob.charAt(i);
+                    if (GLOB_META_CHARS.indexOf(next) >= 0 || REGEX_META_CHARS.indexOf(next) >= 0) {
+                        regex.append('\\');
+                    }
+                    regex.append(next);
+                    i++;
+                    break;
+                case '[':
+                    // a class never matches the separator
+                    regex.append("[[^/]&&[");
+                    if (next(glob, i) == '^') {
+                        regex.append("\\^");
+                        i++;
+                    } else {
+                        if (next(glob, i) == '!') {
+                            regex.append('^');
+                            i++;
+                        }
+                        if (next(glob, i) == '-') {
+                            regex.append('-');
+                            i++;
+                        }
+                    }
+                    boolean hasRangeStart = false;
+                    char last = 0;
+                    while (i < glob.length()) {
+                        c = glob.charAt(i++);
+                        if (c == ']') {
+                            break;
+                        }
+                        if (c == '/') {
+                            throw new PatternSyntaxException("Explicit 'name separator' in class", glob, i - 1);
+                        }
+                        if (c == '\\' || c == '[' || c == '&' && next(glob, i) == '&') {
+                            regex.append('\\');
+                        }
+                        regex.append(c);
+                        if (c == '-') {
+                            if (!hasRangeStart) {
+                                throw new PatternSyntaxException("Invalid range", glob, i - 1);
+                            }
+                            if ((c = next(glob, i++)) == EOL || c == ']') {
+                                break;
+                            }
+                            if (c < last) {
+                                throw new PatternSyntaxException("Invalid range", glob, i - 3);
+                            }
+                            regex.append(c);
+                            hasRangeStart = false;
+                        } else {
+                            hasRangeStart = true;
+                            last = c;
+                        }
+                    }
+                    if (c != ']') {
+                        throw new PatternSyntaxException("Missing ']", glob, i - 1);
+                    }
+                    regex.append("]]");
+                    break;
+                case '{':
+                    if (inGroup) {
+                        throw new PatternSyntaxException("Cannot nest groups", glob, i - 1);
+                    }
+                    regex.append("(?:(?:");
+                    inGroup = true;
+                    break;
+                case '}':
+                    if (inGroup) {
+                        regex.append("))");
+                        inGroup = false;
+                    } else {
+                        regex.append('}');
+                    }
+                    break;
+                case ',':
+                    regex.append(inGroup ? ")|(?:" : ",");
+                    break;
+                case '*':
+                    if (next(glob, i) == '*') {
+                        regex.append(".*");
+                        i++;
+                    } else {
+                        regex.append("[^/]*");
+                    }
+                    break;
+                case '?':
+                    regex.append("[^/]");
+                    break;
+                default:
+                    if (REGEX_META_CHARS.indexOf(c) >= 0) {
+                        regex.append('\\');
+                    }
+                    regex.append(c);
+            }
+        }
+        if (inGroup) {
+            throw new PatternSyntaxException("Missing '}", glob, i - 1);
+        }
+        return regex.append('$').toString();
+    }
+
+    private static char next(String glob, int i) {
+        return i < glob.length() ? glob.charAt(i) : EOL;
+    }
+
+    private static class Segment {
+        // set when the segment has no special characters
+        private final String literal;
+        // set when the segment has special characters, null for a lone `*` that matches any segment
+        private final Pattern pattern;
+        private final boolean anySegments;
+
+        Segment(String literal, Pattern pattern, boolean anySegments) {
+            this.literal = literal;
+            this.pattern = pattern;
+            this.anySegments = anySegments;
+        }
+    }
+
+    /**
+     * The flattened names of the selected fields, as a tree of their `/` separated segments
+     */
+    static class Trie {
+        private final Node root = new Node("", "");
+        private final List<String> names = new ArrayList<>();
+
+        /**
+         * Adds a flattened field name.  The names of its parent fields must have been added before it.
+         *
+         * @param name the flattened field name
+         */
+        void add(String name) {
+            int slash = name.lastIndexOf('/');
+            Node parent = slash < 0 ? root : find(name.substring(0, slash));
+            String segment = name.substring(slash + 1);
+            if (parent != null && !parent.children.containsKey(segment)) {
+                parent.children.put(segment, new Node(segment, name));
+                names.add(name);
+            }
+        }
+
+        /**
+         * @return the flattened field names in the order they were added
+         */
+        List<String> getNames() {
+            return names;
+        }
+
+        private Node find(String name) {
+            Node node = root;
+            int start = 0;
+            while (node != null && start <= name.length()) {
+                int slash = name.indexOf('/', start);
+                int end = slash < 0 ? name.length() : slash;
+                node = node.children.get(name.substring(start, end));
+                start = end + 1;
+            }
+            return node;
+        }
+
+        private static class Node {
+            private final String segment;
+            private final String name;
+            private final Map<String, Node> children = new LinkedHashMap<>();
+
+            Node(String segment, String name) {
+                this.segment = segment;
+                this.name = name;
+            }
+        }
+    }
+}
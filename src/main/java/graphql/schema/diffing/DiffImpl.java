@@ -5,6 +5,7 @@ import com.google.common.collect.Multiset;
 import com.google.common.collect.Multisets;
 import graphql.Internal;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -13,8 +14,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static graphql.Assert.assertFalse;
@@ -33,6 +38,12 @@ import static graphql.schema.diffing.EditorialCostForMapping.editorialCostForMap
  * <p>
  * The algorithm is a modified version of "AStar-BMao".
  * It is adapted to directed graphs as a GraphQL schema is most naturally represented as directed graph (vs the undirected graphs used in the papers).
+ * <p>
+ * The lower bound costs of the children of a mapping entry are calculated in the {@link SchemaDiffingRunningCheck#getForkJoinPool()}
+ * when there is one.  The memory held by the queued mapping entries is estimated as the search goes on, and once it is more than
+ * the {@link SchemaDiffingRunningCheck#getMemoryLimit()} the search stops looking for an optimal edit: it drops all queued entries and
+ * greedily follows the best child of the current entry to a complete mapping.  The edit found is then at most
+ * {@code ged - SchemaDiffingRunningCheck#getGedLowerBound()} more costly than the optimal one.
  */
 @Internal
 public class DiffImpl {
@@ -43,8 +54,19 @@ public class DiffImpl {
     private final PossibleMappingsCalculator.PossibleMappings possibleMappings;
     private final SchemaDiffingRunningCheck runningCheck;
 
+    // the number of cost matrix rows calculated by one task when calculating them in a fork join pool
+    private static final int COST_MATRIX_ROWS_PER_TASK = 16;
+
+    // rough sizes of a mapping entry and of each vertex mapped by its partial mapping, used to estimate the memory held by the search
+    private static final long MAPPING_ENTRY_BYTES = 128;
+    private static final long MAPPED_VERTEX_BYTES = 96;
+
+    // the cost matrices are reused for every entry, as the first one expanded needs the largest ones
+    private double[][] costMatrixForHungarianAlgo;
+    private double[][] costMatrix;
+
     private static class MappingEntry {
-        public LinkedBlockingQueue<MappingEntry> mappingEntriesSiblings = new LinkedBlockingQueue<>();
+        public Queue<MappingEntry> mappingEntriesSiblings = new ArrayDeque<>();
         public int[] assignments;
 
         /**
@@ -56,6 +78,7 @@ public class DiffImpl {
         Mapping partialMapping;
         int level; // = partialMapping.size
         double lowerBoundCost;
+        long estimatedMemory;
 
 
         public MappingEntry(Mapping partialMapping, int level, double lowerBoundCost) {
@@ -64,6 +87,9 @@ public class DiffImpl {
             this.lowerBoundCost = lowerBoundCost;
         }
 
+        void estimateMemory() {
+            estimatedMemory = MAPPING_ENTRY_BYTES + partialMapping.nonFixedSize() * MAPPED_VERTEX_BYTES + assignments.length * 4L;
+        }
     }
 
     /**
@@ -136,9 +162,10 @@ public class DiffImpl {
         });
         queue.add(firstMappingEntry);
 
-
+        boolean greedy = false;
         while (!queue.isEmpty()) {
             MappingEntry mappingEntry = queue.poll();
+            runningCheck.release(mappingEntry.estimatedMemory);
             algoIterationCount.incrementAndGet();
 
             if (mappingEntry.lowerBoundCost >= optimalEdit.ged) {
@@ -146,6 +173,17 @@ public class DiffImpl {
                 break;
             }
 
+            if (!greedy && runningCheck.isMemoryLimitExceeded()) {
+                // this entry has the lowest lower bound of all queued ones, so no edit can cost less than it
+                runningCheck.setGedLowerBound(mappingEntry.lowerBoundCost);
+                runningCheck.switchToGreedy();
+                greedy = true;
+                // from now on only the first child of this entry is queued, and so on until the mapping is complete
+                queue.clear();
+                mappingEntry.mappingEntriesSiblings.clear();
+                runningCheck.releaseAll();
+            }
+
             if (mappingEntry.level > 0 && !mappingEntry.mappingEntriesSiblings.isEmpty()) {
                 addSiblingToQueue(
                         fixedEditorialCost,
@@ -163,24 +201,30 @@ public class DiffImpl {
                         queue,
                         optimalEdit,
                         allSources,
-                        allTargets
+                        allTargets,
+                        greedy
                 );
             }
 
             runningCheck.check();
         }
 
+        if (!greedy) {
+            runningCheck.setGedLowerBound(optimalEdit.ged);
+        }
         return optimalEdit;
     }
 
 
-    // this calculates all children for the provided parentEntry, but only the first is directly added to the queue
+    // this calculates all children for the provided parentEntry, but only the first is directly added to the queue.
+    // When greedy only the first child is calculated.
     private void addChildToQueue(int fixedEditorialCost,
                                  MappingEntry parentEntry,
                                  PriorityQueue<MappingEntry> queue,
                                  OptimalEdit optimalEdit,
                                  List<Vertex> allSources,
-                                 List<Vertex> allTargets
+                                 List<Vertex> allTargets,
+                                 boolean greedy
     ) {
         Mapping parentPartialMapping = parentEntry.partialMapping;
         int parentLevel = parentEntry.level;
@@ -199,26 +243,23 @@ public class DiffImpl {
         // the cost matrix is for the non mapped vertices
         int costMatrixSize = allSources.size() - parentLevel;
 
-        // costMatrix gets modified by the hungarian algorithm ... therefore we create two of them
-        double[][] costMatrixForHungarianAlgo = new double[costMatrixSize][costMatrixSize];
-        double[][] costMatrix = new double[costMatrixSize][costMatrixSize];
+        // costMatrix gets modified by the hungarian algorithm ... therefore we have two of them
+        if (costMatrix == null) {
+            costMatrixForHungarianAlgo = new double[costMatrixSize][costMatrixSize];
+            costMatrix = new double[costMatrixSize][costMatrixSize];
+        }
+        assertTrue(costMatrixSize <= costMatrix.length);
 
-        Map<Vertex, Double> isolatedVerticesCache = new LinkedHashMap<>();
         Map<Vertex, Vertex> nonFixedParentRestrictions = possibleMappingsCalculator.getNonFixedParentRestrictions(completeSourceGraph, completeTargetGraph, parentPartialMapping);
 
-        for (int i = parentLevel; i < allSources.size(); i++) {
-            Vertex v = allSources.get(i);
-            int j = 0;
-            for (Vertex u : availableTargetVertices) {
-                double cost = calcLowerBoundMappingCost(v, u, parentPartialMapping, isolatedVerticesCache, nonFixedParentRestrictions);
-                costMatrixForHungarianAlgo[i - parentLevel][j] = cost;
-                costMatrix[i - parentLevel][j] = cost;
-                j++;
-            }
-            runningCheck.check();
+        ForkJoinPool forkJoinPool = runningCheck.getForkJoinPool();
+        if (forkJoinPool != null && costMatrixSize > COST_MATRIX_ROWS_PER_TASK) {
+            calcCostMatrixInPool(forkJoinPool, parentLevel, allSources, availableTargetVertices, parentPartialMapping, nonFixedParentRestrictions);
+        } else {
+            calcCostMatrixRows(parentLevel, allSources.size(), allSources, availableTargetVertices, parentPartialMapping, new LinkedHashMap<>(), nonFixedParentRestrictions);
         }
 
-        HungarianAlgorithm hungarianAlgorithm = new HungarianAlgorithm(costMatrixForHungarianAlgo);
+        HungarianAlgorithm hungarianAlgorithm = new HungarianAlgorithm(costMatrixForHungarianAlgo, costMatrixSize);
         int[] assignments = hungarianAlgorithm.execute();
         int editorialCostForMapping = editorialCostForMapping(fixedEditorialCost, parentPartialMapping, completeSourceGraph, completeTargetGraph);
         double costMatrixSum = getCostMatrixSum(costMatrix, assignments);
@@ -230,12 +271,14 @@ public class DiffImpl {
             return;
         }
         MappingEntry newMappingEntry = new MappingEntry(newMapping, level, lowerBoundForPartialMapping);
-        LinkedBlockingQueue<MappingEntry> siblings = new LinkedBlockingQueue<>();
+        Queue<MappingEntry> siblings = new ArrayDeque<>();
         newMappingEntry.mappingEntriesSiblings = siblings;
         newMappingEntry.assignments = assignments;
         newMappingEntry.availableTargetVertices = availableTargetVertices;
+        newMappingEntry.estimateMemory();
 
         queue.add(newMappingEntry);
+        runningCheck.retain(newMappingEntry.estimatedMemory);
 
         expandMappingAndUpdateOptimalMapping(fixedEditorialCost,
                 level,
@@ -246,6 +289,9 @@ public class DiffImpl {
                 availableTargetVertices,
                 lowerBoundForPartialMapping);
 
+        if (greedy) {
+            return;
+        }
         calculateRestOfChildren(
                 availableTargetVertices,
                 hungarianAlgorithm,
@@ -274,7 +320,7 @@ public class DiffImpl {
                                          Vertex v_i,
                                          int upperBound,
                                          int level,
-                                         LinkedBlockingQueue<MappingEntry> siblings
+                                         Queue<MappingEntry> siblings
     ) {
         // starting from 1 as we already generated the first one
         for (int child = 1; child < availableTargetVertices.size(); child++) {
@@ -295,8 +341,10 @@ public class DiffImpl {
             sibling.mappingEntriesSiblings = siblings;
             sibling.assignments = assignments;
             sibling.availableTargetVertices = availableTargetVertices;
+            sibling.estimateMemory();
 
             siblings.add(sibling);
+            runningCheck.retain(sibling.estimatedMemory);
 
             runningCheck.check();
         }
@@ -310,12 +358,19 @@ public class DiffImpl {
             OptimalEdit optimalEdit,
             List<Vertex> allSources,
             List<Vertex> allTargets,
-            MappingEntry mappingEntry) throws InterruptedException {
+            MappingEntry mappingEntry) {
 
         assertFalse(mappingEntry.mappingEntriesSiblings.isEmpty());
 
-        MappingEntry sibling = mappingEntry.mappingEntriesSiblings.take();
-        if (sibling.lowerBoundCost < optimalEdit.ged) {
+        MappingEntry sibling = mappingEntry.mappingEntriesSiblings.poll();
+        if (sibling.lowerBoundCost >= optimalEdit.ged) {
+            // the siblings are in order of their lower bound, so none of the rest can be queued either
+            runningCheck.release(sibling.estimatedMemory);
+            for (MappingEntry rest : mappingEntry.mappingEntriesSiblings) {
+                runningCheck.release(rest.estimatedMemory);
+            }
+            mappingEntry.mappingEntriesSiblings.clear();
+        } else {
             queue.add(sibling);
 
             // we need to start here from the parent mapping, this is why we remove the last element
@@ -357,6 +412,54 @@ public class DiffImpl {
     }
 
 
+    private void calcCostMatrixInPool(ForkJoinPool forkJoinPool,
+                                      int parentLevel,
+                                      List<Vertex> allSources,
+                                      List<Vertex> availableTargetVertices,
+                                      Mapping parentPartialMapping,
+                                      Map<Vertex, Vertex> nonFixedParentRestrictions) {
+        Map<Vertex, Double> isolatedVerticesCache = new ConcurrentHashMap<>();
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (int from = parentLevel; from < allSources.size(); from += COST_MATRIX_ROWS_PER_TASK) {
+            int fromRow = from;
+            int toRow = Math.min(from + COST_MATRIX_ROWS_PER_TASK, allSources.size());
+            tasks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    calcCostMatrixRows(fromRow, toRow, allSources, availableTargetVertices, parentPartialMapping, isolatedVerticesCache, nonFixedParentRestrictions);
+                }
+            });
+        }
+        forkJoinPool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+    }
+
+    // the rows are those of the sources fromRow until toRow, which are independent of each other
+    private void calcCostMatrixRows(int fromRow,
+                                    int toRow,
+                                    List<Vertex> allSources,
+                                    List<Vertex> availableTargetVertices,
+                                    Mapping parentPartialMapping,
+                                    Map<Vertex, Double> isolatedVerticesCache,
+                                    Map<Vertex, Vertex> nonFixedParentRestrictions) {
+        int parentLevel = parentPartialMapping.size();
+        for (int i = fromRow; i < toRow; i++) {
+            Vertex v = allSources.get(i);
+            int j = 0;
+            for (Vertex u : availableTargetVertices) {
+                double cost = calcLowerBoundMappingCost(v, u, parentPartialMapping, isolatedVerticesCache, nonFixedParentRestrictions);
+                costMatrixForHungarianAlgo[i - parentLevel][j] = cost;
+                costMatrix[i - parentLevel][j] = cost;
+                j++;
+            }
+            runningCheck.check();
+        }
+    }
+
     private double getCostMatrixSum(double[][] costMatrix, int[] assignments) {
         double costMatrixSum = 0;
         for (int i = 0; i < assignments.length; i++) {
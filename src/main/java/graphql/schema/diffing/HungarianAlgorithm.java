@@ -83,9 +83,25 @@ public class HungarianAlgorithm {
      *                   addition, all entries must be non-infinite numbers.
      */
     public HungarianAlgorithm(double[][] costMatrix) {
-        this.dim = Math.max(costMatrix.length, costMatrix[0].length);
-        this.rows = costMatrix.length;
-        this.cols = costMatrix[0].length;
+        this(costMatrix, costMatrix.length, costMatrix[0].length);
+    }
+
+    /**
+     * Construct an instance of the algorithm for the top left size x size part of
+     * the cost matrix, so that a matrix can be reused for smaller problems.
+     *
+     * @param costMatrix the cost matrix, which must be at least size x size. Only the
+     *                   top left size x size entries are read and modified.
+     * @param size       the number of workers and jobs
+     */
+    public HungarianAlgorithm(double[][] costMatrix, int size) {
+        this(costMatrix, size, size);
+    }
+
+    private HungarianAlgorithm(double[][] costMatrix, int rows, int cols) {
+        this.dim = Math.max(rows, cols);
+        this.rows = rows;
+        this.cols = cols;
         this.costMatrix = costMatrix;
 //        for (int w = 0; w < this.dim; w++) {
 //            if (w < costMatrix.length) {
@@ -12,6 +12,7 @@ import graphql.schema.diffing.ana.EditOperationAnalyzer;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static graphql.Assert.assertTrue;
@@ -32,6 +33,46 @@ public class SchemaDiffing {
         runningCheck.stop();
     }
 
+    /**
+     * Calculates the lower bound costs of the possible mappings in the given pool instead of on the calling thread,
+     * which speeds up diffing large schemas.
+     *
+     * @param forkJoinPool the pool to use, or null to calculate on the calling thread, which is the default
+     */
+    public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+        runningCheck.setForkJoinPool(forkJoinPool);
+    }
+
+    /**
+     * Caps the memory the search for the optimal edit can hold.  Once the estimated memory is more than the limit
+     * the search stops looking for an optimal edit and greedily completes the best mapping so far instead, so that
+     * the diff still finishes, although possibly with more edit operations than needed.  Use {@link #isOptimal()}
+     * and {@link #getGedLowerBound()} to find out how far from optimal the result can be.
+     *
+     * @param memoryLimitInBytes the limit in bytes, which is {@link Long#MAX_VALUE} by default
+     */
+    public void setMemoryLimit(long memoryLimitInBytes) {
+        assertTrue(memoryLimitInBytes >= 0, "memoryLimitInBytes can't be negative");
+        runningCheck.setMemoryLimit(memoryLimitInBytes);
+    }
+
+    /**
+     * @return false if the memory limit was exceeded during the last diff, in which case its edit operations might
+     * not be the fewest possible
+     */
+    public boolean isOptimal() {
+        return !runningCheck.isGreedy();
+    }
+
+    /**
+     * @return a lower bound of the cost of the optimal edit of the last diff, which costs at least this much.  This is
+     * the cost of the edit found when {@link #isOptimal()}, and otherwise the edit found costs at most its own cost minus
+     * this bound more than the optimal one
+     */
+    public double getGedLowerBound() {
+        return runningCheck.getGedLowerBound();
+    }
+
     public List<EditOperation> diffGraphQLSchema(GraphQLSchema graphQLSchema1, GraphQLSchema graphQLSchema2) throws Exception {
         sourceGraph = new SchemaGraphFactory("source-").createGraph(graphQLSchema1);
         targetGraph = new SchemaGraphFactory("target-").createGraph(graphQLSchema2);
@@ -54,6 +95,7 @@ public class SchemaDiffing {
 
 
     private DiffImpl.OptimalEdit diffImpl(SchemaGraph sourceGraph, SchemaGraph targetGraph, AtomicInteger algoIterationCount) throws Exception {
+        runningCheck.start();
         PossibleMappingsCalculator possibleMappingsCalculator = new PossibleMappingsCalculator(sourceGraph, targetGraph, runningCheck);
         PossibleMappingsCalculator.PossibleMappings possibleMappings = possibleMappingsCalculator.calculate();
 
@@ -65,7 +107,9 @@ public class SchemaDiffing {
 
         assertTrue(sourceGraph.size() == targetGraph.size());
         if (possibleMappings.fixedOneToOneMappings.size() == sourceGraph.size()) {
-            return new DiffImpl.OptimalEdit(sourceGraph, targetGraph, startMapping, baseEditorialCostForMapping(startMapping, sourceGraph, targetGraph));
+            int ged = baseEditorialCostForMapping(startMapping, sourceGraph, targetGraph);
+            runningCheck.setGedLowerBound(ged);
+            return new DiffImpl.OptimalEdit(sourceGraph, targetGraph, startMapping, ged);
         }
 
         List<Vertex> nonMappedSource = new ArrayList<>(sourceGraph.getVertices());
@@ -1,10 +1,24 @@
 package graphql.schema.diffing;
 
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * The state shared by everything taking part in one diff: whether it was stopped, the pool the lower bound costs are
+ * calculated in, and how much memory the search may hold before {@link DiffImpl} gives up on an optimal edit and
+ * descends greedily to the first complete mapping instead.
+ */
 class SchemaDiffingRunningCheck {
     private final AtomicBoolean wasStopped = new AtomicBoolean(false);
 
+    private volatile ForkJoinPool forkJoinPool;
+    private volatile long memoryLimit = Long.MAX_VALUE;
+
+    private final AtomicLong retainedMemory = new AtomicLong();
+    private volatile boolean greedy;
+    private volatile double gedLowerBound;
+
     void check() {
         if (wasStopped.get()) {
             throw new SchemaDiffingCancelledException(false);
@@ -14,4 +28,74 @@ class SchemaDiffingRunningCheck {
     void stop() {
         wasStopped.set(true);
     }
+
+    ForkJoinPool getForkJoinPool() {
+        return forkJoinPool;
+    }
+
+    void setForkJoinPool(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    void setMemoryLimit(long memoryLimit) {
+        this.memoryLimit = memoryLimit;
+    }
+
+    /**
+     * Resets the state of the previous diff, if any
+     */
+    void start() {
+        retainedMemory.set(0);
+        greedy = false;
+        gedLowerBound = 0;
+    }
+
+    void retain(long bytes) {
+        retainedMemory.addAndGet(bytes);
+    }
+
+    void release(long bytes) {
+        retainedMemory.addAndGet(-bytes);
+    }
+
+    void releaseAll() {
+        retainedMemory.set(0);
+    }
+
+    /**
+     * @return the estimated number of bytes held by the search
+     */
+    long getRetainedMemory() {
+        return retainedMemory.get();
+    }
+
+    boolean isMemoryLimitExceeded() {
+        return retainedMemory.get() > memoryLimit;
+    }
+
+    /**
+     * Records that the search is no longer looking for an optimal edit
+     */
+    void switchToGreedy() {
+        this.greedy = true;
+    }
+
+    boolean isGreedy() {
+        return greedy;
+    }
+
+    /**
+     * @return a lower bound of the cost of the optimal edit, which is the cost of the edit found when it is optimal
+     */
+    double getGedLowerBound() {
+        return gedLowerBound;
+    }
+
+    void setGedLowerBound(double gedLowerBound) {
+        this.gedLowerBound = gedLowerBound;
+    }
 }
@@ -0,0 +1,146 @@
+package graphql.validation;
+
+import graphql.PublicApi;
+import graphql.collect.ImmutableKit;
+import graphql.language.AstPrinter;
+import graphql.language.AstSignature;
+import graphql.language.Document;
+import graphql.schema.GraphQLSchema;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static graphql.Assert.assertTrue;
+
+/**
+ * A {@link ValidationResultCache} that remembers which documents are valid against a schema.
+ * <p>
+ * Documents are looked up by the query text they were parsed from first, which costs no more than hashing the text.  When
+ * that is not known yet they are looked up by their canonical query, see {@link AstSignature#canonicalQuery(Document)},
+ * printed compactly, so documents that only differ in whitespace, comments or the order of their fields, fragments and
+ * operations share a verdict.  The rule predicate is part of the key, by identity, since a document that passes some
+ * rules may fail others.
+ * <p>
+ * Only valid verdicts are cached.  Invalid documents are validated again each time so that their errors point at their own
+ * source locations and are in their own locale, and they are rare enough in practice to not be worth caching.
+ * <p>
+ * The cache holds the verdicts for one schema at a time and drops them all when it is asked about a different
+ * {@link GraphQLSchema} instance, say after a schema hot swap.  When it reaches its maximum size it is cleared.
+ */
+@PublicApi
+public class InMemoryValidationResultCache implements ValidationResultCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+    private final int maximumSize;
+    private volatile SchemaEntries schemaEntries = new SchemaEntries(null);
+
+    public InMemoryValidationResultCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * @param maximumSize the maximum number of valid documents to remember
+     */
+    public InMemoryValidationResultCache(int maximumSize) {
+        assertTrue(maximumSize > 0, () -> "maximumSize must be greater than zero");
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public List<ValidationError> getValidationErrors(GraphQLSchema schema, String query, Document document, Predicate<Class<?>> rulePredicate, Locale locale, Supplier<List<ValidationError>> validation) {
+        SchemaEntries entries = this.schemaEntries;
+        if (entries.schema != schema) {
+            entries = new SchemaEntries(schema);
+            this.schemaEntries = entries;
+        }
+
+        ValidDocument queryKey = query != null ? new ValidDocument(query, rulePredicate) : null;
+        if (queryKey != null && entries.validQueries.contains(queryKey)) {
+            return ImmutableKit.emptyList();
+        }
+
+        ValidDocument key = new ValidDocument(AstPrinter.printAstCompact(new AstSignature().canonicalQuery(document)), rulePredicate);
+        if (entries.validDocuments.contains(key)) {
+            addValidQuery(entries, queryKey);
+            return ImmutableKit.emptyList();
+        }
+
+        List<ValidationError> errors = validation.get();
+        if (errors.isEmpty()) {
+            if (entries.validDocuments.size() >= maximumSize) {
+                entries.validDocuments.clear();
+            }
+            entries.validDocuments.add(key);
+            addValidQuery(entries, queryKey);
+        }
+        return errors;
+    }
+
+    private void addValidQuery(SchemaEntries entries, ValidDocument queryKey) {
+        if (queryKey == null) {
+            return;
+        }
+        if (entries.validQueries.size() >= maximumSize) {
+            entries.validQueries.clear();
+        }
+        entries.validQueries.add(queryKey);
+    }
+
+    /**
+     * Drops all the cached verdicts
+     */
+    public void invalidateAll() {
+        this.schemaEntries = new SchemaEntries(null);
+    }
+
+    /**
+     * @return the number of valid documents currently remembered
+     */
+    public int size() {
+        return schemaEntries.validDocuments.size();
+    }
+
+    private static class SchemaEntries {
+        private final GraphQLSchema schema;
+        private final Set<ValidDocument> validQueries = ConcurrentHashMap.newKeySet();
+        private final Set<ValidDocument> validDocuments = ConcurrentHashMap.newKeySet();
+
+        SchemaEntries(GraphQLSchema schema) {
+            this.schema = schema;
+        }
+    }
+
+    private static class ValidDocument {
+        // either the query text or the printed canonical query
+        private final String query;
+        private final Predicate<Class<?>> rulePredicate;
+
+        ValidDocument(String query, Predicate<Class<?>> rulePredicate) {
+            this.query = query;
+            this.rulePredicate = rulePredicate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ValidDocument that = (ValidDocument) o;
+            return query.equals(that.query) && rulePredicate == that.rulePredicate;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, System.identityHashCode(rulePredicate));
+        }
+    }
+}
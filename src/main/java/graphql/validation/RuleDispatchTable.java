@@ -0,0 +1,115 @@
+package graphql.validation;
+
+import graphql.Internal;
+import graphql.language.Argument;
+import graphql.language.Directive;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.ObjectValue;
+import graphql.language.OperationDefinition;
+import graphql.language.SelectionSet;
+import graphql.language.TypeName;
+import graphql.language.VariableDefinition;
+import graphql.language.VariableReference;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * For each of the check methods of {@link AbstractRule} this holds only the rules that override it, so that
+ * {@link RulesVisitor} does not call every rule on every node.  Which methods a rule class overrides is worked out once
+ * per class.
+ */
+@Internal
+final class RuleDispatchTable {
+
+    static final int CHECK_DOCUMENT = 0;
+    static final int CHECK_ARGUMENT = 1;
+    static final int CHECK_TYPE_NAME = 2;
+    static final int CHECK_VARIABLE_DEFINITION = 3;
+    static final int CHECK_FIELD = 4;
+    static final int CHECK_INLINE_FRAGMENT = 5;
+    static final int CHECK_DIRECTIVE = 6;
+    static final int CHECK_FRAGMENT_SPREAD = 7;
+    static final int CHECK_FRAGMENT_DEFINITION = 8;
+    static final int CHECK_OPERATION_DEFINITION = 9;
+    static final int LEAVE_OPERATION_DEFINITION = 10;
+    static final int CHECK_SELECTION_SET = 11;
+    static final int LEAVE_SELECTION_SET = 12;
+    static final int CHECK_VARIABLE = 13;
+    static final int DOCUMENT_FINISHED = 14;
+    static final int CHECK_OBJECT_VALUE = 15;
+
+    private static final int HOOK_COUNT = 16;
+
+    private static final ClassValue<Integer> OVERRIDDEN_HOOKS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> ruleClass) {
+            return overriddenHooks(ruleClass);
+        }
+    };
+
+    private final AbstractRule[][] rulesByHook;
+
+    RuleDispatchTable(List<AbstractRule> rules) {
+        List<List<AbstractRule>> rulesByHook = new ArrayList<>(HOOK_COUNT);
+        for (int hook = 0; hook < HOOK_COUNT; hook++) {
+            rulesByHook.add(new ArrayList<>());
+        }
+        for (AbstractRule rule : rules) {
+            int hooks = OVERRIDDEN_HOOKS.get(rule.getClass());
+            for (int hook = 0; hook < HOOK_COUNT; hook++) {
+                if ((hooks & (1 << hook)) != 0) {
+                    rulesByHook.get(hook).add(rule);
+                }
+            }
+        }
+        this.rulesByHook = new AbstractRule[HOOK_COUNT][];
+        for (int hook = 0; hook < HOOK_COUNT; hook++) {
+            this.rulesByHook[hook] = rulesByHook.get(hook).toArray(new AbstractRule[0]);
+        }
+    }
+
+    /**
+     * @param hook one of the hook constants
+     *
+     * @return the rules that override the hook method, in the order they were given
+     */
+    AbstractRule[] rules(int hook) {
+        return rulesByHook[hook];
+    }
+
+    private static int overriddenHooks(Class<?> ruleClass) {
+        int hooks = 0;
+        hooks |= overrides(ruleClass, CHECK_DOCUMENT, "checkDocument", Document.class);
+        hooks |= overrides(ruleClass, CHECK_ARGUMENT, "checkArgument", Argument.class);
+        hooks |= overrides(ruleClass, CHECK_TYPE_NAME, "checkTypeName", TypeName.class);
+        hooks |= overrides(ruleClass, CHECK_VARIABLE_DEFINITION, "checkVariableDefinition", VariableDefinition.class);
+        hooks |= overrides(ruleClass, CHECK_FIELD, "checkField", Field.class);
+        hooks |= overrides(ruleClass, CHECK_INLINE_FRAGMENT, "checkInlineFragment", InlineFragment.class);
+        hooks |= overrides(ruleClass, CHECK_DIRECTIVE, "checkDirective", Directive.class, List.class);
+        hooks |= overrides(ruleClass, CHECK_FRAGMENT_SPREAD, "checkFragmentSpread", FragmentSpread.class);
+        hooks |= overrides(ruleClass, CHECK_FRAGMENT_DEFINITION, "checkFragmentDefinition", FragmentDefinition.class);
+        hooks |= overrides(ruleClass, CHECK_OPERATION_DEFINITION, "checkOperationDefinition", OperationDefinition.class);
+        hooks |= overrides(ruleClass, LEAVE_OPERATION_DEFINITION, "leaveOperationDefinition", OperationDefinition.class);
+        hooks |= overrides(ruleClass, CHECK_SELECTION_SET, "checkSelectionSet", SelectionSet.class);
+        hooks |= overrides(ruleClass, LEAVE_SELECTION_SET, "leaveSelectionSet", SelectionSet.class);
+        hooks |= overrides(ruleClass, CHECK_VARIABLE, "checkVariable", VariableReference.class);
+        hooks |= overrides(ruleClass, DOCUMENT_FINISHED, "documentFinished", Document.class);
+        hooks |= overrides(ruleClass, CHECK_OBJECT_VALUE, "checkObjectValue", ObjectValue.class);
+        return hooks;
+    }
+
+    private static int overrides(Class<?> ruleClass, int hook, String methodName, Class<?>... parameterTypes) {
+        try {
+            boolean overridden = ruleClass.getMethod(methodName, parameterTypes).getDeclaringClass() != AbstractRule.class;
+            return overridden ? 1 << hook : 0;
+        } catch (NoSuchMethodException | SecurityException e) {
+            // if we can't tell then the rule is always called
+            return 1 << hook;
+        }
+    }
+}
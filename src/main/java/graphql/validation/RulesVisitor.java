@@ -23,32 +23,49 @@ import graphql.language.TypeName;
 import graphql.language.VariableDefinition;
 import graphql.language.VariableReference;
 
+import static graphql.validation.RuleDispatchTable.CHECK_ARGUMENT;
+import static graphql.validation.RuleDispatchTable.CHECK_DIRECTIVE;
+import static graphql.validation.RuleDispatchTable.CHECK_DOCUMENT;
+import static graphql.validation.RuleDispatchTable.CHECK_FIELD;
+import static graphql.validation.RuleDispatchTable.CHECK_FRAGMENT_DEFINITION;
+import static graphql.validation.RuleDispatchTable.CHECK_FRAGMENT_SPREAD;
+import static graphql.validation.RuleDispatchTable.CHECK_INLINE_FRAGMENT;
+import static graphql.validation.RuleDispatchTable.CHECK_OBJECT_VALUE;
+import static graphql.validation.RuleDispatchTable.CHECK_OPERATION_DEFINITION;
+import static graphql.validation.RuleDispatchTable.CHECK_SELECTION_SET;
+import static graphql.validation.RuleDispatchTable.CHECK_TYPE_NAME;
+import static graphql.validation.RuleDispatchTable.CHECK_VARIABLE;
+import static graphql.validation.RuleDispatchTable.CHECK_VARIABLE_DEFINITION;
+import static graphql.validation.RuleDispatchTable.DOCUMENT_FINISHED;
+import static graphql.validation.RuleDispatchTable.LEAVE_OPERATION_DEFINITION;
+import static graphql.validation.RuleDispatchTable.LEAVE_SELECTION_SET;
+
 @Internal
 @SuppressWarnings("rawtypes")
 public class RulesVisitor implements DocumentVisitor {
     private final ValidationContext validationContext;
-    private final List<AbstractRule> allRules;
-    private List<AbstractRule> currentRules;
+    private final RuleDispatchTable allRules;
+    private RuleDispatchTable currentRules;
     private final Set<String> visitedFragmentSpreads = new HashSet<>();
-    private final List<AbstractRule> fragmentSpreadVisitRules;
-    private final List<AbstractRule> nonFragmentSpreadRules;
+    private final RuleDispatchTable fragmentSpreadVisitRules;
+    private final RuleDispatchTable nonFragmentSpreadRules;
     private boolean operationScope = false;
     private int fragmentSpreadVisitDepth = 0;
 
     public RulesVisitor(ValidationContext validationContext, List<AbstractRule> rules) {
         this.validationContext = validationContext;
-        this.allRules = rules;
+        this.allRules = new RuleDispatchTable(rules);
         this.currentRules = allRules;
-        this.nonFragmentSpreadRules = filterRulesVisitingFragmentSpreads(allRules, false);
-        this.fragmentSpreadVisitRules = filterRulesVisitingFragmentSpreads(allRules, true);
+        this.nonFragmentSpreadRules = filterRulesVisitingFragmentSpreads(rules, false);
+        this.fragmentSpreadVisitRules = filterRulesVisitingFragmentSpreads(rules, true);
     }
 
-    private List<AbstractRule> filterRulesVisitingFragmentSpreads(List<AbstractRule> rules, boolean isVisitFragmentSpreads) {
+    private RuleDispatchTable filterRulesVisitingFragmentSpreads(List<AbstractRule> rules, boolean isVisitFragmentSpreads) {
         Iterator<AbstractRule> itr = rules
             .stream()
             .filter(r -> r.isVisitFragmentSpreads() == isVisitFragmentSpreads)
             .iterator();
-        return ImmutableList.copyOf(itr);
+        return new RuleDispatchTable(ImmutableList.copyOf(itr));
     }
 
     @Override
@@ -85,42 +102,58 @@ public class RulesVisitor implements DocumentVisitor {
     }
 
     private void checkDocument(Document node) {
-        currentRules.forEach(r -> r.checkDocument(node));
+        for (AbstractRule r : currentRules.rules(CHECK_DOCUMENT)) {
+            r.checkDocument(node);
+        }
     }
 
     private void checkArgument(Argument node) {
-        currentRules.forEach(r -> r.checkArgument(node));
+        for (AbstractRule r : currentRules.rules(CHECK_ARGUMENT)) {
+            r.checkArgument(node);
+        }
     }
 
     private void checkTypeName(TypeName node) {
-        currentRules.forEach(r -> r.checkTypeName(node));
+        for (AbstractRule r : currentRules.rules(CHECK_TYPE_NAME)) {
+            r.checkTypeName(node);
+        }
     }
 
     private void checkVariableDefinition(VariableDefinition node) {
-        currentRules.forEach(r -> r.checkVariableDefinition(node));
+        for (AbstractRule r : currentRules.rules(CHECK_VARIABLE_DEFINITION)) {
+            r.checkVariableDefinition(node);
+        }
     }
 
     private void checkField(Field node) {
-        currentRules.forEach(r -> r.checkField(node));
+        for (AbstractRule r : currentRules.rules(CHECK_FIELD)) {
+            r.checkField(node);
+        }
     }
 
     private void checkInlineFragment(InlineFragment node) {
-        currentRules.forEach(r -> r.checkInlineFragment(node));
+        for (AbstractRule r : currentRules.rules(CHECK_INLINE_FRAGMENT)) {
+            r.checkInlineFragment(node);
+        }
     }
 
     private void checkDirective(Directive node, List<Node> ancestors) {
-        currentRules.forEach(r -> r.checkDirective(node, ancestors));
+        for (AbstractRule r : currentRules.rules(CHECK_DIRECTIVE)) {
+            r.checkDirective(node, ancestors);
+        }
     }
 
     private void checkFragmentSpread(FragmentSpread node, List<Node> ancestors) {
-        currentRules.forEach(r -> r.checkFragmentSpread(node));
+        for (AbstractRule r : currentRules.rules(CHECK_FRAGMENT_SPREAD)) {
+            r.checkFragmentSpread(node);
+        }
 
         if (operationScope) {
             FragmentDefinition fragment = validationContext.getFragment(node.getName());
             if (fragment != null && !visitedFragmentSpreads.contains(node.getName())) {
                 // Manually traverse into the FragmentDefinition
                 visitedFragmentSpreads.add(node.getName());
-                List<AbstractRule> prevRules = currentRules;
+                RuleDispatchTable prevRules = currentRules;
                 currentRules = fragmentSpreadVisitRules;
                 fragmentSpreadVisitDepth++;
                 new LanguageTraversal(ancestors).traverse(fragment, this);
@@ -138,24 +171,34 @@ public class RulesVisitor implements DocumentVisitor {
             currentRules = nonFragmentSpreadRules;
         }
 
-        currentRules.forEach(r -> r.checkFragmentDefinition(node));
+        for (AbstractRule r : currentRules.rules(CHECK_FRAGMENT_DEFINITION)) {
+            r.checkFragmentDefinition(node);
+        }
     }
 
     private void checkOperationDefinition(OperationDefinition node) {
         operationScope = true;
-        currentRules.forEach(r -> r.checkOperationDefinition(node));
+        for (AbstractRule r : currentRules.rules(CHECK_OPERATION_DEFINITION)) {
+            r.checkOperationDefinition(node);
+        }
     }
 
     private void checkSelectionSet(SelectionSet node) {
-        currentRules.forEach(r -> r.checkSelectionSet(node));
+        for (AbstractRule r : currentRules.rules(CHECK_SELECTION_SET)) {
+            r.checkSelectionSet(node);
+        }
     }
 
     private void checkVariable(VariableReference node) {
-        currentRules.forEach(r -> r.checkVariable(node));
+        for (AbstractRule r : currentRules.rules(CHECK_VARIABLE)) {
+            r.checkVariable(node);
+        }
     }
 
     private void checkObjectValue(ObjectValue node) {
-        currentRules.forEach(r -> r.checkObjectValue(node));
+        for (AbstractRule r : currentRules.rules(CHECK_OBJECT_VALUE)) {
+            r.checkObjectValue(node);
+        }
     }
 
     @Override
@@ -174,18 +217,24 @@ public class RulesVisitor implements DocumentVisitor {
     }
 
     private void leaveSelectionSet(SelectionSet node) {
-        currentRules.forEach(r -> r.leaveSelectionSet(node));
+        for (AbstractRule r : currentRules.rules(LEAVE_SELECTION_SET)) {
+            r.leaveSelectionSet(node);
+        }
     }
 
     private void leaveOperationDefinition(OperationDefinition node) {
         // fragments should be revisited for each operation
         visitedFragmentSpreads.clear();
         operationScope = false;
-        currentRules.forEach(r -> r.leaveOperationDefinition(node));
+        for (AbstractRule r : currentRules.rules(LEAVE_OPERATION_DEFINITION)) {
+            r.leaveOperationDefinition(node);
+        }
     }
 
     private void documentFinished(Document node) {
-        currentRules.forEach(r -> r.documentFinished(node));
+        for (AbstractRule r : currentRules.rules(DOCUMENT_FINISHED)) {
+            r.documentFinished(node);
+        }
     }
 
     private void leaveFragmentDefinition(FragmentDefinition node) {
@@ -0,0 +1,39 @@
+package graphql.validation;
+
+import graphql.PublicSpi;
+import graphql.language.Document;
+import graphql.schema.GraphQLSchema;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A validation result cache allows {@link graphql.GraphQL} to skip validating documents it has already validated against
+ * a schema, including documents that arrive as different query strings but are the same query.
+ *
+ * @see InMemoryValidationResultCache
+ */
+@PublicSpi
+public interface ValidationResultCache {
+
+    /**
+     * This is called to get the validation errors of a document, which the cache can either return from a previous
+     * validation or compute by calling the validation function.
+     * <p>
+     * Validation errors carry the source locations of the document they were found in, so an implementation that caches
+     * errors must only share them between documents with the same query text.
+     *
+     * @param schema        the schema the document is validated against
+     * @param query         the query text the document was parsed from, or null if the document did not come straight from
+     *                      it, say because instrumentation replaced it
+     * @param document      the document to validate
+     * @param rulePredicate the predicate that selects the validation rules to run
+     * @param locale        the locale of the validation error messages
+     * @param validation    the function that validates the document
+     *
+     * @return the validation errors of the document, which are empty if it is valid
+     */
+    List<ValidationError> getValidationErrors(GraphQLSchema schema, String query, Document document, Predicate<Class<?>> rulePredicate, Locale locale, Supplier<List<ValidationError>> validation);
+}
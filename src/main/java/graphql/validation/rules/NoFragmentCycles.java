@@ -1,6 +1,7 @@
 package graphql.validation.rules;
 
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -9,14 +10,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import com.google.common.collect.ImmutableList;
 import graphql.Internal;
-import graphql.language.Definition;
+import graphql.language.Document;
 import graphql.language.FragmentDefinition;
 import graphql.language.FragmentSpread;
-import graphql.language.Node;
+import graphql.language.OperationDefinition;
 import graphql.validation.AbstractRule;
-import graphql.validation.DocumentVisitor;
-import graphql.validation.LanguageTraversal;
 import graphql.validation.ValidationContext;
 import graphql.validation.ValidationErrorCollector;
 import graphql.validation.ValidationErrorType;
@@ -27,44 +27,52 @@ import static graphql.validation.ValidationErrorType.FragmentCycle;
 public class NoFragmentCycles extends AbstractRule {
 
     private final Map<String, Set<String>> fragmentSpreads = new HashMap<>();
+    private final List<FragmentDefinition> fragmentDefinitions = new ArrayList<>();
+    private Set<String> currentFragmentSpreads;
+    private List<String> cycleQueryPath;
 
     public NoFragmentCycles(ValidationContext validationContext, ValidationErrorCollector validationErrorCollector) {
         super(validationContext, validationErrorCollector);
-        prepareFragmentMap();
     }
 
-    private void prepareFragmentMap() {
-        List<Definition> definitions = getValidationContext().getDocument().getDefinitions();
-        for (Definition definition : definitions) {
-            if (definition instanceof FragmentDefinition) {
-                FragmentDefinition fragmentDefinition = (FragmentDefinition) definition;
-                fragmentSpreads.put(fragmentDefinition.getName(), gatherSpreads(fragmentDefinition));
-            }
-        }
-    }
+    // the spreads of each fragment are gathered as part of the one traversal of the document and cycles are looked
+    // for once all the fragments have been seen
 
-    private Set<String> gatherSpreads(FragmentDefinition fragmentDefinition) {
-        final Set<String> fragmentSpreads = new HashSet<>();
-        DocumentVisitor visitor = new DocumentVisitor() {
-            @Override
-            public void enter(Node node, List<Node> path) {
-                if (node instanceof FragmentSpread) {
-                    fragmentSpreads.add(((FragmentSpread) node).getName());
-                }
-            }
+    @Override
+    public void checkOperationDefinition(OperationDefinition operationDefinition) {
+        currentFragmentSpreads = null;
+    }
 
-            @Override
-            public void leave(Node node, List<Node> path) {
+    @Override
+    public void checkFragmentDefinition(FragmentDefinition fragmentDefinition) {
+        fragmentDefinitions.add(fragmentDefinition);
+        currentFragmentSpreads = new HashSet<>();
+        fragmentSpreads.put(fragmentDefinition.getName(), currentFragmentSpreads);
+    }
 
-            }
-        };
+    @Override
+    public void checkFragmentSpread(FragmentSpread fragmentSpread) {
+        if (currentFragmentSpreads != null) {
+            currentFragmentSpreads.add(fragmentSpread.getName());
+        }
+    }
 
-        new LanguageTraversal().traverse(fragmentDefinition, visitor);
-        return fragmentSpreads;
+    @Override
+    public void documentFinished(Document document) {
+        for (FragmentDefinition fragmentDefinition : fragmentDefinitions) {
+            // report errors against the fragment as if it was being traversed
+            cycleQueryPath = ImmutableList.of(fragmentDefinition.getName());
+            checkForCycles(fragmentDefinition);
+        }
+        cycleQueryPath = null;
     }
 
     @Override
-    public void checkFragmentDefinition(FragmentDefinition fragmentDefinition) {
+    protected List<String> getQueryPath() {
+        return cycleQueryPath != null ? cycleQueryPath : super.getQueryPath();
+    }
+
+    private void checkForCycles(FragmentDefinition fragmentDefinition) {
         LinkedList<String> path = new LinkedList<>();
         path.add(0, fragmentDefinition.getName());
         Map<String, Set<String>> transitiveSpreads = buildTransitiveSpreads(path, new HashMap<>());
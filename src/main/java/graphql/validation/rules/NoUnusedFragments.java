@@ -11,9 +11,11 @@ import graphql.validation.ValidationContext;
 import graphql.validation.ValidationErrorCollector;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static graphql.validation.ValidationErrorType.UnusedFragment;
 
@@ -53,7 +55,7 @@ public class NoUnusedFragments extends AbstractRule {
     @Override
     public void documentFinished(Document document) {
 
-        List<String> allUsedFragments = new ArrayList<>();
+        Set<String> allUsedFragments = new HashSet<>();
         for (List<String> fragmentsInOneOperation : fragmentsUsedDirectlyInOperation) {
             for (String fragment : fragmentsInOneOperation) {
                 collectUsedFragmentsInDefinition(allUsedFragments, fragment);
@@ -69,9 +71,8 @@ public class NoUnusedFragments extends AbstractRule {
 
     }
 
-    private void collectUsedFragmentsInDefinition(List<String> result, String fragmentName) {
-        if (result.contains(fragmentName)) return;
-        result.add(fragmentName);
+    private void collectUsedFragmentsInDefinition(Set<String> result, String fragmentName) {
+        if (!result.add(fragmentName)) return;
         List<String> spreadList = spreadsInDefinition.get(fragmentName);
         if (spreadList == null) {
             return;
@@ -25,7 +25,11 @@ import graphql.validation.ValidationContext;
 import graphql.validation.ValidationErrorCollector;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -53,19 +57,26 @@ import static java.lang.String.format;
 public class OverlappingFieldsCanBeMerged extends AbstractRule {
 
 
-    private final Set<Set<FieldAndType>> sameResponseShapeChecked = new LinkedHashSet<>();
-    private final Set<Set<FieldAndType>> sameForCommonParentsChecked = new LinkedHashSet<>();
+    private final Set<FieldSet> sameResponseShapeChecked = new HashSet<>();
+    private final Set<FieldSet> sameForCommonParentsChecked = new HashSet<>();
     private final Set<Set<Field>> conflictsReported = new LinkedHashSet<>();
 
+    // the fields collected from a selection set only depend on the selection set and its unwrapped parent type, so they
+    // are collected once for each and shared.  This stops fragments that are spread many times, and the sub selections
+    // of every selection set, from being collected again each time an enclosing selection set is checked
+    private final Map<SelectionSet, Map<GraphQLType, Map<String, Set<FieldAndType>>>> collectedFields = new IdentityHashMap<>();
+
+    // sets of fields are keyed by the ids of their fields, so they are not hashed element by element on each lookup
+    private final Map<Field, Integer> fieldIds = new IdentityHashMap<>();
+    private final Map<FieldSet, Map<String, Set<FieldAndType>>> mergedSubSelections = new HashMap<>();
+
     public OverlappingFieldsCanBeMerged(ValidationContext validationContext, ValidationErrorCollector validationErrorCollector) {
         super(validationContext, validationErrorCollector);
     }
 
     @Override
     public void leaveSelectionSet(SelectionSet selectionSet) {
-        Map<String, Set<FieldAndType>> fieldMap = new LinkedHashMap<>();
-        Set<String> visitedFragmentSpreads = new LinkedHashSet<>();
-        collectFields(fieldMap, selectionSet, getValidationContext().getOutputType(), visitedFragmentSpreads);
+        Map<String, Set<FieldAndType>> fieldMap = collectFields(selectionSet, getValidationContext().getOutputType());
         List<Conflict> conflicts = findConflicts(fieldMap);
         for (Conflict conflict : conflicts) {
             if (conflictsReported.contains(conflict.fields)) {
@@ -78,6 +89,21 @@ public class OverlappingFieldsCanBeMerged extends AbstractRule {
         }
     }
 
+    /*
+     * The returned map and its sets are shared and must not be modified
+     */
+    private Map<String, Set<FieldAndType>> collectFields(SelectionSet selectionSet, GraphQLType parentType) {
+        GraphQLType unwrappedParent = unwrapAll(parentType);
+        Map<GraphQLType, Map<String, Set<FieldAndType>>> byParentType = collectedFields.computeIfAbsent(selectionSet, k -> new HashMap<>());
+        Map<String, Set<FieldAndType>> fieldMap = byParentType.get(unwrappedParent);
+        if (fieldMap == null) {
+            fieldMap = new LinkedHashMap<>();
+            collectFields(fieldMap, selectionSet, unwrappedParent, new LinkedHashSet<>());
+            byParentType.put(unwrappedParent, fieldMap);
+        }
+        return fieldMap;
+    }
+
     private void collectFields(Map<String, Set<FieldAndType>> fieldMap, SelectionSet selectionSet, GraphQLType parentType, Set<String> visitedFragmentSpreads) {
 
         for (Selection selection : selectionSet.getSelections()) {
@@ -157,30 +183,75 @@ public class OverlappingFieldsCanBeMerged extends AbstractRule {
 
     private void sameResponseShapeByName(Map<String, Set<FieldAndType>> fieldMap, ImmutableList<String> currentPath, List<Conflict> conflictsResult) {
         for (Map.Entry<String, Set<FieldAndType>> entry : fieldMap.entrySet()) {
-            if (sameResponseShapeChecked.contains(entry.getValue())) {
+            FieldSet fieldSet = fieldSet(entry.getValue());
+            if (!sameResponseShapeChecked.add(fieldSet)) {
                 continue;
             }
             ImmutableList<String> newPath = addToList(currentPath, entry.getKey());
-            sameResponseShapeChecked.add(entry.getValue());
             Conflict conflict = requireSameOutputTypeShape(newPath, entry.getValue());
             if (conflict != null) {
                 conflictsResult.add(conflict);
                 continue;
             }
-            Map<String, Set<FieldAndType>> subSelections = mergeSubSelections(entry.getValue());
+            Map<String, Set<FieldAndType>> subSelections = mergeSubSelections(fieldSet, entry.getValue());
             sameResponseShapeByName(subSelections, newPath, conflictsResult);
         }
     }
 
+    private Map<String, Set<FieldAndType>> mergeSubSelections(FieldSet fieldSet, Set<FieldAndType> sameNameFields) {
+        // both passes merge the sub selections of the same sets of fields
+        Map<String, Set<FieldAndType>> subSelections = mergedSubSelections.get(fieldSet);
+        if (subSelections == null) {
+            subSelections = mergeSubSelections(sameNameFields);
+            mergedSubSelections.put(fieldSet, subSelections);
+        }
+        return subSelections;
+    }
+
     private Map<String, Set<FieldAndType>> mergeSubSelections(Set<FieldAndType> sameNameFields) {
-        Map<String, Set<FieldAndType>> fieldMap = new LinkedHashMap<>();
+        Map<String, Set<FieldAndType>> firstFieldMap = null;
+        Map<String, Set<FieldAndType>> mergedFieldMap = null;
         for (FieldAndType fieldAndType : sameNameFields) {
-            if (fieldAndType.field.getSelectionSet() != null) {
-                Set<String> visitedFragmentSpreads = new LinkedHashSet<>();
-                collectFields(fieldMap, fieldAndType.field.getSelectionSet(), fieldAndType.graphQLType, visitedFragmentSpreads);
+            if (fieldAndType.field.getSelectionSet() == null) {
+                continue;
             }
+            Map<String, Set<FieldAndType>> fieldMap = collectFields(fieldAndType.field.getSelectionSet(), fieldAndType.graphQLType);
+            if (firstFieldMap == null) {
+                // the common case of a single field is the shared map as is
+                firstFieldMap = fieldMap;
+                continue;
+            }
+            if (mergedFieldMap == null) {
+                mergedFieldMap = new LinkedHashMap<>();
+                mergeFieldMap(mergedFieldMap, firstFieldMap);
+            }
+            mergeFieldMap(mergedFieldMap, fieldMap);
         }
-        return fieldMap;
+        if (mergedFieldMap != null) {
+            return mergedFieldMap;
+        }
+        return firstFieldMap != null ? firstFieldMap : Collections.emptyMap();
+    }
+
+    private void mergeFieldMap(Map<String, Set<FieldAndType>> target, Map<String, Set<FieldAndType>> fieldMap) {
+        for (Map.Entry<String, Set<FieldAndType>> entry : fieldMap.entrySet()) {
+            target.computeIfAbsent(entry.getKey(), k -> new LinkedHashSet<>()).addAll(entry.getValue());
+        }
+    }
+
+    private FieldSet fieldSet(Set<FieldAndType> fieldAndTypes) {
+        int[] ids = new int[fieldAndTypes.size()];
+        int i = 0;
+        for (FieldAndType fieldAndType : fieldAndTypes) {
+            Integer id = fieldIds.get(fieldAndType.field);
+            if (id == null) {
+                id = fieldIds.size();
+                fieldIds.put(fieldAndType.field, id);
+            }
+            ids[i++] = id;
+        }
+        Arrays.sort(ids);
+        return new FieldSet(ids);
     }
 
     private void sameForCommonParentsByName(Map<String, Set<FieldAndType>> fieldMap, ImmutableList<String> currentPath, List<Conflict> conflictsResult) {
@@ -188,16 +259,16 @@ public class OverlappingFieldsCanBeMerged extends AbstractRule {
             List<Set<FieldAndType>> groups = groupByCommonParents(entry.getValue());
             ImmutableList<String> newPath = addToList(currentPath, entry.getKey());
             for (Set<FieldAndType> group : groups) {
-                if (sameForCommonParentsChecked.contains(group)) {
+                FieldSet fieldSet = fieldSet(group);
+                if (!sameForCommonParentsChecked.add(fieldSet)) {
                     continue;
                 }
-                sameForCommonParentsChecked.add(group);
                 Conflict conflict = requireSameNameAndArguments(newPath, group);
                 if (conflict != null) {
                     conflictsResult.add(conflict);
                     continue;
                 }
-                Map<String, Set<FieldAndType>> subSelections = mergeSubSelections(group);
+                Map<String, Set<FieldAndType>> subSelections = mergeSubSelections(fieldSet, group);
                 sameForCommonParentsByName(subSelections, newPath, conflictsResult);
             }
         }
@@ -384,6 +455,32 @@ public class OverlappingFieldsCanBeMerged extends AbstractRule {
         }
     }
 
+    private static class FieldSet {
+        private final int[] fieldIds;
+        private final int hashCode;
+
+        FieldSet(int[] fieldIds) {
+            this.fieldIds = fieldIds;
+            this.hashCode = Arrays.hashCode(fieldIds);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            return Arrays.equals(fieldIds, ((FieldSet) o).fieldIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
     private static class Conflict {
         final String reason;
         final Set<Field> fields = new LinkedHashSet<>();
@@ -0,0 +1,141 @@
+package graphql.analysis
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.TestUtil
+import graphql.execution.CoercedVariables
+import graphql.execution.instrumentation.ChainedInstrumentation
+import graphql.normalized.ExecutableNormalizedOperationFactory
+import graphql.parser.Parser
+import graphql.schema.FieldCoordinates
+import spock.lang.Specification
+
+class QueryCostAnalyzerTest extends Specification {
+
+    def schema = TestUtil.schema("""
+            type Query {
+                user: User
+            }
+            type User {
+                name: String
+                friends(first: Int): [User]
+                pets: [Pet]
+            }
+            interface Pet {
+                name: String
+            }
+            type Dog implements Pet {
+                name: String
+            }
+            type Cat implements Pet {
+                name: String
+            }
+        """)
+
+    def query = '''
+            query q($n: Int) {
+                user {
+                    name
+                    __typename
+                    pets { name }
+                    friends(first: $n) { name friends { name } }
+                }
+            }
+        '''
+
+    QueryCostAnalysis analyze(QueryCostAnalyzer analyzer, Map<String, Object> variables) {
+        def document = new Parser().parseDocument(query)
+        def operation = ExecutableNormalizedOperationFactory.createExecutableNormalizedOperation(schema, document, null, CoercedVariables.of(variables))
+        analyzer.analyze(schema, operation)
+    }
+
+    def "depth, field count and complexity come from one analysis"() {
+        when:
+        def analysis = analyze(QueryCostAnalyzer.newQueryCostAnalyzer().build(), [n: 1])
+
+        then:
+        analysis.depth == 4
+        analysis.fieldCount == 9
+        analysis.complexity == 8
+    }
+
+    def "complexity is the same as that of the calculator without list sizes"() {
+        def document = new Parser().parseDocument(query)
+        def calculator = QueryComplexityCalculator.newCalculator()
+                .fieldComplexityCalculator({ env, childComplexity -> 1 + childComplexity } as FieldComplexityCalculator)
+                .schema(schema)
+                .document(document)
+                .variables(CoercedVariables.of([n: 1]))
+                .build()
+
+        expect:
+        analyze(QueryCostAnalyzer.newQueryCostAnalyzer().build(), [n: 1]).complexity == calculator.calculate()
+    }
+
+    def "list size arguments multiply the complexity of the sub selection"() {
+        when:
+        def analysis = analyze(QueryCostAnalyzer.newQueryCostAnalyzer().build(), [n: 10])
+
+        then:
+        // friends is 1 + 10 * (name + friends { name })
+        analysis.complexity == 35
+        analysis.complexityByCoordinates == [
+                (FieldCoordinates.coordinates("User", "name"))   : 3,
+                (FieldCoordinates.coordinates("Pet", "name"))    : 1,
+                (FieldCoordinates.coordinates("User", "pets"))   : 2,
+                (FieldCoordinates.coordinates("User", "friends")): 33,
+                (FieldCoordinates.coordinates("Query", "user"))  : 35,
+        ]
+    }
+
+    def "list fields without list size arguments use the default list size"() {
+        when:
+        def analyzer = QueryCostAnalyzer.newQueryCostAnalyzer()
+                .defaultListSize(5)
+                .build()
+        def analysis = analyze(analyzer, [n: 1])
+
+        then:
+        // pets and the inner friends are 1 + 5 * 1 and the outer friends is 1 + 1 * (1 + 6)
+        analysis.complexity == 16
+    }
+
+    def "list size arguments are configurable"() {
+        when:
+        def analyzer = QueryCostAnalyzer.newQueryCostAnalyzer()
+                .listSizeArguments(["limit"] as Set)
+                .build()
+        def analysis = analyze(analyzer, [n: 10])
+
+        then:
+        analysis.complexity == 8
+    }
+
+    def "instrumentations that share an analyzer check their limits from the same analysis"() {
+        def calculatorCalls = 0
+        def analyzer = QueryCostAnalyzer.newQueryCostAnalyzer()
+                .fieldComplexityCalculator({ env, childComplexity ->
+                    calculatorCalls++
+                    1 + childComplexity
+                } as FieldComplexityCalculator)
+                .build()
+        def instrumentation = new ChainedInstrumentation(
+                new MaxQueryDepthInstrumentation(depthLimit, analyzer),
+                new MaxQueryComplexityInstrumentation(complexityLimit, analyzer))
+        def graphQL = GraphQL.newGraphQL(schema).instrumentation(instrumentation).build()
+
+        when:
+        def result = graphQL.execute(ExecutionInput.newExecutionInput(query).variables([n: 10]))
+
+        then:
+        result.errors.collect { it.message } == expectedErrors
+        // __typename is not given to the calculator
+        calculatorCalls == 8
+
+        where:
+        depthLimit | complexityLimit | expectedErrors
+        4          | 35              | []
+        3          | 35              | ["maximum query depth exceeded 4 > 3"]
+        4          | 34              | ["maximum query complexity exceeded 35 > 34"]
+    }
+}
@@ -0,0 +1,237 @@
+package graphql.execution
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.TestUtil
+import graphql.analysis.FieldComplexityCalculator
+import graphql.analysis.MaxQueryComplexityInstrumentation
+import graphql.analysis.MaxQueryDepthInstrumentation
+import graphql.analysis.QueryCostAnalyzer
+import graphql.execution.instrumentation.ChainedInstrumentation
+import graphql.execution.instrumentation.Instrumentation
+import graphql.execution.preparsed.PreparsedDocumentEntry
+import graphql.execution.preparsed.PreparsedDocumentProvider
+import graphql.language.OperationDefinition
+import graphql.parser.Parser
+import graphql.schema.DataFetcher
+import graphql.schema.DataFetcherFactory
+import graphql.schema.DataFetcherFactoryEnvironment
+import graphql.schema.FieldCoordinates
+import graphql.schema.GraphQLCodeRegistry
+import graphql.schema.idl.RuntimeWiring
+import graphql.schema.idl.TypeRuntimeWiring
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Function
+
+class ExecutionPlanTest extends Specification {
+
+    def sdl = '''
+        type Query {
+            pets : [Pet]
+        }
+        interface Pet {
+            name : String
+        }
+        type Dog implements Pet {
+            name : String
+            barks : Boolean
+        }
+        type Cat implements Pet {
+            name : String
+            meows : Boolean
+        }
+    '''
+
+    def pets = [
+            [name: "Fido", barks: true],
+            [name: "Tom", meows: true],
+            [name: "Rex", barks: false],
+    ]
+
+    def query = '''
+        query q($withBarks : Boolean!) {
+            pets {
+                name
+                ... on Dog { barks @include(if : $withBarks) }
+                ... on Cat { meows }
+            }
+        }
+    '''
+
+    class CachingProvider implements PreparsedDocumentProvider {
+        Map<String, PreparsedDocumentEntry> cache = [:]
+
+        @Override
+        CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+            return CompletableFuture.completedFuture(cache.computeIfAbsent(executionInput.query, { parseAndValidateFunction.apply(executionInput) }))
+        }
+    }
+
+    GraphQL buildGraphQL(CachingProvider provider, AtomicInteger factoryCalls = new AtomicInteger(), Instrumentation instrumentation = null) {
+        def dataFetcherFactory = new DataFetcherFactory() {
+            @Override
+            DataFetcher get(DataFetcherFactoryEnvironment environment) {
+                factoryCalls.incrementAndGet()
+                return { env -> pets } as DataFetcher
+            }
+        }
+        def codeRegistry = GraphQLCodeRegistry.newCodeRegistry()
+                .dataFetcher(FieldCoordinates.coordinates("Query", "pets"), dataFetcherFactory)
+        def runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .codeRegistry(codeRegistry)
+                .type(TypeRuntimeWiring.newTypeWiring("Pet").typeResolver({ env ->
+                    env.getObject().containsKey("barks") ? env.getSchema().getObjectType("Dog") : env.getSchema().getObjectType("Cat")
+                }))
+        def schema = TestUtil.schema(sdl, runtimeWiring)
+        def builder = GraphQL.newGraphQL(schema).preparsedDocumentProvider(provider)
+        if (instrumentation != null) {
+            builder.instrumentation(instrumentation)
+        }
+        builder.build()
+    }
+
+    def "plans give the same results as normal execution and are reused"() {
+        def provider = new CachingProvider()
+        def factoryCalls = new AtomicInteger()
+        def graphQL = buildGraphQL(provider, factoryCalls)
+
+        when:
+        def results = (1..3).collect {
+            def ei = ExecutionInput.newExecutionInput(query)
+                    .variables([withBarks: true])
+                    .graphQLContext([(ExecutionPlan.ENABLE_EXECUTION_PLANS): true])
+                    .build()
+            graphQL.execute(ei)
+        }
+        def planCache = provider.cache[query].getExecutionPlanCache()
+
+        then:
+        results.every { it.errors.isEmpty() }
+        results.every {
+            it.data == [pets: [[name: "Fido", barks: true], [name: "Tom", meows: true], [name: "Rex", barks: false]]]
+        }
+        planCache.size() == 1
+        planCache.getConditionalVariableNames() == ["withBarks"]
+        // the data fetcher factory is consulted once per plan rather than once per fetch
+        factoryCalls.get() == 1
+    }
+
+    def "conditional variable values are part of the plan key"() {
+        def provider = new CachingProvider()
+        def graphQL = buildGraphQL(provider)
+
+        when:
+        def withBarks = graphQL.execute(ExecutionInput.newExecutionInput(query)
+                .variables([withBarks: true])
+                .graphQLContext([(ExecutionPlan.ENABLE_EXECUTION_PLANS): true]))
+        def withoutBarks = graphQL.execute(ExecutionInput.newExecutionInput(query)
+                .variables([withBarks: false])
+                .graphQLContext([(ExecutionPlan.ENABLE_EXECUTION_PLANS): true]))
+
+        then:
+        withBarks.data == [pets: [[name: "Fido", barks: true], [name: "Tom", meows: true], [name: "Rex", barks: false]]]
+        withoutBarks.data == [pets: [[name: "Fido"], [name: "Tom", meows: true], [name: "Rex"]]]
+        provider.cache[query].getExecutionPlanCache().size() == 2
+    }
+
+    def "plans are not used unless enabled"() {
+        def provider = new CachingProvider()
+        def factoryCalls = new AtomicInteger()
+        def graphQL = buildGraphQL(provider, factoryCalls)
+
+        when:
+        2.times {
+            graphQL.execute(ExecutionInput.newExecutionInput(query).variables([withBarks: true]))
+        }
+
+        then:
+        factoryCalls.get() == 2
+    }
+
+    def "plan cache finds all conditional variables"() {
+        def document = new Parser().parseDocument('''
+            query q($a : Boolean!, $b : Boolean!, $c : Boolean!) {
+                f1 @skip(if : $a)
+                ...Frag @include(if : $b)
+                ... on Query @skip(if : true) { f2 }
+            }
+            fragment Frag on Query @include(if : $c) {
+                f3
+            }
+        ''')
+
+        when:
+        def planCache = new ExecutionPlanCache(document)
+
+        then:
+        planCache.getConditionalVariableNames() == ["a", "b", "c"]
+    }
+
+    def "plans are only held for the schema last executed against"() {
+        def firstSchema = TestUtil.schema(sdl)
+        def secondSchema = TestUtil.schema(sdl)
+        def document = new Parser().parseDocument(query)
+        def operationDefinition = document.getDefinitionsOfType(OperationDefinition)[0]
+        def planCache = new ExecutionPlanCache(document)
+        def variables = CoercedVariables.of([withBarks: true])
+
+        when:
+        def firstPlan = planCache.getPlan(firstSchema, operationDefinition, variables)
+        def secondPlan = planCache.getPlan(secondSchema, operationDefinition, variables)
+
+        then:
+        !firstPlan.is(secondPlan)
+        secondPlan.graphQLSchema.is(secondSchema)
+        planCache.getPlan(secondSchema, operationDefinition, variables).is(secondPlan)
+        planCache.size() == 1
+    }
+
+    def "plans share one normalized operation between executions with the same variables"() {
+        def schema = TestUtil.schema(sdl)
+        def document = new Parser().parseDocument(query)
+        def operationDefinition = document.getDefinitionsOfType(OperationDefinition)[0]
+        def plan = new ExecutionPlan(schema)
+
+        when:
+        def first = plan.getNormalizedOperation(operationDefinition, [:], CoercedVariables.of([withBarks: true]))
+        def second = plan.getNormalizedOperation(operationDefinition, [:], CoercedVariables.of([withBarks: true]))
+
+        then:
+        first.is(second)
+        first.topLevelFields.collect { it.name } == ["pets"]
+        first.topLevelFields[0].children.collect { it.name } == ["name", "barks", "meows"]
+    }
+
+    def "plans cache the cost analysis of the operation"() {
+        def calculatorCalls = new AtomicInteger()
+        def analyzer = QueryCostAnalyzer.newQueryCostAnalyzer()
+                .fieldComplexityCalculator({ env, childComplexity ->
+                    calculatorCalls.incrementAndGet()
+                    1 + childComplexity
+                } as FieldComplexityCalculator)
+                .build()
+        def instrumentation = new ChainedInstrumentation([
+                new MaxQueryDepthInstrumentation(2, analyzer),
+                new MaxQueryComplexityInstrumentation(10, analyzer)
+        ])
+        def provider = new CachingProvider()
+        def graphQL = buildGraphQL(provider, new AtomicInteger(), instrumentation)
+
+        when:
+        def results = (1..3).collect {
+            def ei = ExecutionInput.newExecutionInput(query)
+                    .variables([withBarks: true])
+                    .graphQLContext([(ExecutionPlan.ENABLE_EXECUTION_PLANS): true])
+                    .build()
+            graphQL.execute(ei)
+        }
+
+        then:
+        results.every { it.errors.isEmpty() }
+        // pets, name, barks and meows are analysed once, for the first execution, and both limits use that analysis
+        calculatorCalls.get() == 4
+    }
+}
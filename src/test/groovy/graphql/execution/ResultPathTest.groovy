@@ -280,4 +280,51 @@ class ResultPathTest extends Specification {
         then:
         newPath.toList() == ["a", "b", "x"]
     }
+
+    def "segment accessors and levels"() {
+        def path = ResultPath.parse("/a/b[1][2]/c")
+
+        expect:
+        path.getLevel() == 3
+        path.getParent().getLevel() == 2
+        path.getParent().getParent().getLevel() == 2
+        ResultPath.rootPath().getLevel() == 0
+
+        path.isNamedSegment()
+        path.getSegmentName() == "c"
+        path.getSegmentValue() == "c"
+
+        path.getParent().isListSegment()
+        path.getParent().getSegmentIndex() == 2
+        path.getParent().getSegmentValue() == 2
+        path.getParent().getSegmentName() == null
+
+        !ResultPath.rootPath().isListSegment()
+        !ResultPath.rootPath().isNamedSegment()
+        ResultPath.rootPath().getSegmentValue() == null
+    }
+
+    def "equals and hashCode are by value"() {
+        def path1 = ResultPath.rootPath().segment("a").segment(1000).segment("b")
+        def path2 = ResultPath.parse("/a[1000]/b")
+
+        expect:
+        path1 == path2
+        path1.hashCode() == path2.hashCode()
+        path1 != ResultPath.parse("/a[1001]/b")
+        path1 != ResultPath.parse("/a/b")
+        path1 != ResultPath.parse("/x[1000]/b")
+        ResultPath.parse("/a[1]") != ResultPath.parse("/a/b")
+        ResultPath.rootPath().segment("a") != ResultPath.rootPath()
+    }
+
+    def "large indices are kept as ints"() {
+        def path = ResultPath.rootPath().segment("a").segment(100_000)
+
+        expect:
+        path.getSegmentIndex() == 100_000
+        path.toList() == ["a", 100_000]
+        path.toString() == "/a[100000]"
+        path.segmentToString() == "[100000]"
+    }
 }
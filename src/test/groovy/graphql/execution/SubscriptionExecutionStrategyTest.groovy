@@ -16,17 +16,26 @@ import graphql.execution.pubsub.Message
 import graphql.execution.pubsub.ReactiveStreamsMessagePublisher
 import graphql.execution.pubsub.ReactiveStreamsObjectPublisher
 import graphql.execution.pubsub.RxJavaMessagePublisher
+import graphql.execution.reactive.SingleSubscriberPublisher
 import graphql.execution.reactive.SubscriptionPublisher
 import graphql.schema.DataFetcher
 import graphql.schema.DataFetchingEnvironment
 import graphql.schema.PropertyDataFetcher
 import graphql.schema.idl.RuntimeWiring
+import io.reactivex.Flowable
 import org.awaitility.Awaitility
+import org.dataloader.BatchLoader
+import org.dataloader.DataLoaderFactory
+import org.dataloader.DataLoaderRegistry
 import org.reactivestreams.Publisher
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.time.Duration
 import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicBoolean
 
 import static graphql.schema.idl.TypeRuntimeWiring.newTypeWiring
 
@@ -628,4 +637,222 @@ class SubscriptionExecutionStrategyTest extends Specification {
         instrumentResultCalls.size() == 11 // one for the initial execution and then one for each stream event
     }
 
+    def "events can be executed in batches so that data loaders batch across events"() {
+        given:
+        def batchSizes = []
+        BatchLoader<String, String> senderBatchLoader = { keys ->
+            batchSizes.add(keys.size())
+            CompletableFuture.completedFuture(keys.collect { it.toUpperCase() })
+        }
+        def dataLoaderRegistry = new DataLoaderRegistry()
+        dataLoaderRegistry.register("sender", DataLoaderFactory.newDataLoader(senderBatchLoader))
+
+        DataFetcher newMessageDF = { env -> Flowable.range(0, 10).map({ index -> new Message("sender" + index, "text" + index) }) }
+        DataFetcher senderDF = { env -> env.getDataLoader("sender").load(((Message) env.getSource()).sender) }
+
+        RuntimeWiring runtimeWiring = buildBaseSubscriptionWiring(senderDF, PropertyDataFetcher.fetching("text"))
+                .type(newTypeWiring("Subscription").dataFetcher("newMessage", newMessageDF).build())
+                .build()
+        def eventBatching = SubscriptionEventBatching.newSubscriptionEventBatching()
+                .maxBatchSize(5)
+                .maxBatchDelay(Duration.ofSeconds(10))
+                .build()
+        GraphQL graphQL = TestUtil.graphQL(idl, runtimeWiring)
+                .subscriptionExecutionStrategy(new SubscriptionExecutionStrategy(new SimpleDataFetcherExceptionHandler(), eventBatching))
+                .build()
+
+        def executionInput = ExecutionInput.newExecutionInput().query("""
+            subscription NewMessages {
+              newMessage(roomId: 123) {
+                sender
+                text
+              }
+            }
+        """).dataLoaderRegistry(dataLoaderRegistry).build()
+
+        when:
+        def executionResult = graphQL.execute(executionInput)
+        Publisher<ExecutionResult> msgStream = executionResult.getData()
+
+        def messages = Collections.synchronizedList([])
+        def done = new AtomicBoolean()
+        msgStream.subscribe(new Subscriber<ExecutionResult>() {
+            @Override
+            void onSubscribe(Subscription subscription) {
+                subscription.request(Long.MAX_VALUE)
+            }
+
+            @Override
+            void onNext(ExecutionResult er) {
+                messages.add(er)
+            }
+
+            @Override
+            void onError(Throwable t) {
+                done.set(true)
+            }
+
+            @Override
+            void onComplete() {
+                done.set(true)
+            }
+        })
+
+        then:
+        msgStream instanceof SubscriptionPublisher
+        Awaitility.await().untilTrue(done)
+
+        messages.size() == 10
+        for (int i = 0; i < messages.size(); i++) {
+            assert messages[i].data == ["newMessage": [sender: "SENDER" + i, text: "text" + i]]
+        }
+        batchSizes == [5, 5]
+    }
+
+    def "field errors in batched events stay with their own event"() {
+        given:
+        DataFetcher newMessageDF = { env -> Flowable.range(0, 10).map({ index -> new Message("sender" + index, "text" + index) }) }
+        DataFetcher textDF = { env ->
+            if (((Message) env.getSource()).text == "text7") {
+                return CompletableFuture.failedFuture(new RuntimeException("Bang"))
+            }
+            return ((Message) env.getSource()).text
+        }
+        RuntimeWiring runtimeWiring = buildBaseSubscriptionWiring(PropertyDataFetcher.fetching("sender"), textDF)
+                .type(newTypeWiring("Subscription").dataFetcher("newMessage", newMessageDF).build())
+                .build()
+        def eventBatching = SubscriptionEventBatching.newSubscriptionEventBatching().maxBatchSize(3).build()
+        GraphQL graphQL = TestUtil.graphQL(idl, runtimeWiring)
+                .subscriptionExecutionStrategy(new SubscriptionExecutionStrategy(new SimpleDataFetcherExceptionHandler(), eventBatching))
+                .build()
+
+        when:
+        def executionResult = graphQL.execute("""
+            subscription NewMessages {
+              newMessage(roomId: 123) {
+                sender
+                text
+              }
+            }
+        """)
+        Publisher<ExecutionResult> msgStream = executionResult.getData()
+        def capturingSubscriber = new CapturingSubscriber<ExecutionResult>()
+        msgStream.subscribe(capturingSubscriber)
+
+        then:
+        Awaitility.await().untilTrue(capturingSubscriber.isDone())
+
+        // the failed field is a non null field so its error makes the message null rather than failing the stream
+        capturingSubscriber.events.size() == 10
+        capturingSubscriber.events[7].data == [newMessage: null]
+        capturingSubscriber.events[7].errors.size() == 1
+        capturingSubscriber.throwable == null
+    }
+
+    def "identical subscriptions share one execution when multiplexed"() {
+        given:
+        def sourcePublishers = []
+        DataFetcher newMessageDF = { env ->
+            def sourcePublisher = new SingleSubscriberPublisher<Object>()
+            sourcePublishers.add(sourcePublisher)
+            sourcePublisher
+        }
+        def senderCalls = 0
+        DataFetcher senderDF = { env ->
+            senderCalls++
+            ((Message) env.getSource()).sender
+        }
+        RuntimeWiring runtimeWiring = buildBaseSubscriptionWiring(senderDF, PropertyDataFetcher.fetching("text"))
+                .type(newTypeWiring("Subscription").dataFetcher("newMessage", newMessageDF).build())
+                .build()
+        def multiplexer = SubscriptionMultiplexer.newSubscriptionMultiplexer({ executionContext -> "everyone" }).build()
+        GraphQL graphQL = TestUtil.graphQL(idl, runtimeWiring)
+                .subscriptionExecutionStrategy(new SubscriptionExecutionStrategy(new SimpleDataFetcherExceptionHandler(), null, multiplexer))
+                .build()
+
+        def query = 'subscription NewMessages($roomId: Int) { newMessage(roomId: $roomId) { sender text } }'
+        def sameQuery = """
+            subscription NewMessages(\$roomId: Int) {
+              newMessage(roomId: \$roomId) {
+                sender
+                text
+              }
+            }
+        """
+
+        when:
+        def executionResult1 = graphQL.execute(ExecutionInput.newExecutionInput(query).variables([roomId: 123]))
+        def executionResult2 = graphQL.execute(ExecutionInput.newExecutionInput(sameQuery).variables([roomId: 123]))
+        def executionResult3 = graphQL.execute(ExecutionInput.newExecutionInput(query).variables([roomId: 456]))
+
+        then:
+        // nothing is started until a request subscribes
+        sourcePublishers.size() == 0
+        multiplexer.sharedSubscriptionCount == 0
+
+        when:
+        def capturingSubscriber1 = new CapturingSubscriber<ExecutionResult>()
+        def capturingSubscriber2 = new CapturingSubscriber<ExecutionResult>()
+        (executionResult1.getData() as Publisher<ExecutionResult>).subscribe(capturingSubscriber1)
+        (executionResult2.getData() as Publisher<ExecutionResult>).subscribe(capturingSubscriber2)
+
+        then:
+        sourcePublishers.size() == 1
+        multiplexer.sharedSubscriptionCount == 1
+
+        when:
+        3.times { sourcePublishers[0].offer(new Message("sender" + it, "text" + it)) }
+        sourcePublishers[0].noMoreData()
+
+        then:
+        Awaitility.await().untilTrue(capturingSubscriber1.isDone())
+        Awaitility.await().untilTrue(capturingSubscriber2.isDone())
+
+        capturingSubscriber1.events.collect { it.data } == [0, 1, 2].collect { ["newMessage": [sender: "sender" + it, text: "text" + it]] }
+        capturingSubscriber2.events.collect { it.data } == capturingSubscriber1.events.collect { it.data }
+        // each event is executed once for both subscribers
+        senderCalls == 3
+        // a finished subscription is no longer shared, and the request that never subscribed left nothing behind
+        multiplexer.sharedSubscriptionCount == 0
+
+        when:
+        def capturingSubscriber3 = new CapturingSubscriber<ExecutionResult>()
+        (executionResult1.getData() as Publisher<ExecutionResult>).subscribe(capturingSubscriber3)
+        sourcePublishers[1].offer(new Message("sender3", "text3"))
+        sourcePublishers[1].noMoreData()
+
+        then:
+        // subscribing after the shared stream finished starts a new one rather than getting an empty stream
+        Awaitility.await().untilTrue(capturingSubscriber3.isDone())
+        sourcePublishers.size() == 2
+        capturingSubscriber3.events.collect { it.data } == [["newMessage": [sender: "sender3", text: "text3"]]]
+        multiplexer.sharedSubscriptionCount == 0
+    }
+
+    def "errors creating a multiplexed subscription are given to its subscribers"() {
+        given:
+        DataFetcher newMessageDF = { env -> throw new RuntimeException("no source") }
+        RuntimeWiring runtimeWiring = buildBaseSubscriptionWiring(PropertyDataFetcher.fetching("sender"), PropertyDataFetcher.fetching("text"))
+                .type(newTypeWiring("Subscription").dataFetcher("newMessage", newMessageDF).build())
+                .build()
+        def multiplexer = SubscriptionMultiplexer.newSubscriptionMultiplexer({ executionContext -> "everyone" }).build()
+        GraphQL graphQL = TestUtil.graphQL(idl, runtimeWiring)
+                .subscriptionExecutionStrategy(new SubscriptionExecutionStrategy(new SimpleDataFetcherExceptionHandler(), null, multiplexer))
+                .build()
+
+        when:
+        def executionResult = graphQL.execute(ExecutionInput.newExecutionInput('subscription { newMessage(roomId: 123) { sender text } }'))
+        def capturingSubscriber = new CapturingSubscriber<ExecutionResult>()
+        (executionResult.getData() as Publisher<ExecutionResult>).subscribe(capturingSubscriber)
+
+        then:
+        executionResult.errors.isEmpty()
+        Awaitility.await().untilTrue(capturingSubscriber.isDone())
+        capturingSubscriber.events.size() == 1
+        capturingSubscriber.events[0].data == null
+        capturingSubscriber.events[0].errors.size() == 1
+        capturingSubscriber.throwable == null
+        multiplexer.sharedSubscriptionCount == 0
+    }
+
 }
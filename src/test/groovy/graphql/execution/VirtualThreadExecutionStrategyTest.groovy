@@ -0,0 +1,143 @@
+package graphql.execution
+
+import graphql.ExecutionInput
+import graphql.TestUtil
+import graphql.schema.DataFetcher
+import org.dataloader.BatchLoader
+import org.dataloader.DataLoaderFactory
+import org.dataloader.DataLoaderRegistry
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class VirtualThreadExecutionStrategyTest extends Specification {
+
+    def spec = '''
+        type Query {
+            shops : [Shop]
+        }
+        type Shop {
+            id : ID
+            name : String
+            owner : String
+        }
+    '''
+
+    // used when the tests are not run on a JVM with virtual threads
+    def fallbackExecutor = Executors.newCachedThreadPool()
+
+    def cleanup() {
+        fallbackExecutor.shutdownNow()
+    }
+
+    def "blocking data fetchers are not invoked on the calling thread"() {
+        def callingThread = Thread.currentThread()
+        def fetchThreads = ConcurrentHashMap.newKeySet()
+        DataFetcher shopsDF = { env ->
+            fetchThreads.add(Thread.currentThread())
+            Thread.sleep(10)
+            [[id: "1"], [id: "2"], [id: "3"]]
+        }
+        DataFetcher nameDF = { env ->
+            fetchThreads.add(Thread.currentThread())
+            Thread.sleep(10)
+            "shop-" + env.getSource().id
+        }
+        def graphQL = TestUtil.graphQL(spec, [Query: [shops: shopsDF], Shop: [name: nameDF]])
+                .queryExecutionStrategy(new VirtualThreadExecutionStrategy(new SimpleDataFetcherExceptionHandler(), fallbackExecutor))
+                .build()
+
+        when:
+        def result = graphQL.executeAsync(ExecutionInput.newExecutionInput("{ shops { id name } }")).get(5, TimeUnit.SECONDS)
+
+        then:
+        result.errors.isEmpty()
+        result.data == [shops: [[id: "1", name: "shop-1"], [id: "2", name: "shop-2"], [id: "3", name: "shop-3"]]]
+        !fetchThreads.contains(callingThread)
+        !fetchThreads.isEmpty()
+    }
+
+    def "exceptions from blocking data fetchers are handled as usual"() {
+        DataFetcher shopsDF = { env -> [[id: "1"]] }
+        DataFetcher nameDF = { env -> throw new RuntimeException("bang") }
+        def graphQL = TestUtil.graphQL(spec, [Query: [shops: shopsDF], Shop: [name: nameDF]])
+                .queryExecutionStrategy(new VirtualThreadExecutionStrategy(new SimpleDataFetcherExceptionHandler(), fallbackExecutor))
+                .build()
+
+        when:
+        def result = graphQL.execute("{ shops { id name } }")
+
+        then:
+        result.data == [shops: [[id: "1", name: null]]]
+        result.errors.size() == 1
+        result.errors[0].message.contains("bang")
+        result.errors[0].path == ["shops", 0, "name"]
+    }
+
+    def "errors thrown by blocking data fetchers fail the field rather than hanging the request"() {
+        DataFetcher shopsDF = { env -> [[id: "1"]] }
+        DataFetcher nameDF = { env -> throw new StackOverflowError("deep") }
+        def graphQL = TestUtil.graphQL(spec, [Query: [shops: shopsDF], Shop: [name: nameDF]])
+                .queryExecutionStrategy(new VirtualThreadExecutionStrategy(new SimpleDataFetcherExceptionHandler(), fallbackExecutor))
+                .build()
+
+        when:
+        def result = graphQL.executeAsync(ExecutionInput.newExecutionInput("{ shops { id name } }")).get(5, TimeUnit.SECONDS)
+
+        then:
+        result.data == [shops: [[id: "1", name: null]]]
+        result.errors.size() == 1
+        result.errors[0].path == ["shops", 0, "name"]
+    }
+
+    def "data loader calls made by blocking data fetchers are still batched"() {
+        def batchCalls = new AtomicInteger()
+        BatchLoader<String, String> ownerBatchLoader = { keys ->
+            batchCalls.incrementAndGet()
+            CompletableFuture.completedFuture(keys.collect { "owner-" + it })
+        }
+        DataFetcher shopsDF = { env -> (1..20).collect { [id: String.valueOf(it)] } }
+        DataFetcher ownerDF = { env ->
+            // a blocking call before the data loader is used
+            Thread.sleep(5)
+            env.getDataLoader("owners").load(env.getSource().id)
+        }
+        def graphQL = TestUtil.graphQL(spec, [Query: [shops: shopsDF], Shop: [owner: ownerDF]])
+                .queryExecutionStrategy(new VirtualThreadExecutionStrategy(new SimpleDataFetcherExceptionHandler(), fallbackExecutor))
+                .build()
+        def registry = new DataLoaderRegistry()
+        registry.register("owners", DataLoaderFactory.newDataLoader(ownerBatchLoader))
+
+        when:
+        def result = graphQL.executeAsync(ExecutionInput.newExecutionInput("{ shops { id owner } }").dataLoaderRegistry(registry))
+                .get(5, TimeUnit.SECONDS)
+
+        then:
+        result.errors.isEmpty()
+        (result.data["shops"] as List).collect { it["owner"] } == (1..20).collect { "owner-" + it }
+        batchCalls.get() == 1
+    }
+
+    def "falls back to the calling thread without virtual threads or a fallback executor"() {
+        def callingThread = Thread.currentThread()
+        def fetchThreads = ConcurrentHashMap.newKeySet()
+        DataFetcher shopsDF = { env ->
+            fetchThreads.add(Thread.currentThread())
+            [[id: "1"]]
+        }
+        def graphQL = TestUtil.graphQL(spec, [Query: [shops: shopsDF]])
+                .queryExecutionStrategy(new VirtualThreadExecutionStrategy())
+                .build()
+
+        when:
+        def result = graphQL.execute("{ shops { id } }")
+
+        then:
+        result.data == [shops: [[id: "1"]]]
+        fetchThreads.contains(callingThread) == !VirtualThreadExecutionStrategy.isVirtualThreadsSupported()
+    }
+}
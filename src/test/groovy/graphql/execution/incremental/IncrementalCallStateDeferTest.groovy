@@ -5,9 +5,14 @@ import graphql.ExecutionResultImpl
 import graphql.execution.ResultPath
 import graphql.incremental.DelayedIncrementalPartialResult
 import org.awaitility.Awaitility
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
 import spock.lang.Specification
 
 import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReference
 import java.util.function.Supplier
 
 class IncrementalCallStateDeferTest extends Specification {
@@ -195,6 +200,52 @@ class IncrementalCallStateDeferTest extends Specification {
         results.any { it.incremental[0].data["c"] == "C" }
     }
 
+    def "a long streamed list of synchronously completed items does not grow the stack"() {
+        given:
+        def itemCount = 100_000
+        def incrementalCallState = new IncrementalCallState()
+        StreamedCall.ItemCompleter itemCompleter = { item, itemPath, deferredCallContext -> CompletableFuture.completedFuture(item) }
+        incrementalCallState.enqueue(new StreamedCall(null, ResultPath.parse("/list"), (0..<itemCount).iterator(), 0, itemCompleter))
+
+        def results = new AtomicInteger()
+        def lastResult = new AtomicReference<DelayedIncrementalPartialResult>()
+        def failure = new AtomicReference<Throwable>()
+        def done = new AtomicBoolean()
+        def subscriber = new Subscriber<DelayedIncrementalPartialResult>() {
+            @Override
+            void onSubscribe(Subscription subscription) {
+                subscription.request(Long.MAX_VALUE)
+            }
+
+            @Override
+            void onNext(DelayedIncrementalPartialResult result) {
+                results.incrementAndGet()
+                lastResult.set(result)
+            }
+
+            @Override
+            void onError(Throwable t) {
+                failure.set(t)
+                done.set(true)
+            }
+
+            @Override
+            void onComplete() {
+                done.set(true)
+            }
+        }
+
+        when:
+        incrementalCallState.startDeferredCalls().subscribe(subscriber)
+
+        then:
+        done.get()
+        failure.get() == null
+        results.get() == itemCount
+        lastResult.get().incremental[0].path == ["list", itemCount - 1]
+        !lastResult.get().hasNext()
+    }
+
     private static DeferredFragmentCall offThread(String data, int sleepTime, String path) {
         def callSupplier = new Supplier<CompletableFuture<DeferredFragmentCall.FieldWithExecutionResult>>() {
             @Override
@@ -0,0 +1,339 @@
+package graphql.execution.incremental
+
+import graphql.Directives
+import graphql.ExecutionInput
+import graphql.ExecutionResult
+import graphql.ExperimentalApi
+import graphql.GraphQL
+import graphql.TestUtil
+import graphql.execution.pubsub.CapturingSubscriber
+import graphql.incremental.DelayedIncrementalPartialResult
+import graphql.incremental.IncrementalExecutionResult
+import graphql.schema.DataFetcher
+import graphql.schema.idl.RuntimeWiring
+import org.awaitility.Awaitility
+import org.reactivestreams.Publisher
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicInteger
+
+import static graphql.schema.idl.TypeRuntimeWiring.newTypeWiring
+
+class StreamExecutionSupportIntegrationTest extends Specification {
+    def schemaSpec = '''
+            type Query {
+                posts(howMany: Int = 3): [Post]
+                tags: [[String]]
+            }
+            
+            type Post {
+                id: ID!
+                title: String
+                dataFetcherError: String
+            }
+        '''
+
+    GraphQL graphQL = null
+    AtomicInteger itemsPulled = new AtomicInteger()
+
+    // a lazy list so we can see how far ahead of the subscriber the list has been read
+    Iterable<Map<String, Object>> lazyPosts(int howMany) {
+        return new Iterable<Map<String, Object>>() {
+            @Override
+            Iterator<Map<String, Object>> iterator() {
+                return new Iterator<Map<String, Object>>() {
+                    int i = 0
+
+                    @Override
+                    boolean hasNext() {
+                        return i < howMany
+                    }
+
+                    @Override
+                    Map<String, Object> next() {
+                        itemsPulled.incrementAndGet()
+                        return [id: "100" + (i++)]
+                    }
+                }
+            }
+        }
+    }
+
+    void setup() {
+        DataFetcher titleDF = { env -> CompletableFuture.supplyAsync { "Title " + env.source.id } }
+        DataFetcher errorDF = { env -> throw new RuntimeException("Bang!!!") }
+        def runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .type(newTypeWiring("Query")
+                        .dataFetcher("posts", { env -> lazyPosts(env.getArgument("howMany")) } as DataFetcher)
+                        .dataFetcher("tags", { env -> [["a", "b"], ["c"]] } as DataFetcher))
+                .type(newTypeWiring("Post")
+                        .dataFetcher("title", titleDF)
+                        .dataFetcher("dataFetcherError", errorDF))
+                .build()
+
+        def schema = TestUtil.schema(schemaSpec, runtimeWiring)
+                .transform({ builder -> builder.additionalDirective(Directives.StreamDirective) })
+        this.graphQL = GraphQL.newGraphQL(schema).build()
+    }
+
+    def "simple stream"() {
+        def query = '''
+            query {
+                posts @stream(initialCount: 1, label: "posts") {
+                    id
+                    title
+                }
+            }
+        '''
+
+        when:
+        IncrementalExecutionResult initialResult = executeQuery(query)
+
+        then:
+        initialResult.toSpecification() == [
+                data   : [posts: [[id: "1000", title: "Title 1000"]]],
+                hasNext: true
+        ]
+
+        when:
+        def incrementalResults = getIncrementalResults(initialResult)
+
+        then:
+        incrementalResults == [
+                [
+                        hasNext    : true,
+                        incremental: [
+                                [
+                                        path : ["posts", 1],
+                                        label: "posts",
+                                        items: [[id: "1001", title: "Title 1001"]]
+                                ]
+                        ]
+                ],
+                [
+                        hasNext    : false,
+                        incremental: [
+                                [
+                                        path : ["posts", 2],
+                                        label: "posts",
+                                        items: [[id: "1002", title: "Title 1002"]]
+                                ]
+                        ]
+                ]
+        ]
+    }
+
+    def "initialCount defaults to 0"() {
+        def query = '''
+            query {
+                posts(howMany: 1) @stream {
+                    id
+                }
+            }
+        '''
+
+        when:
+        IncrementalExecutionResult initialResult = executeQuery(query)
+
+        then:
+        initialResult.toSpecification() == [
+                data   : [posts: []],
+                hasNext: true
+        ]
+        getIncrementalResults(initialResult) == [
+                [
+                        hasNext    : false,
+                        incremental: [[path: ["posts", 0], items: [[id: "1000"]]]]
+                ]
+        ]
+    }
+
+    def "there is nothing to stream when the initial count covers the list"() {
+        def query = '''
+            query {
+                posts @stream(initialCount: 5) {
+                    id
+                }
+            }
+        '''
+
+        when:
+        def result = executeQuery(query)
+
+        then:
+        !(result instanceof IncrementalExecutionResult)
+        result.toSpecification() == [data: [posts: [[id: "1000"], [id: "1001"], [id: "1002"]]]]
+    }
+
+    def "stream can be turned off"() {
+        def query = '''
+            query($stream: Boolean!) {
+                posts @stream(if: $stream) {
+                    id
+                }
+            }
+        '''
+
+        when:
+        def result = executeQuery(query, true, [stream: false])
+
+        then:
+        !(result instanceof IncrementalExecutionResult)
+        result.toSpecification() == [data: [posts: [[id: "1000"], [id: "1001"], [id: "1002"]]]]
+    }
+
+    def "stream is ignored when incremental support is not enabled"() {
+        def query = '''
+            query {
+                posts @stream {
+                    id
+                }
+            }
+        '''
+
+        when:
+        def result = executeQuery(query, false, [:])
+
+        then:
+        !(result instanceof IncrementalExecutionResult)
+        result.toSpecification() == [data: [posts: [[id: "1000"], [id: "1001"], [id: "1002"]]]]
+    }
+
+    def "only the outer list of a list of lists is streamed"() {
+        def query = '''
+            query {
+                tags @stream(initialCount: 1)
+            }
+        '''
+
+        when:
+        IncrementalExecutionResult initialResult = executeQuery(query)
+
+        then:
+        initialResult.toSpecification() == [
+                data   : [tags: [["a", "b"]]],
+                hasNext: true
+        ]
+        getIncrementalResults(initialResult) == [
+                [
+                        hasNext    : false,
+                        incremental: [[path: ["tags", 1], items: [["c"]]]]
+                ]
+        ]
+    }
+
+    def "errors are reported in the payload of the item that raised them"() {
+        def query = '''
+            query {
+                posts(howMany: 2) @stream(initialCount: 1) {
+                    id
+                    dataFetcherError
+                }
+            }
+        '''
+
+        when:
+        IncrementalExecutionResult initialResult = executeQuery(query)
+
+        then:
+        initialResult.errors.size() == 1
+        initialResult.errors[0].path == ["posts", 0, "dataFetcherError"]
+
+        when:
+        def incrementalResults = getIncrementalResults(initialResult)
+
+        then:
+        incrementalResults.size() == 1
+        incrementalResults[0].incremental[0].items == [[id: "1001", dataFetcherError: null]]
+        incrementalResults[0].incremental[0].errors.size() == 1
+        incrementalResults[0].incremental[0].errors[0].path == ["posts", 1, "dataFetcherError"]
+    }
+
+    def "items are only read from the list when the subscriber asks for them"() {
+        def query = '''
+            query {
+                posts(howMany: 100) @stream(initialCount: 2) {
+                    id
+                }
+            }
+        '''
+
+        when:
+        IncrementalExecutionResult initialResult = executeQuery(query)
+
+        then:
+        itemsPulled.get() == 2
+
+        when:
+        def received = []
+        Subscription subscription = null
+        initialResult.incrementalItemPublisher.subscribe(new Subscriber<DelayedIncrementalPartialResult>() {
+            @Override
+            void onSubscribe(Subscription s) {
+                subscription = s
+            }
+
+            @Override
+            void onNext(DelayedIncrementalPartialResult result) {
+                received.add(result)
+            }
+
+            @Override
+            void onError(Throwable t) {
+            }
+
+            @Override
+            void onComplete() {
+            }
+        })
+
+        then:
+        itemsPulled.get() == 2
+
+        when:
+        subscription.request(3)
+        Awaitility.await().until { received.size() == 3 }
+
+        then:
+        itemsPulled.get() == 5
+        received.every { it.hasNext }
+
+        when:
+        subscription.request(Long.MAX_VALUE)
+        Awaitility.await().until { received.size() == 98 }
+
+        then:
+        itemsPulled.get() == 100
+        !received.last().hasNext
+    }
+
+    private ExecutionResult executeQuery(String query) {
+        return this.executeQuery(query, true, [:])
+    }
+
+    private ExecutionResult executeQuery(String query, boolean incrementalSupport, Map<String, Object> variables) {
+        return graphQL.execute(
+                ExecutionInput.newExecutionInput()
+                        .graphQLContext([(ExperimentalApi.ENABLE_INCREMENTAL_SUPPORT): incrementalSupport])
+                        .query(query)
+                        .variables(variables)
+                        .build()
+        )
+    }
+
+    private static List<Map<String, Object>> getIncrementalResults(IncrementalExecutionResult initialResult) {
+        Publisher<DelayedIncrementalPartialResult> incrementalResultStream = initialResult.incrementalItemPublisher
+
+        def subscriber = new CapturingSubscriber<DelayedIncrementalPartialResult>()
+
+        incrementalResultStream.subscribe(subscriber)
+
+        Awaitility.await().untilTrue(subscriber.isDone())
+
+        return subscriber.getEvents()
+                .collect { it.toSpecification() }
+    }
+}
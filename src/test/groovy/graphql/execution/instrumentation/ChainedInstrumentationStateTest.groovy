@@ -6,7 +6,10 @@ import graphql.GraphQL
 import graphql.StarWarsSchema
 import graphql.execution.AsyncExecutionStrategy
 import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters
+import graphql.execution.instrumentation.parameters.InstrumentationFieldParameters
 import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters
 import graphql.validation.ValidationError
 import spock.lang.Specification
@@ -281,6 +284,96 @@ class ChainedInstrumentationStateTest extends Specification {
     }
 
 
+    def "only the instrumentations that override a hook are called for it"() {
+        def calls = []
+        def fetching = new SimplePerformantInstrumentation() {
+            @Override
+            FieldFetchingInstrumentationContext beginFieldFetching(InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+                calls.add("fetching")
+                return FieldFetchingInstrumentationContext.NOOP
+            }
+        }
+        def legacyFetch = new SimplePerformantInstrumentation() {
+            @Override
+            InstrumentationContext<Object> beginFieldFetch(InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+                calls.add("fetch")
+                return SimpleInstrumentationContext.noOp()
+            }
+        }
+        def chainedInstrumentation = new ChainedInstrumentation([SimplePerformantInstrumentation.INSTANCE, fetching, legacyFetch])
+        def state = chainedInstrumentation.createStateAsync(null).join()
+
+        when:
+        def fetchingCtx = chainedInstrumentation.beginFieldFetching(null, state)
+
+        then:
+        calls == ["fetching", "fetch"]
+        fetchingCtx != FieldFetchingInstrumentationContext.NOOP
+
+        when:
+        def executionCtx = chainedInstrumentation.beginFieldExecution(null, state)
+        def strategyCtx = chainedInstrumentation.beginExecutionStrategy(null, state)
+        def schema = chainedInstrumentation.instrumentSchema(StarWarsSchema.starWarsSchema, null, state)
+
+        then:
+        executionCtx.is(SimpleInstrumentationContext.noOp())
+        strategyCtx.is(ExecutionStrategyInstrumentationContext.NOOP)
+        schema.is(StarWarsSchema.starWarsSchema)
+    }
+
+    def "the context of a single interested instrumentation is returned as is"() {
+        def ctx = new TestingInstrumentContext("field", [], [], false)
+        def fieldInstrumentation = new SimplePerformantInstrumentation() {
+            @Override
+            InstrumentationContext<Object> beginFieldExecution(InstrumentationFieldParameters parameters, InstrumentationState state) {
+                return ctx
+            }
+        }
+        def chainedInstrumentation = new ChainedInstrumentation([new SimplePerformantInstrumentation(), fieldInstrumentation, new SimplePerformantInstrumentation()])
+        def state = chainedInstrumentation.createStateAsync(null).join()
+
+        expect:
+        chainedInstrumentation.beginFieldExecution(null, state).is(ctx)
+    }
+
+    def "each instrumentation holds the operation back in turn"() {
+        def calls = []
+        def gate = new CompletableFuture<Void>()
+        def first = new SimplePerformantInstrumentation() {
+            @Override
+            CompletableFuture<Void> awaitExecuteOperation(InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+                calls.add("first")
+                return gate
+            }
+        }
+        def second = new SimplePerformantInstrumentation() {
+            @Override
+            CompletableFuture<Void> awaitExecuteOperation(InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+                calls.add("second")
+                return null
+            }
+        }
+        def chainedInstrumentation = new ChainedInstrumentation([first, SimplePerformantInstrumentation.INSTANCE, second])
+        def state = chainedInstrumentation.createStateAsync(null).join()
+
+        expect:
+        new ChainedInstrumentation([SimplePerformantInstrumentation.INSTANCE]).awaitExecuteOperation(null, state) == null
+
+        when:
+        def operationAllowed = chainedInstrumentation.awaitExecuteOperation(null, state)
+
+        then:
+        calls == ["first"]
+        !operationAllowed.isDone()
+
+        when:
+        gate.complete(null)
+
+        then:
+        calls == ["first", "second"]
+        operationAllowed.isDone()
+    }
+
     class StringInstrumentationState implements InstrumentationState {
         StringInstrumentationState(String value) {
             this.value = value
@@ -0,0 +1,34 @@
+package graphql.execution.instrumentation
+
+import spock.lang.Specification
+
+class DurationHistogramTest extends Specification {
+
+    def "durations are counted in power of two buckets"() {
+        def histogram = new DurationHistogram()
+
+        when:
+        [-5L, 0L, 1L, 2L, 3L, 4L, 1023L, 1024L, 1L << 38, (1L << 39) - 1, 1L << 39, Long.MAX_VALUE].each { histogram.record(it) }
+        def counts = histogram.getCounts()
+
+        then:
+        counts.length == DurationHistogram.BUCKETS
+        counts[0] == 2
+        counts[1] == 1
+        counts[2] == 2
+        counts[3] == 1
+        counts[10] == 1
+        counts[11] == 1
+        // the last bucket counts everything from 2^38 up
+        counts[DurationHistogram.BUCKETS - 1] == 4
+        counts.sum() == 12
+    }
+
+    def "each duration is below the upper bound of its bucket"() {
+        expect:
+        duration < DurationHistogram.bucketUpperBoundNanos(DurationHistogram.bucket(duration))
+
+        where:
+        duration << [0L, 1L, 7L, 8L, 1_000_000L, (1L << 38) - 1, 1L << 38, 1L << 50, Long.MAX_VALUE - 1]
+    }
+}
@@ -0,0 +1,148 @@
+package graphql.execution.instrumentation
+
+import graphql.AssertException
+import graphql.GraphQL
+import graphql.StarWarsSchema
+import graphql.execution.AsyncExecutionStrategy
+import graphql.execution.AsyncSerialExecutionStrategy
+import graphql.execution.instrumentation.tracing.SamplingTracingInstrumentation
+import spock.lang.Specification
+
+import static graphql.ExecutionInput.newExecutionInput
+import static graphql.execution.instrumentation.tracing.SamplingTracingInstrumentation.Options.newOptions
+
+class SamplingTracingInstrumentationTest extends Specification {
+
+    def query = """
+        {
+            hero {
+                id
+                appearsIn
+            }
+        }
+        """
+
+    GraphQL graphQL(SamplingTracingInstrumentation instrumentation, testExecutionStrategy = new AsyncExecutionStrategy()) {
+        GraphQL.newGraphQL(StarWarsSchema.starWarsSchema)
+                .queryExecutionStrategy(testExecutionStrategy)
+                .instrumentation(instrumentation)
+                .build()
+    }
+
+    def 'tracing captures the same timings as the apollo tracing instrumentation'() {
+        when:
+        def executionResult = graphQL(new SamplingTracingInstrumentation(), testExecutionStrategy).execute(query)
+        def extensions = executionResult.getExtensions()
+        def specExtensions = executionResult.toSpecification().get("extensions")
+
+        then:
+        specExtensions == extensions
+
+        def tracing = extensions['tracing']
+        tracing["version"] == 1L
+        tracing["startTime"] != null
+        tracing["endTime"] != null
+        tracing["duration"] > 0L
+        tracing['parsing']['duration'] > 0L
+        tracing['validation']['duration'] > 0L
+
+        List resolvers = tracing['execution']['resolvers'] as List
+        resolvers.size() == 3
+        resolvers[0]['fieldName'] == "hero"
+        resolvers[0]['path'] == ["hero"]
+        resolvers[0]['startOffset'] > 0L
+        resolvers[0]['duration'] > 0L
+        resolvers[0]['parentType'] == "QueryType"
+        resolvers[0]['returnType'] == "Character"
+
+        resolvers[1]['fieldName'] == "id"
+        resolvers[1]['path'] == ["hero", "id"]
+        resolvers[1]['parentType'] == "Droid"
+        resolvers[1]['returnType'] == "String!"
+
+        resolvers[2]['fieldName'] == "appearsIn"
+        resolvers[2]['path'] == ["hero", "appearsIn"]
+        resolvers[2]['returnType'] == "[Episode]"
+
+        where:
+        testExecutionStrategy              | _
+        new AsyncExecutionStrategy()       | _
+        new AsyncSerialExecutionStrategy() | _
+    }
+
+    def 'timings can be aggregated per field coordinate'() {
+        def aggregatingQuery = """
+        {
+            hero {
+                friends {
+                    name
+                }
+            }
+        }
+        """
+        def instrumentation = new SamplingTracingInstrumentation(newOptions().aggregateByFieldCoordinates(true))
+
+        when:
+        def executionResult = graphQL(instrumentation).execute(aggregatingQuery)
+        def tracing = executionResult.getExtensions()['tracing']
+
+        then:
+        tracing['execution']['resolvers'] == null
+
+        List fields = tracing['execution']['fields'] as List
+        def byCoordinates = fields.collectEntries { [(it['parentType'] + "." + it['fieldName']): it] }
+        byCoordinates.keySet() == ["QueryType.hero", "Droid.friends", "Human.name"] as Set
+
+        def humanName = byCoordinates["Human.name"]
+        humanName['count'] == 3L
+        humanName['duration'] >= humanName['maxDuration']
+        humanName['maxDuration'] >= humanName['minDuration']
+        (humanName['histogram'] as List).sum() == 3L
+        byCoordinates["QueryType.hero"]['count'] == 1L
+    }
+
+    def 'requests that are not sampled are not traced'() {
+        def instrumentation = new SamplingTracingInstrumentation(newOptions().sampleRate(0.0d))
+
+        when:
+        def executionResult = graphQL(instrumentation).execute(query)
+
+        then:
+        executionResult.errors.isEmpty()
+        executionResult.getExtensions() == null
+    }
+
+    def 'the sample rate can be decided per request'() {
+        def instrumentation = new SamplingTracingInstrumentation(newOptions()
+                .sampleRate({ executionInput -> executionInput.operationName == "traced" ? 1.0d : 0.0d }))
+        def graphQL = graphQL(instrumentation)
+
+        when:
+        def traced = graphQL.execute(newExecutionInput("query traced { hero { id } }").operationName("traced"))
+        def notTraced = graphQL.execute(newExecutionInput("query notTraced { hero { id } }").operationName("notTraced"))
+
+        then:
+        traced.getExtensions()['tracing'] != null
+        notTraced.getExtensions() == null
+    }
+
+    def 'the number of traced fields is bounded'() {
+        def instrumentation = new SamplingTracingInstrumentation(newOptions().maximumTracedFields(2))
+
+        when:
+        def executionResult = graphQL(instrumentation).execute(query)
+        List resolvers = executionResult.getExtensions()['tracing']['execution']['resolvers'] as List
+
+        then:
+        executionResult.errors.isEmpty()
+        resolvers.collect { it['fieldName'] } == ["hero", "id"]
+    }
+
+    def 'the sample rate must be a fraction'() {
+        when:
+        newOptions().sampleRate(1.5d)
+
+        then:
+        thrown(AssertException)
+    }
+}
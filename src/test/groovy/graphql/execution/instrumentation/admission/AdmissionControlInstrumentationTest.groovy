@@ -0,0 +1,289 @@
+package graphql.execution.instrumentation.admission
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.TestUtil
+import graphql.schema.DataFetcher
+import org.awaitility.Awaitility
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicLong
+
+class AdmissionControlInstrumentationTest extends Specification {
+
+    def spec = '''
+        type Query {
+            slow : String
+            foo : Foo
+        }
+        type Foo {
+            name : String
+        }
+    '''
+
+    // each request for slow stays in flight until its future is completed
+    def slowFutures = Collections.synchronizedList([])
+
+    DataFetcher slowDF = { env ->
+        def future = new CompletableFuture()
+        slowFutures.add(future)
+        future
+    }
+
+    // the threads that foo was fetched on
+    def fooThreads = Collections.synchronizedList([])
+
+    DataFetcher fooDF = { env ->
+        fooThreads.add(Thread.currentThread().name)
+        [name: "foo"]
+    }
+
+    GraphQL graphQL(AdmissionControlInstrumentation instrumentation) {
+        TestUtil.graphQL(spec, [Query: [slow: slowDF, foo: fooDF]])
+                .instrumentation(instrumentation)
+                .build()
+    }
+
+    static ExecutionInput input(String query, String client = null) {
+        def builder = ExecutionInput.newExecutionInput(query)
+        if (client != null) {
+            builder.graphQLContext([client: client])
+        }
+        builder.build()
+    }
+
+    def "requests are admitted while their cost fits and released when they complete"() {
+        def instrumentation = AdmissionControlInstrumentation.newAdmissionControlInstrumentation()
+                .maxInFlightCost(3)
+                .build()
+        def graphQL = graphQL(instrumentation)
+
+        when:
+        def first = graphQL.executeAsync(input("{ slow }"))
+        def second = graphQL.executeAsync(input("{ foo { name } }"))
+
+        then:
+        instrumentation.inFlightCost == 1
+        second.join().errors.isEmpty()
+        instrumentation.inFlightCost == 1
+
+        when:
+        def rejected = graphQL.execute(input("{ slow foo { name } }"))
+
+        then:
+        // the operation costs 3, which does not fit next to the first request
+        rejected.errors.size() == 1
+        rejected.errors[0] instanceof AdmissionRejectedError
+        rejected.errors[0].extensions == [reason: "OVERLOADED", cost: 3L]
+        rejected.data == null
+
+        when:
+        slowFutures[0].complete("slow")
+
+        then:
+        first.join().data == [slow: "slow"]
+        instrumentation.inFlightCost == 0
+    }
+
+    def "operations that cost more than is ever allowed are rejected"() {
+        def instrumentation = AdmissionControlInstrumentation.newAdmissionControlInstrumentation()
+                .maxInFlightCost(2)
+                .build()
+
+        when:
+        def result = graphQL(instrumentation).execute(input("{ slow foo { name } }"))
+
+        then:
+        result.errors[0].reason == AdmissionRejectedError.Reason.OPERATION_TOO_COSTLY
+        result.errors[0].message == "The operation cost 3 is more than the 2 allowed"
+        instrumentation.inFlightCost == 0
+    }
+
+    def "clients are held to their budgets"() {
+        def instrumentation = AdmissionControlInstrumentation.newAdmissionControlInstrumentation()
+                .clientIdFunction({ context -> context.get("client") })
+                .defaultClientBudget(1)
+                .clientBudget("big", 2)
+                .build()
+        def graphQL = graphQL(instrumentation)
+
+        when:
+        graphQL.executeAsync(input("{ slow }", "small"))
+        def small = graphQL.execute(input("{ slow }", "small"))
+        def other = graphQL.executeAsync(input("{ slow }", "other"))
+        graphQL.executeAsync(input("{ slow }", "big"))
+        def big = graphQL.executeAsync(input("{ slow }", "big"))
+
+        then:
+        small.errors[0].reason == AdmissionRejectedError.Reason.CLIENT_BUDGET_EXCEEDED
+        small.errors[0].extensions == [reason: "CLIENT_BUDGET_EXCEEDED", cost: 1L, client: "small"]
+        instrumentation.getInFlightCost("small") == 1
+        instrumentation.getInFlightCost("other") == 1
+        instrumentation.getInFlightCost("big") == 2
+
+        when:
+        slowFutures.each { it.complete("slow") }
+
+        then:
+        other.join().errors.isEmpty()
+        big.join().errors.isEmpty()
+        instrumentation.getInFlightCost("small") == 0
+        instrumentation.inFlightCost == 0
+    }
+
+    def "requests that do not fit wait in the queue for capacity"() {
+        def admissionExecutor = Executors.newSingleThreadExecutor({ runnable -> new Thread(runnable, "admission") })
+        def instrumentation = AdmissionControlInstrumentation.newAdmissionControlInstrumentation()
+                .maxInFlightCost(2)
+                .maxQueueLength(1)
+                .maxQueueTime(Duration.ofSeconds(30))
+                .admissionExecutor(admissionExecutor)
+                .build()
+        def graphQL = graphQL(instrumentation)
+
+        when:
+        def first = graphQL.executeAsync(input("{ slow f2: slow }"))
+        def queued = graphQL.executeAsync(input("{ foo { name } }"))
+        def overflow = graphQL.execute(input("{ foo { name } }"))
+
+        then:
+        // the queued request does not hold the thread that executed it
+        instrumentation.queueLength == 1
+        !queued.isDone()
+        overflow.errors[0].reason == AdmissionRejectedError.Reason.OVERLOADED
+
+        when:
+        slowFutures.each { it.complete("slow") }
+
+        then:
+        first.join().errors.isEmpty()
+        queued.join().data == [foo: [name: "foo"]]
+        // the queued request was started on the admission executor, not on this thread, which completed the first one
+        fooThreads == ["admission"]
+        instrumentation.queueLength == 0
+        instrumentation.inFlightCost == 0
+
+        cleanup:
+        admissionExecutor.shutdown()
+    }
+
+    def "queued requests are admitted in the order they arrived"() {
+        def instrumentation = AdmissionControlInstrumentation.newAdmissionControlInstrumentation()
+                .maxInFlightCost(3)
+                .maxQueueLength(2)
+                .maxQueueTime(Duration.ofSeconds(30))
+                .build()
+        def graphQL = graphQL(instrumentation)
+
+        when:
+        def first = graphQL.executeAsync(input("{ slow f2: slow }"))
+        def big = graphQL.executeAsync(input("{ slow foo { name } }"))
+        def small = graphQL.executeAsync(input("{ slow }"))
+
+        then:
+        // the small request would fit next to the first one, but not without going ahead of the big one
+        instrumentation.inFlightCost == 2
+        instrumentation.queueLength == 2
+        slowFutures.size() == 2
+
+        when:
+        slowFutures[0].complete("slow")
+        slowFutures[1].complete("slow")
+
+        then:
+        first.join().errors.isEmpty()
+        instrumentation.inFlightCost == 3
+        instrumentation.queueLength == 1
+        Awaitility.await().until { slowFutures.size() == 3 }
+        !small.isDone()
+
+        when:
+        slowFutures[2].complete("slow")
+
+        then:
+        big.join().data == [slow: "slow", foo: [name: "foo"]]
+        instrumentation.queueLength == 0
+        Awaitility.await().until { slowFutures.size() == 4 }
+
+        when:
+        slowFutures[3].complete("slow")
+
+        then:
+        small.join().data == [slow: "slow"]
+        instrumentation.inFlightCost == 0
+    }
+
+    def "queued requests are admitted when the capacity recovers"() {
+        def clock = new AtomicLong()
+        def instrumentation = AdmissionControlInstrumentation.newAdmissionControlInstrumentation()
+                .maxInFlightCost(4)
+                .targetFetchLatency(Duration.ofMillis(10))
+                .latencyWindow(Duration.ofMillis(100))
+                .maxQueueLength(1)
+                .maxQueueTime(Duration.ofSeconds(30))
+                .nanoTime(clock.&get)
+                .build()
+        def graphQL = graphQL(instrumentation)
+        4.times {
+            def timer = instrumentation.beginFieldFetching(null, null)
+            clock.addAndGet(Duration.ofMillis(40).toNanos())
+            timer.onCompleted(null, null)
+        }
+
+        when:
+        def first = graphQL.executeAsync(input("{ slow }"))
+        def queued = graphQL.executeAsync(input("{ slow }"))
+
+        then:
+        instrumentation.capacity == 1
+        instrumentation.queueLength == 1
+
+        when:
+        // no request completes, the slow fetches just drop out of the window
+        clock.addAndGet(Duration.ofSeconds(1).toNanos())
+
+        then:
+        Awaitility.await().until { instrumentation.queueLength == 0 }
+        instrumentation.inFlightCost == 2
+
+        when:
+        Awaitility.await().until { slowFutures.size() == 2 }
+        slowFutures.each { it.complete("slow") }
+
+        then:
+        first.join().errors.isEmpty()
+        queued.join().errors.isEmpty()
+        instrumentation.inFlightCost == 0
+    }
+
+    def "capacity is scaled down while fetches are slower than the target"() {
+        def clock = new AtomicLong()
+        def instrumentation = AdmissionControlInstrumentation.newAdmissionControlInstrumentation()
+                .maxInFlightCost(100)
+                .targetFetchLatency(Duration.ofMillis(10))
+                .latencyWindow(Duration.ofSeconds(10))
+                .nanoTime(clock.&get)
+                .build()
+
+        when:
+        4.times {
+            def timer = instrumentation.beginFieldFetching(null, null)
+            clock.addAndGet(Duration.ofMillis(40).toNanos())
+            timer.onCompleted(null, null)
+        }
+
+        then:
+        instrumentation.averageFetchLatency == Duration.ofMillis(40)
+        instrumentation.capacity == 25
+
+        when:
+        clock.addAndGet(Duration.ofSeconds(11).toNanos())
+
+        then:
+        instrumentation.averageFetchLatency == Duration.ZERO
+        instrumentation.capacity == 100
+    }
+}
@@ -0,0 +1,111 @@
+package graphql.execution.instrumentation.dataloader
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.execution.instrumentation.ExecutionStrategyInstrumentationContext
+import graphql.execution.instrumentation.InstrumentationState
+import graphql.execution.instrumentation.SimplePerformantInstrumentation
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionStrategyParameters
+import org.dataloader.DataLoaderRegistry
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+import static graphql.execution.instrumentation.dataloader.DataLoaderDispatchingContextKeys.ENABLE_LOCK_FREE_PER_LEVEL_DISPATCH
+import static graphql.execution.instrumentation.dataloader.DataLoaderPerformanceData.expectedExpensiveData
+import static graphql.execution.instrumentation.dataloader.DataLoaderPerformanceData.getExpectedData
+import static graphql.execution.instrumentation.dataloader.DataLoaderPerformanceData.getExpensiveQuery
+import static graphql.execution.instrumentation.dataloader.DataLoaderPerformanceData.getQuery
+
+class LockFreePerLevelDataLoaderDispatchStrategyTest extends Specification {
+
+    GraphQL graphQL
+    DataLoaderPerformanceData dataLoaderPerformanceData
+    BatchCompareDataFetchers batchCompareDataFetchers
+
+    void setup() {
+        batchCompareDataFetchers = new BatchCompareDataFetchers()
+        dataLoaderPerformanceData = new DataLoaderPerformanceData(batchCompareDataFetchers)
+        graphQL = dataLoaderPerformanceData.setupGraphQL()
+    }
+
+    ExecutionInput executionInput(String query, DataLoaderRegistry dataLoaderRegistry) {
+        ExecutionInput.newExecutionInput()
+                .query(query)
+                .dataLoaderRegistry(dataLoaderRegistry)
+                .graphQLContext([(ENABLE_LOCK_FREE_PER_LEVEL_DISPATCH): true])
+                .build()
+    }
+
+    def "is used when enabled in the context"() {
+        def strategyClass = null
+        graphQL = dataLoaderPerformanceData.setupGraphQL(new SimplePerformantInstrumentation() {
+            @Override
+            ExecutionStrategyInstrumentationContext beginExecutionStrategy(InstrumentationExecutionStrategyParameters parameters, InstrumentationState state) {
+                strategyClass = parameters.executionContext.dataLoaderDispatcherStrategy.class
+                return super.beginExecutionStrategy(parameters, state)
+            }
+        })
+
+        when:
+        graphQL.execute(executionInput(query, dataLoaderPerformanceData.setupDataLoaderRegistry()))
+
+        then:
+        strategyClass == LockFreePerLevelDataLoaderDispatchStrategy
+    }
+
+    def "batches each level into one dispatch"() {
+        batchCompareDataFetchers.useAsyncBatchLoading(asyncBatchLoading)
+
+        when:
+        def result = graphQL.execute(executionInput(query, dataLoaderPerformanceData.setupDataLoaderRegistry()))
+
+        then:
+        result.data == expectedData
+        batchCompareDataFetchers.departmentsForShopsBatchLoaderCounter.get() == 1
+        batchCompareDataFetchers.productsForDepartmentsBatchLoaderCounter.get() == 1
+
+        where:
+        asyncBatchLoading << [false, true]
+    }
+
+    def "batches multiple fields with lists"() {
+        batchCompareDataFetchers.useAsyncBatchLoading(asyncBatchLoading)
+
+        when:
+        def result = graphQL.execute(executionInput(expensiveQuery, dataLoaderPerformanceData.setupDataLoaderRegistry()))
+
+        then:
+        result.data == expectedExpensiveData
+        batchCompareDataFetchers.departmentsForShopsBatchLoaderCounter.get() <= 2
+        batchCompareDataFetchers.productsForDepartmentsBatchLoaderCounter.get() <= 2
+
+        where:
+        asyncBatchLoading << [false, true]
+    }
+
+    def "never hangs when many queries run concurrently"() {
+        batchCompareDataFetchers.useAsyncBatchLoading(true)
+        def executor = Executors.newFixedThreadPool(8)
+
+        when:
+        def cfs = (1..50).collect {
+            CompletableFuture.supplyAsync({
+                // each query needs its own data loaders
+                def fetchers = new BatchCompareDataFetchers()
+                fetchers.useAsyncBatchLoading(true)
+                def data = new DataLoaderPerformanceData(fetchers)
+                data.setupGraphQL().executeAsync(executionInput(expensiveQuery, data.setupDataLoaderRegistry()))
+            }, executor).thenCompose({ it })
+        }
+        def results = cfs.collect { it.get(10, TimeUnit.SECONDS) }
+
+        then:
+        results.every { it.data == expectedExpensiveData }
+
+        cleanup:
+        executor.shutdownNow()
+    }
+}
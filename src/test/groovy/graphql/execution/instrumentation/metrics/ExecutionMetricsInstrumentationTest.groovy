@@ -0,0 +1,139 @@
+package graphql.execution.instrumentation.metrics
+
+import graphql.ExecutionInput
+import graphql.TestUtil
+import graphql.schema.DataFetcher
+import graphql.schema.FieldCoordinates
+import org.dataloader.BatchLoader
+import org.dataloader.DataLoaderFactory
+import org.dataloader.DataLoaderRegistry
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+
+class ExecutionMetricsInstrumentationTest extends Specification {
+
+    def spec = '''
+        type Query {
+            shops : [Shop]
+        }
+        type Shop {
+            id : ID
+            owner : Owner
+        }
+        type Owner {
+            name : String
+        }
+    '''
+
+    DataFetcher shopsDF = { env -> (1..3).collect { [id: String.valueOf(it)] } }
+    DataFetcher ownerDF = { env -> env.getDataLoader("owners").load(env.getSource().id) }
+
+    BatchLoader<String, Object> ownerBatchLoader = { keys ->
+        CompletableFuture.completedFuture(keys.collect { [name: "owner-" + it] })
+    }
+
+    def graphQL(ExecutionMetricsInstrumentation instrumentation) {
+        TestUtil.graphQL(spec, [Query: [shops: shopsDF], Shop: [owner: ownerDF]])
+                .instrumentation(instrumentation)
+                .build()
+    }
+
+    def executionInput() {
+        def registry = new DataLoaderRegistry()
+        registry.register("owners", DataLoaderFactory.newDataLoader(ownerBatchLoader))
+        ExecutionInput.newExecutionInput("{ shops { id owner { name } } }").dataLoaderRegistry(registry).build()
+    }
+
+    def "counts what each request did"() {
+        def requestMetrics = []
+        def instrumentation = ExecutionMetricsInstrumentation.newExecutionMetricsInstrumentation()
+                .requestMetricsListener({ requestMetrics.add(it) })
+                .build()
+
+        when:
+        def result = graphQL(instrumentation).execute(executionInput())
+
+        then:
+        result.errors.isEmpty()
+        requestMetrics.size() == 1
+
+        def metrics = requestMetrics[0] as ExecutionMetrics
+        metrics.requestCount == 1
+        // shops + 3 x (id + owner + name)
+        metrics.fieldFetchCount == 10
+        metrics.trivialFieldFetchCount == 6
+        metrics.nonTrivialFieldFetchCount == 4
+        metrics.listCount == 1
+        metrics.listItemCount == 3
+        metrics.maxListSize == 3
+        metrics.maxDepth == 3
+        metrics.resultNodeCount > 0
+        metrics.dataLoaderDispatchCount > 0
+    }
+
+    def "aggregates the counts of all requests"() {
+        def instrumentation = ExecutionMetricsInstrumentation.newExecutionMetricsInstrumentation().build()
+        def graphQL = graphQL(instrumentation)
+
+        when:
+        3.times { graphQL.execute(executionInput()) }
+        def metrics = instrumentation.getExecutionMetrics()
+
+        then:
+        metrics.requestCount == 3
+        metrics.fieldFetchCount == 30
+        metrics.trivialFieldFetchCount == 18
+        metrics.listItemCount == 9
+        metrics.maxListSize == 3
+        metrics.maxDepth == 3
+        instrumentation.getFieldMetrics().isEmpty()
+    }
+
+    def "requests that fail validation are counted"() {
+        def instrumentation = ExecutionMetricsInstrumentation.newExecutionMetricsInstrumentation().build()
+
+        when:
+        def result = graphQL(instrumentation).execute("{ unknown }")
+        def metrics = instrumentation.getExecutionMetrics()
+
+        then:
+        !result.errors.isEmpty()
+        metrics.requestCount == 1
+        metrics.fieldFetchCount == 0
+    }
+
+    def "can keep fetch metrics per field coordinate"() {
+        def instrumentation = ExecutionMetricsInstrumentation.newExecutionMetricsInstrumentation()
+                .fieldCoordinateMetrics(true)
+                .build()
+        def graphQL = graphQL(instrumentation)
+
+        when:
+        2.times { graphQL.execute(executionInput()) }
+        def byCoordinates = instrumentation.getFieldMetrics().collectEntries { [(it.coordinates): it] }
+
+        then:
+        byCoordinates.keySet() == [
+                FieldCoordinates.coordinates("Query", "shops"),
+                FieldCoordinates.coordinates("Shop", "id"),
+                FieldCoordinates.coordinates("Shop", "owner"),
+                FieldCoordinates.coordinates("Owner", "name"),
+        ] as Set
+
+        def owner = byCoordinates[FieldCoordinates.coordinates("Shop", "owner")] as FieldMetrics
+        owner.fetchCount == 6
+        owner.errorCount == 0
+        owner.totalFetchDurationNanos > 0
+        owner.fetchDurationHistogram.sum() == 6
+        byCoordinates[FieldCoordinates.coordinates("Query", "shops")].fetchCount == 2
+    }
+
+    def "the last histogram bucket has no upper bound"() {
+        expect:
+        FieldMetrics.getBucketUpperBoundNanos(0) == 1
+        FieldMetrics.getBucketUpperBoundNanos(10) == 1024
+        FieldMetrics.getBucketUpperBoundNanos(ExecutionMetricsInstrumentation.HISTOGRAM_BUCKETS - 2) == 1L << 38
+        FieldMetrics.getBucketUpperBoundNanos(ExecutionMetricsInstrumentation.HISTOGRAM_BUCKETS - 1) == Long.MAX_VALUE
+    }
+}
@@ -0,0 +1,220 @@
+package graphql.execution.preparsed
+
+import graphql.ExecutionInput
+import graphql.parser.Parser
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Function
+
+class BoundedPreparsedDocumentProviderTest extends Specification {
+
+    def loads = new AtomicInteger()
+
+    Function<ExecutionInput, PreparsedDocumentEntry> parseFunction = { ExecutionInput ei ->
+        loads.incrementAndGet()
+        new PreparsedDocumentEntry(new Parser().parseDocument(ei.query))
+    }
+
+    static ExecutionInput input(String query) {
+        ExecutionInput.newExecutionInput(query).build()
+    }
+
+    def "caches documents and records hits and misses"() {
+        def provider = BoundedPreparsedDocumentProvider.newBoundedPreparsedDocumentProvider().build()
+
+        when:
+        def first = provider.getDocumentAsync(input("{ a }"), parseFunction).join()
+        def second = provider.getDocumentAsync(input("{ a }"), parseFunction).join()
+        def stats = provider.getStats()
+
+        then:
+        first.is(second)
+        loads.get() == 1
+        stats.hitCount == 1
+        stats.missCount == 1
+        stats.loadSuccessCount == 1
+        stats.entryCount == 1
+        stats.hitRate == 0.5d
+    }
+
+    def "is bounded by entry count"() {
+        def provider = BoundedPreparsedDocumentProvider.newBoundedPreparsedDocumentProvider()
+                .maximumEntries(10)
+                .build()
+
+        when:
+        (1..100).each {
+            provider.getDocumentAsync(input("{ f$it }"), parseFunction).join()
+        }
+
+        then:
+        provider.size() == 10
+        provider.getStats().evictionCount == 90
+    }
+
+    def "is bounded by weight"() {
+        def provider = BoundedPreparsedDocumentProvider.newBoundedPreparsedDocumentProvider()
+                .maximumWeight(10)
+                .weigher({ entry -> 3L })
+                .build()
+
+        when:
+        (1..10).each {
+            provider.getDocumentAsync(input("{ f$it }"), parseFunction).join()
+        }
+
+        then:
+        provider.size() == 3
+        provider.weightedSize() == 9
+    }
+
+    def "frequently used documents survive a scan of one off queries"() {
+        def provider = BoundedPreparsedDocumentProvider.newBoundedPreparsedDocumentProvider()
+                .maximumEntries(20)
+                .build()
+
+        when:
+        5.times {
+            provider.getDocumentAsync(input("{ popular }"), parseFunction).join()
+        }
+        (1..200).each {
+            provider.getDocumentAsync(input("{ oneOff$it }"), parseFunction).join()
+        }
+        def loadsBefore = loads.get()
+        provider.getDocumentAsync(input("{ popular }"), parseFunction).join()
+
+        then:
+        loads.get() == loadsBefore
+    }
+
+    def "concurrent misses for the same query only parse once"() {
+        def provider = BoundedPreparsedDocumentProvider.newBoundedPreparsedDocumentProvider().build()
+        def started = new CountDownLatch(1)
+        def release = new CountDownLatch(1)
+        Function<ExecutionInput, PreparsedDocumentEntry> slowParse = { ExecutionInput ei ->
+            started.countDown()
+            release.await(5, TimeUnit.SECONDS)
+            parseFunction.apply(ei)
+        }
+        def executor = Executors.newSingleThreadExecutor()
+
+        when:
+        def firstCF = CompletableFuture.supplyAsync({ provider.getDocumentAsync(input("{ a }"), slowParse).join() }, executor)
+        started.await(5, TimeUnit.SECONDS)
+        def secondCF = provider.getDocumentAsync(input("{ a }"), slowParse)
+        release.countDown()
+
+        then:
+        firstCF.get(5, TimeUnit.SECONDS).is(secondCF.get(5, TimeUnit.SECONDS))
+        loads.get() == 1
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "load failures are propagated and not cached"() {
+        def provider = BoundedPreparsedDocumentProvider.newBoundedPreparsedDocumentProvider().build()
+        Function<ExecutionInput, PreparsedDocumentEntry> failingParse = { ExecutionInput ei -> throw new RuntimeException("bang") }
+
+        when:
+        provider.getDocumentAsync(input("{ a }"), failingParse)
+
+        then:
+        thrown(RuntimeException)
+        provider.size() == 0
+        provider.getStats().loadFailureCount == 1
+
+        when:
+        def entry = provider.getDocumentAsync(input("{ a }"), parseFunction).join()
+
+        then:
+        entry.document != null
+    }
+
+    def "can be invalidated"() {
+        def provider = BoundedPreparsedDocumentProvider.newBoundedPreparsedDocumentProvider().build()
+        provider.getDocumentAsync(input("{ a }"), parseFunction).join()
+
+        when:
+        provider.invalidateAll()
+
+        then:
+        provider.size() == 0
+        provider.weightedSize() == 0
+    }
+
+    def "a load that started before an invalidation is not cached"() {
+        def provider = BoundedPreparsedDocumentProvider.newBoundedPreparsedDocumentProvider().build()
+        def started = new CountDownLatch(1)
+        def release = new CountDownLatch(1)
+        Function<ExecutionInput, PreparsedDocumentEntry> slowParse = { ExecutionInput ei ->
+            started.countDown()
+            release.await(5, TimeUnit.SECONDS)
+            parseFunction.apply(ei)
+        }
+        def executor = Executors.newSingleThreadExecutor()
+
+        when:
+        def staleCF = CompletableFuture.supplyAsync({ provider.getDocumentAsync(input("{ a }"), slowParse).join() }, executor)
+        started.await(5, TimeUnit.SECONDS)
+        provider.invalidateAll()
+        release.countDown()
+        def stale = staleCF.get(5, TimeUnit.SECONDS)
+
+        then:
+        stale.document != null
+        provider.size() == 0
+
+        when:
+        def fresh = provider.getDocumentAsync(input("{ a }"), parseFunction).join()
+
+        then:
+        !fresh.is(stale)
+        loads.get() == 2
+        provider.size() == 1
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "requests after an invalidation do not wait on a load that started before it"() {
+        def provider = BoundedPreparsedDocumentProvider.newBoundedPreparsedDocumentProvider().build()
+        def started = new CountDownLatch(1)
+        def release = new CountDownLatch(1)
+        Function<ExecutionInput, PreparsedDocumentEntry> slowParse = { ExecutionInput ei ->
+            started.countDown()
+            release.await(5, TimeUnit.SECONDS)
+            parseFunction.apply(ei)
+        }
+        def executor = Executors.newSingleThreadExecutor()
+
+        when:
+        def staleCF = CompletableFuture.supplyAsync({ provider.getDocumentAsync(input("{ a }"), slowParse).join() }, executor)
+        started.await(5, TimeUnit.SECONDS)
+        provider.invalidateAll()
+        def fresh = provider.getDocumentAsync(input("{ a }"), parseFunction).join()
+        release.countDown()
+        def stale = staleCF.get(5, TimeUnit.SECONDS)
+
+        then:
+        !fresh.is(stale)
+        loads.get() == 2
+        provider.getDocumentAsync(input("{ a }"), parseFunction).join().is(fresh)
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "retained size estimate grows with the document"() {
+        def small = new PreparsedDocumentEntry(new Parser().parseDocument("{ a }"))
+        def large = new PreparsedDocumentEntry(new Parser().parseDocument("{ a b c d { e f g } }"))
+
+        expect:
+        BoundedPreparsedDocumentProvider.estimateRetainedSize(small) < BoundedPreparsedDocumentProvider.estimateRetainedSize(large)
+    }
+}
@@ -0,0 +1,150 @@
+package graphql.execution.preparsed.persisted
+
+import graphql.ExecutionInput
+import graphql.execution.preparsed.PreparsedDocumentEntry
+import graphql.parser.Parser
+import graphql.validation.ValidationError
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+import static graphql.language.AstPrinter.printAstCompact
+
+class MemoryMappedPersistedQueryCacheTest extends Specification {
+
+    Path directory = Files.createTempDirectory("persisted-queries")
+    def missCount = 0
+
+    def cleanup() {
+        directory.toFile().deleteDir()
+    }
+
+    def mkEI(String hash, String query) {
+        ExecutionInput.newExecutionInput().query(query).extensions([persistedQuery: [sha256Hash: hash, version: 1]]).build()
+    }
+
+    PersistedQueryCacheMiss onMiss = {
+        String query ->
+            missCount++
+            def doc = new Parser().parseDocument(query)
+            return new PreparsedDocumentEntry(doc)
+    }
+
+    def "uses the query from the execution input on a miss and writes the document"() {
+        def cache = MemoryMappedPersistedQueryCache.newMemoryMappedPersistedQueryCache(directory).build()
+        def ei = mkEI("thisisahash", "query { oneTwoThreeFour }")
+
+        when:
+        def doc = cache.getPersistedQueryDocumentAsync("thisisahash", ei, onMiss).join().document
+
+        then:
+        printAstCompact(doc) == "{oneTwoThreeFour}"
+        missCount == 1
+        directory.toFile().list().toList().findAll { it.endsWith(".gqlb") }.size() == 1
+    }
+
+    def "uses the known queries if the execution input's query is the APQ marker"() {
+        def cache = MemoryMappedPersistedQueryCache.newMemoryMappedPersistedQueryCache(directory)
+                .addQuery("somehash", "{foo bar baz}")
+                .build()
+        def ei = mkEI("somehash", PersistedQuerySupport.PERSISTED_QUERY_MARKER)
+
+        when:
+        def doc = cache.getPersistedQueryDocumentAsync("somehash", ei, onMiss).join().document
+
+        then:
+        printAstCompact(doc) == "{foo bar baz}"
+    }
+
+    def "unknown queries are not found"() {
+        def cache = MemoryMappedPersistedQueryCache.newMemoryMappedPersistedQueryCache(directory).build()
+
+        when:
+        cache.getPersistedQueryDocumentAsync("unknown", mkEI("unknown", PersistedQuerySupport.PERSISTED_QUERY_MARKER), onMiss)
+
+        then:
+        thrown(PersistedQueryNotFound)
+    }
+
+    def "a new cache over the same directory reads the documents without parsing them"() {
+        def query = 'query Q($id: ID!) { hero(id: $id) { name ... on Droid { primaryFunction } } }'
+        def firstCache = MemoryMappedPersistedQueryCache.newMemoryMappedPersistedQueryCache(directory).build()
+        firstCache.getPersistedQueryDocumentAsync("hash", mkEI("hash", query), onMiss).join()
+
+        when:
+        def secondCache = MemoryMappedPersistedQueryCache.newMemoryMappedPersistedQueryCache(directory).build()
+        def entry = secondCache.getPersistedQueryDocumentAsync("hash", mkEI("hash", PersistedQuerySupport.PERSISTED_QUERY_MARKER), onMiss).join()
+
+        then:
+        missCount == 1
+        printAstCompact(entry.document) == printAstCompact(Parser.parse(query))
+        entry.document.definitions[0].sourceLocation.line == 1
+    }
+
+    def "documents with errors are not written"() {
+        def cache = MemoryMappedPersistedQueryCache.newMemoryMappedPersistedQueryCache(directory).build()
+        PersistedQueryCacheMiss invalid = { String query ->
+            missCount++
+            new PreparsedDocumentEntry(ValidationError.newValidationError().description("bad").build())
+        }
+
+        when:
+        def entry = cache.getPersistedQueryDocumentAsync("hash", mkEI("hash", "{ bad }"), invalid).join()
+
+        then:
+        entry.hasErrors()
+        directory.toFile().list().length == 0
+    }
+
+    def "a corrupt file is treated as a miss and written again"() {
+        def firstCache = MemoryMappedPersistedQueryCache.newMemoryMappedPersistedQueryCache(directory).build()
+        firstCache.getPersistedQueryDocumentAsync("hash", mkEI("hash", "{ a }"), onMiss).join()
+        def file = directory.toFile().listFiles()[0]
+        file.bytes = "garbage".bytes
+
+        when:
+        def secondCache = MemoryMappedPersistedQueryCache.newMemoryMappedPersistedQueryCache(directory).build()
+        def doc = secondCache.getPersistedQueryDocumentAsync("hash", mkEI("hash", "{ a }"), onMiss).join().document
+
+        then:
+        printAstCompact(doc) == "{a}"
+        missCount == 2
+        file.bytes != "garbage".bytes
+    }
+
+    def "a truncated file is treated as a miss"() {
+        def firstCache = MemoryMappedPersistedQueryCache.newMemoryMappedPersistedQueryCache(directory).build()
+        firstCache.getPersistedQueryDocumentAsync("hash", mkEI("hash", "{ a b c }"), onMiss).join()
+        def file = directory.toFile().listFiles()[0]
+        file.bytes = Arrays.copyOf(file.bytes, file.bytes.length - 3)
+
+        when:
+        def secondCache = MemoryMappedPersistedQueryCache.newMemoryMappedPersistedQueryCache(directory).build()
+        def doc = secondCache.getPersistedQueryDocumentAsync("hash", mkEI("hash", "{ a b c }"), onMiss).join().document
+
+        then:
+        printAstCompact(doc) == "{a b c}"
+        missCount == 2
+    }
+
+    def "a corrupt file that nests too deeply is treated as a miss"() {
+        def firstCache = MemoryMappedPersistedQueryCache.newMemoryMappedPersistedQueryCache(directory).build()
+        firstCache.getPersistedQueryDocumentAsync("hash", mkEI("hash", "{ a }"), onMiss).join()
+        def file = directory.toFile().listFiles()[0]
+        // the header, no source locations, an empty string table and then list types nested a million deep
+        def header = ['G', 'Q', 'L', 'B'].collect { it as char as byte } + [1, 0, 0].collect { it as byte }
+        def bytes = new byte[header.size() + 1_000_000]
+        header.eachWithIndex { byte b, int i -> bytes[i] = b }
+        Arrays.fill(bytes, header.size(), bytes.length, 12 as byte)
+        file.bytes = bytes
+
+        when:
+        def secondCache = MemoryMappedPersistedQueryCache.newMemoryMappedPersistedQueryCache(directory).build()
+        def doc = secondCache.getPersistedQueryDocumentAsync("hash", mkEI("hash", "{ a }"), onMiss).join().document
+
+        then:
+        printAstCompact(doc) == "{a}"
+        missCount == 2
+    }
+}
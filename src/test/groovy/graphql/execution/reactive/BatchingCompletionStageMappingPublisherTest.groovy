@@ -0,0 +1,142 @@
+package graphql.execution.reactive
+
+import graphql.execution.pubsub.CapturingSubscriber
+import io.reactivex.Flowable
+import org.awaitility.Awaitility
+import org.reactivestreams.Publisher
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionStage
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.function.Function
+
+class BatchingCompletionStageMappingPublisherTest extends Specification {
+
+    class RequestEverythingSubscriber<T> implements Subscriber<T> {
+        def events = Collections.synchronizedList([])
+        def done = new AtomicBoolean()
+        Throwable throwable
+
+        @Override
+        void onSubscribe(Subscription subscription) {
+            subscription.request(Long.MAX_VALUE)
+        }
+
+        @Override
+        void onNext(T t) {
+            events.add(t)
+        }
+
+        @Override
+        void onError(Throwable t) {
+            throwable = t
+            done.set(true)
+        }
+
+        @Override
+        void onComplete() {
+            done.set(true)
+        }
+    }
+
+    def "values are mapped in batches of the maximum size"() {
+        def batches = Collections.synchronizedList([])
+        def mapper = new Function<List<Integer>, CompletionStage<List<String>>>() {
+            @Override
+            CompletionStage<List<String>> apply(List<Integer> integers) {
+                batches.add(new ArrayList<>(integers))
+                return CompletableFuture.completedFuture(integers.collect { String.valueOf(it) })
+            }
+        }
+
+        when:
+        Publisher<String> rxStrings = new BatchingCompletionStageMappingPublisher<String, Integer>(Flowable.range(0, 10), mapper, 4, Duration.ofSeconds(10), 1, true)
+        def subscriber = new RequestEverythingSubscriber<String>()
+        rxStrings.subscribe(subscriber)
+
+        then:
+        Awaitility.await().untilTrue(subscriber.done)
+        subscriber.events == ["0", "1", "2", "3", "4", "5", "6", "7", "8", "9"]
+        // the last batch is mapped when the upstream completes, without waiting for the delay
+        batches == [[0, 1, 2, 3], [4, 5, 6, 7], [8, 9]]
+    }
+
+    def "a batch is mapped once the delay has passed"() {
+        def batches = Collections.synchronizedList([])
+        def mapper = new Function<List<Long>, CompletionStage<List<String>>>() {
+            @Override
+            CompletionStage<List<String>> apply(List<Long> longs) {
+                batches.add(new ArrayList<>(longs))
+                return CompletableFuture.completedFuture(longs.collect { String.valueOf(it) })
+            }
+        }
+
+        when:
+        def upstream = Flowable.just(0L, 1L, 2L).concatWith(Flowable.timer(500, TimeUnit.MILLISECONDS))
+        Publisher<String> rxStrings = new BatchingCompletionStageMappingPublisher<String, Long>(upstream, mapper, 100, Duration.ofMillis(20), 1, true)
+        def subscriber = new RequestEverythingSubscriber<String>()
+        rxStrings.subscribe(subscriber)
+
+        then:
+        Awaitility.await().untilTrue(subscriber.done)
+        subscriber.events == ["0", "1", "2", "0"]
+        batches == [[0L, 1L, 2L], [0L]]
+    }
+
+    def "results are published in the order of the values unless ordering is turned off"() {
+        def pending = Collections.synchronizedList([])
+        def mapper = new Function<List<Integer>, CompletionStage<List<String>>>() {
+            @Override
+            CompletionStage<List<String>> apply(List<Integer> integers) {
+                def future = new CompletableFuture<List<String>>()
+                pending.add([integers, future])
+                return future
+            }
+        }
+
+        when:
+        Publisher<String> rxStrings = new BatchingCompletionStageMappingPublisher<String, Integer>(Flowable.range(0, 6), mapper, 2, Duration.ofSeconds(10), 3, ordered)
+        def subscriber = new RequestEverythingSubscriber<String>()
+        rxStrings.subscribe(subscriber)
+        // finish the batches in reverse
+        pending.reverse().each { integers, future -> future.complete(integers.collect { String.valueOf(it) }) }
+
+        then:
+        Awaitility.await().untilTrue(subscriber.done)
+        subscriber.events == expected
+
+        where:
+        ordered | expected
+        true    | ["0", "1", "2", "3", "4", "5"]
+        false   | ["4", "5", "2", "3", "0", "1"]
+    }
+
+    def "error handling"() {
+        def mapper = new Function<List<Integer>, CompletionStage<List<String>>>() {
+            @Override
+            CompletionStage<List<String>> apply(List<Integer> integers) {
+                if (integers.contains(5)) {
+                    def future = new CompletableFuture()
+                    future.completeExceptionally(new RuntimeException("Bang"))
+                    return future
+                }
+                return CompletableFuture.completedFuture(integers.collect { String.valueOf(it) })
+            }
+        }
+
+        when:
+        Publisher<String> rxStrings = new BatchingCompletionStageMappingPublisher<String, Integer>(Flowable.range(0, 10), mapper, 2, Duration.ZERO, 1, true)
+        def capturingSubscriber = new CapturingSubscriber<>()
+        rxStrings.subscribe(capturingSubscriber)
+
+        then:
+        Awaitility.await().untilTrue(capturingSubscriber.isDone())
+        capturingSubscriber.throwable.message == "Bang"
+        capturingSubscriber.events == ["0", "1", "2", "3", "4"]
+    }
+}
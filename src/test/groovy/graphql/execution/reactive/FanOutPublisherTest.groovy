@@ -0,0 +1,145 @@
+package graphql.execution.reactive
+
+import graphql.execution.SubscriptionMultiplexer.OverflowPolicy
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
+import spock.lang.Specification
+
+class FanOutPublisherTest extends Specification {
+
+    class RequestingSubscriber implements Subscriber<Integer> {
+        def events = []
+        long initialRequest
+        Subscription subscription
+        Throwable throwable
+        boolean completed
+
+        RequestingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest
+        }
+
+        @Override
+        void onSubscribe(Subscription subscription) {
+            this.subscription = subscription
+            subscription.request(initialRequest)
+        }
+
+        @Override
+        void onNext(Integer value) {
+            events.add(value)
+        }
+
+        @Override
+        void onError(Throwable t) {
+            throwable = t
+        }
+
+        @Override
+        void onComplete() {
+            completed = true
+        }
+    }
+
+    def "all subscribers get every value from a single upstream subscription"() {
+        def upstream = new SingleSubscriberPublisher<Integer>()
+        def finished = []
+        def fanOutPublisher = new FanOutPublisher<Integer>(upstream, 10, OverflowPolicy.BUFFER, { finished.add(it) })
+
+        when:
+        def subscriber1 = new RequestingSubscriber(Long.MAX_VALUE)
+        def subscriber2 = new RequestingSubscriber(Long.MAX_VALUE)
+        fanOutPublisher.subscribe(subscriber1)
+        fanOutPublisher.subscribe(subscriber2)
+        5.times { upstream.offer(it) }
+        upstream.noMoreData()
+
+        then:
+        subscriber1.events == [0, 1, 2, 3, 4]
+        subscriber2.events == [0, 1, 2, 3, 4]
+        subscriber1.completed
+        subscriber2.completed
+        finished == [fanOutPublisher]
+
+        when:
+        def lateSubscriber = new RequestingSubscriber(1)
+        fanOutPublisher.subscribe(lateSubscriber)
+
+        then:
+        lateSubscriber.events == []
+        lateSubscriber.completed
+    }
+
+    def "a slow subscriber is handled by the overflow policy without holding back the others"() {
+        def upstream = new SingleSubscriberPublisher<Integer>()
+        def fanOutPublisher = new FanOutPublisher<Integer>(upstream, 3, overflowPolicy, {})
+
+        when:
+        def fastSubscriber = new RequestingSubscriber(Long.MAX_VALUE)
+        def slowSubscriber = new RequestingSubscriber(1)
+        fanOutPublisher.subscribe(fastSubscriber)
+        fanOutPublisher.subscribe(slowSubscriber)
+        8.times { upstream.offer(it) }
+        slowSubscriber.subscription.request(100)
+
+        then:
+        fastSubscriber.events == [0, 1, 2, 3, 4, 5, 6, 7]
+        slowSubscriber.events == expectedSlowEvents
+        (slowSubscriber.throwable != null) == expectError
+
+        where:
+        overflowPolicy             | expectedSlowEvents       | expectError
+        OverflowPolicy.BUFFER      | [0, 1, 2, 3, 4, 5, 6, 7] | false
+        OverflowPolicy.DROP_OLDEST | [0, 5, 6, 7]             | false
+        OverflowPolicy.DROP_LATEST | [0, 1, 2, 3]             | false
+        OverflowPolicy.ERROR       | [0]                      | true
+    }
+
+    def "the upstream is cancelled once every subscriber has cancelled"() {
+        def upstream = new SingleSubscriberPublisher<Integer>()
+        def finished = []
+        def fanOutPublisher = new FanOutPublisher<Integer>(upstream, 10, OverflowPolicy.BUFFER, { finished.add(it) })
+
+        when:
+        def subscriber1 = new RequestingSubscriber(Long.MAX_VALUE)
+        def subscriber2 = new RequestingSubscriber(Long.MAX_VALUE)
+        fanOutPublisher.subscribe(subscriber1)
+        fanOutPublisher.subscribe(subscriber2)
+        upstream.offer(1)
+        subscriber1.subscription.cancel()
+        upstream.offer(2)
+
+        then:
+        subscriber1.events == [1]
+        subscriber2.events == [1, 2]
+        finished.isEmpty()
+        fanOutPublisher.subscriberCount == 1
+
+        when:
+        subscriber2.subscription.cancel()
+        upstream.offer(3)
+
+        then:
+        subscriber2.events == [1, 2]
+        finished == [fanOutPublisher]
+        fanOutPublisher.subscriberCount == 0
+    }
+
+    def "subscribers that arrive after every subscriber has left are handed on rather than finished"() {
+        def upstream = new SingleSubscriberPublisher<Integer>()
+        def handedOn = []
+        def fanOutPublisher = new FanOutPublisher<Integer>(upstream, 10, OverflowPolicy.BUFFER, {}, { handedOn.add(it) })
+
+        when:
+        def subscriber = new RequestingSubscriber(Long.MAX_VALUE)
+        fanOutPublisher.subscribe(subscriber)
+        subscriber.subscription.cancel()
+        def lateSubscriber = new RequestingSubscriber(Long.MAX_VALUE)
+        fanOutPublisher.subscribe(lateSubscriber)
+
+        then:
+        handedOn == [lateSubscriber]
+        // it is not subscribed to anything yet, so whoever it is handed to can subscribe it
+        lateSubscriber.subscription == null
+        !lateSubscriber.completed
+    }
+}
@@ -0,0 +1,138 @@
+package graphql.execution.serialization
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import graphql.ErrorClassification
+import graphql.ErrorType
+import graphql.ExecutionResult
+import graphql.ExecutionResultImpl
+import graphql.GraphQL
+import graphql.GraphQLError
+import graphql.GraphqlErrorBuilder
+import graphql.TestUtil
+import graphql.language.SourceLocation
+import graphql.schema.DataFetcher
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+class JsonExecutionResultWriterTest extends Specification {
+
+    def writer = JsonExecutionResultWriter.INSTANCE
+    def objectMapper = new ObjectMapper()
+
+    def "writes the same JSON as serializing the specification map"() {
+        def spec = """
+            type Query {
+                hero : Character
+            }
+            type Character {
+                name : String
+                height : Float
+                age : Int
+                alive : Boolean
+                friends : [Character]
+                failing : String
+            }
+        """
+        DataFetcher failing = { env -> throw new RuntimeException("bang") }
+        def schema = TestUtil.schema(spec, [Character: [failing: failing]])
+        def hero = [name: 'R2-D2 "the droid"', height: 0.96d, age: 33, alive: true,
+                    friends: [[name: "Luke\nSkywalker", height: 1.72d, age: 19, alive: true, friends: []], null]]
+        def graphQL = GraphQL.newGraphQL(schema).build()
+
+        when:
+        def result = graphQL.execute({ it.query("{ hero { name height age alive failing friends { name friends { name } } } }").root([hero: hero]) })
+        def json = writer.writeToString(result)
+
+        then:
+        !result.errors.isEmpty()
+        objectMapper.readTree(json) == objectMapper.valueToTree(result.toSpecification())
+        json == objectMapper.writeValueAsString(result.toSpecification())
+    }
+
+    def "writes errors with their classification and extensions"() {
+        def error = GraphqlErrorBuilder.newError()
+                .message("bad")
+                .path(["a", 1, "b"])
+                .errorType(ErrorType.DataFetchingException)
+                .extensions([code: 42])
+                .build()
+        ExecutionResult result = ExecutionResultImpl.newExecutionResult()
+                .addError(error)
+                .extensions([trace: [took: 5]])
+                .build()
+
+        when:
+        def json = writer.writeToString(result)
+
+        then:
+        json == objectMapper.writeValueAsString(result.toSpecification())
+        json == '{"errors":[{"message":"bad","locations":[],"path":["a",1,"b"],"extensions":{"code":42,"classification":"DataFetchingException"}}],"extensions":{"trace":{"took":5}}}'
+    }
+
+    def "writes errors that override their specification map from that map"() {
+        def error = new GraphQLError() {
+            @Override
+            String getMessage() {
+                "bad"
+            }
+
+            @Override
+            List<SourceLocation> getLocations() {
+                [new SourceLocation(1, 2)]
+            }
+
+            @Override
+            ErrorClassification getErrorType() {
+                ErrorType.ValidationError
+            }
+
+            @Override
+            Map<String, Object> toSpecification() {
+                [message: "hidden", extensions: [code: "BAD"]]
+            }
+        }
+        ExecutionResult result = ExecutionResultImpl.newExecutionResult()
+                .addError(error)
+                .build()
+
+        when:
+        def json = writer.writeToString(result)
+
+        then:
+        json == objectMapper.writeValueAsString(result.toSpecification())
+        json == '{"errors":[{"message":"hidden","extensions":{"code":"BAD"}}]}'
+    }
+
+    def "escapes strings and writes non finite numbers as null"() {
+        ExecutionResult result = ExecutionResultImpl.newExecutionResult()
+                .data([s: "quote\" backslash\\ tab\t control\u0001 line sep\u2028 unicode é", nan: Double.NaN, inf: Float.POSITIVE_INFINITY, big: new BigDecimal("1.50"), arr: [1, 2] as int[]])
+                .build()
+
+        when:
+        def json = writer.writeToString(result)
+
+        then:
+        json == '{"data":{"s":"quote\\" backslash\\\\ tab\\t control\\u0001 line sep\\u2028 unicode é","nan":null,"inf":null,"big":1.50,"arr":[1,2]}}'
+        objectMapper.readTree(json).get("data").get("s").asText() == result.data["s"]
+    }
+
+    def "can write to an output stream as UTF-8"() {
+        ExecutionResult result = ExecutionResultImpl.newExecutionResult().data([name: "héllo"]).build()
+        def outputStream = new ByteArrayOutputStream()
+
+        when:
+        writer.write(result, outputStream)
+
+        then:
+        new String(outputStream.toByteArray(), StandardCharsets.UTF_8) == '{"data":{"name":"héllo"}}'
+    }
+
+    def "data is written when present even if null"() {
+        ExecutionResult result = ExecutionResultImpl.newExecutionResult().data(null).build()
+
+        expect:
+        writer.writeToString(result) == '{"data":null}'
+        writer.writeToString(ExecutionResultImpl.newExecutionResult().build()) == '{}'
+    }
+}
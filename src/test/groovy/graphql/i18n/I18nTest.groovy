@@ -16,6 +16,31 @@ class I18nTest extends Specification {
         thrown(AssertException)
     }
 
+    def "instances are shared per bundle type and locale"() {
+        when:
+        def i18n = I18n.i18n(BundleType.Validation, Locale.ENGLISH)
+
+        then:
+        i18n.is(I18n.i18n(BundleType.Validation, Locale.ENGLISH))
+        !i18n.is(I18n.i18n(BundleType.Parsing, Locale.ENGLISH))
+        !i18n.is(I18n.i18n(BundleType.Validation, Locale.GERMAN))
+    }
+
+    def "the resource bundle is only loaded when a message is asked for"() {
+        when:
+        def i18n = new I18n(BundleType.Execution, Locale.ENGLISH)
+
+        then:
+        // the field, not the lazy getter
+        i18n.@resourceBundle == null
+
+        when:
+        i18n.msg("Execution.handleOneOfNotOneFieldError", "Type")
+
+        then:
+        i18n.@resourceBundle != null
+    }
+
     def "missing resource bundles default to a base version"() {
         // see https://saimana.com/list-of-country-locale-code/
 
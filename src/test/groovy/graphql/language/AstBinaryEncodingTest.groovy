@@ -0,0 +1,135 @@
+package graphql.language
+
+import graphql.AssertException
+import graphql.parser.Parser
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
+
+class AstBinaryEncodingTest extends Specification {
+
+    static List<SourceLocation> sourceLocations(Node<?> node) {
+        def locations = [node.sourceLocation]
+        node.children.each { locations.addAll(sourceLocations(it)) }
+        return locations
+    }
+
+    @Unroll
+    def "round trips '#query'"() {
+        def document = Parser.parse(query)
+
+        when:
+        def decoded = AstBinaryEncoding.decode(AstBinaryEncoding.encode(document))
+
+        then:
+        AstComparator.isEqual(document, decoded)
+        AstPrinter.printAst(decoded) == AstPrinter.printAst(document)
+        sourceLocations(decoded) == sourceLocations(document)
+
+        where:
+        query << [
+                '{ me }',
+                'query Named($a: [Int!]! = [1, 2], $b: Input = {a: "s", b: null, c: ENUM, d: true, e: 1.5e3}) @dir(x: 1) { alias: field(a: $a, b: $b) { id } }',
+                'mutation { doIt(input: {list: [[1], [2, 3]], nested: {deep: false}}) { ...F ... on T { t } ... @skip(if: true) { u } } } fragment F on Payload @dir { id }',
+                'subscription S { onEvent(big: 123456789012345678901234567890, precise: 0.10000000000000000001, text: """block\n  text""") }',
+        ]
+    }
+
+    def "source locations can be left out"() {
+        def document = Parser.parse('query Q($a: Int) { a(x: $a) { b } }')
+
+        when:
+        def withLocations = AstBinaryEncoding.encode(document)
+        def withoutLocations = AstBinaryEncoding.encode(document, false)
+        def decoded = AstBinaryEncoding.decode(withoutLocations)
+
+        then:
+        withoutLocations.length < withLocations.length
+        AstComparator.isEqual(document, decoded)
+        // the same as parsing without capturing source locations
+        sourceLocations(decoded).every { it == SourceLocation.EMPTY }
+    }
+
+    def "names are only written once"() {
+        def fields = (1..50).collect { "repeatedFieldName" }.join(" ")
+        def document = Parser.parse("{ a { $fields } b { $fields } }")
+
+        when:
+        def bytes = AstBinaryEncoding.encode(document, false)
+
+        then:
+        new String(bytes, "ISO-8859-1").count("repeatedFieldName") == 1
+        AstComparator.isEqual(document, AstBinaryEncoding.decode(bytes))
+    }
+
+    def "decodes from a buffer without moving it"() {
+        def document = Parser.parse('{ a b c }')
+        def bytes = AstBinaryEncoding.encode(document)
+        def buffer = ByteBuffer.allocateDirect(bytes.length)
+        buffer.put(bytes).flip()
+
+        when:
+        def decoded = AstBinaryEncoding.decode(buffer)
+
+        then:
+        AstComparator.isEqual(document, decoded)
+        buffer.position() == 0
+    }
+
+    def "only executable documents can be encoded"() {
+        when:
+        AstBinaryEncoding.encode(Parser.parse('type Query { a : String }'))
+
+        then:
+        thrown(AssertException)
+    }
+
+    def "bytes that are not an encoded document are rejected"() {
+        when:
+        AstBinaryEncoding.decode("not an ast".getBytes("UTF-8"))
+
+        then:
+        thrown(IOException)
+    }
+
+    def "truncated bytes are rejected"() {
+        def bytes = AstBinaryEncoding.encode(Parser.parse('query Q($a: Int) { a(x: $a) { b } }'))
+
+        when:
+        AstBinaryEncoding.decode(Arrays.copyOf(bytes, length))
+
+        then:
+        thrown(IOException)
+
+        where:
+        length << [0, 3, 6, 10, 20]
+    }
+
+    def "lengths that are more than the bytes left are rejected before anything is allocated"() {
+        // the header followed by a string table size of Integer.MAX_VALUE as a variable length integer
+        def bytes = ['G', 'Q', 'L', 'B'].collect { it as char as byte } + [1, 0, 0xFF, 0xFF, 0xFF, 0xFF, 0x07].collect { it as byte }
+
+        when:
+        AstBinaryEncoding.decode(bytes as byte[])
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains("bytes left")
+    }
+
+    def "nodes that nest too deeply are rejected rather than overflowing the stack"() {
+        // the header, no source locations, an empty string table and then list types nested a million deep
+        def header = ['G', 'Q', 'L', 'B'].collect { it as char as byte } + [1, 0, 0].collect { it as byte }
+        def bytes = new byte[header.size() + 1_000_000]
+        header.eachWithIndex { byte b, int i -> bytes[i] = b }
+        Arrays.fill(bytes, header.size(), bytes.length, 12 as byte)
+
+        when:
+        AstBinaryEncoding.decode(bytes)
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains("nested")
+    }
+}
@@ -21,6 +21,7 @@ import graphql.util.TraverserContext
 import graphql.util.TraverserVisitorStub
 import spock.lang.Specification
 
+import java.util.concurrent.ForkJoinPool
 import java.util.stream.Collectors
 import java.util.stream.IntStream
 
@@ -3187,6 +3188,187 @@ fragment personName on Person {
     }
 
 
+    def "templates are rebound to new argument values"() {
+        String schema = """
+        type Query {
+            pets(first : Int, filter : Filter) : [Pet]
+        }
+        input Filter {
+            name : String
+        }
+        type Pet {
+            name(upper : Boolean) : String
+            friends : [Pet]
+        }
+        """
+        GraphQLSchema graphQLSchema = TestUtil.schema(schema)
+        def query = '''
+        query q($first : Int, $name : String) {
+            pets(first : $first, filter : { name : $name }) {
+                name(upper : true)
+                friends {
+                    name
+                }
+            }
+        }
+        '''
+        assertValidQuery(graphQLSchema, query, [first: 1, name: "Fido"])
+        Document document = TestUtil.parseQuery(query)
+        def operationDefinition = document.getDefinitionsOfType(OperationDefinition)[0]
+        def options = ExecutableNormalizedOperationFactory.Options.defaultOptions().deferSupport(deferSupport)
+
+        when:
+        def template = ExecutableNormalizedOperationFactory.createExecutableNormalizedOperationTemplate(
+                graphQLSchema, operationDefinition, [:], CoercedVariables.of([first: 1, name: "Fido"]), options)
+        def same = template.rebind(CoercedVariables.of([first: 1, name: "Fido"]))
+        def rebound = template.rebind(CoercedVariables.of([first: 2, name: "Rex"]))
+
+        then:
+        template.getFieldVariableNames() == ["first", "name"] as Set
+        same.is(template.rebind(CoercedVariables.of([first: 1, name: "Fido"])))
+        same.topLevelFields[0].resolvedArguments == [first: 1, filter: [name: "Fido"]]
+
+        def pets = rebound.topLevelFields[0]
+        pets.resolvedArguments == [first: 2, filter: [name: "Rex"]]
+        pets.children.collect { it.name } == ["name", "friends"]
+        pets.children[0].resolvedArguments == [upper: true]
+        pets.children.every { it.parent.is(pets) }
+        pets.children[1].children[0].parent.is(pets.children[1])
+        rebound.getCoordinatesToNormalizedFields().get(coordinates("Query", "pets")) == [pets]
+        rebound.getNormalizedFields(operationDefinition.selectionSet.selections[0] as Field) == [pets]
+        rebound.getMergedField(pets).getName() == "pets"
+        rebound.getQueryDirectives(pets) != null
+        rebound.operationFieldCount == same.operationFieldCount
+        rebound.operationDepth == same.operationDepth
+        // the template is left as it was
+        same.topLevelFields[0].resolvedArguments == [first: 1, filter: [name: "Fido"]]
+    }
+
+    def "building in a fork join pool gives the same operation as building on one thread"() {
+        String schema = """
+        type Query {
+            pets : [Pet]
+            animal : Animal
+            dog : Dog
+        }
+        interface Pet {
+            name : String
+            friends : [Pet]
+        }
+        type Dog implements Pet {
+            name : String
+            friends : [Pet]
+            barks : Boolean
+        }
+        type Cat implements Pet {
+            name : String
+            friends : [Pet]
+            meows : Boolean
+        }
+        union Animal = Dog | Cat
+        """
+        GraphQLSchema graphQLSchema = TestUtil.schema(schema)
+        String query = """
+        {
+            pets {
+                name
+                friends {
+                    name
+                    ... on Dog { barks }
+                }
+                ... on Cat { meows }
+            }
+            animal {
+                ... on Dog { name }
+                ... on Cat { name }
+            }
+            dog {
+                name
+                friends { name }
+            }
+        }
+        """
+        assertValidQuery(graphQLSchema, query)
+        Document document = TestUtil.parseQuery(query)
+        def options = ExecutableNormalizedOperationFactory.Options.defaultOptions().deferSupport(deferSupport)
+        def forkJoinPool = new ForkJoinPool(4)
+
+        when:
+        def serial = ExecutableNormalizedOperationFactory.createExecutableNormalizedOperation(graphQLSchema, document, null, CoercedVariables.emptyVariables(), options)
+        def parallel = ExecutableNormalizedOperationFactory.createExecutableNormalizedOperation(graphQLSchema, document, null, CoercedVariables.emptyVariables(), options.forkJoinPool(forkJoinPool))
+
+        then:
+        printTree(parallel) == printTree(serial)
+        printMaps(parallel) == printMaps(serial)
+        parallel.operationFieldCount == serial.operationFieldCount
+        parallel.operationDepth == serial.operationDepth
+
+        cleanup:
+        forkJoinPool.shutdown()
+    }
+
+    def "building in a fork join pool enforces the same limits"() {
+        String schema = """
+        type Query {
+            a : Foo
+            b : Foo
+            c : Foo
+        }
+        type Foo {
+            name : String
+            foo : Foo
+        }
+        """
+        GraphQLSchema graphQLSchema = TestUtil.schema(schema)
+        String query = """
+        {
+            a { name foo { name foo { name } } }
+            b { name foo { name } }
+            c { name }
+        }
+        """
+        assertValidQuery(graphQLSchema, query)
+        Document document = TestUtil.parseQuery(query)
+        def forkJoinPool = new ForkJoinPool(4)
+        def options = ExecutableNormalizedOperationFactory.Options.defaultOptions()
+                .deferSupport(deferSupport)
+                .maxFieldsCount(maxFieldsCount)
+                .maxChildrenDepth(maxChildrenDepth)
+
+        when:
+        def messages = [options, options.forkJoinPool(forkJoinPool)].collect {
+            try {
+                ExecutableNormalizedOperationFactory.createExecutableNormalizedOperation(graphQLSchema, document, null, CoercedVariables.emptyVariables(), it)
+                return "no error"
+            } catch (AbortExecutionException e) {
+                return e.message
+            }
+        }
+
+        then:
+        messages == [expected, expected]
+
+        cleanup:
+        forkJoinPool.shutdown()
+
+        where:
+        maxFieldsCount | maxChildrenDepth | expected
+        100            | 100              | "no error"
+        12             | 100              | "no error"
+        11             | 100              | "Maximum field count exceeded. 12 > 11"
+        5              | 100              | "Maximum field count exceeded. 6 > 5"
+        100            | 3                | "Maximum query depth exceeded. 4 > 3"
+    }
+
+    private static List<String> printMaps(ExecutableNormalizedOperation operation) {
+        def printed = []
+        printed.addAll(operation.fieldToNormalizedField.entries().collect { "${it.key.name}@${System.identityHashCode(it.key)} -> ${it.value.printDetails()}" })
+        printed.addAll(operation.coordinatesToNormalizedFields.entries().collect { "${it.key} -> ${it.value.printDetails()}" })
+        printed.addAll(operation.normalizedFieldToMergedField.collect { "${it.key.printDetails()} -> ${it.value.fields.collect { System.identityHashCode(it) }}" })
+        printed.addAll(operation.normalizedFieldToQueryDirectives.keySet().collect { it.printDetails() })
+        printed
+    }
+
     private static ExecutableNormalizedOperation localCreateExecutableNormalizedOperation(
             GraphQLSchema graphQLSchema,
             Document document,
@@ -0,0 +1,235 @@
+package graphql.parser
+
+import graphql.i18n.I18n
+import graphql.language.AstComparator
+import graphql.language.AstPrinter
+import graphql.language.Document
+import graphql.language.Node
+import graphql.parser.exceptions.ParseCancelledException
+import graphql.parser.exceptions.ParseCancelledTooDeepException
+import graphql.parser.exceptions.ParseCancelledTooManyCharsException
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static graphql.parser.ParserEnvironment.newParserEnvironment
+
+class ExecutableDocumentParserTest extends Specification {
+
+    def antlrOptions = ParserOptions.newParserOptions().captureLineComments(false).build()
+    def fastOptions = antlrOptions.transform({ it.fastExecutableDocumentParsing(true) })
+    def i18n = I18n.i18n(I18n.BundleType.Parsing, Locale.ENGLISH)
+
+    static List<String> sourceLocations(Node<?> node) {
+        def locations = [node.class.simpleName + ":" + node.sourceLocation]
+        node.children.each { locations.addAll(sourceLocations(it)) }
+        return locations
+    }
+
+    Document parse(String query, ParserOptions options) {
+        return new Parser().parseDocument(newParserEnvironment().document(query).parserOptions(options).build())
+    }
+
+    void assertSameAst(String query, ParserOptions options) {
+        def antlrDocument = parse(query, options)
+        def fastDocument = ExecutableDocumentParser.parse(query, options.transform({ it.fastExecutableDocumentParsing(true) }), i18n)
+        assert fastDocument != null
+        assert AstComparator.isEqual(antlrDocument, fastDocument)
+        assert AstPrinter.printAst(antlrDocument) == AstPrinter.printAst(fastDocument)
+        assert sourceLocations(antlrDocument) == sourceLocations(fastDocument)
+    }
+
+    @Unroll
+    def "builds the same AST as the ANTLR parser for '#query'"() {
+        expect:
+        assertSameAst(query, antlrOptions)
+
+        where:
+        query << [
+                '{ me }',
+                'query { a b c }',
+                'query Named { alias: field(arg: "value") }',
+                'mutation M($input: Input! = {a: 1, b: [1, 2]}) @dir { doIt(input: $input) { id } }',
+                'subscription S { onEvent(filter: {kind: ENUM_VALUE, on: true}) { id } }',
+                'query Q($a: [[Int!]]!, $b: String = null, $c: Float = -1.5e10) { f(a: $a, b: $b, c: $c) }',
+                '{ f(i: 0, j: -12, k: 1.0, l: 2E-3, m: true, n: false, o: null, p: ON, q: [], r: {}) }',
+                '{ f(s: "plain", t: "escaped \\" \\\\ \\/ \\b \\f \\n \\r \\t", u: "\\u00e9 \\u{1F600}", v: "") }',
+                '{ f(s: """\n   block\n     string\n""") other }',
+                '{ hero { ...F @include(if: $x) ... on Droid { name } ... @skip(if: false) { id } ... { id } } }',
+                'fragment F on Character @dir(a: 1) { name friends { ...F } }',
+                '{ a }\nfragment F on Query { a }\nquery Q { ...F }',
+                '{\r\n  a\r\n  b,c\t d\n}',
+                '\uFEFF{ a(emoji: "\uD83D\uDE00") b }',
+                '{ a } # a trailing comment',
+                '# a leading comment\n{ a # and another\n b }',
+                'query query { query(query: query) fragment on type }',
+                '{ true: false(null: true) }',
+        ]
+    }
+
+    @Unroll
+    def "builds the same AST as the ANTLR parser for #resource"() {
+        expect:
+        assertSameAst(getClass().getClassLoader().getResource(resource).text, antlrOptions)
+
+        where:
+        resource << [
+                "large-schema-1-query.graphql",
+                "large-schema-2-query.graphql",
+                "large-schema-4-query.graphql",
+                "many-fragments-query.graphql",
+                "extra-large-schema-1-query.graphql",
+        ]
+    }
+
+    def "honours capturing source locations"() {
+        expect:
+        assertSameAst('query Q($a: Int) { a(x: $a) { b } }', ParserOptions.newParserOptions().captureLineComments(false).captureSourceLocation(false).build())
+    }
+
+    @Unroll
+    def "leaves '#query' to the ANTLR parser"() {
+        expect:
+        ExecutableDocumentParser.parse(query, fastOptions, i18n) == null
+
+        where:
+        query << [
+                'type Query { a : String }',
+                '"description" scalar Date',
+                'extend type Query { b : String }',
+                '{ a } type Query { a : String }',
+                '',
+                '{ a',
+                '{ a(x: 01) }',
+                '{ a(x: 1.) }',
+                '{ a(x: "\\q") }',
+                '{ a(x: "unterminated) }',
+                'query ($a: Int = $b) { a }',
+                'fragment on on Query { a }',
+                '{ a(x: """escaped \\""" quotes""") }',
+        ]
+    }
+
+    def "uses the ANTLR parser for SDL when enabled"() {
+        when:
+        def document = parse('type Query { a : String }', fastOptions)
+
+        then:
+        AstPrinter.printAst(document) == AstPrinter.printAst(parse('type Query { a : String }', antlrOptions))
+    }
+
+    def "leaves documents with comments to the ANTLR parser when they are captured"() {
+        def options = ParserOptions.newParserOptions().captureLineComments(true).fastExecutableDocumentParsing(true).build()
+
+        expect:
+        ExecutableDocumentParser.parse('{ a }', options, i18n) != null
+        ExecutableDocumentParser.parse('# comment\n{ a }', options, i18n) == null
+
+        when:
+        def document = parse('# comment\n{ a }', options)
+
+        then:
+        document.definitions[0].comments[0].content == " comment"
+    }
+
+    def "syntax errors are the same as the ANTLR parser"() {
+        when:
+        parse('query { a b(x: ) }', antlrOptions)
+
+        then:
+        def antlrException = thrown(InvalidSyntaxException)
+
+        when:
+        parse('query { a b(x: ) }', fastOptions)
+
+        then:
+        def fastException = thrown(InvalidSyntaxException)
+        fastException.message == antlrException.message
+        fastException.location == antlrException.location
+    }
+
+    def "the parser limits are honoured"() {
+        def deepQuery = "{ a " * 300 + "}" * 300
+
+        when:
+        parse("{ a b c d e f }", fastOptions.transform({ it.maxTokens(5) }))
+
+        then:
+        thrown(ParseCancelledException)
+
+        when:
+        parse("{ a      b }", fastOptions.transform({ it.maxWhitespaceTokens(5) }))
+
+        then:
+        thrown(ParseCancelledException)
+
+        when:
+        parse("{ a b c d e f }", fastOptions.transform({ it.maxCharacters(10) }))
+
+        then:
+        thrown(ParseCancelledTooManyCharsException)
+
+        when:
+        parse(deepQuery, fastOptions)
+
+        then:
+        thrown(ParseCancelledTooDeepException)
+
+        when:
+        def document = parse("{ a b c d e f }", fastOptions.transform({ it.maxTokens(9) }))
+
+        then:
+        document.definitions.size() == 1
+    }
+
+    def "plain strings are parsed the same way when the default options enable it"() {
+        def defaultOptions = ParserOptions.getDefaultParserOptions()
+        def query = 'query q($v: Int = 1) { a(x: $v) { ... on T { b } ...F } } fragment F on T { c }'
+
+        when:
+        ParserOptions.setDefaultParserOptions(fastOptions)
+        def document = Parser.parse(query)
+
+        then:
+        AstComparator.isEqual(document, parse(query, antlrOptions))
+        sourceLocations(document) == sourceLocations(parse(query, antlrOptions))
+
+        when:
+        ParserOptions.setDefaultParserOptions(fastOptions.transform({ it.maxCharacters(10) }))
+        Parser.parse(query)
+
+        then:
+        thrown(ParseCancelledTooManyCharsException)
+
+        when:
+        ParserOptions.setDefaultParserOptions(fastOptions)
+        Parser.parse('query { a b(x: ) }')
+
+        then:
+        thrown(InvalidSyntaxException)
+
+        cleanup:
+        ParserOptions.setDefaultParserOptions(defaultOptions)
+    }
+
+    def "the rule depth is never under counted"() {
+        def options = antlrOptions.transform({ it.maxRuleDepth(depth) })
+        def query = '{ a { b(x: {y: [[{z: 1}]]}) { ... on T { c(t: $t) } } } }'
+        def varQuery = 'query ($t: [[T!]!]) { a }'
+
+        expect:
+        antlrParses(query, options) || ExecutableDocumentParser.parse(query, options, i18n) == null
+        antlrParses(varQuery, options) || ExecutableDocumentParser.parse(varQuery, options, i18n) == null
+
+        where:
+        depth << (5..40)
+    }
+
+    boolean antlrParses(String query, ParserOptions options) {
+        try {
+            parse(query, options)
+            return true
+        } catch (ParseCancelledTooDeepException ignored) {
+            return false
+        }
+    }
+}
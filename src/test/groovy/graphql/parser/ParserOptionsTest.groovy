@@ -31,6 +31,7 @@ class ParserOptionsTest extends Specification {
         !defaultOptions.isCaptureIgnoredChars()
         defaultOptions.isReaderTrackData()
         !defaultOptions.isRedactTokenParserErrorMessages()
+        !defaultOptions.isFastExecutableDocumentParsing()
 
         defaultOperationOptions.getMaxTokens() == 15_000
         defaultOperationOptions.getMaxWhitespaceTokens() == 200_000
@@ -39,6 +40,7 @@ class ParserOptionsTest extends Specification {
         !defaultOperationOptions.isCaptureIgnoredChars()
         defaultOperationOptions.isReaderTrackData()
         !defaultOperationOptions.isRedactTokenParserErrorMessages()
+        !defaultOperationOptions.isFastExecutableDocumentParsing()
 
         defaultSdlOptions.getMaxCharacters() == Integer.MAX_VALUE
         defaultSdlOptions.getMaxTokens() == Integer.MAX_VALUE
@@ -48,6 +50,7 @@ class ParserOptionsTest extends Specification {
         !defaultSdlOptions.isCaptureIgnoredChars()
         defaultSdlOptions.isReaderTrackData()
         !defaultSdlOptions.isRedactTokenParserErrorMessages()
+        !defaultSdlOptions.isFastExecutableDocumentParsing()
     }
 
     def "can set in new option JVM wide"() {
@@ -188,6 +188,23 @@ class GraphQLCodeRegistryTest extends Specification {
         dataFetcher instanceof PropertyDataFetcher
     }
 
+    def "the default data fetcher is kept per field of each type"() {
+
+        when:
+        def codeRegistry = GraphQLCodeRegistry.newCodeRegistry().build()
+        def humanName = codeRegistry.getDataFetcher(StarWarsSchema.humanType, StarWarsSchema.humanType.getFieldDefinition("name"))
+        def droidName = codeRegistry.getDataFetcher(StarWarsSchema.droidType, StarWarsSchema.droidType.getFieldDefinition("name"))
+        def humanId = codeRegistry.getDataFetcher(StarWarsSchema.humanType, StarWarsSchema.humanType.getFieldDefinition("id"))
+        then:
+        humanName instanceof PropertyDataFetcher
+        humanName.is(codeRegistry.getDataFetcher(StarWarsSchema.humanType, StarWarsSchema.humanType.getFieldDefinition("name")))
+        humanName.is(codeRegistry.getDataFetcher(FieldCoordinates.coordinates("Human", "name"), StarWarsSchema.humanType.getFieldDefinition("name")))
+        // fields of the same name in other types have their own, so that each only binds the classes of one type
+        !humanName.is(droidName)
+        (droidName as PropertyDataFetcher).getPropertyName() == "name"
+        (humanId as PropertyDataFetcher).getPropertyName() == "id"
+    }
+
     def "custom DF can be the default data fetcher used when no data fetcher is available"() {
 
         when:
@@ -241,6 +241,57 @@ class PropertyDataFetcherTest extends Specification {
         result == null
     }
 
+    static class BoundA {
+        String getName() { "a" }
+    }
+
+    static class BoundB {
+        String getName() { "b" }
+    }
+
+    static class BoundC extends BoundB {
+        String getName() { "c" }
+    }
+
+    static class BoundD {
+        public String name = "d"
+    }
+
+    static class BoundE {
+        String getName() { "e" }
+    }
+
+    static class BoundF {
+        String getName() { "f" }
+    }
+
+    def "getters bound per source class give the same values as the reflection caches"() {
+        def fetcher = new PropertyDataFetcher("name")
+        def sources = [new BoundA(), new BoundB(), new BoundC(), new BoundD(), [name: "map"], new BoundE(), new BoundF()]
+
+        when:
+        def firstValues = sources.collect { fetcher.get(env(it)) }
+        def secondValues = sources.collect { fetcher.get(env(it)) }
+
+        then:
+        firstValues == ["a", "b", "c", "d", "map", "e", "f"]
+        secondValues == firstValues
+
+        when:
+        PropertyDataFetcher.clearReflectionCache()
+        def afterClearValues = sources.collect { fetcher.get(env(it)) }
+
+        then:
+        afterClearValues == firstValues
+
+        when:
+        PropertyDataFetcherHelper.setUseLambdaFactory(false)
+        def withoutLambdaValues = sources.collect { fetcher.get(env(it)) }
+
+        then:
+        withoutLambdaValues == firstValues
+    }
+
     def "fetch when caching is in place has no bad effects"() {
 
         def environment = env(new TestClass())
@@ -0,0 +1,84 @@
+package graphql.schema
+
+import spock.lang.Specification
+
+import java.util.regex.PatternSyntaxException
+
+class SelectedFieldGlobTest extends Specification {
+
+    def names = ["name", "Human.name",
+                 "friends", "Human.friends",
+                 "friends/name", "Human.friends/Character.name",
+                 "friends/friends", "Human.friends/Character.friends",
+                 "friends/friends/name", "Human.friends/Character.friends/Character.name",
+                 "friends/friends/id", "Human.friends/Character.friends/Character.id",
+                 "pets", "Human.pets",
+                 "pets/name", "Human.pets/[Cat, Dog].name"]
+
+    SelectedFieldGlob.Trie trie() {
+        def trie = new SelectedFieldGlob.Trie()
+        names.each { trie.add(it) }
+        trie
+    }
+
+    def "globs match the same field names as the unix path matcher"() {
+        def trie = trie()
+
+        when:
+        def glob = SelectedFieldGlob.compile(pattern)
+        Set<String> matches = new HashSet<>()
+        glob.collectMatches(trie, matches)
+
+        then:
+        matches == expected as Set
+        glob.matchesAny(trie) == !expected.isEmpty()
+
+        where:
+        pattern                       | expected
+        "name"                        | ["name"]
+        "rubbish"                     | []
+        "nam?"                        | ["name"]
+        "*"                           | ["name", "Human.name", "friends", "Human.friends", "pets", "Human.pets"]
+        "*/name"                      | ["friends/name", "pets/name"]
+        "**/name"                     | ["friends/name", "friends/friends/name", "pets/name"]
+        "**name"                      | ["name", "Human.name", "friends/name", "Human.friends/Character.name", "friends/friends/name", "Human.friends/Character.friends/Character.name", "pets/name", "Human.pets/[Cat, Dog].name"]
+        "friends/*"                   | ["friends/name", "friends/friends"]
+        "friends/**"                  | ["friends/name", "friends/friends", "friends/friends/name", "friends/friends/id"]
+        "friends/**/name"             | ["friends/friends/name"]
+        "friends/*/name"              | ["friends/friends/name"]
+        "friends/friends/[in]?*"      | ["friends/friends/name", "friends/friends/id"]
+        "friends/friends/[!i]*"       | ["friends/friends/name"]
+        "{name,pets}"                 | ["name", "pets"]
+        "{friends/name,pets/name}"    | ["friends/name", "pets/name"]
+        "Human.pets/*Dog*.*"          | ["Human.pets/[Cat, Dog].name"]
+        "Human.pets/\\[Cat, Dog\\].*" | ["Human.pets/[Cat, Dog].name"]
+        "friends/"                    | []
+        ""                            | []
+    }
+
+    def "invalid globs are rejected"() {
+        when:
+        SelectedFieldGlob.compile(pattern)
+
+        then:
+        thrown(PatternSyntaxException)
+
+        where:
+        pattern << ["friends[/]", "{a{b}}", "name\\", "[name"]
+    }
+
+    def "compiled globs are cached"() {
+        expect:
+        SelectedFieldGlob.compile("friends/*/name").is(SelectedFieldGlob.compile("friends/*/name"))
+    }
+
+    def "the names of the fields are kept in the order they were added"() {
+        def trie = new SelectedFieldGlob.Trie()
+
+        when:
+        ["b", "a", "b/c", "a", "b/c"].each { trie.add(it) }
+
+        then:
+        trie.getNames() == ["b", "a", "b/c"]
+    }
+}
@@ -9,6 +9,9 @@ import graphql.util.TraversalControl
 import graphql.util.TraverserContext
 import spock.lang.Specification
 
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.atomic.AtomicInteger
+
 import static graphql.TestUtil.schema
 
 class SchemaDiffingTest extends Specification {
@@ -1554,6 +1557,103 @@ class SchemaDiffingTest extends Specification {
         operations.size() == 1
     }
 
-}
+    def "diffing in a fork join pool gives the same edit"() {
+        given:
+        // the many changed types leave cost matrices large enough to be split into tasks
+        def schema1 = schema(typesSdl(false))
+        def schema2 = schema(typesSdl(true))
+        def serialDiff = new SchemaDiffing().diffGraphQLSchema(schema1, schema2)
+
+        def workerThreads = new AtomicInteger()
+        def forkJoinPool = new ForkJoinPool(4, { pool ->
+            workerThreads.incrementAndGet()
+            ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool)
+        } as ForkJoinPool.ForkJoinWorkerThreadFactory, null, false)
+        def schemaDiffing = new SchemaDiffing()
+        schemaDiffing.setForkJoinPool(forkJoinPool)
+
+        when:
+        def diff = schemaDiffing.diffGraphQLSchema(schema1, schema2)
+
+        then:
+        // the pool only starts workers when tasks are given to it
+        workerThreads.get() > 0
+        diff.size() == serialDiff.size()
+        schemaDiffing.isOptimal()
+        schemaDiffing.gedLowerBound == diff.size()
+
+        cleanup:
+        forkJoinPool.shutdown()
+    }
+
+    static String typesSdl(boolean changed) {
+        def sdl = new StringBuilder("type Query {\n")
+        40.times { t -> sdl.append("  t$t: ${typeName(t, changed)}\n") }
+        sdl.append("}\n")
+        40.times { t ->
+            sdl.append("type ${typeName(t, changed)} {\n")
+            4.times { f ->
+                def name = changed && (t + f) % 3 == 0 ? "g$f" : "f$f"
+                sdl.append("  $name: ${f % 2 == 0 ? "String" : "Int"}\n")
+            }
+            if (changed && t % 4 == 0) {
+                sdl.append("  extra: Boolean\n")
+            }
+            sdl.append("}\n")
+        }
+        sdl.toString()
+    }
+
+    static String typeName(int t, boolean changed) {
+        (changed && t % 5 == 0 ? "R" : "T") + t
+    }
+
+    def "exceeding the memory limit falls back to a greedy edit"() {
+        given:
+        def schema1 = schema(typesSdl(false))
+        def schema2 = schema(typesSdl(true))
+        def optimalEdit = new SchemaDiffing().diffGraphQLSchemaAllEdits(schema1, schema2, new AtomicInteger())
 
+        def schemaDiffing = new SchemaDiffing()
+        schemaDiffing.setMemoryLimit(0)
 
+        when:
+        def greedyEdit = schemaDiffing.diffGraphQLSchemaAllEdits(schema1, schema2, new AtomicInteger())
+
+        then:
+        !schemaDiffing.isOptimal()
+        greedyEdit.getListOfEditOperations().size() == greedyEdit.ged
+        greedyEdit.ged >= optimalEdit.ged
+        schemaDiffing.gedLowerBound <= optimalEdit.ged
+
+        when:
+        // a diff needing no search is always optimal
+        def noEdits = schemaDiffing.diffGraphQLSchema(schema1, schema1)
+
+        then:
+        noEdits.isEmpty()
+        schemaDiffing.isOptimal()
+    }
+
+    def "the hungarian algorithm can use part of a larger cost matrix"() {
+        given:
+        double[][] costMatrix = [
+                [4, 1, 3, 0],
+                [2, 0, 5, 0],
+                [3, 2, 2, 0],
+                [0, 0, 0, 0],
+        ]
+        double[][] exactCostMatrix = [
+                [4, 1, 3],
+                [2, 0, 5],
+                [3, 2, 2],
+        ]
+
+        when:
+        def assignments = new HungarianAlgorithm(costMatrix, 3).execute()
+
+        then:
+        assignments == new HungarianAlgorithm(exactCostMatrix).execute()
+        assignments == [1, 0, 2] as int[]
+    }
+}
@@ -0,0 +1,186 @@
+package graphql.validation
+
+import graphql.GraphQL
+import graphql.ParseAndValidate
+import graphql.TestUtil
+import graphql.language.Document
+import graphql.parser.Parser
+import graphql.schema.GraphQLSchema
+import spock.lang.Specification
+
+import java.util.function.Predicate
+
+class InMemoryValidationResultCacheTest extends Specification {
+
+    def spec = '''
+        type Query {
+            hero(id : ID) : Hero
+        }
+        type Hero {
+            name : String
+            friends : [Hero]
+        }
+    '''
+
+    def schema = TestUtil.schema(spec)
+    Predicate<Class<?>> allRules = { r -> true }
+    int validations = 0
+
+    List<ValidationError> validate(ValidationResultCache cache, GraphQLSchema schema, String query, Predicate<Class<?>> rulePredicate = allRules) {
+        Document document = Parser.parse(query)
+        cache.getValidationErrors(schema, query, document, rulePredicate, Locale.ENGLISH, {
+            validations++
+            ParseAndValidate.validate(schema, document, rulePredicate, Locale.ENGLISH)
+        })
+    }
+
+    def "documents that are the same query share their verdict"() {
+        def cache = new InMemoryValidationResultCache()
+
+        when:
+        def errors1 = validate(cache, schema, '{ hero(id : "1") { name friends { name } } }')
+        def errors2 = validate(cache, schema, '''
+            # the same query with its fields in another order
+            {
+                hero(id : "1") {
+                    friends { name }
+                    name
+                }
+            }
+        ''')
+
+        then:
+        errors1.isEmpty()
+        errors2.isEmpty()
+        validations == 1
+        cache.size() == 1
+
+        when: "literal values are part of the query"
+        validate(cache, schema, '{ hero(id : "2") { name friends { name } } }')
+
+        then:
+        validations == 2
+    }
+
+    def "a query text that was seen before is not looked at again"() {
+        def cache = new InMemoryValidationResultCache()
+        def query = '{ hero { name } }'
+        validate(cache, schema, query)
+        def document = Mock(Document)
+
+        when:
+        def errors = cache.getValidationErrors(schema, query, document, allRules, Locale.ENGLISH, {
+            validations++
+            []
+        })
+
+        then:
+        errors.isEmpty()
+        validations == 1
+        0 * document._
+    }
+
+    def "documents without their query text are looked up by their canonical query"() {
+        def cache = new InMemoryValidationResultCache()
+        validate(cache, schema, '{ hero { name } }')
+        def document = Parser.parse('{ hero  {  name  } }')
+
+        when:
+        def errors = cache.getValidationErrors(schema, null, document, allRules, Locale.ENGLISH, {
+            validations++
+            ParseAndValidate.validate(schema, document, allRules, Locale.ENGLISH)
+        })
+
+        then:
+        errors.isEmpty()
+        validations == 1
+    }
+
+    def "invalid documents are validated each time"() {
+        def cache = new InMemoryValidationResultCache()
+
+        when:
+        def errors1 = validate(cache, schema, '{ hero { nameX } }')
+        def errors2 = validate(cache, schema, '''
+            {
+                hero { nameX }
+            }
+        ''')
+
+        then:
+        errors1.size() == 1
+        errors2.size() == 1
+        errors1[0].locations != errors2[0].locations
+        validations == 2
+        cache.size() == 0
+    }
+
+    def "verdicts are kept per rule predicate"() {
+        def cache = new InMemoryValidationResultCache()
+        Predicate<Class<?>> someRules = { r -> r != graphql.validation.rules.NoUnusedFragments }
+
+        when:
+        validate(cache, schema, '{ hero { name } }', allRules)
+        validate(cache, schema, '{ hero { name } }', someRules)
+        validate(cache, schema, '{ hero { name } }', allRules)
+
+        then:
+        validations == 2
+    }
+
+    def "verdicts are dropped when the schema changes"() {
+        def cache = new InMemoryValidationResultCache()
+        def otherSchema = TestUtil.schema(spec)
+
+        when:
+        validate(cache, schema, '{ hero { name } }')
+        validate(cache, otherSchema, '{ hero { name } }')
+        validate(cache, otherSchema, '{ hero { name } }')
+
+        then:
+        validations == 2
+
+        when:
+        cache.invalidateAll()
+        validate(cache, otherSchema, '{ hero { name } }')
+
+        then:
+        validations == 3
+    }
+
+    def "the cache is cleared when it is full"() {
+        def cache = new InMemoryValidationResultCache(2)
+
+        when:
+        validate(cache, schema, '{ hero(id : "1") { name } }')
+        validate(cache, schema, '{ hero(id : "2") { name } }')
+        validate(cache, schema, '{ hero(id : "3") { name } }')
+
+        then:
+        cache.size() == 1
+        validations == 3
+    }
+
+    def "GraphQL uses the validation result cache"() {
+        def cachedValidations = 0
+        def delegate = new InMemoryValidationResultCache()
+        ValidationResultCache cache = { schema, query, document, rulePredicate, locale, validation ->
+            delegate.getValidationErrors(schema, query, document, rulePredicate, locale, {
+                cachedValidations++
+                validation.get()
+            })
+        }
+        def graphQL = GraphQL.newGraphQL(schema).validationResultCache(cache).build()
+
+        when:
+        def result1 = graphQL.execute('{ hero { name } }')
+        def result2 = graphQL.execute('{ hero  {  name  } }')
+        def result3 = graphQL.transform({ it.schema(TestUtil.schema(spec)) }).execute('{ hero { name } }')
+
+        then:
+        result1.errors.isEmpty()
+        result2.errors.isEmpty()
+        result3.errors.isEmpty()
+        cachedValidations == 2
+    }
+}
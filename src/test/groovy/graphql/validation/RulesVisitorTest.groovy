@@ -93,5 +93,48 @@ class RulesVisitorTest extends Specification {
         2 * visitsSpreadsRule.checkFragmentDefinition({it.name == "B"})
         2 * visitsSpreadsRule.checkFragmentDefinition({it.name == "C"})
     }
-}
 
+    static class FieldCountingRule extends AbstractRule {
+        int fields = 0
+
+        FieldCountingRule(ValidationContext validationContext, ValidationErrorCollector validationErrorCollector) {
+            super(validationContext, validationErrorCollector)
+        }
+
+        @Override
+        void checkField(graphql.language.Field field) {
+            fields++
+        }
+    }
+
+    def "rules are only dispatched the nodes whose check methods they override"() {
+        given:
+        def query = """
+        query {
+            __schema {
+                queryType { ...TypeName }
+            }
+        }
+
+        fragment TypeName on __Type {
+            name
+        }
+        """
+        Document document = new Parser().parseDocument(query)
+        I18n i18n = I18n.i18n(I18n.BundleType.Validation, Locale.ENGLISH)
+        ValidationContext validationContext = new ValidationContext(TestUtil.dummySchema, document, i18n)
+        def fieldCountingRule = new FieldCountingRule(validationContext, new ValidationErrorCollector())
+
+        expect:
+        def table = new RuleDispatchTable([fieldCountingRule, simpleRule])
+        table.rules(RuleDispatchTable.CHECK_FIELD) as List == [fieldCountingRule, simpleRule]
+        table.rules(RuleDispatchTable.CHECK_SELECTION_SET) as List == [simpleRule]
+
+        when:
+        new LanguageTraversal().traverse(document, new RulesVisitor(validationContext, [fieldCountingRule]))
+
+        then:
+        // __schema, queryType and name from the fragment definition itself
+        fieldCountingRule.fields == 3
+    }
+}
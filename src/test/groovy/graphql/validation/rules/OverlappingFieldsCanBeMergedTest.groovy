@@ -948,5 +948,37 @@ class OverlappingFieldsCanBeMergedTest extends Specification {
         errorCollector.getErrors().size() == 0
     }
 
+    def "a conflict in a fragment that is spread many times is reported once per path"() {
+        given:
+        def schema = schema('''
+        type Query {
+          dog: Dog
+        }
+        type Dog {
+          name: String
+          age: Int
+          friend: Dog
+        }
+        ''')
+        def fragmentCount = 30
+        def fragments = (0..<fragmentCount).collect { i ->
+            def next = i + 1 < fragmentCount ? "...F${i + 1} friend { age ...F${i + 1} }" : "x : name"
+            "fragment F${i} on Dog { name ${next} }"
+        }.join("\n")
+        def query = """
+        {
+          dog {
+            ...F0
+            x : age
+          }
+        }
+        ${fragments}
+        """
+        when:
+        traverse(query, schema)
 
+        then:
+        errorCollector.getErrors().size() == 1
+        errorCollector.getErrors()[0].message.contains("'x' : returns different types 'String' and 'Int'")
+    }
 }
@@ -2,11 +2,17 @@ package benchmark;
 
 import graphql.ExecutionInput;
 import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.instrumentation.FieldFetchingInstrumentationContext;
 import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.InstrumentationContext;
 import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
 import graphql.execution.instrumentation.SimplePerformantInstrumentation;
 import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldCompleteParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldParameters;
 import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLSchema;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -24,6 +30,7 @@ import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
@@ -32,6 +39,11 @@ import static graphql.Scalars.GraphQLString;
 import static graphql.schema.GraphQLFieldDefinition.newFieldDefinition;
 import static graphql.schema.GraphQLObjectType.newObject;
 
+/**
+ * Measures the cost of the {@link ChainedInstrumentation} hooks.  With the "noop" mix every instrumentation in the chain
+ * is a {@link SimplePerformantInstrumentation}, and with the "mixed" mix the first one also listens to the field hooks,
+ * which is the common case of one real instrumentation chained with others that only care about a few hooks.
+ */
 @State(Scope.Benchmark)
 @Warmup(iterations = 2, time = 5)
 @Measurement(iterations = 3)
@@ -41,9 +53,15 @@ public class ChainedInstrumentationBenchmark {
     @Param({"0", "1", "10"})
     public int num;
 
+    @Param({"noop", "mixed"})
+    public String mix;
+
     ChainedInstrumentation chainedInstrumentation;
     GraphQLSchema schema;
     InstrumentationExecutionParameters parameters;
+    InstrumentationFieldParameters fieldParameters;
+    InstrumentationFieldFetchParameters fieldFetchParameters;
+    InstrumentationFieldCompleteParameters fieldCompleteParameters;
     InstrumentationState instrumentationState;
 
     @Setup(Level.Trial)
@@ -61,10 +79,17 @@ public class ChainedInstrumentationBenchmark {
         ExecutionInput executionInput = ExecutionInput.newExecutionInput().query("benchmark").build();
         InstrumentationCreateStateParameters createStateParameters = new InstrumentationCreateStateParameters(schema, executionInput);
 
-        List<Instrumentation> instrumentations = Collections.nCopies(num, new SimplePerformantInstrumentation());
+        List<Instrumentation> instrumentations = new ArrayList<>(Collections.nCopies(num, new SimplePerformantInstrumentation()));
+        if (mix.equals("mixed") && num > 0) {
+            instrumentations.set(0, new FieldCountingInstrumentation());
+        }
         chainedInstrumentation = new ChainedInstrumentation(instrumentations);
         instrumentationState = chainedInstrumentation.createStateAsync(createStateParameters).get();
         parameters = new InstrumentationExecutionParameters(executionInput, schema);
+        // the instrumentations here never look at the parameters so they don't need a real execution behind them
+        fieldParameters = new InstrumentationFieldParameters(null, () -> null);
+        fieldFetchParameters = new InstrumentationFieldFetchParameters(null, () -> null, null, false);
+        fieldCompleteParameters = new InstrumentationFieldCompleteParameters(null, null, () -> null, null);
     }
 
     @Benchmark
@@ -73,6 +98,56 @@ public class ChainedInstrumentationBenchmark {
         return chainedInstrumentation.instrumentSchema(schema, parameters, instrumentationState);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public InstrumentationContext<Object> benchmarkBeginFieldExecution() {
+        InstrumentationContext<Object> context = chainedInstrumentation.beginFieldExecution(fieldParameters, instrumentationState);
+        context.onDispatched();
+        context.onCompleted("value", null);
+        return context;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public FieldFetchingInstrumentationContext benchmarkBeginFieldFetching() {
+        FieldFetchingInstrumentationContext context = chainedInstrumentation.beginFieldFetching(fieldFetchParameters, instrumentationState);
+        context.onDispatched();
+        context.onFetchedValue("value");
+        context.onCompleted("value", null);
+        return context;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public InstrumentationContext<Object> benchmarkBeginFieldCompletion() {
+        InstrumentationContext<Object> context = chainedInstrumentation.beginFieldCompletion(fieldCompleteParameters, instrumentationState);
+        context.onDispatched();
+        context.onCompleted("value", null);
+        return context;
+    }
+
+    static class FieldCountingInstrumentation extends SimplePerformantInstrumentation {
+        long count;
+
+        @Override
+        public InstrumentationContext<Object> beginFieldExecution(InstrumentationFieldParameters parameters, InstrumentationState state) {
+            count++;
+            return SimpleInstrumentationContext.noOp();
+        }
+
+        @Override
+        public FieldFetchingInstrumentationContext beginFieldFetching(InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+            count++;
+            return FieldFetchingInstrumentationContext.NOOP;
+        }
+
+        @Override
+        public InstrumentationContext<Object> beginFieldCompletion(InstrumentationFieldCompleteParameters parameters, InstrumentationState state) {
+            count++;
+            return SimpleInstrumentationContext.noOp();
+        }
+    }
+
     public static void main(String[] args) throws Exception {
         Options opt = new OptionsBuilder()
                 .include("benchmark.ChainedInstrumentationBenchmark")
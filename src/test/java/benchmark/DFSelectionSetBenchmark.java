@@ -38,6 +38,7 @@ public class DFSelectionSetBenchmark {
 
         public ExecutableNormalizedField normalisedField;
         public GraphQLOutputType outputFieldType;
+        public DataFetchingFieldSelectionSet computedSelectionSet;
         GraphQLSchema schema;
         Document document;
 
@@ -56,6 +57,9 @@ public class DFSelectionSetBenchmark {
 
                 outputFieldType = schema.getObjectType("Object42");
 
+                computedSelectionSet = DataFetchingFieldSelectionSetImpl.newCollector(schema, outputFieldType, () -> normalisedField);
+                computedSelectionSet.getFields();
+
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
@@ -79,6 +83,16 @@ public class DFSelectionSetBenchmark {
         blackhole.consume(fields);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void benchMarkContainsThroughput(MyState myState, Blackhole blackhole) {
+        DataFetchingFieldSelectionSet selectionSet = myState.computedSelectionSet;
+        blackhole.consume(selectionSet.contains("wontBeFound/*"));
+        blackhole.consume(selectionSet.contains("*/wontBeFound"));
+        blackhole.consume(selectionSet.contains("**/wontBeFound"));
+    }
+
     private List<SelectedField> getSelectedFields(MyState myState) {
         DataFetchingFieldSelectionSet dataFetchingFieldSelectionSet = DataFetchingFieldSelectionSetImpl.newCollector(myState.schema, myState.outputFieldType, () -> myState.normalisedField);
         return dataFetchingFieldSelectionSet.getFields("wontBeFound");
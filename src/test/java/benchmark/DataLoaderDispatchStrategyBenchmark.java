@@ -0,0 +1,173 @@
+package benchmark;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatchingContextKeys;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import org.dataloader.BatchLoader;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static graphql.schema.idl.TypeRuntimeWiring.newTypeWiring;
+
+/**
+ * Compares the lock based and the lock free per level data loader dispatch strategies on a wide, three level
+ * query whose fields are fetched from many threads at once, which is where the per level call counting contends.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3)
+@Fork(3)
+public class DataLoaderDispatchStrategyBenchmark {
+
+    private static final String SDL = "type Query { shops(howMany : Int) : [Shop] }\n" +
+            "type Shop { id : ID departments(howMany : Int) : [Department] }\n" +
+            "type Department { id : ID products(howMany : Int) : [Product] }\n" +
+            "type Product { id : ID name : String }\n";
+
+    @Param({"false", "true"})
+    boolean lockFree;
+
+    @Param({"50"})
+    int howManyShops;
+
+    int howManyQueries = 8;
+    int howManyFetcherThreads = 8;
+
+    ExecutorService queryExecutorService;
+    ExecutorService fetchersExecutorService;
+    GraphQL graphQL;
+    String query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        queryExecutorService = Executors.newFixedThreadPool(howManyQueries);
+        fetchersExecutorService = Executors.newFixedThreadPool(howManyFetcherThreads);
+        graphQL = buildGraphQL();
+        query = "{ shops(howMany : " + howManyShops + ") { id departments(howMany : 10) { id products(howMany : 5) { id name } } } }";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        queryExecutorService.shutdownNow();
+        fetchersExecutorService.shutdownNow();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Object benchMarkConcurrentQueriesThroughput() {
+        return runManyQueriesToCompletion();
+    }
+
+    private Void runManyQueriesToCompletion() {
+        CompletableFuture<?>[] cfs = new CompletableFuture[howManyQueries];
+        for (int i = 0; i < howManyQueries; i++) {
+            cfs[i] = CompletableFuture.supplyAsync(this::executeQuery, queryExecutorService).thenCompose(cf -> cf);
+        }
+        return CompletableFuture.allOf(cfs).join();
+    }
+
+    private CompletableFuture<ExecutionResult> executeQuery() {
+        ExecutionInput executionInput = ExecutionInput.newExecutionInput(query)
+                .dataLoaderRegistry(newDataLoaderRegistry())
+                .graphQLContext(Map.of(DataLoaderDispatchingContextKeys.ENABLE_LOCK_FREE_PER_LEVEL_DISPATCH, lockFree))
+                .build();
+        return graphQL.executeAsync(executionInput);
+    }
+
+    private DataLoaderRegistry newDataLoaderRegistry() {
+        BatchLoader<String, String> nameBatchLoader = ids -> CompletableFuture.supplyAsync(() -> {
+            List<String> names = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                names.add("name-" + id);
+            }
+            return names;
+        }, fetchersExecutorService);
+        DataLoader<String, String> nameLoader = DataLoaderFactory.newDataLoader(nameBatchLoader);
+        DataLoaderRegistry registry = new DataLoaderRegistry();
+        registry.register("names", nameLoader);
+        return registry;
+    }
+
+    private GraphQL buildGraphQL() {
+        TypeDefinitionRegistry definitionRegistry = new SchemaParser().parse(SDL);
+
+        DataFetcher<?> listDF = env -> {
+            String parentId = env.getSource() == null ? "" : env.<IdThing>getSource().id;
+            int howMany = env.getArgument("howMany");
+            return CompletableFuture.supplyAsync(() -> mkHowManyThings(parentId, howMany), fetchersExecutorService);
+        };
+        DataFetcher<?> nameDF = env -> env.getDataLoader("names").load(env.<IdThing>getSource().id);
+
+        RuntimeWiring runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .type(newTypeWiring("Query").dataFetcher("shops", listDF))
+                .type(newTypeWiring("Shop").dataFetcher("departments", listDF))
+                .type(newTypeWiring("Department").dataFetcher("products", listDF))
+                .type(newTypeWiring("Product").dataFetcher("name", nameDF))
+                .build();
+
+        GraphQLSchema graphQLSchema = new SchemaGenerator().makeExecutableSchema(definitionRegistry, runtimeWiring);
+        return GraphQL.newGraphQL(graphQLSchema).build();
+    }
+
+    private static List<IdThing> mkHowManyThings(String parentId, int howMany) {
+        List<IdThing> things = new ArrayList<>(howMany);
+        for (int i = 0; i < howMany; i++) {
+            things.add(new IdThing(parentId + "/" + i));
+        }
+        return things;
+    }
+
+    @SuppressWarnings("unused")
+    static class IdThing {
+        private final String id;
+
+        IdThing(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include("benchmark.DataLoaderDispatchStrategyBenchmark")
+                .build();
+
+        new Runner(opt).run();
+    }
+}
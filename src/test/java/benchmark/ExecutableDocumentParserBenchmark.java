@@ -0,0 +1,65 @@
+package benchmark;
+
+import graphql.language.Document;
+import graphql.parser.Parser;
+import graphql.parser.ParserEnvironment;
+import graphql.parser.ParserOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing operations with the ANTLR parser against the hand written executable document parser
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3)
+@Fork(3)
+public class ExecutableDocumentParserBenchmark {
+
+    @Param({"large-schema-1-query.graphql", "large-schema-4-query.graphql", "many-fragments-query.graphql", "extra-large-schema-1-query.graphql"})
+    public String queryResource;
+
+    private String query;
+    private ParserOptions antlrParserOptions;
+    private ParserOptions fastParserOptions;
+
+    @Setup
+    public void setup() {
+        query = BenchmarkUtils.loadResource(queryResource);
+        antlrParserOptions = ParserOptions.getDefaultOperationParserOptions().transform(builder -> builder.fastExecutableDocumentParsing(false));
+        fastParserOptions = ParserOptions.getDefaultOperationParserOptions().transform(builder -> builder.fastExecutableDocumentParsing(true));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Document benchMarkAntlrParser() {
+        return parse(antlrParserOptions);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Document benchMarkExecutableDocumentParser() {
+        return parse(fastParserOptions);
+    }
+
+    private Document parse(ParserOptions parserOptions) {
+        ParserEnvironment parserEnvironment = ParserEnvironment.newParserEnvironment()
+                .document(query)
+                .parserOptions(parserOptions)
+                .build();
+        return new Parser().parseDocument(parserEnvironment);
+    }
+}
@@ -1,5 +1,8 @@
 package benchmark;
 
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.PropertyDataFetcher;
+import graphql.schema.PropertyDataFetcherHelper;
 import graphql.schema.fetching.LambdaFetchingSupport;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Fork;
@@ -11,6 +14,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.function.Function;
 
+import static graphql.Scalars.GraphQLString;
+
 @Warmup(iterations = 2, time = 5, batchSize = 500)
 @Measurement(iterations = 3, batchSize = 500)
 @Fork(3)
@@ -40,6 +45,10 @@ public class GetterAccessBenchmark {
 
     static Method getterMethod;
 
+    static GraphQLFieldDefinition nameField = GraphQLFieldDefinition.newFieldDefinition().name("name").type(GraphQLString).build();
+
+    static PropertyDataFetcher<Object> propertyDataFetcher = PropertyDataFetcher.fetching("name");
+
     static {
         try {
             getterMethod = Pojo.class.getMethod("getName");
@@ -70,5 +79,16 @@ public class GetterAccessBenchmark {
             throw new RuntimeException(e);
         }
     }
-}
 
+    @Benchmark
+    public void measurePropertyFetchingAccess(Blackhole bh) {
+        Object value = PropertyDataFetcherHelper.getPropertyValue("name", pojo, GraphQLString);
+        bh.consume(value);
+    }
+
+    @Benchmark
+    public void measurePropertyDataFetcherAccess(Blackhole bh) throws Exception {
+        Object value = propertyDataFetcher.get(nameField, pojo, () -> null);
+        bh.consume(value);
+    }
+}
@@ -44,6 +44,9 @@ public class OverlappingFieldValidationBenchmark {
         GraphQLSchema schema;
         Document document;
 
+        GraphQLSchema fragmentHeavySchema;
+        Document fragmentHeavyDocument;
+
         @Setup
         public void setup() {
             try {
@@ -56,10 +59,32 @@ public class OverlappingFieldValidationBenchmark {
                 GraphQL graphQL = GraphQL.newGraphQL(schema).build();
                 ExecutionResult executionResult = graphQL.execute(query);
                 assertTrue(executionResult.getErrors().size() == 0);
+
+                fragmentHeavySchema = SchemaGenerator.createdMockedSchema("type Query { dog : Dog } type Dog { name : String age : Int friend : Dog }");
+                String fragmentHeavyQuery = fragmentHeavyQuery(100);
+                fragmentHeavyDocument = Parser.parse(fragmentHeavyQuery);
+                executionResult = GraphQL.newGraphQL(fragmentHeavySchema).build().execute(fragmentHeavyQuery);
+                assertTrue(executionResult.getErrors().size() == 0);
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
         }
+
+        /*
+         * A chain of fragments where each one spreads the next both directly and inside a sub selection, so the same
+         * fragments are reached over and over again from the selection sets that enclose them
+         */
+        private static String fragmentHeavyQuery(int fragmentCount) {
+            StringBuilder query = new StringBuilder("query { dog { ...F0 } }\n");
+            for (int i = 0; i < fragmentCount; i++) {
+                query.append("fragment F").append(i).append(" on Dog { name ");
+                if (i + 1 < fragmentCount) {
+                    query.append("...F").append(i + 1).append(" friend { age ...F").append(i + 1).append(" }");
+                }
+                query.append(" }\n");
+            }
+            return query.toString();
+        }
     }
 
     @Benchmark
@@ -74,6 +99,13 @@ public class OverlappingFieldValidationBenchmark {
         blackhole.consume(validateQuery(myState.schema, myState.document));
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void overlappingFieldValidationFragmentHeavyAvgTime(MyState myState, Blackhole blackhole) {
+        blackhole.consume(validateQuery(myState.fragmentHeavySchema, myState.fragmentHeavyDocument));
+    }
+
     private List<ValidationError> validateQuery(GraphQLSchema schema, Document document) {
         ValidationErrorCollector errorCollector = new ValidationErrorCollector();
         I18n i18n = I18n.i18n(I18n.BundleType.Validation, Locale.ENGLISH);
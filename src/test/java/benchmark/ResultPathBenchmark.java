@@ -0,0 +1,160 @@
+package benchmark;
+
+import com.google.common.collect.ImmutableList;
+import graphql.execution.ResultPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the paths of a list of objects with a handful of fields each, the way execution does, and compares
+ * {@link ResultPath} with the previous representation that held every segment as a boxed Object.
+ * <p>
+ * Run it with the GC profiler (as {@link #main(String[])} does) and compare the gc.alloc.rate.norm of the pairs of
+ * benchmarks to see the allocation per field.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3)
+@Fork(2)
+public class ResultPathBenchmark {
+
+    private static final String[] FIELDS = {"id", "name", "price", "description", "inStock"};
+
+    @Param({"1000"})
+    int listSize;
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void buildPaths(Blackhole blackhole) {
+        ResultPath listPath = ResultPath.rootPath().segment("shop").segment("products");
+        for (int i = 0; i < listSize; i++) {
+            ResultPath itemPath = listPath.segment(i);
+            for (String field : FIELDS) {
+                ResultPath fieldPath = itemPath.segment(field);
+                blackhole.consume(fieldPath.getLevel());
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void buildPathsBaseline(Blackhole blackhole) {
+        ObjectSegmentPath listPath = ObjectSegmentPath.ROOT.segment("shop").segment("products");
+        for (int i = 0; i < listSize; i++) {
+            ObjectSegmentPath itemPath = listPath.segment(i);
+            for (String field : FIELDS) {
+                ObjectSegmentPath fieldPath = itemPath.segment(field);
+                blackhole.consume(fieldPath.getLevel());
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void materialisePaths(Blackhole blackhole) {
+        ResultPath listPath = ResultPath.rootPath().segment("shop").segment("products");
+        for (int i = 0; i < listSize; i++) {
+            ResultPath fieldPath = listPath.segment(i).segment("name");
+            blackhole.consume(fieldPath.toList());
+            blackhole.consume(fieldPath.toString());
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void materialisePathsBaseline(Blackhole blackhole) {
+        ObjectSegmentPath listPath = ObjectSegmentPath.ROOT.segment("shop").segment("products");
+        for (int i = 0; i < listSize; i++) {
+            ObjectSegmentPath fieldPath = listPath.segment(i).segment("name");
+            blackhole.consume(fieldPath.toList());
+            blackhole.consume(fieldPath.toString());
+        }
+    }
+
+    /**
+     * The previous shape of {@link ResultPath}, kept here as the baseline
+     */
+    static class ObjectSegmentPath {
+        static final ObjectSegmentPath ROOT = new ObjectSegmentPath(null, null);
+
+        final ObjectSegmentPath parent;
+        final Object segment;
+
+        ObjectSegmentPath(ObjectSegmentPath parent, Object segment) {
+            this.parent = parent;
+            this.segment = segment;
+        }
+
+        ObjectSegmentPath segment(String name) {
+            return new ObjectSegmentPath(this, name);
+        }
+
+        ObjectSegmentPath segment(int index) {
+            return new ObjectSegmentPath(this, index);
+        }
+
+        int getLevel() {
+            int counter = 0;
+            ObjectSegmentPath currentPath = this;
+            while (currentPath != null) {
+                if (currentPath.segment instanceof String) {
+                    counter++;
+                }
+                currentPath = currentPath.parent;
+            }
+            return counter;
+        }
+
+        List<Object> toList() {
+            LinkedList<Object> list = new LinkedList<>();
+            ObjectSegmentPath p = this;
+            while (p.segment != null) {
+                list.addFirst(p.segment);
+                p = p.parent;
+            }
+            return ImmutableList.copyOf(list);
+        }
+
+        @Override
+        public String toString() {
+            if (parent == null) {
+                return "";
+            }
+            String segmentString = segment instanceof String ? "/" + segment : "[" + segment + "]";
+            if (parent == ROOT) {
+                return segmentString;
+            }
+            return parent.toString() + segmentString;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include("benchmark.ResultPathBenchmark")
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -47,12 +47,14 @@ public class ValidatorBenchmark {
         Scenario largeSchema1;
         Scenario largeSchema4;
         Scenario manyFragments;
+        Scenario extraLargeSchema1;
 
         @Setup
         public void setup() {
             largeSchema1 = load("large-schema-1.graphqls", "large-schema-1-query.graphql");
             largeSchema4 = load("large-schema-4.graphqls", "large-schema-4-query.graphql");
             manyFragments = load("many-fragments.graphqls", "many-fragments-query.graphql");
+            extraLargeSchema1 = load("extra-large-schema-1.graphqls", "extra-large-schema-1-query.graphql");
         }
 
         private Scenario load(String schemaPath, String queryPath) {
@@ -93,4 +95,25 @@ public class ValidatorBenchmark {
     public void manyFragments(MyState state) {
         run(state.manyFragments);
     }
+
+    @Benchmark
+    public void extraLargeSchema1(MyState state) {
+        run(state.extraLargeSchema1);
+    }
+
+    // throughput on the large documents, which is what a server validating many distinct operations cares about
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void manyFragmentsThroughput(MyState state) {
+        run(state.manyFragments);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void extraLargeSchema1Throughput(MyState state) {
+        run(state.extraLargeSchema1);
+    }
 }